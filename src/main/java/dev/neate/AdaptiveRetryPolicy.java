@@ -0,0 +1,150 @@
+package dev.neate;
+
+import java.time.Duration;
+
+/**
+ * Retry interval and chunk size of the scheduled retry, adapted after every cycle.
+ *
+ * After a cycle the policy looks at the share of resubmitted publications
+ * that did not fail again and at the backlog left:
+ * - Most succeeded (at least 90%) and a backlog is left: the outage that
+ *   caused it has cleared, so the interval is halved and the chunk size
+ *   doubled to drain it quickly
+ * - Most succeeded and nothing is left: back to the configured interval
+ *   and chunk size
+ * - Most failed (more than half): the downstream system is still down, so
+ *   the interval is doubled and the chunk size halved to stop wasting calls
+ * - Otherwise, or if nothing was due: unchanged
+ *
+ * Interval and chunk size always stay within their bounds. Not thread-safe;
+ * updated by the scheduled retry only.
+ *
+ * Used by ScheduledEventRetryService.
+ */
+class AdaptiveRetryPolicy {
+
+    static final double HEALTHY_SUCCESS_RATE = 0.9;
+    static final double FAILING_SUCCESS_RATE = 0.5;
+
+    private final Duration baseInterval;
+    private final Duration minInterval;
+    private final Duration maxInterval;
+    private final int baseChunkSize;
+    private final int minChunkSize;
+    private final int maxChunkSize;
+
+    private Duration interval;
+    private int chunkSize;
+    private double successRate = 1.0;
+
+    /**
+     * Creates a policy starting at the base interval and chunk size.
+     *
+     * @param baseInterval the configured interval, used while there is nothing to catch up on
+     * @param minInterval the shortest interval
+     * @param maxInterval the longest interval
+     * @param baseChunkSize the configured chunk size
+     * @param minChunkSize the smallest chunk size
+     * @param maxChunkSize the largest chunk size
+     */
+    AdaptiveRetryPolicy(Duration baseInterval, Duration minInterval, Duration maxInterval,
+            int baseChunkSize, int minChunkSize, int maxChunkSize) {
+        if (minInterval.isNegative() || minInterval.isZero() || minInterval.compareTo(maxInterval) > 0) {
+            throw new IllegalArgumentException("Retry interval bounds must be positive and min <= max");
+        }
+        if (minChunkSize < 1 || minChunkSize > maxChunkSize) {
+            throw new IllegalArgumentException("Chunk size bounds must be at least 1 and min <= max");
+        }
+        this.minInterval = minInterval;
+        this.maxInterval = maxInterval;
+        this.minChunkSize = minChunkSize;
+        this.maxChunkSize = maxChunkSize;
+        this.baseInterval = clamp(baseInterval);
+        this.baseChunkSize = clamp(baseChunkSize);
+        this.interval = this.baseInterval;
+        this.chunkSize = this.baseChunkSize;
+    }
+
+    /**
+     * Adapts interval and chunk size to the outcome of a cycle.
+     *
+     * @param resubmitted the number of publications resubmitted in the cycle
+     * @param failed the number of those that failed again or did not complete in time
+     * @param backlog the number of incomplete publications left after the cycle
+     */
+    void update(long resubmitted, long failed, long backlog) {
+        if (resubmitted == 0) {
+            if (backlog == 0) {
+                interval = baseInterval;
+                chunkSize = baseChunkSize;
+            }
+            // Otherwise everything left is waiting for its backoff, nothing learned
+            return;
+        }
+
+        successRate = (double) Math.max(0, resubmitted - failed) / resubmitted;
+        if (successRate >= HEALTHY_SUCCESS_RATE) {
+            if (backlog > 0) {
+                interval = clamp(interval.dividedBy(2));
+                chunkSize = clamp((long) chunkSize * 2);
+            } else {
+                interval = baseInterval;
+                chunkSize = baseChunkSize;
+            }
+        } else if (successRate < FAILING_SUCCESS_RATE) {
+            interval = clamp(interval.multipliedBy(2));
+            chunkSize = clamp(chunkSize / 2);
+        }
+    }
+
+    /**
+     * Takes over the state adapted by another instance.
+     *
+     * @param interval the interval, clamped to the bounds
+     * @param chunkSize the chunk size, clamped to the bounds
+     * @param successRate the success rate of the last cycle that resubmitted
+     */
+    void restore(Duration interval, int chunkSize, double successRate) {
+        this.interval = clamp(interval);
+        this.chunkSize = clamp(chunkSize);
+        this.successRate = successRate;
+    }
+
+    /**
+     * Returns the time to wait between the end of a cycle and the start of the next one.
+     *
+     * @return the current interval
+     */
+    Duration interval() {
+        return interval;
+    }
+
+    /**
+     * Returns the number of publications per chunk of the next cycle.
+     *
+     * @return the current chunk size
+     */
+    int chunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Returns the share of resubmitted publications that did not fail again in the last cycle with any.
+     *
+     * @return the success rate between 0 and 1, 1 before the first cycle
+     */
+    double successRate() {
+        return successRate;
+    }
+
+    private Duration clamp(Duration value) {
+        if (value.compareTo(minInterval) < 0) {
+            return minInterval;
+        }
+        return value.compareTo(maxInterval) > 0 ? maxInterval : value;
+    }
+
+    private int clamp(long value) {
+        return (int) Math.max(minChunkSize, Math.min(maxChunkSize, value));
+    }
+}
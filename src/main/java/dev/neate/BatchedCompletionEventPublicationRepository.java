@@ -0,0 +1,146 @@
+package dev.neate;
+
+import org.springframework.modulith.events.EventPublication;
+import org.springframework.modulith.events.core.EventPublicationRepository;
+import org.springframework.modulith.events.core.PublicationTargetIdentifier;
+import org.springframework.modulith.events.core.TargetEventPublication;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * EventPublicationRepository decorator that hands completions to EventPublicationCompletionBatcher.
+ *
+ * Completions by publication or ID are queued for the batcher's next bulk
+ * write instead of being written one by one. While the batcher is not
+ * running, e.g. during shutdown, they are written directly. Completions by
+ * event, which the registry only issues for publications it is not
+ * tracking, are written directly as well.
+ *
+ * Publications whose completion is queued are left out of the incomplete
+ * publication lookups, so the retry does not resubmit them in the few
+ * milliseconds before the flush.
+ *
+ * Registered around the registry's repository by EventPublicationConfiguration,
+ * inside TieredEventPublicationRepository.
+ */
+class BatchedCompletionEventPublicationRepository implements EventPublicationRepositoryDecorator {
+
+    private final EventPublicationRepository delegate;
+    private final EventPublicationCompletionBatcher batcher;
+
+    /**
+     * Decorates a repository.
+     *
+     * @param delegate the repository of the registry
+     * @param batcher the batcher writing the completions
+     */
+    BatchedCompletionEventPublicationRepository(EventPublicationRepository delegate,
+            EventPublicationCompletionBatcher batcher) {
+        this.delegate = delegate;
+        this.batcher = batcher;
+    }
+
+    @Override
+    public TargetEventPublication create(TargetEventPublication publication) {
+        return delegate.create(publication);
+    }
+
+    @Override
+    public void markProcessing(UUID identifier) {
+        delegate.markProcessing(identifier);
+    }
+
+    @Override
+    public void markCompleted(TargetEventPublication publication, Instant completionDate) {
+        if (batcher.submit(publication.getIdentifier(), publication.getTargetIdentifier().getValue(),
+                completionDate)) {
+            // As the decorated repository would, for the registry's in-progress tracking
+            publication.markCompleted(completionDate);
+        } else {
+            delegate.markCompleted(publication, completionDate);
+        }
+    }
+
+    @Override
+    public void markCompleted(Object event, PublicationTargetIdentifier identifier, Instant completionDate) {
+        delegate.markCompleted(event, identifier, completionDate);
+    }
+
+    @Override
+    public void markCompleted(UUID identifier, Instant completionDate) {
+        if (!batcher.submit(identifier, completionDate)) {
+            delegate.markCompleted(identifier, completionDate);
+        }
+    }
+
+    @Override
+    public void markFailed(UUID identifier) {
+        delegate.markFailed(identifier);
+    }
+
+    @Override
+    public boolean markResubmitted(UUID identifier, Instant resubmissionDate) {
+        return delegate.markResubmitted(identifier, resubmissionDate);
+    }
+
+    @Override
+    public List<TargetEventPublication> findIncompletePublications() {
+        return withoutPending(delegate.findIncompletePublications());
+    }
+
+    @Override
+    public List<TargetEventPublication> findIncompletePublicationsPublishedBefore(Instant instant) {
+        return withoutPending(delegate.findIncompletePublicationsPublishedBefore(instant));
+    }
+
+    @Override
+    public Optional<TargetEventPublication> findIncompletePublicationsByEventAndTargetIdentifier(Object event,
+            PublicationTargetIdentifier targetIdentifier) {
+        return delegate.findIncompletePublicationsByEventAndTargetIdentifier(event, targetIdentifier)
+            .filter(publication -> !batcher.isPending(publication.getIdentifier()));
+    }
+
+    @Override
+    public List<TargetEventPublication> findCompletedPublications() {
+        return delegate.findCompletedPublications();
+    }
+
+    @Override
+    public List<TargetEventPublication> findFailedPublications(FailedCriteria criteria) {
+        return delegate.findFailedPublications(criteria);
+    }
+
+    @Override
+    public List<TargetEventPublication> findByStatus(EventPublication.Status status) {
+        return delegate.findByStatus(status);
+    }
+
+    @Override
+    public int countByStatus(EventPublication.Status status) {
+        return delegate.countByStatus(status);
+    }
+
+    @Override
+    public void deletePublications(List<UUID> identifiers) {
+        delegate.deletePublications(identifiers);
+    }
+
+    @Override
+    public void deleteCompletedPublications() {
+        delegate.deleteCompletedPublications();
+    }
+
+    @Override
+    public void deleteCompletedPublicationsBefore(Instant instant) {
+        delegate.deleteCompletedPublicationsBefore(instant);
+    }
+
+    private List<TargetEventPublication> withoutPending(List<TargetEventPublication> publications) {
+        return publications.stream()
+            .filter(publication -> !batcher.isPending(publication.getIdentifier()))
+            .toList();
+    }
+}
@@ -0,0 +1,153 @@
+package dev.neate;
+
+import org.springframework.modulith.events.EventPublication;
+import org.springframework.modulith.events.core.EventPublicationRepository;
+import org.springframework.modulith.events.core.PublicationTargetIdentifier;
+import org.springframework.modulith.events.core.TargetEventPublication;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * EventPublicationRepository decorator that narrows resubmission to one chunk.
+ *
+ * Spring Modulith resubmits incomplete publications by loading all of them
+ * from the repository and handing each one to its listener. Inside
+ * withChunk() the two incomplete-publication lookups of this repository
+ * return the given chunk instead of the whole backlog, so the registry's
+ * own resubmission (markResubmitted, in-progress tracking, listener lookup,
+ * markFailed for unknown listeners) runs for that chunk only. The scope is
+ * bound to the calling thread; all other calls, and calls from other
+ * threads, go to the decorated repository unchanged.
+ *
+ * Registered around the registry's repository by EventPublicationConfiguration.
+ * Used by ChunkedEventResubmitter.
+ */
+class ChunkScopedEventPublicationRepository implements EventPublicationRepositoryDecorator {
+
+    private static final ThreadLocal<List<TargetEventPublication>> CHUNK = new ThreadLocal<>();
+
+    private final EventPublicationRepository delegate;
+
+    /**
+     * Decorates a repository.
+     *
+     * @param delegate the repository of the registry
+     */
+    ChunkScopedEventPublicationRepository(EventPublicationRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Runs an action that sees only the given publications as incomplete.
+     *
+     * @param chunk the publications to resubmit
+     * @param action the resubmission, e.g. IncompleteEventPublications.resubmitIncompletePublications()
+     * @param <T> the result type
+     * @return the result of the action
+     */
+    static <T> T withChunk(List<TargetEventPublication> chunk, Supplier<T> action) {
+        CHUNK.set(List.copyOf(chunk));
+        try {
+            return action.get();
+        } finally {
+            CHUNK.remove();
+        }
+    }
+
+    @Override
+    public List<TargetEventPublication> findIncompletePublications() {
+        List<TargetEventPublication> chunk = CHUNK.get();
+        return chunk != null ? chunk : delegate.findIncompletePublications();
+    }
+
+    @Override
+    public List<TargetEventPublication> findIncompletePublicationsPublishedBefore(Instant instant) {
+        List<TargetEventPublication> chunk = CHUNK.get();
+        if (chunk == null) {
+            return delegate.findIncompletePublicationsPublishedBefore(instant);
+        }
+        return chunk.stream()
+            .filter(publication -> publication.getPublicationDate().isBefore(instant))
+            .toList();
+    }
+
+    @Override
+    public TargetEventPublication create(TargetEventPublication publication) {
+        return delegate.create(publication);
+    }
+
+    @Override
+    public void markProcessing(UUID identifier) {
+        delegate.markProcessing(identifier);
+    }
+
+    @Override
+    public void markCompleted(TargetEventPublication publication, Instant completionDate) {
+        delegate.markCompleted(publication, completionDate);
+    }
+
+    @Override
+    public void markCompleted(Object event, PublicationTargetIdentifier identifier, Instant completionDate) {
+        delegate.markCompleted(event, identifier, completionDate);
+    }
+
+    @Override
+    public void markCompleted(UUID identifier, Instant completionDate) {
+        delegate.markCompleted(identifier, completionDate);
+    }
+
+    @Override
+    public void markFailed(UUID identifier) {
+        delegate.markFailed(identifier);
+    }
+
+    @Override
+    public boolean markResubmitted(UUID identifier, Instant resubmissionDate) {
+        return delegate.markResubmitted(identifier, resubmissionDate);
+    }
+
+    @Override
+    public Optional<TargetEventPublication> findIncompletePublicationsByEventAndTargetIdentifier(Object event,
+            PublicationTargetIdentifier targetIdentifier) {
+        return delegate.findIncompletePublicationsByEventAndTargetIdentifier(event, targetIdentifier);
+    }
+
+    @Override
+    public List<TargetEventPublication> findCompletedPublications() {
+        return delegate.findCompletedPublications();
+    }
+
+    @Override
+    public List<TargetEventPublication> findFailedPublications(FailedCriteria criteria) {
+        return delegate.findFailedPublications(criteria);
+    }
+
+    @Override
+    public List<TargetEventPublication> findByStatus(EventPublication.Status status) {
+        return delegate.findByStatus(status);
+    }
+
+    @Override
+    public int countByStatus(EventPublication.Status status) {
+        return delegate.countByStatus(status);
+    }
+
+    @Override
+    public void deletePublications(List<UUID> identifiers) {
+        delegate.deletePublications(identifiers);
+    }
+
+    @Override
+    public void deleteCompletedPublications() {
+        delegate.deleteCompletedPublications();
+    }
+
+    @Override
+    public void deleteCompletedPublicationsBefore(Instant instant) {
+        delegate.deleteCompletedPublicationsBefore(instant);
+    }
+}
@@ -0,0 +1,413 @@
+package dev.neate;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.modulith.events.EventPublication;
+import org.springframework.modulith.events.IncompleteEventPublications;
+import org.springframework.modulith.events.core.EventSerializer;
+import org.springframework.modulith.events.core.TargetEventPublication;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+
+/**
+ * Resubmits incomplete event publications in bounded chunks.
+ *
+ * IncompleteEventPublications.resubmitIncompletePublicationsOlderThan() loads
+ * the whole backlog and hands every publication to its listener at once.
+ * After an outage that can be hundreds of thousands of publications. This
+ * component walks the backlog instead:
+ * - Keyset pagination over event_publication in (publicationDate, _id)
+ *   order, reading at most chunk-size publications per query
+ * - Publications waiting for their backoff (nextAttemptDate in the future,
+ *   see EventPublicationBackoff) are skipped
+ * - Each chunk is resubmitted through the registry, limited to that chunk
+ *   by ChunkScopedEventPublicationRepository
+ * - The next chunk is only read once the current one has drained: every
+ *   publication of it completed or failed again, or drain-timeout passed
+ * - Publications of a chunk that are still incomplete once it has drained
+ *   are counted as failed in the result
+ * - After every drained chunk the position is checkpointed in the
+ *   event_resubmission collection, so a cycle interrupted by a crash or a
+ *   lost lease resumes after the last drained chunk, on any instance
+ *
+ * With registry collections per module (see EventPublicationCollections)
+ * the collections are walked one after the other, event_publication first,
+ * each with its own checkpoint.
+ *
+ * A cycle covers the publications published before its start minus the
+ * minimum age. Publications created while it runs are left to the next one.
+ * Only one run at a time per instance: a run started while another one is
+ * in progress (scheduled retry and warm-up republishing) returns at once.
+ *
+ * Configuration:
+ * - Enabled via spring.modulith.events.resubmission.chunked (default true)
+ * - spring.modulith.events.resubmission.chunk-size (default 500)
+ * - spring.modulith.events.resubmission.drain-timeout (default 2 minutes)
+ * - spring.modulith.events.resubmission.drain-poll-interval (default 500 ms)
+ */
+@Component
+@Profile("!in-memory & !journal")
+@ConditionalOnProperty(name = "spring.modulith.events.resubmission.chunked", havingValue = "true", matchIfMissing = true)
+public class ChunkedEventResubmitter {
+
+    private static final Logger log = LoggerFactory.getLogger(ChunkedEventResubmitter.class);
+
+    static final String CHECKPOINTS_COLLECTION = "event_resubmission";
+    static final String CHECKPOINT_ID = "incomplete-publications";
+    static final String RETRY_POLICY_ID = "retry-policy";
+
+    private static final Bson INCOMPLETE = Filters.eq("completionDate", null);
+
+    private final MongoOperations mongoOperations;
+    private final EventPublicationCollections collections;
+    private final IncompleteEventPublications incompleteEventPublications;
+    private final EventPublicationDocumentMapper mapper;
+    private final int chunkSize;
+    private final Duration drainTimeout;
+    private final Duration drainPollInterval;
+    private final ReentrantLock running = new ReentrantLock();
+
+    public ChunkedEventResubmitter(MongoOperations mongoOperations, EventPublicationCollections collections,
+            IncompleteEventPublications incompleteEventPublications,
+            ObjectProvider<EventSerializer> eventSerializer,
+            ObjectProvider<CompactEventSerializer> compactSerializer,
+            @Value("${spring.modulith.events.resubmission.chunk-size:500}") int chunkSize,
+            @Value("${spring.modulith.events.resubmission.drain-timeout:2m}") Duration drainTimeout,
+            @Value("${spring.modulith.events.resubmission.drain-poll-interval:500ms}") Duration drainPollInterval) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Resubmission chunk size must be at least 1");
+        }
+        this.mongoOperations = mongoOperations;
+        this.collections = collections;
+        this.incompleteEventPublications = incompleteEventPublications;
+        this.mapper = new EventPublicationDocumentMapper(mongoOperations.getConverter(),
+            eventSerializer.getIfAvailable(), compactSerializer.getIfAvailable());
+        this.chunkSize = chunkSize;
+        this.drainTimeout = drainTimeout;
+        this.drainPollInterval = drainPollInterval;
+    }
+
+    /**
+     * Resubmits the incomplete publications older than the minimum age, chunk by chunk.
+     *
+     * Resumes an interrupted cycle if there is one.
+     *
+     * @param minAge the minimum age of a publication to be resubmitted
+     * @param beforeChunk called before every chunk; returning false stops the cycle at the checkpoint
+     * @return the outcome of this run
+     */
+    public ResubmissionResult resubmit(Duration minAge, BooleanSupplier beforeChunk) {
+        return resubmit(minAge, chunkSize, beforeChunk, size -> { });
+    }
+
+    /**
+     * Resubmits the incomplete publications older than the minimum age, in chunks of the given size.
+     *
+     * Resumes an interrupted cycle if there is one.
+     *
+     * @param minAge the minimum age of a publication to be resubmitted
+     * @param chunkSize the maximum number of publications per chunk
+     * @param beforeChunk called before every chunk; returning false stops the cycle at the checkpoint
+     * @param afterChunk called with the number of publications of every resubmitted chunk
+     * @return the outcome of this run
+     */
+    public ResubmissionResult resubmit(Duration minAge, int chunkSize, BooleanSupplier beforeChunk,
+            IntConsumer afterChunk) {
+        if (!running.tryLock()) {
+            log.debug("Resubmission of incomplete publications is already running");
+            return new ResubmissionResult(0, 0, 0, 0, false, null);
+        }
+        try {
+            return resubmitChunks(minAge, chunkSize, beforeChunk, afterChunk);
+        } finally {
+            running.unlock();
+        }
+    }
+
+    /**
+     * Counts the incomplete publications published before a date that are due for resubmission.
+     *
+     * Publications waiting for their backoff (see EventPublicationBackoff)
+     * are not counted, as a resubmission would skip them as well.
+     *
+     * @param before the publication date limit
+     * @return the number of incomplete publications
+     */
+    public long countIncomplete(Instant before) {
+        Bson due = Filters.and(INCOMPLETE, Filters.lt("publicationDate", before),
+            EventPublicationBackoff.due(Instant.now()));
+        return collections.all().stream()
+            .mapToLong(collection -> mongoOperations.getCollection(collection).countDocuments(due))
+            .sum();
+    }
+
+    /**
+     * Returns the retry policy last stored by any instance.
+     *
+     * @return the stored policy, empty if none has been stored yet
+     */
+    public Optional<RetryPolicyState> loadRetryPolicy() {
+        Document state = mongoOperations.getCollection(CHECKPOINTS_COLLECTION)
+            .find(Filters.eq("_id", RETRY_POLICY_ID)).first();
+        if (state == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new RetryPolicyState(
+            Duration.ofMillis(state.get("intervalMillis", Number.class).longValue()),
+            state.get("chunkSize", Number.class).intValue(),
+            state.get("successRate", Number.class).doubleValue(),
+            state.getDate("nextCycle").toInstant()));
+    }
+
+    /**
+     * Stores the retry policy next to the resubmission checkpoints, shared by all instances.
+     *
+     * @param state the policy after the last cycle
+     */
+    public void saveRetryPolicy(RetryPolicyState state) {
+        mongoOperations.getCollection(CHECKPOINTS_COLLECTION).updateOne(
+            Filters.eq("_id", RETRY_POLICY_ID),
+            Updates.combine(
+                Updates.set("intervalMillis", state.interval().toMillis()),
+                Updates.set("chunkSize", state.chunkSize()),
+                Updates.set("successRate", state.successRate()),
+                Updates.set("nextCycle", state.nextCycle()),
+                Updates.set("updatedAt", Instant.now())),
+            new UpdateOptions().upsert(true));
+    }
+
+    private ResubmissionResult resubmitChunks(Duration minAge, int chunkSize, BooleanSupplier beforeChunk,
+            IntConsumer afterChunk) {
+        long resubmitted = 0;
+        long failed = 0;
+        long skipped = 0;
+        int chunks = 0;
+        Instant cutoff = null;
+        for (String collection : collections.all()) {
+            ResubmissionResult result = resubmitChunks(collection, minAge, chunkSize, beforeChunk, afterChunk);
+            resubmitted += result.resubmitted();
+            failed += result.failed();
+            skipped += result.skipped();
+            chunks += result.chunks();
+            cutoff = cutoff != null ? cutoff : result.cutoff();
+            if (!result.completed()) {
+                return new ResubmissionResult(resubmitted, failed, skipped, chunks, false, cutoff);
+            }
+        }
+        return new ResubmissionResult(resubmitted, failed, skipped, chunks, true, cutoff);
+    }
+
+    private ResubmissionResult resubmitChunks(String collection, Duration minAge, int chunkSize,
+            BooleanSupplier beforeChunk, IntConsumer afterChunk) {
+        String checkpointId = checkpointId(collection);
+        Document checkpoint = mongoOperations.getCollection(CHECKPOINTS_COLLECTION)
+            .find(Filters.eq("_id", checkpointId)).first();
+
+        Instant cutoff;
+        Instant lastPublicationDate = null;
+        Object lastId = null;
+        if (checkpoint != null && !checkpoint.getBoolean("completed", false)) {
+            cutoff = checkpoint.getDate("cutoff").toInstant();
+            Date lastDate = checkpoint.getDate("lastPublicationDate");
+            lastPublicationDate = lastDate != null ? lastDate.toInstant() : null;
+            lastId = checkpoint.get("lastId");
+            log.info("Resuming resubmission of incomplete publications in {} published before {} after {}",
+                collection, cutoff, lastId);
+        } else {
+            cutoff = Instant.now().minus(minAge);
+            saveCheckpoint(checkpointId, cutoff, null, null, false);
+        }
+
+        long resubmitted = 0;
+        long failed = 0;
+        long skipped = 0;
+        int chunks = 0;
+        while (true) {
+            if (!beforeChunk.getAsBoolean()) {
+                log.info("Resubmission stopped after {} chunks, the next run resumes at the checkpoint", chunks);
+                return new ResubmissionResult(resubmitted, failed, skipped, chunks, false, cutoff);
+            }
+
+            List<Document> documents = mongoOperations.getCollection(collection)
+                .find(Filters.and(INCOMPLETE, Filters.lt("publicationDate", cutoff),
+                    after(lastPublicationDate, lastId), EventPublicationBackoff.due(Instant.now())))
+                .sort(Sorts.ascending("publicationDate", "_id"))
+                .limit(chunkSize)
+                .into(new ArrayList<>());
+            if (documents.isEmpty()) {
+                break;
+            }
+
+            List<TargetEventPublication> chunk = documents.stream()
+                .map(document -> mapper.toPublication(document, collection))
+                .flatMap(Optional::stream)
+                .toList();
+            ChunkScopedEventPublicationRepository.withChunk(chunk, () -> {
+                incompleteEventPublications.resubmitIncompletePublications(publication -> true);
+                return null;
+            });
+            // Publications whose event cannot be read are not resubmitted, so they are not waited for
+            failed += awaitDrained(collection,
+                chunk.stream().<Object>map(TargetEventPublication::getIdentifier).toList());
+            skipped += documents.size() - chunk.size();
+
+            Document last = documents.get(documents.size() - 1);
+            lastPublicationDate = last.getDate("publicationDate").toInstant();
+            lastId = last.get("_id");
+            saveCheckpoint(checkpointId, cutoff, lastPublicationDate, lastId, false);
+
+            resubmitted += chunk.size();
+            chunks++;
+            afterChunk.accept(chunk.size());
+            log.debug("Resubmitted chunk {} of {} publications of {}", chunks, chunk.size(), collection);
+        }
+
+        saveCheckpoint(checkpointId, cutoff, lastPublicationDate, lastId, true);
+        if (resubmitted > 0) {
+            log.info("Resubmitted {} incomplete publications of {} in {} chunks", resubmitted, collection, chunks);
+        }
+        if (skipped > 0) {
+            log.warn("Skipped {} incomplete publications of {} whose event cannot be read", skipped, collection);
+        }
+        return new ResubmissionResult(resubmitted, failed, skipped, chunks, true, cutoff);
+    }
+
+    /**
+     * Resubmits the given publications at once, in chunks, without checkpoint or drain wait.
+     *
+     * Used to redrive dead letters. Publications that are no longer
+     * incomplete are skipped.
+     *
+     * @param ids the identifiers of the publications
+     * @return the number of publications resubmitted
+     */
+    public int resubmitNow(List<UUID> ids) {
+        int resubmitted = 0;
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            Bson filter = Filters.and(Filters.in("_id", ids.subList(from, Math.min(from + chunkSize, ids.size()))),
+                INCOMPLETE);
+            List<TargetEventPublication> chunk = new ArrayList<>();
+            for (String collection : collections.all()) {
+                for (Document document : mongoOperations.getCollection(collection).find(filter)) {
+                    mapper.toPublication(document, collection).ifPresent(chunk::add);
+                }
+            }
+            ChunkScopedEventPublicationRepository.withChunk(chunk, () -> {
+                incompleteEventPublications.resubmitIncompletePublications(publication -> true);
+                return null;
+            });
+            resubmitted += chunk.size();
+        }
+        return resubmitted;
+    }
+
+    private static Bson after(Instant publicationDate, Object id) {
+        if (publicationDate == null) {
+            return new Document();
+        }
+        return Filters.or(
+            Filters.gt("publicationDate", publicationDate),
+            Filters.and(Filters.eq("publicationDate", publicationDate), Filters.gt("_id", id)));
+    }
+
+    /**
+     * Waits until none of the publications is still incomplete and not failed.
+     *
+     * @return the number of publications still incomplete afterwards
+     */
+    private long awaitDrained(String collection, List<Object> ids) {
+        Bson incomplete = Filters.and(Filters.in("_id", ids), INCOMPLETE);
+        Bson pending = Filters.and(incomplete, Filters.ne("status", EventPublication.Status.FAILED.name()));
+        long deadline = System.nanoTime() + drainTimeout.toNanos();
+
+        while (true) {
+            long remaining = mongoOperations.getCollection(collection)
+                .countDocuments(pending);
+            if (remaining == 0) {
+                // Completed entries may have been deleted or archived, so count what is left
+                return mongoOperations.getCollection(collection)
+                    .countDocuments(incomplete);
+            }
+            if (System.nanoTime() >= deadline) {
+                log.warn("{} of {} resubmitted publications did not drain within {}, continuing with the next chunk",
+                    remaining, ids.size(), drainTimeout);
+                return mongoOperations.getCollection(collection)
+                    .countDocuments(incomplete);
+            }
+            try {
+                Thread.sleep(drainPollInterval.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Resubmission interrupted", e);
+            }
+        }
+    }
+
+    /**
+     * Returns the checkpoint of a registry collection, CHECKPOINT_ID for event_publication.
+     */
+    private static String checkpointId(String collection) {
+        return EventPublicationArchiver.PUBLICATIONS_COLLECTION.equals(collection)
+            ? CHECKPOINT_ID
+            : CHECKPOINT_ID + ":" + collection;
+    }
+
+    private void saveCheckpoint(String checkpointId, Instant cutoff, Instant lastPublicationDate, Object lastId,
+            boolean completed) {
+        mongoOperations.getCollection(CHECKPOINTS_COLLECTION).updateOne(
+            Filters.eq("_id", checkpointId),
+            Updates.combine(
+                Updates.set("cutoff", cutoff),
+                Updates.set("lastPublicationDate", lastPublicationDate),
+                Updates.set("lastId", lastId),
+                Updates.set("completed", completed),
+                Updates.set("updatedAt", Instant.now())),
+            new UpdateOptions().upsert(true));
+    }
+
+    /**
+     * Outcome of a resubmission run.
+     *
+     * @param resubmitted number of publications resubmitted in this run
+     * @param failed number of those still incomplete after their chunk drained
+     * @param skipped number of publications read but not resubmitted because their event cannot be read
+     * @param chunks number of chunks resubmitted in this run
+     * @param completed whether the cycle reached the end of the backlog
+     * @param cutoff the publication date limit of the cycle, null if another run was in progress
+     */
+    public record ResubmissionResult(long resubmitted, long failed, long skipped, int chunks, boolean completed,
+            Instant cutoff) {
+    }
+
+    /**
+     * Retry interval and chunk size of the scheduled retry, shared by all instances.
+     *
+     * @param interval the interval between two cycles
+     * @param chunkSize the number of publications per chunk
+     * @param successRate the success rate of the last cycle that resubmitted
+     * @param nextCycle the earliest start of the next cycle
+     */
+    public record RetryPolicyState(Duration interval, int chunkSize, double successRate, Instant nextCycle) {
+    }
+}
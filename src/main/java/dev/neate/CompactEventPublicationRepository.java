@@ -0,0 +1,243 @@
+package dev.neate;
+
+import org.springframework.modulith.events.EventPublication;
+import org.springframework.modulith.events.core.EventPublicationRepository;
+import org.springframework.modulith.events.core.PublicationTargetIdentifier;
+import org.springframework.modulith.events.core.TargetEventPublication;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * EventPublicationRepository decorator that stores events compactly.
+ *
+ * Events of types registered with CompactEventSerializer are handed to the
+ * decorated MongoDB repository as their 17-byte encoding, which it stores
+ * as BSON binary instead of a mapped sub-document. Lookups by event are
+ * encoded the same way, so they match the stored binary. Publications read
+ * back carry the decoded event; entries stored before (mapped documents)
+ * are decoded by the MongoDB repository as always and passed through.
+ *
+ * Migration: with compact writes disabled, events are stored mapped again
+ * but compact entries are still read. While both forms may be incomplete in
+ * the registry, legacy lookups repeat a lookup or completion by event that
+ * found nothing in the written form with the other form.
+ *
+ * Only used with the MongoDB registry: the in-memory repository compares
+ * events with equals(), which byte arrays do not support.
+ *
+ * Registered around the registry's repository by EventPublicationConfiguration,
+ * inside ChunkScopedEventPublicationRepository.
+ */
+class CompactEventPublicationRepository implements EventPublicationRepositoryDecorator {
+
+    private final EventPublicationRepository delegate;
+    private final CompactEventSerializer serializer;
+    private final boolean compactWrites;
+    private final boolean legacyLookups;
+
+    /**
+     * Decorates a repository.
+     *
+     * @param delegate the MongoDB repository of the registry
+     * @param serializer the compact encoding
+     * @param compactWrites whether new publications are stored compactly
+     * @param legacyLookups whether lookups by event also try the form not written
+     */
+    CompactEventPublicationRepository(EventPublicationRepository delegate, CompactEventSerializer serializer,
+            boolean compactWrites, boolean legacyLookups) {
+        this.delegate = delegate;
+        this.serializer = serializer;
+        this.compactWrites = compactWrites;
+        this.legacyLookups = legacyLookups;
+    }
+
+    @Override
+    public TargetEventPublication create(TargetEventPublication publication) {
+        if (compactWrites && serializer.supports(publication.getEvent())) {
+            delegate.create(new RecodedPublication(publication, serializer.serialize(publication.getEvent())));
+        } else {
+            delegate.create(publication);
+        }
+        return publication;
+    }
+
+    @Override
+    public void markProcessing(UUID identifier) {
+        delegate.markProcessing(identifier);
+    }
+
+    @Override
+    public void markCompleted(TargetEventPublication publication, Instant completionDate) {
+        delegate.markCompleted(unwrap(publication), completionDate);
+    }
+
+    @Override
+    public void markCompleted(Object event, PublicationTargetIdentifier identifier, Instant completionDate) {
+        delegate.markCompleted(written(event), identifier, completionDate);
+        if (hasOtherForm(event)) {
+            // No result to tell whether the first update matched, and a second one matching nothing is harmless
+            delegate.markCompleted(other(event), identifier, completionDate);
+        }
+    }
+
+    @Override
+    public void markCompleted(UUID identifier, Instant completionDate) {
+        delegate.markCompleted(identifier, completionDate);
+    }
+
+    @Override
+    public void markFailed(UUID identifier) {
+        delegate.markFailed(identifier);
+    }
+
+    @Override
+    public boolean markResubmitted(UUID identifier, Instant resubmissionDate) {
+        return delegate.markResubmitted(identifier, resubmissionDate);
+    }
+
+    @Override
+    public List<TargetEventPublication> findIncompletePublications() {
+        return decode(delegate.findIncompletePublications());
+    }
+
+    @Override
+    public List<TargetEventPublication> findIncompletePublicationsPublishedBefore(Instant instant) {
+        return decode(delegate.findIncompletePublicationsPublishedBefore(instant));
+    }
+
+    @Override
+    public Optional<TargetEventPublication> findIncompletePublicationsByEventAndTargetIdentifier(Object event,
+            PublicationTargetIdentifier targetIdentifier) {
+        Optional<TargetEventPublication> publication =
+            delegate.findIncompletePublicationsByEventAndTargetIdentifier(written(event), targetIdentifier);
+        if (publication.isEmpty() && hasOtherForm(event)) {
+            publication = delegate.findIncompletePublicationsByEventAndTargetIdentifier(other(event), targetIdentifier);
+        }
+        return publication.map(this::decode);
+    }
+
+    @Override
+    public List<TargetEventPublication> findCompletedPublications() {
+        return decode(delegate.findCompletedPublications());
+    }
+
+    @Override
+    public List<TargetEventPublication> findFailedPublications(FailedCriteria criteria) {
+        return decode(delegate.findFailedPublications(criteria));
+    }
+
+    @Override
+    public List<TargetEventPublication> findByStatus(EventPublication.Status status) {
+        return decode(delegate.findByStatus(status));
+    }
+
+    @Override
+    public int countByStatus(EventPublication.Status status) {
+        return delegate.countByStatus(status);
+    }
+
+    @Override
+    public void deletePublications(List<UUID> identifiers) {
+        delegate.deletePublications(identifiers);
+    }
+
+    @Override
+    public void deleteCompletedPublications() {
+        delegate.deleteCompletedPublications();
+    }
+
+    @Override
+    public void deleteCompletedPublicationsBefore(Instant instant) {
+        delegate.deleteCompletedPublicationsBefore(instant);
+    }
+
+    /**
+     * Returns the event in the form new publications are stored in.
+     */
+    private Object written(Object event) {
+        return compactWrites && serializer.supports(event) ? serializer.serialize(event) : event;
+    }
+
+    private Object other(Object event) {
+        return compactWrites ? event : serializer.serialize(event);
+    }
+
+    private boolean hasOtherForm(Object event) {
+        return legacyLookups && serializer.supports(event);
+    }
+
+    private List<TargetEventPublication> decode(List<TargetEventPublication> publications) {
+        return publications.stream().map(this::decode).toList();
+    }
+
+    private TargetEventPublication decode(TargetEventPublication publication) {
+        Object event = serializer.decode(publication.getEvent());
+        return event == publication.getEvent() ? publication : new RecodedPublication(publication, event);
+    }
+
+    private static TargetEventPublication unwrap(TargetEventPublication publication) {
+        return publication instanceof RecodedPublication recoded ? recoded.delegate : publication;
+    }
+
+    /**
+     * Publication seen with its event in the other representation.
+     */
+    private static final class RecodedPublication implements TargetEventPublication {
+
+        private final TargetEventPublication delegate;
+        private final Object event;
+
+        RecodedPublication(TargetEventPublication delegate, Object event) {
+            this.delegate = delegate;
+            this.event = event;
+        }
+
+        @Override
+        public UUID getIdentifier() {
+            return delegate.getIdentifier();
+        }
+
+        @Override
+        public Object getEvent() {
+            return event;
+        }
+
+        @Override
+        public PublicationTargetIdentifier getTargetIdentifier() {
+            return delegate.getTargetIdentifier();
+        }
+
+        @Override
+        public Instant getPublicationDate() {
+            return delegate.getPublicationDate();
+        }
+
+        @Override
+        public Optional<Instant> getCompletionDate() {
+            return delegate.getCompletionDate();
+        }
+
+        @Override
+        public EventPublication.Status getStatus() {
+            return delegate.getStatus();
+        }
+
+        @Override
+        public Instant getLastResubmissionDate() {
+            return delegate.getLastResubmissionDate();
+        }
+
+        @Override
+        public int getCompletionAttempts() {
+            return delegate.getCompletionAttempts();
+        }
+
+        @Override
+        public void markCompleted(Instant instant) {
+            delegate.markCompleted(instant);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package dev.neate;
+
+import org.bson.types.Binary;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Compact binary encoding of events whose payload is a single UUID.
+ *
+ * The MongoDB registry maps every event to a sub-document with its fields
+ * and a _class type hint holding the fully qualified class name, which for
+ * an event like CountryCreatedEvent is several times the size of its
+ * payload. Registered event types are encoded as 17 bytes instead:
+ * - 1 byte type id, fixed per type, never reused
+ * - 16 bytes UUID, most significant bits first
+ *
+ * The bytes are stored as BSON binary (subtype 0) in the event field.
+ * Events of other types are left to the registry's own mapping, and values
+ * that are not compact encodings are returned unchanged by decode(), so
+ * registry entries written before compact serialization are still read.
+ *
+ * Event types are registered in EventPublicationConfiguration. The
+ * encoding is applied to the registry by CompactEventPublicationRepository
+ * and read back from raw documents by ChunkedEventResubmitter.
+ */
+public class CompactEventSerializer {
+
+    static final int ENCODED_LENGTH = 17;
+
+    private final Map<Class<?>, EventType<?>> byClass = new HashMap<>();
+    private final Map<Byte, EventType<?>> byId = new HashMap<>();
+
+    /**
+     * Registers an event type.
+     *
+     * @param id the type id, 1 to 127, stored with every event and so never to be changed or reused
+     * @param type the event class
+     * @param toUuid extracts the payload from an event
+     * @param fromUuid creates an event from its payload
+     * @param <T> the event type
+     * @return this serializer
+     */
+    public <T> CompactEventSerializer register(int id, Class<T> type, Function<T, UUID> toUuid,
+            Function<UUID, T> fromUuid) {
+        if (id < 1 || id > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Event type id must be between 1 and " + Byte.MAX_VALUE);
+        }
+        if (byId.containsKey((byte) id) || byClass.containsKey(type)) {
+            throw new IllegalArgumentException("Event type " + type.getName() + " or id " + id + " already registered");
+        }
+        EventType<T> eventType = new EventType<>((byte) id, type, toUuid, fromUuid);
+        byClass.put(type, eventType);
+        byId.put((byte) id, eventType);
+        return this;
+    }
+
+    /**
+     * Returns whether an event is encoded compactly.
+     *
+     * @param event the event
+     * @return true if the type of the event is registered
+     */
+    public boolean supports(Object event) {
+        return event != null && byClass.containsKey(event.getClass());
+    }
+
+    /**
+     * Encodes an event of a registered type.
+     *
+     * @param event the event
+     * @return the type id followed by the UUID
+     * @throws IllegalArgumentException if the type of the event is not registered
+     */
+    public byte[] serialize(Object event) {
+        EventType<?> type = event != null ? byClass.get(event.getClass()) : null;
+        if (type == null) {
+            throw new IllegalArgumentException("No compact encoding for " + (event != null ? event.getClass() : null));
+        }
+        UUID uuid = type.uuidOf(event);
+        return ByteBuffer.allocate(ENCODED_LENGTH)
+            .put(type.id())
+            .putLong(uuid.getMostSignificantBits())
+            .putLong(uuid.getLeastSignificantBits())
+            .array();
+    }
+
+    /**
+     * Decodes a stored event.
+     *
+     * @param stored the value of the event field, as binary or byte array
+     * @return the event, or the stored value unchanged if it is no compact encoding
+     * @throws IllegalStateException if the type id is not registered
+     */
+    public Object decode(Object stored) {
+        byte[] bytes;
+        if (stored instanceof Binary binary) {
+            bytes = binary.getData();
+        } else if (stored instanceof byte[] array) {
+            bytes = array;
+        } else {
+            return stored;
+        }
+        if (bytes.length != ENCODED_LENGTH) {
+            return stored;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte id = buffer.get();
+        EventType<?> type = byId.get(id);
+        if (type == null) {
+            throw new IllegalStateException("Unknown compact event type id " + id);
+        }
+        return type.fromUuid().apply(new UUID(buffer.getLong(), buffer.getLong()));
+    }
+
+    /**
+     * Registered event type.
+     */
+    private record EventType<T>(byte id, Class<T> type, Function<T, UUID> toUuid, Function<UUID, T> fromUuid) {
+
+        UUID uuidOf(Object event) {
+            return toUuid.apply(type.cast(event));
+        }
+    }
+}
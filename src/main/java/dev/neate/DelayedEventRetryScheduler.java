@@ -0,0 +1,178 @@
+package dev.neate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Re-dispatches failed event publications once their backoff has passed.
+ *
+ * When a listener fails, EventPublicationBackoff computes the publication's
+ * next attempt and hands it to this scheduler; the listener's worker thread
+ * is free again at once instead of waiting for the retry. The pending
+ * retries wait in a HashedTimingWheel, which costs one small entry per
+ * publication however many thousands are waiting. A single thread advances
+ * the wheel every tick and passes the expired publications, in batches, to
+ * a small dispatch pool, which resubmits them through
+ * ChunkedEventResubmitter.resubmitNow() and so through the registry.
+ *
+ * Pending retries only live in memory. If the instance stops, the
+ * publications keep their nextAttemptDate in MongoDB and are picked up by
+ * the scheduled retry or the warm-up republishing of the next start.
+ *
+ * Metrics:
+ * - event.publication.retry.pending: retries waiting in the wheel
+ * - event.publication.retry.dispatched: retries resubmitted (counter)
+ *
+ * Configuration:
+ * - Enabled via spring.modulith.events.delayed-retry.enabled (default true)
+ * - spring.modulith.events.delayed-retry.tick (default 1 second)
+ * - spring.modulith.events.delayed-retry.wheel-size (default 512 ticks per turn)
+ * - spring.modulith.events.delayed-retry.dispatch-threads (default 2)
+ */
+@Component
+@Profile("!in-memory & !journal")
+@ConditionalOnProperty(name = "spring.modulith.events.delayed-retry.enabled", havingValue = "true", matchIfMissing = true)
+public class DelayedEventRetryScheduler implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(DelayedEventRetryScheduler.class);
+
+    private final ChunkedEventResubmitter chunkedResubmitter;
+    private final Duration tick;
+    private final int wheelSize;
+    private final int dispatchThreads;
+    private final Counter dispatched;
+
+    private volatile HashedTimingWheel<UUID> wheel;
+    private volatile boolean running;
+    private Thread ticker;
+    private ExecutorService dispatcher;
+
+    public DelayedEventRetryScheduler(ChunkedEventResubmitter chunkedResubmitter, MeterRegistry meterRegistry,
+            @Value("${spring.modulith.events.delayed-retry.tick:1s}") Duration tick,
+            @Value("${spring.modulith.events.delayed-retry.wheel-size:512}") int wheelSize,
+            @Value("${spring.modulith.events.delayed-retry.dispatch-threads:2}") int dispatchThreads) {
+        if (dispatchThreads < 1) {
+            throw new IllegalArgumentException("Dispatch threads must be at least 1");
+        }
+        this.chunkedResubmitter = chunkedResubmitter;
+        this.tick = tick;
+        this.wheelSize = wheelSize;
+        this.dispatchThreads = dispatchThreads;
+        this.wheel = new HashedTimingWheel<>(tick, wheelSize, System.nanoTime());
+
+        Gauge.builder("event.publication.retry.pending", this, scheduler -> scheduler.wheel.size())
+            .description("Failed publications waiting for their delayed retry")
+            .register(meterRegistry);
+        this.dispatched = Counter.builder("event.publication.retry.dispatched")
+            .description("Failed publications resubmitted after their backoff")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Schedules the retry of a failed publication.
+     *
+     * @param id the publication identifier
+     * @param nextAttempt when the publication is to be retried
+     */
+    public void schedule(UUID id, Instant nextAttempt) {
+        if (!running) {
+            // Left to the scheduled retry, nextAttemptDate is stored
+            return;
+        }
+        Duration delay = Duration.between(Instant.now(), nextAttempt);
+        wheel.schedule(id, System.nanoTime() + Math.max(0, delay.toNanos()));
+    }
+
+    /**
+     * Returns the number of retries waiting.
+     *
+     * @return the number of scheduled retries
+     */
+    public int pending() {
+        return wheel.size();
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        wheel = new HashedTimingWheel<>(tick, wheelSize, System.nanoTime());
+        dispatcher = Executors.newFixedThreadPool(dispatchThreads, new CustomizableThreadFactory("event-retry-"));
+        running = true;
+        ticker = new Thread(this::run, "event-retry-wheel");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        ticker.interrupt();
+        try {
+            ticker.join(TimeUnit.SECONDS.toMillis(10));
+            dispatcher.shutdown();
+            dispatcher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ticker = null;
+        dispatcher = null;
+        if (wheel.size() > 0) {
+            log.info("{} delayed event retries left to the scheduled retry", wheel.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        long tickMillis = Math.max(1, tick.toMillis());
+        while (running) {
+            try {
+                Thread.sleep(tickMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+            List<UUID> expired = new ArrayList<>();
+            wheel.advance(System.nanoTime(), expired::add);
+            if (!expired.isEmpty()) {
+                dispatcher.execute(() -> resubmit(expired));
+            }
+        }
+    }
+
+    private void resubmit(List<UUID> ids) {
+        try {
+            int resubmitted = chunkedResubmitter.resubmitNow(ids);
+            dispatched.increment(resubmitted);
+            log.debug("Resubmitted {} of {} delayed event retries", resubmitted, ids.size());
+        } catch (RuntimeException e) {
+            // The publications keep their nextAttemptDate and are picked up by the scheduled retry
+            log.warn("Delayed retry of {} event publications failed", ids.size(), e);
+        }
+    }
+}
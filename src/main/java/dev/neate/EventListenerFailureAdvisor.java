@@ -0,0 +1,98 @@
+package dev.neate;
+
+import org.aopalliance.aop.Advice;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.AbstractPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+import org.springframework.modulith.events.core.PublicationTargetIdentifier;
+import org.springframework.transaction.event.TransactionalApplicationListenerMethodAdapter;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Advisor recording the exceptions of transactional event listeners.
+ *
+ * Spring Modulith marks a publication failed when its listener throws, but
+ * does not keep the exception. This advisor wraps the same listener methods
+ * (@TransactionalEventListener, including @ApplicationModuleListener) and
+ * hands the exception to EventPublicationBackoff before rethrowing it.
+ *
+ * It is ordered just outside Spring Modulith's completion interceptor, so it
+ * runs after the publication has been marked failed and outside the
+ * listener's transaction, whose rollback would otherwise undo the record.
+ * The listener identifier is derived the same way Spring Modulith derives it.
+ *
+ * Registered by EventPublicationConfiguration.
+ */
+class EventListenerFailureAdvisor extends AbstractPointcutAdvisor {
+
+    private static final Logger log = LoggerFactory.getLogger(EventListenerFailureAdvisor.class);
+
+    /** Spring Modulith's CompletionRegisteringAdvisor is ordered at HIGHEST_PRECEDENCE + 10. */
+    static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 9;
+
+    private final Pointcut pointcut = new AnnotationMatchingPointcut(null, TransactionalEventListener.class, true);
+    private final Advice advice = (MethodInterceptor) this::invoke;
+    private final ObjectProvider<EventPublicationBackoff> backoff;
+    private final Map<Method, String> listenerIds = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the advisor.
+     *
+     * @param backoff the backoff, looked up on the first failure (absent with the in-memory profile)
+     */
+    EventListenerFailureAdvisor(ObjectProvider<EventPublicationBackoff> backoff) {
+        this.backoff = backoff;
+        setOrder(ORDER);
+    }
+
+    @Override
+    public Pointcut getPointcut() {
+        return pointcut;
+    }
+
+    @Override
+    public Advice getAdvice() {
+        return advice;
+    }
+
+    private Object invoke(MethodInvocation invocation) throws Throwable {
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            Object[] arguments = invocation.getArguments();
+            if (arguments.length == 1) {
+                recordFailure(invocation.getMethod(), arguments[0], e);
+            }
+            throw e;
+        }
+    }
+
+    private void recordFailure(Method method, Object event, Throwable cause) {
+        EventPublicationBackoff current = backoff.getIfAvailable();
+        if (current == null) {
+            return;
+        }
+        try {
+            current.recordFailure(event, PublicationTargetIdentifier.of(listenerId(method)), cause);
+        } catch (RuntimeException e) {
+            // The publication stays failed and is retried without backoff
+            log.warn("Could not record the failure of listener {}", method, e);
+        }
+    }
+
+    private String listenerId(Method method) {
+        return listenerIds.computeIfAbsent(method, key ->
+            new TransactionalApplicationListenerMethodAdapter(key.getName(), key.getDeclaringClass(), key)
+                .getListenerId());
+    }
+}
@@ -0,0 +1,142 @@
+package dev.neate;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.Sorts;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.modulith.events.support.CompletionMode;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scheduled bulk archiving of completed Spring Modulith event publications.
+ *
+ * With completion-mode UPDATE a completed publication only gets its
+ * completionDate set, which is the cheapest write on the listener's path.
+ * The completed entries then stay in the event_publication collection, and
+ * every incomplete-publication query has to skip them. This component moves
+ * them to the event_publication_archive collection in batches instead:
+ * - Up to archive-batch-size completed entries are read, oldest first
+ * - They are inserted into the archive with one unordered insertMany
+ * - They are removed from the registry with one deleteMany by _id
+ *
+ * With module collections (see EventPublicationCollections) every module
+ * collection is archived the same way, into the same archive.
+ *
+ * Entries are moved unchanged, so the archive has the same layout as the
+ * registry. If the application stops between the insert and the delete,
+ * the next run inserts the same entries again; the duplicate key errors are
+ * ignored, so an entry is never lost and never archived twice.
+ *
+ * Configuration:
+ * - Enabled via spring.modulith.events.archive-scheduled=true
+ * - Runs every minute by default (spring.modulith.events.archive-interval)
+ * - Only useful with spring.modulith.events.completion-mode=UPDATE; with
+ *   DELETE and ARCHIVE the registry does not keep completed entries
+ */
+@Component
+@Profile("!in-memory & !journal")
+@ConditionalOnProperty(name = "spring.modulith.events.archive-scheduled", havingValue = "true", matchIfMissing = false)
+public class EventPublicationArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(EventPublicationArchiver.class);
+
+    static final String PUBLICATIONS_COLLECTION = "event_publication";
+    static final String ARCHIVE_COLLECTION = "event_publication_archive";
+
+    private static final Bson COMPLETED = Filters.ne("completionDate", null);
+
+    private final MongoOperations mongoOperations;
+    private final EventPublicationCollections collections;
+    private final int batchSize;
+
+    public EventPublicationArchiver(MongoOperations mongoOperations, EventPublicationCollections collections,
+            Environment environment,
+            @Value("${spring.modulith.events.archive-batch-size:1000}") int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Archive batch size must be at least 1");
+        }
+        this.mongoOperations = mongoOperations;
+        this.collections = collections;
+        this.batchSize = batchSize;
+
+        CompletionMode completionMode = CompletionMode.from(environment);
+        if (completionMode != CompletionMode.UPDATE) {
+            log.warn("Event publication archiving is enabled with completion mode {}, there is nothing to archive",
+                completionMode);
+        }
+    }
+
+    /**
+     * Scheduled task moving all completed publications to the archive.
+     */
+    @Scheduled(fixedDelayString = "${spring.modulith.events.archive-interval:60000}") // 1 minute default
+    public void archiveCompletedPublications() {
+        try {
+            long archived = archive();
+            if (archived > 0) {
+                log.debug("Archived {} completed event publications", archived);
+            }
+        } catch (Exception e) {
+            log.error("Error during event publication archiving", e);
+        }
+    }
+
+    /**
+     * Moves completed publications to the archive, batch by batch, until none are left.
+     *
+     * @return the number of publications removed from the registry collections
+     */
+    long archive() {
+        long archived = 0;
+        for (String collection : collections.all()) {
+            int moved;
+            do {
+                moved = archiveBatch(collection);
+                archived += moved;
+            } while (moved == batchSize);
+        }
+        return archived;
+    }
+
+    private int archiveBatch(String collection) {
+        List<Document> completed = mongoOperations.getCollection(collection)
+            .find(COMPLETED)
+            .sort(Sorts.ascending("completionDate"))
+            .limit(batchSize)
+            .into(new ArrayList<>());
+        if (completed.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            mongoOperations.getCollection(ARCHIVE_COLLECTION)
+                .insertMany(completed, new InsertManyOptions().ordered(false));
+        } catch (MongoBulkWriteException e) {
+            boolean onlyDuplicates = e.getWriteErrors().stream()
+                .allMatch(error -> ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY);
+            if (!onlyDuplicates || e.getWriteConcernError() != null) {
+                throw e;
+            }
+            // Left over from an interrupted run, the archive already holds these entries
+        }
+
+        List<Object> ids = completed.stream().map(document -> document.get("_id")).toList();
+        return (int) mongoOperations.getCollection(collection)
+            .deleteMany(Filters.and(Filters.in("_id", ids), COMPLETED))
+            .getDeletedCount();
+    }
+}
@@ -0,0 +1,196 @@
+package dev.neate;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Updates;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.modulith.events.core.EventPublicationRepository;
+import org.springframework.modulith.events.core.PublicationTargetIdentifier;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+/**
+ * Per-publication retry state with exponential backoff and dead-lettering.
+ *
+ * Every time a listener fails (see EventListenerFailureAdvisor), its
+ * publication in event_publication (or in its module's collection, see
+ * EventPublicationCollections) is updated:
+ * - retryAttempts: number of failed attempts
+ * - nextAttemptDate: now plus the backoff delay of that attempt (see ExponentialBackoff)
+ * - lastFailure: type and message of the exception, and when it happened
+ *
+ * The failure is recorded together with a provisional nextAttemptDate of the
+ * longest possible delay, so the publication is never due between the two
+ * writes; the second write sets the actual one.
+ *
+ * The publication is then handed to DelayedEventRetryScheduler, which
+ * resubmits it once nextAttemptDate has passed without holding the
+ * listener's thread. ChunkedEventResubmitter skips publications whose
+ * nextAttemptDate lies in the future, so a failing publication is retried
+ * less and less often instead of every cycle. If max-attempts is set, a
+ * publication that has failed max-attempts times is moved to the dead-letter
+ * collection (see EventPublicationDeadLetters) and no longer retried until it
+ * is redriven; otherwise it is retried indefinitely.
+ *
+ * Failures without an exception, such as a publication whose listener no
+ * longer exists, are not counted.
+ *
+ * Configuration:
+ * - Enabled via spring.modulith.events.backoff.enabled (default false)
+ * - spring.modulith.events.backoff.initial-delay (default 1 minute)
+ * - spring.modulith.events.backoff.multiplier (default 2)
+ * - spring.modulith.events.backoff.max-delay (default 6 hours)
+ * - spring.modulith.events.backoff.jitter (default 0.2)
+ * - spring.modulith.events.backoff.max-attempts (default 0, no dead-lettering)
+ */
+@Component
+@Profile("!in-memory & !journal")
+@ConditionalOnProperty(name = "spring.modulith.events.backoff.enabled", havingValue = "true")
+public class EventPublicationBackoff {
+
+    private static final Logger log = LoggerFactory.getLogger(EventPublicationBackoff.class);
+
+    static final String RETRY_ATTEMPTS = "retryAttempts";
+    static final String NEXT_ATTEMPT_DATE = "nextAttemptDate";
+    static final String LAST_FAILURE = "lastFailure";
+
+    private static final Bson INCOMPLETE = Filters.eq("completionDate", null);
+
+    private final MongoOperations mongoOperations;
+    private final EventPublicationCollections collections;
+    private final EventPublicationRepository repository;
+    private final EventPublicationDeadLetters deadLetters;
+    private final DelayedEventRetryScheduler delayedRetries;
+    private final ExponentialBackoff backoff;
+    private final int maxAttempts;
+
+    public EventPublicationBackoff(MongoOperations mongoOperations, EventPublicationCollections collections,
+            EventPublicationRepository repository, EventPublicationDeadLetters deadLetters,
+            ObjectProvider<DelayedEventRetryScheduler> delayedRetries,
+            @Value("${spring.modulith.events.backoff.initial-delay:1m}") Duration initialDelay,
+            @Value("${spring.modulith.events.backoff.multiplier:2}") double multiplier,
+            @Value("${spring.modulith.events.backoff.max-delay:6h}") Duration maxDelay,
+            @Value("${spring.modulith.events.backoff.jitter:0.2}") double jitter,
+            @Value("${spring.modulith.events.backoff.max-attempts:0}") int maxAttempts) {
+        if (maxAttempts < 0) {
+            throw new IllegalArgumentException("Max attempts must not be negative");
+        }
+        this.mongoOperations = mongoOperations;
+        this.collections = collections;
+        this.repository = repository;
+        this.deadLetters = deadLetters;
+        this.delayedRetries = delayedRetries.getIfAvailable();
+        this.backoff = new ExponentialBackoff(initialDelay, multiplier, maxDelay, jitter);
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Returns the filter matching publications that are not waiting for their backoff to end.
+     *
+     * @param now the current time
+     * @return the filter
+     */
+    static Bson due(Instant now) {
+        // Also matches publications that never failed and have no nextAttemptDate
+        return Filters.not(Filters.gt(NEXT_ATTEMPT_DATE, now));
+    }
+
+    /**
+     * Records a failed attempt of a listener to handle an event.
+     *
+     * @param event the event
+     * @param listener the identifier of the listener
+     * @param cause the exception thrown by the listener
+     */
+    public void recordFailure(Object event, PublicationTargetIdentifier listener, Throwable cause) {
+        repository.findIncompletePublicationsByEventAndTargetIdentifier(event, listener)
+            .ifPresent(publication -> recordListenerFailure(publication.getIdentifier(), listener.getValue(), cause));
+    }
+
+    /**
+     * Records a failed attempt of a publication and schedules its next attempt,
+     * or dead-letters it once it has used up its attempts.
+     *
+     * @param id the publication identifier
+     * @param cause the exception thrown by the listener
+     */
+    public void recordFailure(UUID id, Throwable cause) {
+        recordListenerFailure(id, null, cause);
+    }
+
+    private void recordListenerFailure(UUID id, String listenerId, Throwable cause) {
+        Document failure = new Document("type", cause.getClass().getName())
+            .append("message", cause.getMessage())
+            .append("date", new Date());
+        // Not due until the actual next attempt is set, so a resubmission cycle in between skips it
+        Date provisionalNextAttempt = Date.from(Instant.now().plus(longestDelay()));
+
+        String collection = null;
+        Document publication = null;
+        for (String candidate : candidateCollections(listenerId)) {
+            publication = mongoOperations.getCollection(candidate).findOneAndUpdate(
+                Filters.and(Filters.eq("_id", id), INCOMPLETE),
+                Updates.combine(Updates.inc(RETRY_ATTEMPTS, 1), Updates.set(LAST_FAILURE, failure),
+                    Updates.set(NEXT_ATTEMPT_DATE, provisionalNextAttempt)),
+                new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER));
+            if (publication != null) {
+                collection = candidate;
+                break;
+            }
+        }
+        if (publication == null) {
+            // Completed or dead-lettered in the meantime
+            return;
+        }
+
+        int attempts = publication.getInteger(RETRY_ATTEMPTS);
+        if (maxAttempts > 0 && attempts >= maxAttempts) {
+            log.warn("Event publication {} for listener {} failed {} times, moving it to the dead-letter collection: {}",
+                id, publication.getString("listenerId"), attempts, cause.toString());
+            deadLetters.deadLetter(publication, collection);
+            return;
+        }
+
+        Duration delay = backoff.delay(attempts, ThreadLocalRandom.current().nextDouble());
+        Instant nextAttempt = Instant.now().plus(delay);
+        mongoOperations.getCollection(collection)
+            .updateOne(Filters.eq("_id", id), Updates.set(NEXT_ATTEMPT_DATE, Date.from(nextAttempt)));
+        if (delayedRetries != null) {
+            delayedRetries.schedule(id, nextAttempt);
+        }
+        log.debug("Event publication {} failed attempt {}, next attempt in {}", id, attempts, delay);
+    }
+
+    /**
+     * Returns the longest delay the backoff can produce, max-delay plus its jitter.
+     */
+    private Duration longestDelay() {
+        return backoff.delay(Integer.MAX_VALUE, 1);
+    }
+
+    /**
+     * Returns the collections that may hold a publication, the listener's collection first.
+     * Publications stored before module collections were enabled are still found in event_publication.
+     */
+    private List<String> candidateCollections(String listenerId) {
+        String listenerCollection = collections.collectionOf(listenerId);
+        return Stream.concat(Stream.of(listenerCollection),
+            collections.all().stream().filter(collection -> !collection.equals(listenerCollection))).toList();
+    }
+}
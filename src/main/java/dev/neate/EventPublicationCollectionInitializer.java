@@ -0,0 +1,242 @@
+package dev.neate;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.CreateCollectionOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.modulith.events.support.CompletionMode;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prepares the event publication registry collections at startup.
+ *
+ * Completed publications are expired by MongoDB instead of application-side
+ * sweeps. MongoDB's TTL monitor removes expired documents incrementally in
+ * the background, so there are no periodic bulk deletes competing with the
+ * pipeline writes:
+ * - event_publication gets a TTL index on completionDate, expiring completed
+ *   entries after spring.modulith.events.publication.registry.cleanup.max-age.
+ *   Incomplete entries have no completionDate and are never expired.
+ * - event_publication_archive is created as a capped collection of
+ *   spring.modulith.events.archive-capped-size, so the oldest archived
+ *   entries are overwritten once it is full.
+ *
+ * event_publication also gets the indexes of the registry's own queries, so
+ * the incomplete-publication scans run on restart and by
+ * ScheduledEventRetryService do not read completed entries:
+ * - completionDate + publicationDate + _id: incomplete publications,
+ *   optionally published before a date, in publication order (_id orders
+ *   the chunks of ChunkedEventResubmitter)
+ * - listenerId + completionDate: the incomplete publication of a listener
+ *   that is marked completed
+ * - status + publicationDate: publications by status, e.g. failed ones
+ * EventPublicationQueryPlanVerifier checks these queries after startup.
+ *
+ * With module collections (see EventPublicationCollections) every module
+ * collection gets the same indexes and its own TTL index, expiring after the
+ * module's spring.modulith.events.module-collections.cleanup.max-age.{module}
+ * or the registry's max-age.
+ *
+ * A changed max-age is applied to the existing index with collMod. An
+ * existing archive collection that is not capped is left alone, because
+ * converting it locks the collection; a warning is logged instead. Writes to
+ * capped collections are not allowed in transactions, so the archive is not
+ * capped with completion-mode ARCHIVE, which archives inside the listener's
+ * transaction. EventPublicationArchiver writes outside transactions.
+ *
+ * Configuration:
+ * - Query indexes created via spring.modulith.events.publication.registry.create-indexes (default true)
+ * - TTL index enabled via spring.modulith.events.publication.registry.cleanup.ttl-index (default true)
+ * - Archive capping disabled with spring.modulith.events.archive-capped-size=0
+ */
+@Component
+@Profile("!in-memory & !journal")
+public class EventPublicationCollectionInitializer implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(EventPublicationCollectionInitializer.class);
+
+    static final String TTL_INDEX = "completionDate_ttl";
+    static final String INCOMPLETE_INDEX = "completionDate_1_publicationDate_1__id_1";
+    static final String LISTENER_INDEX = "listenerId_1_completionDate_1";
+    static final String STATUS_INDEX = "status_1_publicationDate_1";
+    static final Document TTL_INDEX_KEYS = new Document("completionDate", 1);
+
+    private static final int NAMESPACE_EXISTS = 48;
+
+    private final MongoOperations mongoOperations;
+    private final EventPublicationCollections collections;
+    private final CompletionMode completionMode;
+    private final boolean createIndexes;
+    private final boolean ttlIndex;
+    private final Duration maxAge;
+    private final DataSize archiveCappedSize;
+
+    public EventPublicationCollectionInitializer(MongoOperations mongoOperations,
+            EventPublicationCollections collections, Environment environment,
+            @Value("${spring.modulith.events.publication.registry.create-indexes:true}") boolean createIndexes,
+            @Value("${spring.modulith.events.publication.registry.cleanup.ttl-index:true}") boolean ttlIndex,
+            @Value("${spring.modulith.events.publication.registry.cleanup.max-age:1d}") Duration maxAge,
+            @Value("${spring.modulith.events.archive-capped-size:1GB}") DataSize archiveCappedSize) {
+        if (maxAge.isNegative() || maxAge.isZero()) {
+            throw new IllegalArgumentException("Completed publication max age must be positive");
+        }
+        this.mongoOperations = mongoOperations;
+        this.collections = collections;
+        this.completionMode = CompletionMode.from(environment);
+        this.createIndexes = createIndexes;
+        this.ttlIndex = ttlIndex;
+        this.maxAge = maxAge;
+        this.archiveCappedSize = archiveCappedSize;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (String collection : collections.all()) {
+            if (createIndexes) {
+                IndexOperations indexOps = mongoOperations.indexOps(collection);
+                for (Index index : queryIndexes()) {
+                    String name = indexOps.createIndex(index);
+                    log.debug("Ensured index {} on {} collection", name, collection);
+                }
+            } else {
+                log.info("Index creation on startup is disabled for the {} collection", collection);
+            }
+            if (ttlIndex) {
+                ensureTtlIndex(collection, collections.maxAge(collection, maxAge));
+            } else {
+                log.info("TTL index is disabled for the {} collection", collection);
+            }
+        }
+        if (archiveCappedSize.toBytes() > 0) {
+            ensureCappedArchive();
+        }
+    }
+
+    /**
+     * Returns the index definitions supporting the registry queries.
+     *
+     * @return the index definitions
+     */
+    List<Index> queryIndexes() {
+        Index incomplete = new Index()
+            .on("completionDate", Sort.Direction.ASC)
+            .on("publicationDate", Sort.Direction.ASC)
+            .on("_id", Sort.Direction.ASC)
+            .named(INCOMPLETE_INDEX);
+
+        Index listener = new Index()
+            .on("listenerId", Sort.Direction.ASC)
+            .on("completionDate", Sort.Direction.ASC)
+            .named(LISTENER_INDEX);
+
+        Index status = new Index()
+            .on("status", Sort.Direction.ASC)
+            .on("publicationDate", Sort.Direction.ASC)
+            .named(STATUS_INDEX);
+
+        return List.of(incomplete, listener, status);
+    }
+
+    /**
+     * Creates the TTL index on completionDate, or updates its expiry.
+     *
+     * @param collection the registry collection
+     * @param maxAge the time completed publications are kept
+     */
+    void ensureTtlIndex(String collection, Duration maxAge) {
+        MongoCollection<Document> publications = mongoOperations.getCollection(collection);
+        long expireAfterSeconds = maxAge.toSeconds();
+
+        Document existing = publications.listIndexes()
+            .into(new ArrayList<>()).stream()
+            .filter(index -> TTL_INDEX_KEYS.equals(index.get("key", Document.class)))
+            .findFirst()
+            .orElse(null);
+
+        if (existing == null) {
+            publications.createIndex(TTL_INDEX_KEYS,
+                new IndexOptions().name(TTL_INDEX).expireAfter(expireAfterSeconds, TimeUnit.SECONDS));
+            log.info("Created TTL index on {}.completionDate, completed publications expire after {}",
+                collection, maxAge);
+            return;
+        }
+
+        Number current = existing.get("expireAfterSeconds", Number.class);
+        if (current == null || current.longValue() != expireAfterSeconds) {
+            // Also turns an existing plain completionDate index into a TTL index
+            mongoOperations.executeCommand(new Document("collMod", collection)
+                .append("index", new Document("keyPattern", TTL_INDEX_KEYS)
+                    .append("expireAfterSeconds", expireAfterSeconds)));
+            log.info("Changed expiry of completed publications in {} from {} s to {} s", collection, current,
+                expireAfterSeconds);
+        }
+    }
+
+    /**
+     * Creates the archive as a capped collection, or resizes it.
+     */
+    void ensureCappedArchive() {
+        if (completionMode == CompletionMode.ARCHIVE) {
+            log.warn("{} is not capped: completion-mode ARCHIVE writes it inside transactions",
+                EventPublicationArchiver.ARCHIVE_COLLECTION);
+            return;
+        }
+
+        long size = archiveCappedSize.toBytes();
+        Document collection = mongoOperations.execute(db -> db.listCollections()
+            .filter(Filters.eq("name", EventPublicationArchiver.ARCHIVE_COLLECTION))
+            .first());
+
+        if (collection == null) {
+            mongoOperations.execute(db -> {
+                try {
+                    db.createCollection(EventPublicationArchiver.ARCHIVE_COLLECTION,
+                        new CreateCollectionOptions().capped(true).sizeInBytes(size));
+                    log.info("Created capped collection {} of {}", EventPublicationArchiver.ARCHIVE_COLLECTION,
+                        archiveCappedSize);
+                } catch (MongoCommandException e) {
+                    if (e.getErrorCode() != NAMESPACE_EXISTS) {
+                        throw e;
+                    }
+                    // Created by another instance in the meantime
+                }
+                return null;
+            });
+            return;
+        }
+
+        Document options = collection.get("options", Document.class);
+        if (options == null || !options.getBoolean("capped", false)) {
+            log.warn("{} exists and is not capped, archived publications are kept until removed; "
+                    + "convert it with convertToCapped during maintenance",
+                EventPublicationArchiver.ARCHIVE_COLLECTION);
+            return;
+        }
+
+        Number currentSize = options.get("size", Number.class);
+        if (currentSize == null || currentSize.longValue() != size) {
+            mongoOperations.executeCommand(new Document("collMod", EventPublicationArchiver.ARCHIVE_COLLECTION)
+                .append("cappedSize", size));
+            log.info("Resized capped collection {} from {} to {} bytes",
+                EventPublicationArchiver.ARCHIVE_COLLECTION, currentSize, size);
+        }
+    }
+}
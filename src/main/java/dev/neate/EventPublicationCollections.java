@@ -0,0 +1,178 @@
+package dev.neate;
+
+import org.springframework.modulith.core.ApplicationModule;
+import org.springframework.modulith.core.ApplicationModules;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * The collections of the MongoDB event publication registry.
+ *
+ * By default every publication is stored in event_publication. With module
+ * collections enabled, the publications of a listener belonging to an
+ * application module are stored in event_publication_{module} instead, so
+ * the listeners of different modules do not write to the same indexes and
+ * documents. Modules are the ones Spring Modulith detects from the package
+ * structure and the package-info declarations; nested modules (such as
+ * validation.internal) share the collection of their top-level module.
+ * Listeners outside of any module keep using event_publication.
+ *
+ * Every registry collection gets the registry's indexes and its own TTL for
+ * completed publications (see EventPublicationCollectionInitializer), and
+ * the components working on the registry directly (resubmission, backoff,
+ * dead letters, archiving, completion batching) cover all of them.
+ *
+ * Configuration:
+ * - Enabled via spring.modulith.events.module-collections.enabled (default false)
+ * - spring.modulith.events.module-collections.cleanup.max-age.{module}, the
+ *   TTL of completed publications of a module (default: the registry's
+ *   spring.modulith.events.publication.registry.cleanup.max-age)
+ */
+public class EventPublicationCollections {
+
+    static final String MODULE_COLLECTION_PREFIX = EventPublicationArchiver.PUBLICATIONS_COLLECTION + "_";
+
+    /** Module name of event_publication in metrics. */
+    static final String DEFAULT_MODULE = "default";
+
+    private final List<String> modules;
+    private final Function<String, Optional<String>> moduleOfType;
+    private final Map<String, Duration> maxAges;
+    private final Map<String, String> collectionsByListener = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the registry collections.
+     *
+     * @param modules the top-level module names, each with its own collection
+     * @param moduleOfType resolves the identifier of the module a class belongs to
+     * @param maxAges the TTL of completed publications per module
+     */
+    EventPublicationCollections(List<String> modules, Function<String, Optional<String>> moduleOfType,
+            Map<String, Duration> maxAges) {
+        this.modules = List.copyOf(modules);
+        this.moduleOfType = moduleOfType;
+        this.maxAges = Map.copyOf(maxAges);
+    }
+
+    /**
+     * Returns the registry with event_publication as its only collection.
+     *
+     * @return the collections
+     */
+    static EventPublicationCollections registryOnly() {
+        return new EventPublicationCollections(List.of(), type -> Optional.empty(), Map.of());
+    }
+
+    /**
+     * Returns the registry with a collection per top-level module of the application.
+     *
+     * @param applicationModules the modules of the application
+     * @param maxAges the TTL of completed publications per module
+     * @return the collections
+     */
+    static EventPublicationCollections perModule(ApplicationModules applicationModules,
+            Map<String, Duration> maxAges) {
+        List<String> modules = applicationModules.stream()
+            .map(module -> topLevel(module.getIdentifier().toString()))
+            .distinct()
+            .sorted()
+            .toList();
+        return new EventPublicationCollections(modules,
+            type -> applicationModules.getModuleByType(type)
+                .map(ApplicationModule::getIdentifier)
+                .map(Object::toString),
+            maxAges);
+    }
+
+    /**
+     * Returns whether publications are stored per module.
+     *
+     * @return true if there are module collections
+     */
+    boolean isPerModule() {
+        return !modules.isEmpty();
+    }
+
+    /**
+     * Returns all registry collections, event_publication first.
+     *
+     * @return the collection names
+     */
+    List<String> all() {
+        List<String> all = new ArrayList<>(modules.size() + 1);
+        all.add(EventPublicationArchiver.PUBLICATIONS_COLLECTION);
+        modules.forEach(module -> all.add(MODULE_COLLECTION_PREFIX + module));
+        return all;
+    }
+
+    /**
+     * Returns the module collections, without event_publication.
+     *
+     * @return the collection names
+     */
+    List<String> moduleCollections() {
+        return modules.stream().map(module -> MODULE_COLLECTION_PREFIX + module).toList();
+    }
+
+    /**
+     * Returns the collection the publications of a listener are stored in.
+     *
+     * @param listenerId the listener identifier, the listener's class name followed by its method
+     * @return the collection name
+     */
+    String collectionOf(String listenerId) {
+        if (modules.isEmpty() || listenerId == null) {
+            return EventPublicationArchiver.PUBLICATIONS_COLLECTION;
+        }
+        return collectionsByListener.computeIfAbsent(listenerId, id -> moduleOfType.apply(listenerClass(id))
+            .map(EventPublicationCollections::topLevel)
+            .filter(modules::contains)
+            .map(module -> MODULE_COLLECTION_PREFIX + module)
+            .orElse(EventPublicationArchiver.PUBLICATIONS_COLLECTION));
+    }
+
+    /**
+     * Returns the module a collection belongs to, as used in metrics.
+     *
+     * @param collection the collection name
+     * @return the module name, DEFAULT_MODULE for event_publication
+     */
+    String moduleOf(String collection) {
+        return collection.startsWith(MODULE_COLLECTION_PREFIX)
+            ? collection.substring(MODULE_COLLECTION_PREFIX.length())
+            : DEFAULT_MODULE;
+    }
+
+    /**
+     * Returns the TTL of completed publications in a collection.
+     *
+     * @param collection the collection name
+     * @param defaultMaxAge the TTL of the registry
+     * @return the TTL of the collection
+     */
+    Duration maxAge(String collection, Duration defaultMaxAge) {
+        return maxAges.getOrDefault(moduleOf(collection), defaultMaxAge);
+    }
+
+    /**
+     * Returns the class of a listener identifier such as
+     * dev.neate.validation.internal.CountryCreatedEventListener.handleCountryCreated(dev.neate.api.CountryCreatedEvent).
+     */
+    private static String listenerClass(String listenerId) {
+        int parameters = listenerId.indexOf('(');
+        String method = parameters >= 0 ? listenerId.substring(0, parameters) : listenerId;
+        int separator = method.lastIndexOf('.');
+        return separator >= 0 ? method.substring(0, separator) : method;
+    }
+
+    private static String topLevel(String moduleIdentifier) {
+        int separator = moduleIdentifier.indexOf('.');
+        return separator >= 0 ? moduleIdentifier.substring(0, separator) : moduleIdentifier;
+    }
+}
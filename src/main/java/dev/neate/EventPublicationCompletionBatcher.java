@@ -0,0 +1,325 @@
+package dev.neate;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.modulith.events.EventPublication;
+import org.springframework.modulith.events.support.CompletionMode;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit of event publication completions.
+ *
+ * Without batching every listener completion is a separate update of its
+ * publication in event_publication. With batching,
+ * BatchedCompletionEventPublicationRepository hands completions to this
+ * component instead, and a single flusher thread collects them until
+ * max-batch-size completions are waiting or max-delay has passed since the
+ * first one. The batch is then written as one operation:
+ * - completion-mode UPDATE: one updateMany setting completionDate and status
+ *   of all publications of the batch
+ * - completion-mode DELETE: one deleteMany of all publications of the batch
+ *
+ * With registry collections per module (see EventPublicationCollections) a
+ * batch is written with one operation per collection, to the collection of
+ * each publication's listener. Publications not found there, such as ones
+ * stored before module collections were enabled, are completed in the
+ * other registry collections.
+ *
+ * With completion-mode ARCHIVE completions are not batched. Completion dates
+ * are the time of the last completion of the batch, at most max-delay after
+ * the actual one.
+ *
+ * Crash safety: completions are flushed after the listener's transaction has
+ * committed, as without batching. If the application dies before a batch is
+ * flushed, or the flush fails, its publications stay incomplete and are
+ * redelivered by the retry. Batching widens that window for every listener,
+ * so it is opt-in and must only be enabled if all listeners of the
+ * application are idempotent. Batches still queued at shutdown are flushed.
+ *
+ * Metrics:
+ * - event.publication.completion.pending: completions waiting for their flush
+ * - event.publication.completion.batch.size: completions per flushed batch
+ * - event.publication.registry.writes: with module collections, the batched
+ *   completions per module (operation completed)
+ *
+ * Configuration:
+ * - Enabled via spring.modulith.events.completion-batching.enabled (default false)
+ * - spring.modulith.events.completion-batching.max-batch-size (default 100)
+ * - spring.modulith.events.completion-batching.max-delay (default 5ms)
+ */
+@Component
+@Profile("!in-memory & !journal")
+@ConditionalOnProperty(name = "spring.modulith.events.completion-batching.enabled", havingValue = "true")
+public class EventPublicationCompletionBatcher implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(EventPublicationCompletionBatcher.class);
+
+    private static final Duration IDLE_POLL = Duration.ofMillis(100);
+
+    private final MongoOperations mongoOperations;
+    private final EventPublicationCollections collections;
+    private final CompletionMode completionMode;
+    private final MeterRegistry meterRegistry;
+    private final int maxBatchSize;
+    private final Duration maxDelay;
+    private final DistributionSummary batchSizes;
+    private final Map<String, Counter> moduleWrites = new ConcurrentHashMap<>();
+    private final BlockingQueue<Completion> queue = new LinkedBlockingQueue<>();
+    private final Set<UUID> pending = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public EventPublicationCompletionBatcher(MongoOperations mongoOperations, EventPublicationCollections collections,
+            Environment environment, MeterRegistry meterRegistry,
+            @Value("${spring.modulith.events.completion-batching.max-batch-size:100}") int maxBatchSize,
+            @Value("${spring.modulith.events.completion-batching.max-delay:5ms}") Duration maxDelay) {
+        this(mongoOperations, collections, CompletionMode.from(environment), meterRegistry, maxBatchSize, maxDelay);
+    }
+
+    EventPublicationCompletionBatcher(MongoOperations mongoOperations, EventPublicationCollections collections,
+            CompletionMode completionMode, MeterRegistry meterRegistry, int maxBatchSize, Duration maxDelay) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Max batch size must be at least 1");
+        }
+        this.mongoOperations = mongoOperations;
+        this.collections = collections;
+        this.completionMode = completionMode;
+        this.meterRegistry = meterRegistry;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelay = maxDelay;
+        if (completionMode == CompletionMode.ARCHIVE) {
+            log.info("Event publication completions are not batched with completion mode ARCHIVE");
+        }
+
+        Gauge.builder("event.publication.completion.pending", pending, Set::size)
+            .description("Event publication completions waiting for their batch to be flushed")
+            .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("event.publication.completion.batch.size")
+            .description("Event publication completions per flushed batch")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Queues the completion of a publication for the next batch.
+     *
+     * @param id the publication identifier
+     * @param completionDate when the listener completed
+     * @return true if queued, false if the completion has to be written directly
+     */
+    boolean submit(UUID id, Instant completionDate) {
+        return submit(id, null, completionDate);
+    }
+
+    /**
+     * Queues the completion of a publication of a listener for the next batch.
+     *
+     * @param id the publication identifier
+     * @param listenerId the identifier of the publication's listener, null if unknown
+     * @param completionDate when the listener completed
+     * @return true if queued, false if the completion has to be written directly
+     */
+    boolean submit(UUID id, String listenerId, Instant completionDate) {
+        if (!running || completionMode == CompletionMode.ARCHIVE) {
+            return false;
+        }
+        Completion completion = new Completion(id, collections.collectionOf(listenerId), completionDate);
+        pending.add(id);
+        queue.add(completion);
+        if (!running && queue.remove(completion)) {
+            // Stopped concurrently and the final drain missed this completion
+            pending.remove(id);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether the completion of a publication is queued but not written yet.
+     *
+     * @param id the publication identifier
+     * @return true if the completion is pending
+     */
+    boolean isPending(UUID id) {
+        return pending.contains(id);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::run, "event-completion-batcher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        // The flusher finishes its current batch and exits within one idle poll
+        running = false;
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flusher = null;
+        // Completions queued while stopping are still written
+        List<Completion> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += maxBatchSize) {
+            flush(remaining.subList(from, Math.min(from + maxBatchSize, remaining.size())));
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                flush(nextBatch());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Waits for the first completion, then collects more until the batch is
+     * full or max-delay has passed.
+     *
+     * @return the batch, empty if no completion arrived within the idle poll
+     */
+    private List<Completion> nextBatch() throws InterruptedException {
+        List<Completion> batch = new ArrayList<>(maxBatchSize);
+        Completion first = queue.poll(IDLE_POLL.toNanos(), TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return batch;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + maxDelay.toNanos();
+        // A stop cuts the wait short, so the batch is written before the final drain
+        while (batch.size() < maxBatchSize && running) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                break;
+            }
+            Completion next = queue.poll(Math.min(remaining, IDLE_POLL.toNanos()), TimeUnit.NANOSECONDS);
+            if (next != null) {
+                batch.add(next);
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Writes the completions of a batch as one operation per registry collection.
+     *
+     * @param batch the queued completions
+     */
+    void flush(List<Completion> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<UUID> ids = batch.stream().map(Completion::id).toList();
+        Instant completionDate = batch.stream().map(Completion::completionDate).max(Instant::compareTo)
+            .orElseThrow();
+        Map<String, List<UUID>> idsByCollection = new LinkedHashMap<>();
+        batch.forEach(completion -> idsByCollection
+            .computeIfAbsent(completion.collection(), key -> new ArrayList<>())
+            .add(completion.id()));
+        try {
+            idsByCollection.forEach((collection, collectionIds) -> {
+                long written = write(collection, collectionIds, completionDate);
+                for (String other : collections.all()) {
+                    if (written >= collectionIds.size()) {
+                        break;
+                    }
+                    if (!other.equals(collection)) {
+                        // Stored elsewhere, e.g. before module collections were enabled
+                        written += write(other, collectionIds, completionDate);
+                    }
+                }
+            });
+            batchSizes.record(batch.size());
+            log.debug("Flushed {} event publication completions", batch.size());
+        } catch (RuntimeException e) {
+            log.warn("Flush of {} event publication completions failed, they are redelivered by the retry",
+                batch.size(), e);
+        } finally {
+            ids.forEach(pending::remove);
+        }
+    }
+
+    /**
+     * Completes publications in one registry collection.
+     *
+     * @return the number of publications completed
+     */
+    private long write(String collection, List<UUID> ids, Instant completionDate) {
+        MongoCollection<Document> publications = mongoOperations.getCollection(collection);
+        long written = completionMode == CompletionMode.DELETE
+            ? publications.deleteMany(Filters.in("_id", ids)).getDeletedCount()
+            : publications.updateMany(Filters.and(Filters.in("_id", ids), Filters.eq("completionDate", null)),
+                Updates.combine(
+                    Updates.set("completionDate", Date.from(completionDate)),
+                    Updates.set("status", EventPublication.Status.COMPLETED.name()))).getMatchedCount();
+        if (collections.isPerModule() && written > 0) {
+            moduleWrites.computeIfAbsent(collection, key ->
+                Counter.builder("event.publication.registry.writes")
+                    .description("Event publication registry writes per module")
+                    .tag("module", collections.moduleOf(collection))
+                    .tag("operation", "completed")
+                    .register(meterRegistry))
+                .increment(written);
+        }
+        return written;
+    }
+
+    /**
+     * A queued completion.
+     *
+     * @param id the publication identifier
+     * @param collection the registry collection of the publication's listener
+     * @param completionDate when the listener completed
+     */
+    record Completion(UUID id, String collection, Instant completionDate) {
+    }
+}
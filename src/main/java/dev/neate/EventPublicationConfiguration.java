@@ -0,0 +1,165 @@
+package dev.neate;
+
+import dev.neate.api.CountryCreatedEvent;
+import dev.neate.enrichment.CountryEnrichedEvent;
+import dev.neate.validation.CountryValidatedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.env.Environment;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.modulith.core.ApplicationModules;
+import org.springframework.modulith.events.core.EventPublicationRepository;
+import org.springframework.modulith.events.support.CompletionMode;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Customization of the Spring Modulith event publication registry.
+ *
+ * The registry's EventPublicationRepository (MongoDB, the in-memory one of
+ * the in-memory profile or the journal of the journal profile) is wrapped in ChunkScopedEventPublicationRepository,
+ * so ChunkedEventResubmitter can resubmit the backlog chunk by chunk.
+ * With MongoDB, events of the types registered in compactEventSerializer()
+ * are stored in their compact binary encoding by
+ * CompactEventPublicationRepository; the journal uses the same encoding.
+ * Publications of the listeners listed in
+ * spring.modulith.events.durability.recoverable-listeners are kept out of
+ * the registry by TieredEventPublicationRepository.
+ * With MongoDB and module collections enabled, publications are stored in
+ * the collection of their listener's module (see EventPublicationCollections)
+ * by ModuleRoutingEventPublicationRepository.
+ * With MongoDB and completion batching enabled, completions are written in batches by
+ * EventPublicationCompletionBatcher through
+ * BatchedCompletionEventPublicationRepository.
+ * Listener exceptions are recorded by EventListenerFailureAdvisor for the
+ * per-publication backoff (EventPublicationBackoff).
+ */
+@Configuration
+class EventPublicationConfiguration {
+
+    /**
+     * Wraps every EventPublicationRepository bean in the application's
+     * decorators, innermost first: module collections if enabled, compact
+     * serialization if there is a CompactEventSerializer, batched completions
+     * if there is an EventPublicationCompletionBatcher, durability tiers if
+     * recoverable listeners are configured, and chunked resubmission.
+     * Repositories that already are decorators
+     * (EventPublicationRepositoryDecorator) are left alone.
+     *
+     * Static, so the post processor is registered before the registry beans
+     * are created.
+     *
+     * @param compactSerializer the compact encoding, absent with the in-memory profile
+     * @param completionBatcher the completion batcher, absent without MongoDB or with batching disabled
+     * @param publicationCollections the registry collections, absent without MongoDB
+     * @param mongoOperations the MongoDB access of the module collections
+     * @param meterRegistry the registry of the per-module metrics
+     * @param environment the environment holding the compact serialization and durability properties
+     * @return the post processor
+     */
+    @Bean
+    static BeanPostProcessor eventPublicationRepositoryDecorators(
+            ObjectProvider<CompactEventSerializer> compactSerializer,
+            ObjectProvider<EventPublicationCompletionBatcher> completionBatcher,
+            ObjectProvider<EventPublicationCollections> publicationCollections,
+            ObjectProvider<MongoOperations> mongoOperations, ObjectProvider<MeterRegistry> meterRegistry,
+            Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof EventPublicationRepository repository
+                        && !(bean instanceof EventPublicationRepositoryDecorator)) {
+                    EventPublicationCollections collections = publicationCollections.getIfAvailable();
+                    if (collections != null && collections.isPerModule()) {
+                        repository = new ModuleRoutingEventPublicationRepository(repository, collections,
+                            mongoOperations.getObject(), CompletionMode.from(environment), meterRegistry.getObject());
+                    }
+                    CompactEventSerializer serializer = compactSerializer.getIfAvailable();
+                    // The journal encodes events compactly itself
+                    if (serializer != null && !(bean instanceof JournalEventPublicationRepository)) {
+                        // Always decorated, so compact entries stay readable with compact writes disabled
+                        repository = new CompactEventPublicationRepository(repository, serializer,
+                            environment.getProperty("spring.modulith.events.compact-serialization.enabled",
+                                Boolean.class, false),
+                            environment.getProperty("spring.modulith.events.compact-serialization.legacy-lookups",
+                                Boolean.class, true));
+                    }
+                    EventPublicationCompletionBatcher batcher = completionBatcher.getIfAvailable();
+                    if (batcher != null) {
+                        repository = new BatchedCompletionEventPublicationRepository(repository, batcher);
+                    }
+                    List<String> recoverableListeners = Binder.get(environment)
+                        .bind("spring.modulith.events.durability.recoverable-listeners", Bindable.listOf(String.class))
+                        .orElse(List.of());
+                    if (!recoverableListeners.isEmpty()) {
+                        repository = new TieredEventPublicationRepository(repository, recoverableListeners);
+                    }
+                    return new ChunkScopedEventPublicationRepository(repository);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Collections of the MongoDB registry, one per application module if
+     * spring.modulith.events.module-collections.enabled is set.
+     *
+     * @param environment the environment holding the module collection properties
+     * @return the collections
+     */
+    @Bean
+    @Profile("!in-memory & !journal")
+    static EventPublicationCollections eventPublicationCollections(Environment environment) {
+        if (!environment.getProperty("spring.modulith.events.module-collections.enabled", Boolean.class, false)) {
+            return EventPublicationCollections.registryOnly();
+        }
+        Map<String, Duration> maxAges = Binder.get(environment)
+            .bind("spring.modulith.events.module-collections.cleanup.max-age",
+                Bindable.mapOf(String.class, Duration.class))
+            .orElse(Map.of());
+        return EventPublicationCollections.perModule(ApplicationModules.of(Application.class), maxAges);
+    }
+
+    /**
+     * Compact encoding of the application's events, all of which carry a single country ID.
+     *
+     * Type ids are stored with every event: add new types with new ids,
+     * never change or reuse one.
+     *
+     * @return the serializer
+     */
+    @Bean
+    @Profile("!in-memory")
+    static CompactEventSerializer compactEventSerializer() {
+        return new CompactEventSerializer()
+            .register(1, CountryCreatedEvent.class, CountryCreatedEvent::countryId, CountryCreatedEvent::new)
+            .register(2, CountryValidatedEvent.class, CountryValidatedEvent::countryId, CountryValidatedEvent::new)
+            .register(3, CountryEnrichedEvent.class, CountryEnrichedEvent::countryId, CountryEnrichedEvent::new);
+    }
+
+    /**
+     * Records listener exceptions for the per-publication backoff.
+     *
+     * Infrastructure role, so it is applied like Spring Modulith's own
+     * completion advisor.
+     *
+     * @param backoff the backoff, absent with the in-memory profile or when disabled
+     * @return the advisor
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static EventListenerFailureAdvisor eventListenerFailureAdvisor(ObjectProvider<EventPublicationBackoff> backoff) {
+        return new EventListenerFailureAdvisor(backoff);
+    }
+}
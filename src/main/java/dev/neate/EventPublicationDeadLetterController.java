@@ -0,0 +1,69 @@
+package dev.neate;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller for dead-lettered event publications.
+ *
+ * Lists the publications that exhausted their attempts and redrives them in
+ * bulk, for example once the cause of their failure has been fixed. Both
+ * operations can be limited to one listener.
+ */
+@RestController
+@Profile("!in-memory & !journal")
+@RequestMapping("/event-publications/dead-letters")
+public class EventPublicationDeadLetterController {
+
+    private final EventPublicationDeadLetters deadLetters;
+
+    /**
+     * Constructor injection of dependencies.
+     *
+     * @param deadLetters the dead-letter collection
+     */
+    public EventPublicationDeadLetterController(EventPublicationDeadLetters deadLetters) {
+        this.deadLetters = deadLetters;
+    }
+
+    /**
+     * Lists dead letters, oldest first.
+     *
+     * @param listenerId only dead letters of this listener (optional)
+     * @param limit the maximum number of dead letters (default 100)
+     * @return 200 OK with the dead letters
+     */
+    @GetMapping
+    public ResponseEntity<List<EventPublicationDeadLetters.DeadLetter>> list(
+            @RequestParam(required = false) String listenerId,
+            @RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(deadLetters.find(listenerId, limit));
+    }
+
+    /**
+     * Moves dead letters back to the registry and resubmits them.
+     *
+     * @param listenerId only dead letters of this listener (optional)
+     * @param limit the maximum number of dead letters to redrive (default 1000)
+     * @return 200 OK with the number of redriven and resubmitted publications
+     */
+    @PostMapping("/redrive")
+    public ResponseEntity<EventPublicationDeadLetters.RedriveResult> redrive(
+            @RequestParam(required = false) String listenerId,
+            @RequestParam(defaultValue = "1000") int limit) {
+        if (limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(deadLetters.redrive(listenerId, limit));
+    }
+}
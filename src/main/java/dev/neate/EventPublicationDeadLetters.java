@@ -0,0 +1,212 @@
+package dev.neate;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.Sorts;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Dead-letter collection of event publications that exhausted their attempts.
+ *
+ * EventPublicationBackoff moves a publication here once it has failed
+ * max-attempts times (if set), so a poison event (for example a permanently invalid
+ * country code) stops costing an outbound call every retry cycle. A dead
+ * letter is the registry entry as it was, plus:
+ * - failure: type and message of the last exception of its listener
+ * - deadLetteredAt: when it was moved
+ *
+ * Dead letters are redriven in bulk: they are moved back to event_publication
+ * (or to their listener's module collection, see EventPublicationCollections)
+ * with their attempt count reset and resubmitted at once, in chunks, through
+ * ChunkedEventResubmitter. Like EventPublicationArchiver, moves insert first
+ * and delete second, ignoring duplicate keys, so an entry is never lost.
+ *
+ * Exposed over HTTP by EventPublicationDeadLetterController.
+ */
+@Component
+@Profile("!in-memory & !journal")
+public class EventPublicationDeadLetters {
+
+    private static final Logger log = LoggerFactory.getLogger(EventPublicationDeadLetters.class);
+
+    static final String DEAD_LETTER_COLLECTION = "event_publication_dead_letter";
+
+    private final MongoOperations mongoOperations;
+    private final EventPublicationCollections collections;
+    private final ChunkedEventResubmitter chunkedResubmitter;
+
+    public EventPublicationDeadLetters(MongoOperations mongoOperations, EventPublicationCollections collections,
+            ObjectProvider<ChunkedEventResubmitter> chunkedResubmitter) {
+        this.mongoOperations = mongoOperations;
+        this.collections = collections;
+        this.chunkedResubmitter = chunkedResubmitter.getIfAvailable();
+    }
+
+    /**
+     * Moves a publication from the registry to the dead-letter collection.
+     *
+     * @param publication the registry document, with its lastFailure
+     * @param collection the registry collection holding the publication
+     */
+    void deadLetter(Document publication, String collection) {
+        Document deadLetter = new Document(publication)
+            .append("failure", publication.get(EventPublicationBackoff.LAST_FAILURE))
+            .append("deadLetteredAt", new Date());
+        deadLetter.remove(EventPublicationBackoff.LAST_FAILURE);
+        deadLetter.remove(EventPublicationBackoff.NEXT_ATTEMPT_DATE);
+
+        try {
+            deadLetters().insertOne(deadLetter);
+        } catch (MongoWriteException e) {
+            if (ErrorCategory.fromErrorCode(e.getCode()) != ErrorCategory.DUPLICATE_KEY) {
+                throw e;
+            }
+            // Moved by an earlier attempt that stopped before the delete
+        }
+        mongoOperations.getCollection(collection).deleteOne(Filters.and(Filters.eq("_id", publication.get("_id")),
+            Filters.eq("completionDate", null)));
+    }
+
+    /**
+     * Returns dead letters, oldest first.
+     *
+     * @param listenerId only dead letters of this listener, or null for all
+     * @param limit the maximum number of dead letters
+     * @return the dead letters
+     */
+    public List<DeadLetter> find(String listenerId, int limit) {
+        return deadLetters().find(byListener(listenerId))
+            .sort(Sorts.ascending("deadLetteredAt"))
+            .limit(limit)
+            .map(EventPublicationDeadLetters::toDeadLetter)
+            .into(new ArrayList<>());
+    }
+
+    /**
+     * Counts the dead letters.
+     *
+     * @param listenerId only dead letters of this listener, or null for all
+     * @return the number of dead letters
+     */
+    public long count(String listenerId) {
+        return deadLetters().countDocuments(byListener(listenerId));
+    }
+
+    /**
+     * Moves dead letters back to the registry and resubmits them.
+     *
+     * @param listenerId only dead letters of this listener, or null for all
+     * @param limit the maximum number of dead letters to redrive
+     * @return the outcome of the redrive
+     */
+    public RedriveResult redrive(String listenerId, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Redrive limit must be at least 1");
+        }
+        List<Document> documents = deadLetters().find(byListener(listenerId))
+            .sort(Sorts.ascending("deadLetteredAt"))
+            .limit(limit)
+            .into(new ArrayList<>());
+        if (documents.isEmpty()) {
+            return new RedriveResult(0, 0);
+        }
+
+        Map<String, List<Document>> publicationsByCollection = new LinkedHashMap<>();
+        List<UUID> ids = new ArrayList<>();
+        for (Document document : documents) {
+            Document publication = new Document(document);
+            publication.remove("failure");
+            publication.remove("deadLetteredAt");
+            publication.remove(EventPublicationBackoff.RETRY_ATTEMPTS);
+            publicationsByCollection
+                .computeIfAbsent(collections.collectionOf(document.getString("listenerId")), key -> new ArrayList<>())
+                .add(publication);
+            ids.add(document.get("_id", UUID.class));
+        }
+
+        publicationsByCollection.forEach((collection, publications) -> {
+            try {
+                mongoOperations.getCollection(collection)
+                    .insertMany(publications, new InsertManyOptions().ordered(false));
+            } catch (MongoBulkWriteException e) {
+                boolean onlyDuplicates = e.getWriteErrors().stream()
+                    .allMatch(error -> ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY);
+                if (!onlyDuplicates) {
+                    throw e;
+                }
+                // Already moved back by an earlier redrive that stopped before the delete
+            }
+        });
+        deadLetters().deleteMany(Filters.in("_id", ids));
+
+        int resubmitted = chunkedResubmitter != null ? chunkedResubmitter.resubmitNow(ids) : 0;
+        log.info("Redrove {} dead-lettered event publications, {} resubmitted", ids.size(), resubmitted);
+        return new RedriveResult(ids.size(), resubmitted);
+    }
+
+    private static Bson byListener(String listenerId) {
+        return listenerId != null ? Filters.eq("listenerId", listenerId) : new Document();
+    }
+
+    private static DeadLetter toDeadLetter(Document document) {
+        Document failure = document.get("failure", Document.class);
+        Date deadLetteredAt = document.getDate("deadLetteredAt");
+        Date publicationDate = document.getDate("publicationDate");
+        Number attempts = document.get(EventPublicationBackoff.RETRY_ATTEMPTS, Number.class);
+        return new DeadLetter(
+            document.get("_id", UUID.class),
+            document.getString("listenerId"),
+            publicationDate != null ? publicationDate.toInstant() : null,
+            attempts != null ? attempts.intValue() : 0,
+            failure != null ? failure.getString("type") : null,
+            failure != null ? failure.getString("message") : null,
+            deadLetteredAt != null ? deadLetteredAt.toInstant() : null);
+    }
+
+    private MongoCollection<Document> deadLetters() {
+        return mongoOperations.getCollection(DEAD_LETTER_COLLECTION);
+    }
+
+    /**
+     * A dead-lettered publication.
+     *
+     * @param id the publication identifier
+     * @param listenerId the listener that failed
+     * @param publicationDate when the event was published
+     * @param attempts the number of failed attempts
+     * @param failureType the exception type of the last failure
+     * @param failureMessage the exception message of the last failure
+     * @param deadLetteredAt when the publication was dead-lettered
+     */
+    public record DeadLetter(UUID id, String listenerId, Instant publicationDate, int attempts,
+            String failureType, String failureMessage, Instant deadLetteredAt) {
+    }
+
+    /**
+     * Outcome of a redrive.
+     *
+     * @param redriven number of dead letters moved back to the registry
+     * @param resubmitted number of them resubmitted to their listeners
+     */
+    public record RedriveResult(int redriven, int resubmitted) {
+    }
+}
@@ -0,0 +1,214 @@
+package dev.neate;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.core.TypeInformation;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.modulith.events.EventPublication;
+import org.springframework.modulith.events.core.EventSerializer;
+import org.springframework.modulith.events.core.PublicationTargetIdentifier;
+import org.springframework.modulith.events.core.TargetEventPublication;
+import org.springframework.util.ClassUtils;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Maps publications to and from registry documents.
+ *
+ * Documents have the layout of Spring Modulith's MongoDB registry (_id,
+ * publicationDate, listenerId, event, completionDate, status,
+ * completionAttempts, lastResubmissionDate), in event_publication as well
+ * as in the module collections. The event is stored as:
+ * - a document mapped by the MongoConverter, with a _class type hint
+ * - binary in the compact encoding (see CompactEventSerializer)
+ * - a string serialized by the EventSerializer, with its eventType
+ *
+ * Reading decodes compact and serialized events only when the respective
+ * serializer is given. Without them they are returned as stored, e.g. for
+ * CompactEventPublicationRepository to decode.
+ *
+ * Shared by ModuleCollectionEventPublicationRepository and ChunkedEventResubmitter.
+ */
+class EventPublicationDocumentMapper {
+
+    private static final Logger log = LoggerFactory.getLogger(EventPublicationDocumentMapper.class);
+
+    private final MongoConverter converter;
+    private final EventSerializer eventSerializer;
+    private final CompactEventSerializer compactSerializer;
+
+    /**
+     * Creates a mapper.
+     *
+     * @param converter the converter of mapped events
+     * @param eventSerializer the serializer of serialized events, or null to return them as stored
+     * @param compactSerializer the compact encoding, or null to return compact events as stored
+     */
+    EventPublicationDocumentMapper(MongoConverter converter, EventSerializer eventSerializer,
+            CompactEventSerializer compactSerializer) {
+        this.converter = converter;
+        this.eventSerializer = eventSerializer;
+        this.compactSerializer = compactSerializer;
+    }
+
+    /**
+     * Creates the document of a new publication.
+     *
+     * @param publication the publication
+     * @return the registry document, PUBLISHED and incomplete
+     */
+    Document toDocument(TargetEventPublication publication) {
+        return new Document("_id", publication.getIdentifier())
+            .append("publicationDate", Date.from(publication.getPublicationDate()))
+            .append("listenerId", publication.getTargetIdentifier().getValue())
+            .append("event", toStoredEvent(publication.getEvent()))
+            .append("completionDate", null)
+            .append("status", EventPublication.Status.PUBLISHED.name())
+            .append("completionAttempts", publication.getCompletionAttempts())
+            .append("lastResubmissionDate", null);
+    }
+
+    /**
+     * Converts an event to its stored form. Compactly encoded events (bytes) are stored as they are.
+     *
+     * @param event the event
+     * @return the value of the event field
+     */
+    Object toStoredEvent(Object event) {
+        if (event instanceof byte[]) {
+            return event;
+        }
+        return converter.convertToMongoType(event, TypeInformation.OBJECT);
+    }
+
+    /**
+     * Reads a registry document as a publication.
+     *
+     * @param document the registry document
+     * @param collection the collection the document was read from, for logging
+     * @return the publication, or empty if its event cannot be read
+     */
+    Optional<TargetEventPublication> toPublication(Document document, String collection) {
+        try {
+            Date completionDate = document.getDate("completionDate");
+            Date lastResubmission = document.getDate("lastResubmissionDate");
+            Number attempts = document.get("completionAttempts", Number.class);
+            return Optional.of(new StoredPublication(
+                document.get("_id", UUID.class),
+                toEvent(document),
+                PublicationTargetIdentifier.of(document.getString("listenerId")),
+                document.getDate("publicationDate").toInstant(),
+                completionDate != null ? completionDate.toInstant() : null,
+                status(document.getString("status"), completionDate),
+                lastResubmission != null ? lastResubmission.toInstant() : null,
+                attempts != null ? attempts.intValue() : 0));
+        } catch (Exception e) {
+            log.warn("Skipping event publication {} of {}, its event cannot be read", document.get("_id"),
+                collection, e);
+            return Optional.empty();
+        }
+    }
+
+    private Object toEvent(Document document) throws ClassNotFoundException {
+        Object stored = document.get("event");
+        if (stored instanceof Document mapped) {
+            return converter.read(Object.class, mapped);
+        }
+        if (stored instanceof String serialized && eventSerializer != null) {
+            Class<?> type = ClassUtils.forName(document.getString("eventType"), getClass().getClassLoader());
+            return eventSerializer.deserialize(serialized, type);
+        }
+        if (compactSerializer != null) {
+            return compactSerializer.decode(stored);
+        }
+        return stored;
+    }
+
+    private static EventPublication.Status status(String status, Date completionDate) {
+        if (completionDate != null) {
+            return EventPublication.Status.COMPLETED;
+        }
+        try {
+            return status != null ? EventPublication.Status.valueOf(status) : EventPublication.Status.PUBLISHED;
+        } catch (IllegalArgumentException e) {
+            return EventPublication.Status.PUBLISHED;
+        }
+    }
+
+    /**
+     * Publication read from a registry document.
+     */
+    private static final class StoredPublication implements TargetEventPublication {
+
+        private final UUID identifier;
+        private final Object event;
+        private final PublicationTargetIdentifier targetIdentifier;
+        private final Instant publicationDate;
+        private final EventPublication.Status status;
+        private final Instant lastResubmissionDate;
+        private final int completionAttempts;
+        private volatile Instant completionDate;
+
+        StoredPublication(UUID identifier, Object event, PublicationTargetIdentifier targetIdentifier,
+                Instant publicationDate, Instant completionDate, EventPublication.Status status,
+                Instant lastResubmissionDate, int completionAttempts) {
+            this.identifier = identifier;
+            this.event = event;
+            this.targetIdentifier = targetIdentifier;
+            this.publicationDate = publicationDate;
+            this.completionDate = completionDate;
+            this.status = status;
+            this.lastResubmissionDate = lastResubmissionDate;
+            this.completionAttempts = completionAttempts;
+        }
+
+        @Override
+        public UUID getIdentifier() {
+            return identifier;
+        }
+
+        @Override
+        public Object getEvent() {
+            return event;
+        }
+
+        @Override
+        public PublicationTargetIdentifier getTargetIdentifier() {
+            return targetIdentifier;
+        }
+
+        @Override
+        public Instant getPublicationDate() {
+            return publicationDate;
+        }
+
+        @Override
+        public Optional<Instant> getCompletionDate() {
+            return Optional.ofNullable(completionDate);
+        }
+
+        @Override
+        public EventPublication.Status getStatus() {
+            return completionDate != null ? EventPublication.Status.COMPLETED : status;
+        }
+
+        @Override
+        public Instant getLastResubmissionDate() {
+            return lastResubmissionDate;
+        }
+
+        @Override
+        public int getCompletionAttempts() {
+            return completionAttempts;
+        }
+
+        @Override
+        public void markCompleted(Instant instant) {
+            completionDate = instant;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package dev.neate;
+
+import com.mongodb.ExplainVerbosity;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Verifies the query plans of the event publication registry queries at startup.
+ *
+ * Once the application is ready, every query shape the registry runs against
+ * event_publication, and against every module collection (see
+ * EventPublicationCollections), is explained (queryPlanner verbosity, nothing is
+ * executed):
+ * - incomplete publications (republishing on restart)
+ * - incomplete publications published before a date (ScheduledEventRetryService)
+ * - the next chunk of incomplete publications (ChunkedEventResubmitter)
+ * - the incomplete publication of an event and listener (completion)
+ * - publications by status (failed publications)
+ *
+ * If a winning plan contains a COLLSCAN, a warning with the query and the
+ * plan is logged. Startup does not fail, because a missing index slows the
+ * registry down but does not break it. The indexes are created by
+ * EventPublicationCollectionInitializer.
+ *
+ * Configuration:
+ * - Enabled via spring.modulith.events.publication.registry.verify-query-plans (default true)
+ */
+@Component
+@Profile("!in-memory & !journal")
+@ConditionalOnProperty(name = "spring.modulith.events.publication.registry.verify-query-plans",
+    havingValue = "true", matchIfMissing = true)
+public class EventPublicationQueryPlanVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(EventPublicationQueryPlanVerifier.class);
+
+    private final MongoOperations mongoOperations;
+    private final EventPublicationCollections collections;
+
+    public EventPublicationQueryPlanVerifier(MongoOperations mongoOperations, EventPublicationCollections collections) {
+        this.mongoOperations = mongoOperations;
+        this.collections = collections;
+    }
+
+    /**
+     * Explains the registry queries once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyOnStartup() {
+        try {
+            List<String> scanning = verify();
+            if (scanning.isEmpty()) {
+                log.debug("All event publication registry queries use an index");
+            }
+        } catch (Exception e) {
+            log.error("Error during event publication query plan verification", e);
+        }
+    }
+
+    /**
+     * Explains every registry query and logs the ones whose plan scans the collection.
+     *
+     * @return the names of the queries that scan a collection, with the collection for module collections
+     */
+    List<String> verify() {
+        List<String> scanning = new ArrayList<>();
+        for (String collection : collections.all()) {
+            for (String query : verify(collection)) {
+                scanning.add(EventPublicationArchiver.PUBLICATIONS_COLLECTION.equals(collection)
+                    ? query
+                    : query + " on " + collection);
+            }
+        }
+        return scanning;
+    }
+
+    private List<String> verify(String collection) {
+        MongoCollection<Document> publications = mongoOperations.getCollection(collection);
+        List<String> scanning = new ArrayList<>();
+
+        for (RegistryQuery query : queries()) {
+            Document plan = publications.find(query.filter())
+                .sort(query.sort())
+                .explain(ExplainVerbosity.QUERY_PLANNER);
+            Document winningPlan = plan.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+            List<String> stages = new ArrayList<>();
+            collectStages(winningPlan, stages);
+
+            if (stages.contains("COLLSCAN")) {
+                scanning.add(query.name());
+                log.warn("Event publication registry query '{}' scans the {} collection: filter {}, plan {}",
+                    query.name(), collection,
+                    query.filter().toBsonDocument(), winningPlan.toJson());
+            }
+        }
+        return scanning;
+    }
+
+    /**
+     * Returns the query shapes of the registry, with representative values.
+     *
+     * @return the registry queries
+     */
+    static List<RegistryQuery> queries() {
+        Instant now = Instant.now();
+        Bson incomplete = Filters.eq("completionDate", null);
+        Bson byPublicationDate = Sorts.ascending("publicationDate");
+
+        return List.of(
+            new RegistryQuery("incomplete publications", incomplete, byPublicationDate),
+            new RegistryQuery("incomplete publications published before",
+                Filters.and(incomplete, Filters.lt("publicationDate", now)), byPublicationDate),
+            new RegistryQuery("incomplete publications chunk",
+                Filters.and(incomplete, Filters.lt("publicationDate", now), Filters.or(
+                    Filters.gt("publicationDate", now),
+                    Filters.and(Filters.eq("publicationDate", now), Filters.gt("_id", UUID.randomUUID()))),
+                    EventPublicationBackoff.due(now)),
+                Sorts.ascending("publicationDate", "_id")),
+            new RegistryQuery("incomplete publication of event and listener",
+                Filters.and(Filters.eq("listenerId", "listener"), Filters.eq("event._id", UUID.randomUUID()),
+                    incomplete), byPublicationDate),
+            new RegistryQuery("publications by status",
+                Filters.and(Filters.eq("status", "FAILED"), Filters.lt("publicationDate", now)),
+                byPublicationDate));
+    }
+
+    private static void collectStages(Object node, List<String> stages) {
+        if (node instanceof Document document) {
+            Object stage = document.get("stage");
+            if (stage instanceof String name) {
+                stages.add(name);
+            }
+            document.values().forEach(value -> collectStages(value, stages));
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectStages(value, stages));
+        }
+    }
+
+    /**
+     * A query shape of the registry.
+     *
+     * @param name the name used in the log
+     * @param filter the query filter
+     * @param sort the sort order
+     */
+    record RegistryQuery(String name, Bson filter, Bson sort) {
+    }
+}
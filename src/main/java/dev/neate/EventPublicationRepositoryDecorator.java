@@ -0,0 +1,14 @@
+package dev.neate;
+
+import org.springframework.modulith.events.core.EventPublicationRepository;
+
+/**
+ * Marker of the EventPublicationRepository decorators of the application.
+ *
+ * EventPublicationConfiguration wraps the registry's repository in these
+ * decorators and leaves repositories carrying this marker alone, so a
+ * decorated repository is not decorated again. Every new decorator
+ * implements it instead of extending the configuration's exclusions.
+ */
+interface EventPublicationRepositoryDecorator extends EventPublicationRepository {
+}
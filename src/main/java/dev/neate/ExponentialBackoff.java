@@ -0,0 +1,45 @@
+package dev.neate;
+
+import java.time.Duration;
+
+/**
+ * Exponential backoff with jitter.
+ *
+ * The delay after the n-th failed attempt is initialDelay * multiplier^(n-1),
+ * capped at maxDelay, then spread by up to +/- jitter (a fraction of the
+ * delay) so publications that failed together are not retried together.
+ * Jitter is applied after the cap, so delays at the cap are spread as well.
+ *
+ * @param initialDelay delay after the first failed attempt
+ * @param multiplier factor between two consecutive delays
+ * @param maxDelay upper limit of the delay before jitter
+ * @param jitter fraction of the delay by which it is randomly shortened or extended, between 0 and 1
+ */
+record ExponentialBackoff(Duration initialDelay, double multiplier, Duration maxDelay, double jitter) {
+
+    ExponentialBackoff {
+        if (initialDelay.isNegative() || maxDelay.compareTo(initialDelay) < 0) {
+            throw new IllegalArgumentException("Backoff delays must not be negative and max delay at least the initial delay");
+        }
+        if (multiplier < 1) {
+            throw new IllegalArgumentException("Backoff multiplier must be at least 1");
+        }
+        if (jitter < 0 || jitter > 1) {
+            throw new IllegalArgumentException("Backoff jitter must be between 0 and 1");
+        }
+    }
+
+    /**
+     * Returns the delay after a failed attempt.
+     *
+     * @param attempt the number of failed attempts so far, starting at 1
+     * @param random a uniformly distributed value in [0, 1) choosing the jitter
+     * @return the delay before the next attempt
+     */
+    Duration delay(int attempt, double random) {
+        double base = Math.min(initialDelay.toMillis() * Math.pow(multiplier, Math.max(0, attempt - 1)),
+            maxDelay.toMillis());
+        double jittered = base * (1 + jitter * (2 * random - 1));
+        return Duration.ofMillis(Math.round(Math.max(0, jittered)));
+    }
+}
@@ -0,0 +1,133 @@
+package dev.neate;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel holding tasks until their deadline.
+ *
+ * Time is divided into ticks. The wheel has wheelSize buckets; a task due in
+ * tick t goes into bucket t mod wheelSize with the number of full turns it
+ * still has to wait. Advancing the wheel by one tick only visits one bucket,
+ * so scheduling is O(1) and waiting tasks cost nothing but their entry,
+ * however many there are. Tasks expire at most one tick after their
+ * deadline, never before it.
+ *
+ * schedule() may be called from any thread. advance() must always be called
+ * from the same thread; it hands expired tasks to the given consumer and
+ * does not run them itself.
+ *
+ * Used by DelayedEventRetryScheduler.
+ *
+ * @param <T> the task type
+ */
+class HashedTimingWheel<T> {
+
+    private final long tickNanos;
+    private final int mask;
+    private final long startNanos;
+    private final ArrayDeque<Entry<T>>[] buckets;
+    private final Queue<Entry<T>> scheduled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private long tick;
+
+    /**
+     * Creates a wheel starting at the given time.
+     *
+     * @param tickDuration the duration of one tick, the resolution of the wheel
+     * @param wheelSize the number of buckets, a power of two
+     * @param startNanos the start of the first tick, in System.nanoTime() terms
+     */
+    @SuppressWarnings("unchecked")
+    HashedTimingWheel(Duration tickDuration, int wheelSize, long startNanos) {
+        if (tickDuration.isNegative() || tickDuration.isZero()) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+        if (wheelSize < 1 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two");
+        }
+        this.tickNanos = tickDuration.toNanos();
+        this.mask = wheelSize - 1;
+        this.startNanos = startNanos;
+        this.buckets = new ArrayDeque[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Schedules a task.
+     *
+     * @param task the task
+     * @param deadlineNanos when the task is due, in System.nanoTime() terms
+     */
+    void schedule(T task, long deadlineNanos) {
+        scheduled.add(new Entry<>(task, deadlineNanos));
+        size.incrementAndGet();
+    }
+
+    /**
+     * Returns the number of tasks waiting.
+     *
+     * @return the number of scheduled, not yet expired tasks
+     */
+    int size() {
+        return size.get();
+    }
+
+    /**
+     * Processes every tick that has fully elapsed.
+     *
+     * @param nowNanos the current time, in System.nanoTime() terms
+     * @param expired receives every task whose deadline has passed
+     * @return the number of expired tasks
+     */
+    int advance(long nowNanos, Consumer<T> expired) {
+        int count = 0;
+        while (nowNanos - startNanos >= (tick + 1) * tickNanos) {
+            placeScheduled();
+            Iterator<Entry<T>> entries = buckets[(int) (tick & mask)].iterator();
+            while (entries.hasNext()) {
+                Entry<T> entry = entries.next();
+                if (entry.rounds > 0) {
+                    entry.rounds--;
+                    continue;
+                }
+                entries.remove();
+                size.decrementAndGet();
+                expired.accept(entry.task);
+                count++;
+            }
+            tick++;
+        }
+        return count;
+    }
+
+    private void placeScheduled() {
+        Entry<T> entry;
+        while ((entry = scheduled.poll()) != null) {
+            // Overdue tasks go into the current tick
+            long due = Math.max((entry.deadlineNanos - startNanos) / tickNanos, tick);
+            entry.rounds = (due - tick) / buckets.length;
+            buckets[(int) (due & mask)].add(entry);
+        }
+    }
+
+    private static final class Entry<T> {
+
+        private final T task;
+        private final long deadlineNanos;
+        private long rounds;
+
+        private Entry(T task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+}
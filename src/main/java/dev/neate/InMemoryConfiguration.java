@@ -0,0 +1,81 @@
+package dev.neate;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.modulith.events.core.EventPublicationRepository;
+import org.springframework.modulith.events.support.CompletionMode;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+/**
+ * Infrastructure of the in-memory profile.
+ *
+ * With the in-memory profile the application runs without MongoDB:
+ * - the Domain module provides InMemoryCountryService instead of the MongoDB services
+ * - event publications are kept in InMemoryEventPublicationRepository
+ * - transactions are demarcated by InMemoryTransactionManager
+ * - MongoDB auto-configuration is excluded in application-in-memory.yml
+ *
+ * Nothing is persisted, so this profile is for benchmarks and load tests of
+ * the event pipeline only.
+ */
+@Configuration
+@Profile("in-memory")
+class InMemoryConfiguration {
+
+    /**
+     * In-memory event publication registry.
+     *
+     * @param environment the environment providing spring.modulith.events.completion-mode
+     * @return the registry
+     */
+    @Bean
+    EventPublicationRepository inMemoryEventPublicationRepository(Environment environment) {
+        return new InMemoryEventPublicationRepository(CompletionMode.from(environment));
+    }
+
+    /**
+     * Transaction manager without a resource.
+     *
+     * @return the transaction manager
+     */
+    @Bean
+    PlatformTransactionManager transactionManager() {
+        return new InMemoryTransactionManager();
+    }
+
+    /**
+     * Transaction manager that only drives transaction synchronization.
+     *
+     * @Transactional methods still get a transaction boundary, so
+     * transactional event listeners (and @ApplicationModuleListener) run after
+     * commit as with MongoDB. There is nothing to commit or roll back: the
+     * in-memory stores apply every change immediately.
+     */
+    static class InMemoryTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            // No resource to bind
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            // Changes are already applied
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            // Changes cannot be undone
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package dev.neate;
+
+import org.springframework.modulith.events.EventPublication;
+import org.springframework.modulith.events.core.EventPublicationRepository;
+import org.springframework.modulith.events.core.PublicationTargetIdentifier;
+import org.springframework.modulith.events.core.TargetEventPublication;
+import org.springframework.modulith.events.support.CompletionMode;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * In-memory Spring Modulith event publication registry.
+ *
+ * Used with the in-memory profile instead of the MongoDB registry, so the
+ * overhead of the event pipeline itself can be measured. Publications are
+ * kept in a ConcurrentHashMap and are lost on restart, so nothing is
+ * republished after a crash.
+ *
+ * Completed publications are kept (UPDATE, ARCHIVE) or removed (DELETE)
+ * according to spring.modulith.events.completion-mode.
+ *
+ * Incomplete publications are also indexed by listener and event, so
+ * completing a publication by its event does not scan the registry.
+ */
+class InMemoryEventPublicationRepository implements EventPublicationRepository {
+
+    private final Map<UUID, InMemoryPublication> publications = new ConcurrentHashMap<>();
+    private final Map<ListenerEvent, Set<InMemoryPublication>> incompleteByListenerEvent = new ConcurrentHashMap<>();
+    private final CompletionMode completionMode;
+
+    /**
+     * Creates an empty registry.
+     *
+     * @param completionMode what happens to completed publications
+     */
+    InMemoryEventPublicationRepository(CompletionMode completionMode) {
+        this.completionMode = completionMode;
+    }
+
+    /**
+     * Creates a publication in the registry's own representation, e.g. to restore it from a journal.
+     *
+     * @param identifier the publication identifier
+     * @param event the event
+     * @param targetIdentifier the listener
+     * @param publicationDate the publication date
+     * @param status the status, PUBLISHED if null
+     * @param completionDate the completion date, null if incomplete
+     * @param lastResubmissionDate the last resubmission date, if any
+     * @param completionAttempts the number of completion attempts
+     * @return the publication, stored as it is by create()
+     */
+    static TargetEventPublication restore(UUID identifier, Object event, PublicationTargetIdentifier targetIdentifier,
+            Instant publicationDate, EventPublication.Status status, Instant completionDate,
+            Instant lastResubmissionDate, int completionAttempts) {
+        return new InMemoryPublication(identifier, event, targetIdentifier, publicationDate, status, completionDate,
+            lastResubmissionDate, completionAttempts);
+    }
+
+    @Override
+    public TargetEventPublication create(TargetEventPublication publication) {
+        InMemoryPublication entry = publication instanceof InMemoryPublication restored
+            ? restored
+            : new InMemoryPublication(publication);
+        InMemoryPublication replaced = publications.put(entry.getIdentifier(), entry);
+        if (replaced != null) {
+            unindex(replaced);
+        }
+        if (!entry.isCompleted()) {
+            incompleteByListenerEvent.compute(ListenerEvent.of(entry), (key, indexed) -> {
+                Set<InMemoryPublication> publicationsOfKey = indexed != null ? indexed : ConcurrentHashMap.newKeySet();
+                publicationsOfKey.add(entry);
+                return publicationsOfKey;
+            });
+        }
+        return publication;
+    }
+
+    @Override
+    public void markProcessing(UUID identifier) {
+        update(identifier, publication -> publication.status = EventPublication.Status.PROCESSING);
+    }
+
+    @Override
+    public void markCompleted(Object event, PublicationTargetIdentifier identifier, Instant completionDate) {
+        findIncompletePublicationsByEventAndTargetIdentifier(event, identifier)
+            .ifPresent(publication -> markCompleted(publication.getIdentifier(), completionDate));
+    }
+
+    @Override
+    public void markCompleted(UUID identifier, Instant completionDate) {
+        if (completionMode == CompletionMode.DELETE) {
+            remove(identifier);
+            return;
+        }
+        update(identifier, publication -> {
+            publication.status = EventPublication.Status.COMPLETED;
+            publication.completionDate = completionDate;
+        });
+        InMemoryPublication publication = publications.get(identifier);
+        if (publication != null) {
+            unindex(publication);
+        }
+    }
+
+    @Override
+    public void markFailed(UUID identifier) {
+        update(identifier, publication -> publication.status = EventPublication.Status.FAILED);
+    }
+
+    @Override
+    public boolean markResubmitted(UUID identifier, Instant resubmissionDate) {
+        InMemoryPublication publication = publications.get(identifier);
+        if (publication == null) {
+            return false;
+        }
+        synchronized (publication) {
+            if (publication.status == EventPublication.Status.COMPLETED
+                    || publication.status == EventPublication.Status.RESUBMITTED) {
+                return false;
+            }
+            publication.status = EventPublication.Status.RESUBMITTED;
+            publication.lastResubmissionDate = resubmissionDate;
+            publication.completionAttempts++;
+            return true;
+        }
+    }
+
+    @Override
+    public List<TargetEventPublication> findIncompletePublications() {
+        return find(publication -> !publication.isCompleted());
+    }
+
+    @Override
+    public List<TargetEventPublication> findIncompletePublicationsPublishedBefore(Instant instant) {
+        return find(publication -> !publication.isCompleted() && publication.getPublicationDate().isBefore(instant));
+    }
+
+    @Override
+    public Optional<TargetEventPublication> findIncompletePublicationsByEventAndTargetIdentifier(Object event,
+            PublicationTargetIdentifier targetIdentifier) {
+        Set<InMemoryPublication> candidates =
+            incompleteByListenerEvent.get(new ListenerEvent(targetIdentifier, event));
+        if (candidates == null) {
+            return Optional.empty();
+        }
+        // Completed through TargetEventPublication.markCompleted() only, until the registry marks them completed
+        return candidates.stream()
+            .filter(publication -> !publication.isCompleted())
+            .min(Comparator.comparing(TargetEventPublication::getPublicationDate))
+            .map(TargetEventPublication.class::cast);
+    }
+
+    @Override
+    public List<TargetEventPublication> findCompletedPublications() {
+        return find(InMemoryPublication::isCompleted);
+    }
+
+    @Override
+    public List<TargetEventPublication> findFailedPublications(FailedCriteria criteria) {
+        return publications.values().stream()
+            .filter(publication -> publication.getStatus() == EventPublication.Status.FAILED)
+            .filter(publication -> criteria.getPublicationDateReference() == null
+                || publication.getPublicationDate().isBefore(criteria.getPublicationDateReference()))
+            .sorted(Comparator.comparing(TargetEventPublication::getPublicationDate))
+            .limit(criteria.getMaxItemsToRead() > 0 ? criteria.getMaxItemsToRead() : Long.MAX_VALUE)
+            .map(TargetEventPublication.class::cast)
+            .toList();
+    }
+
+    @Override
+    public List<TargetEventPublication> findByStatus(EventPublication.Status status) {
+        return find(publication -> publication.getStatus() == status);
+    }
+
+    @Override
+    public int countByStatus(EventPublication.Status status) {
+        return (int) publications.values().stream()
+            .filter(publication -> publication.getStatus() == status)
+            .count();
+    }
+
+    @Override
+    public void deletePublications(List<UUID> identifiers) {
+        identifiers.forEach(this::remove);
+    }
+
+    @Override
+    public void deleteCompletedPublications() {
+        removeIf(InMemoryPublication::isCompleted);
+    }
+
+    @Override
+    public void deleteCompletedPublicationsBefore(Instant instant) {
+        removeIf(publication -> publication.isCompleted() && publication.completionDate.isBefore(instant));
+    }
+
+    private void removeIf(Predicate<InMemoryPublication> filter) {
+        publications.values().stream()
+            .filter(filter)
+            .map(TargetEventPublication::getIdentifier)
+            .toList()
+            .forEach(this::remove);
+    }
+
+    private void remove(UUID identifier) {
+        InMemoryPublication publication = publications.remove(identifier);
+        if (publication != null) {
+            unindex(publication);
+        }
+    }
+
+    private void unindex(InMemoryPublication publication) {
+        incompleteByListenerEvent.computeIfPresent(ListenerEvent.of(publication), (key, indexed) -> {
+            indexed.remove(publication);
+            return indexed.isEmpty() ? null : indexed;
+        });
+    }
+
+    private void update(UUID identifier, Consumer<InMemoryPublication> change) {
+        InMemoryPublication publication = publications.get(identifier);
+        if (publication != null) {
+            synchronized (publication) {
+                change.accept(publication);
+            }
+        }
+    }
+
+    private List<TargetEventPublication> find(Predicate<InMemoryPublication> filter) {
+        return publications.values().stream()
+            .filter(filter)
+            .sorted(Comparator.comparing(TargetEventPublication::getPublicationDate))
+            .map(TargetEventPublication.class::cast)
+            .toList();
+    }
+
+    /**
+     * Mutable registry entry of a publication.
+     */
+    private static final class InMemoryPublication implements TargetEventPublication {
+
+        private final UUID identifier;
+        private final Object event;
+        private final PublicationTargetIdentifier targetIdentifier;
+        private final Instant publicationDate;
+        private volatile EventPublication.Status status;
+        private volatile Instant completionDate;
+        private volatile Instant lastResubmissionDate;
+        private volatile int completionAttempts;
+
+        InMemoryPublication(TargetEventPublication publication) {
+            this(publication.getIdentifier(), publication.getEvent(), publication.getTargetIdentifier(),
+                publication.getPublicationDate(), publication.getStatus(), publication.getCompletionDate().orElse(null),
+                publication.getLastResubmissionDate(), publication.getCompletionAttempts());
+        }
+
+        InMemoryPublication(UUID identifier, Object event, PublicationTargetIdentifier targetIdentifier,
+                Instant publicationDate, EventPublication.Status status, Instant completionDate,
+                Instant lastResubmissionDate, int completionAttempts) {
+            this.identifier = identifier;
+            this.event = event;
+            this.targetIdentifier = targetIdentifier;
+            this.publicationDate = publicationDate;
+            this.status = status != null ? status : EventPublication.Status.PUBLISHED;
+            this.completionDate = completionDate;
+            this.lastResubmissionDate = lastResubmissionDate;
+            this.completionAttempts = completionAttempts;
+        }
+
+        @Override
+        public UUID getIdentifier() {
+            return identifier;
+        }
+
+        @Override
+        public Object getEvent() {
+            return event;
+        }
+
+        @Override
+        public PublicationTargetIdentifier getTargetIdentifier() {
+            return targetIdentifier;
+        }
+
+        @Override
+        public Instant getPublicationDate() {
+            return publicationDate;
+        }
+
+        @Override
+        public Optional<Instant> getCompletionDate() {
+            return Optional.ofNullable(completionDate);
+        }
+
+        @Override
+        public EventPublication.Status getStatus() {
+            return status;
+        }
+
+        @Override
+        public Instant getLastResubmissionDate() {
+            return lastResubmissionDate;
+        }
+
+        @Override
+        public int getCompletionAttempts() {
+            return completionAttempts;
+        }
+
+        @Override
+        public void markCompleted(Instant instant) {
+            status = EventPublication.Status.COMPLETED;
+            completionDate = instant;
+        }
+    }
+
+    /**
+     * Key of the listener and event index. Events are compared by equality,
+     * as in TargetEventPublication.isAssociatedWith().
+     */
+    private record ListenerEvent(PublicationTargetIdentifier targetIdentifier, Object event) {
+
+        static ListenerEvent of(TargetEventPublication publication) {
+            return new ListenerEvent(publication.getTargetIdentifier(), publication.getEvent());
+        }
+    }
+}
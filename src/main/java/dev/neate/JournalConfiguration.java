@@ -0,0 +1,82 @@
+package dev.neate;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.modulith.events.core.EventPublicationRepository;
+import org.springframework.modulith.events.core.EventSerializer;
+import org.springframework.modulith.events.support.CompletionMode;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Event publication registry of the journal profile.
+ *
+ * With the journal profile the registry is kept in a local, memory-mapped
+ * journal file (JournalEventPublicationRepository) instead of the
+ * event_publication collection, which saves the replica set round-trips of
+ * every publication and completion. Countries are still stored in MongoDB.
+ *
+ * The components working on the event_publication collection directly
+ * (chunked resubmission, warm-up, backoff and dead letters, archiving,
+ * registry indexes) are not active with this profile. Outstanding
+ * publications are republished on restart by Spring Modulith
+ * (republish-outstanding-events-on-restart, set in application-journal.yml)
+ * and by the scheduled retry, both through the journal.
+ *
+ * For single-node deployments only: every instance has its own journal.
+ *
+ * Configuration:
+ * - spring.modulith.events.journal.directory (default data/event-journal)
+ * - spring.modulith.events.journal.segment-size (default 64MB), the minimum
+ *   journal file size; a full journal is compacted
+ * - spring.modulith.events.journal.flush-interval (default 10ms), the time
+ *   between two fsyncs, 0 to fsync every write
+ * - Completed publications are kept for
+ *   spring.modulith.events.publication.registry.cleanup.max-age (default 1 day)
+ */
+@Configuration
+@Profile("journal")
+class JournalConfiguration {
+
+    /**
+     * Journal file of the registry, closed (and flushed) on shutdown.
+     *
+     * @param directory the journal directory
+     * @param segmentSize the minimum journal file size
+     * @param flushInterval the time between two fsyncs
+     * @return the journal
+     */
+    @Bean
+    PublicationJournal publicationJournal(
+            @Value("${spring.modulith.events.journal.directory:data/event-journal}") Path directory,
+            @Value("${spring.modulith.events.journal.segment-size:64MB}") DataSize segmentSize,
+            @Value("${spring.modulith.events.journal.flush-interval:10ms}") Duration flushInterval) {
+        return new PublicationJournal(directory, segmentSize.toBytes(), flushInterval);
+    }
+
+    /**
+     * Journal-backed event publication registry, used instead of the MongoDB one.
+     *
+     * @param journal the journal file
+     * @param environment the environment providing spring.modulith.events.completion-mode
+     * @param eventSerializer the serializer of events
+     * @param compactSerializer the compact encoding of the application's events
+     * @param completedRetention the time completed publications are kept
+     * @return the registry
+     */
+    @Bean
+    @Primary
+    EventPublicationRepository journalEventPublicationRepository(PublicationJournal journal, Environment environment,
+            EventSerializer eventSerializer, ObjectProvider<CompactEventSerializer> compactSerializer,
+            @Value("${spring.modulith.events.publication.registry.cleanup.max-age:1d}") Duration completedRetention) {
+        return new JournalEventPublicationRepository(journal, CompletionMode.from(environment), eventSerializer,
+            compactSerializer.getIfAvailable(), completedRetention);
+    }
+}
@@ -0,0 +1,376 @@
+package dev.neate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.modulith.events.EventPublication;
+import org.springframework.modulith.events.core.EventPublicationRepository;
+import org.springframework.modulith.events.core.EventSerializer;
+import org.springframework.modulith.events.core.PublicationTargetIdentifier;
+import org.springframework.modulith.events.core.TargetEventPublication;
+import org.springframework.modulith.events.support.CompletionMode;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ClassUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Spring Modulith event publication registry kept in a local journal file.
+ *
+ * Every change of a publication is appended to a PublicationJournal as one
+ * record instead of being written to the replica set:
+ * - CREATE: the whole publication, with its event
+ * - PROCESSING, COMPLETED, FAILED, RESUBMITTED, DELETED: the identifier and date, if any
+ *
+ * The current state is kept in an InMemoryEventPublicationRepository, which
+ * answers all queries. On startup the journal is replayed into it, CREATE
+ * records directly into its own publication type, so
+ * incomplete publications survive a restart and are republished like those
+ * of the MongoDB registry (republish-outstanding-events-on-restart, the
+ * scheduled retry). Writes are serialized, so the journal holds the changes
+ * in the order they were applied.
+ *
+ * Events of types registered with CompactEventSerializer are stored as
+ * their 17-byte encoding, all others with the EventSerializer and their
+ * class name.
+ *
+ * Compaction: when the journal file is full, and once after replay,
+ * completed publications older than the completed retention are dropped and
+ * the journal is rewritten with one CREATE record per remaining publication.
+ *
+ * The journal is not part of the publishing transaction. A publication
+ * whose transaction rolls back is deleted again after the rollback; if the
+ * process dies in between, it is republished on restart.
+ *
+ * Only for single-node deployments: the journal is local to the instance,
+ * so its publications are only ever republished by that instance.
+ * Registered by JournalConfiguration with the journal profile.
+ */
+class JournalEventPublicationRepository implements EventPublicationRepository, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(JournalEventPublicationRepository.class);
+
+    private static final byte CREATE = 1;
+    private static final byte PROCESSING = 2;
+    private static final byte COMPLETED = 3;
+    private static final byte FAILED = 4;
+    private static final byte RESUBMITTED = 5;
+    private static final byte DELETED = 6;
+
+    private static final byte COMPACT_EVENT = 1;
+    private static final byte SERIALIZED_EVENT = 2;
+
+    private static final long NO_INSTANT = Long.MIN_VALUE;
+
+    private final PublicationJournal journal;
+    private final InMemoryEventPublicationRepository index;
+    private final EventSerializer eventSerializer;
+    private final CompactEventSerializer compactSerializer;
+    private final Duration completedRetention;
+    private final Object writeLock = new Object();
+
+    /**
+     * Opens the registry and replays its journal.
+     *
+     * @param journal the journal
+     * @param completionMode what happens to completed publications
+     * @param eventSerializer the serializer of events without compact encoding
+     * @param compactSerializer the compact encoding, or null to serialize all events
+     * @param completedRetention the time completed publications are kept
+     */
+    JournalEventPublicationRepository(PublicationJournal journal, CompletionMode completionMode,
+            EventSerializer eventSerializer, CompactEventSerializer compactSerializer, Duration completedRetention) {
+        this.journal = journal;
+        this.index = new InMemoryEventPublicationRepository(completionMode);
+        this.eventSerializer = eventSerializer;
+        this.compactSerializer = compactSerializer;
+        this.completedRetention = completedRetention;
+
+        int records = journal.replay(this::apply);
+        compact();
+        log.info("Replayed {} event publication journal records from {}, {} incomplete publications",
+            records, journal.file(), index.findIncompletePublications().size());
+    }
+
+    @Override
+    public TargetEventPublication create(TargetEventPublication publication) {
+        synchronized (writeLock) {
+            index.create(publication);
+            append(encodeCreate(publication));
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            UUID identifier = publication.getIdentifier();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        deletePublications(List.of(identifier));
+                    }
+                }
+            });
+        }
+        return publication;
+    }
+
+    @Override
+    public void markProcessing(UUID identifier) {
+        synchronized (writeLock) {
+            index.markProcessing(identifier);
+            append(encode(PROCESSING, identifier, null));
+        }
+    }
+
+    @Override
+    public void markCompleted(TargetEventPublication publication, Instant completionDate) {
+        markCompleted(publication.getIdentifier(), completionDate);
+    }
+
+    @Override
+    public void markCompleted(Object event, PublicationTargetIdentifier identifier, Instant completionDate) {
+        findIncompletePublicationsByEventAndTargetIdentifier(event, identifier)
+            .ifPresent(publication -> markCompleted(publication.getIdentifier(), completionDate));
+    }
+
+    @Override
+    public void markCompleted(UUID identifier, Instant completionDate) {
+        synchronized (writeLock) {
+            index.markCompleted(identifier, completionDate);
+            append(encode(COMPLETED, identifier, completionDate));
+        }
+    }
+
+    @Override
+    public void markFailed(UUID identifier) {
+        synchronized (writeLock) {
+            index.markFailed(identifier);
+            append(encode(FAILED, identifier, null));
+        }
+    }
+
+    @Override
+    public boolean markResubmitted(UUID identifier, Instant resubmissionDate) {
+        synchronized (writeLock) {
+            if (!index.markResubmitted(identifier, resubmissionDate)) {
+                return false;
+            }
+            append(encode(RESUBMITTED, identifier, resubmissionDate));
+            return true;
+        }
+    }
+
+    @Override
+    public List<TargetEventPublication> findIncompletePublications() {
+        return index.findIncompletePublications();
+    }
+
+    @Override
+    public List<TargetEventPublication> findIncompletePublicationsPublishedBefore(Instant instant) {
+        return index.findIncompletePublicationsPublishedBefore(instant);
+    }
+
+    @Override
+    public Optional<TargetEventPublication> findIncompletePublicationsByEventAndTargetIdentifier(Object event,
+            PublicationTargetIdentifier targetIdentifier) {
+        // Indexed by listener and event equality: replayed events are not the instances they were published as
+        return index.findIncompletePublicationsByEventAndTargetIdentifier(event, targetIdentifier);
+    }
+
+    @Override
+    public List<TargetEventPublication> findCompletedPublications() {
+        return index.findCompletedPublications();
+    }
+
+    @Override
+    public List<TargetEventPublication> findFailedPublications(FailedCriteria criteria) {
+        return index.findFailedPublications(criteria);
+    }
+
+    @Override
+    public List<TargetEventPublication> findByStatus(EventPublication.Status status) {
+        return index.findByStatus(status);
+    }
+
+    @Override
+    public int countByStatus(EventPublication.Status status) {
+        return index.countByStatus(status);
+    }
+
+    @Override
+    public void deletePublications(List<UUID> identifiers) {
+        synchronized (writeLock) {
+            index.deletePublications(identifiers);
+            for (UUID identifier : identifiers) {
+                append(encode(DELETED, identifier, null));
+            }
+        }
+    }
+
+    @Override
+    public void deleteCompletedPublications() {
+        deletePublications(index.findCompletedPublications().stream()
+            .map(TargetEventPublication::getIdentifier)
+            .toList());
+    }
+
+    @Override
+    public void deleteCompletedPublicationsBefore(Instant instant) {
+        deletePublications(completedBefore(instant));
+    }
+
+    /**
+     * Drops expired completed publications and rewrites the journal with the remaining ones.
+     */
+    void compact() {
+        synchronized (writeLock) {
+            index.deletePublications(completedBefore(Instant.now().minus(completedRetention)));
+
+            List<TargetEventPublication> live = new ArrayList<>(index.findIncompletePublications());
+            live.addAll(index.findCompletedPublications());
+            List<byte[]> records = new ArrayList<>(live.size());
+            for (TargetEventPublication publication : live) {
+                records.add(encodeCreate(publication));
+            }
+            journal.rewrite(records);
+        }
+    }
+
+    @Override
+    public void close() {
+        journal.close();
+    }
+
+    private List<UUID> completedBefore(Instant instant) {
+        return index.findCompletedPublications().stream()
+            .filter(publication -> publication.getCompletionDate().filter(date -> date.isBefore(instant)).isPresent())
+            .map(TargetEventPublication::getIdentifier)
+            .toList();
+    }
+
+    /**
+     * Appends a record of a change already applied to the index.
+     */
+    private void append(byte[] record) {
+        if (!journal.append(record)) {
+            // The rewritten journal holds the current state, including this change
+            compact();
+        }
+    }
+
+    private void apply(ByteBuffer record) {
+        byte type = record.get();
+        UUID identifier = new UUID(record.getLong(), record.getLong());
+        switch (type) {
+            case CREATE -> index.create(decodeCreate(identifier, record));
+            case PROCESSING -> index.markProcessing(identifier);
+            case COMPLETED -> index.markCompleted(identifier, readInstant(record));
+            case FAILED -> index.markFailed(identifier);
+            case RESUBMITTED -> index.markResubmitted(identifier, readInstant(record));
+            case DELETED -> index.deletePublications(List.of(identifier));
+            default -> throw new IllegalStateException("Unknown event publication journal record type " + type);
+        }
+    }
+
+    private static byte[] encode(byte type, UUID identifier, Instant date) {
+        ByteBuffer record = ByteBuffer.allocate(date != null ? 29 : 17);
+        record.put(type).putLong(identifier.getMostSignificantBits()).putLong(identifier.getLeastSignificantBits());
+        if (date != null) {
+            record.putLong(date.getEpochSecond()).putInt(date.getNano());
+        }
+        return record.array();
+    }
+
+    private byte[] encodeCreate(TargetEventPublication publication) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            UUID identifier = publication.getIdentifier();
+            out.writeByte(CREATE);
+            out.writeLong(identifier.getMostSignificantBits());
+            out.writeLong(identifier.getLeastSignificantBits());
+            writeInstant(out, publication.getPublicationDate());
+            EventPublication.Status status = publication.getStatus();
+            writeString(out, (status != null ? status : EventPublication.Status.PUBLISHED).name());
+            writeInstant(out, publication.getCompletionDate().orElse(null));
+            writeInstant(out, publication.getLastResubmissionDate());
+            out.writeInt(publication.getCompletionAttempts());
+            writeString(out, publication.getTargetIdentifier().getValue());
+
+            Object event = publication.getEvent();
+            if (compactSerializer != null && compactSerializer.supports(event)) {
+                out.writeByte(COMPACT_EVENT);
+                out.write(compactSerializer.serialize(event));
+            } else {
+                out.writeByte(SERIALIZED_EVENT);
+                writeString(out, event.getClass().getName());
+                writeString(out, eventSerializer.serialize(event).toString());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private TargetEventPublication decodeCreate(UUID identifier, ByteBuffer record) {
+        Instant publicationDate = readInstant(record);
+        EventPublication.Status status = EventPublication.Status.valueOf(readString(record));
+        Instant completionDate = readInstant(record);
+        Instant lastResubmissionDate = readInstant(record);
+        int completionAttempts = record.getInt();
+        PublicationTargetIdentifier target = PublicationTargetIdentifier.of(readString(record));
+
+        Object event;
+        byte encoding = record.get();
+        if (encoding == COMPACT_EVENT) {
+            byte[] compact = new byte[CompactEventSerializer.ENCODED_LENGTH];
+            record.get(compact);
+            if (compactSerializer == null) {
+                throw new IllegalStateException("Event publication " + identifier + " has a compact event, but no "
+                    + "CompactEventSerializer is configured");
+            }
+            event = compactSerializer.decode(compact);
+        } else {
+            String type = readString(record);
+            String serialized = readString(record);
+            try {
+                event = eventSerializer.deserialize(serialized, ClassUtils.forName(type, getClass().getClassLoader()));
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("Unknown event type " + type + " of event publication " + identifier, e);
+            }
+        }
+        return InMemoryEventPublicationRepository.restore(identifier, event, target, publicationDate, status,
+            completionDate, lastResubmissionDate, completionAttempts);
+    }
+
+    private static void writeInstant(DataOutputStream out, Instant instant) throws IOException {
+        out.writeLong(instant != null ? instant.getEpochSecond() : NO_INSTANT);
+        out.writeInt(instant != null ? instant.getNano() : 0);
+    }
+
+    private static Instant readInstant(ByteBuffer record) {
+        long seconds = record.getLong();
+        int nanos = record.getInt();
+        return seconds != NO_INSTANT ? Instant.ofEpochSecond(seconds, nanos) : null;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer record) {
+        byte[] bytes = new byte[record.getInt()];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,224 @@
+package dev.neate;
+
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.modulith.events.EventPublication;
+import org.springframework.modulith.events.core.EventPublicationRepository;
+import org.springframework.modulith.events.core.PublicationTargetIdentifier;
+import org.springframework.modulith.events.core.TargetEventPublication;
+import org.springframework.modulith.events.support.CompletionMode;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * MongoDB event publication registry of a single module collection.
+ *
+ * Stores publications in the layout of Spring Modulith's MongoDB registry
+ * (see EventPublicationDocumentMapper), so the components reading
+ * event_publication directly read module collections the same way. Events
+ * are mapped with the MongoConverter and a _class type hint; compactly
+ * encoded events (see CompactEventPublicationRepository) arrive as bytes
+ * and are stored as BSON binary.
+ *
+ * All operations go through MongoOperations, so they take part in the
+ * transaction of the publishing or listening code like the MongoDB
+ * registry's own. With completion mode ARCHIVE completed publications are
+ * moved to the shared event_publication_archive collection.
+ *
+ * Created per module collection by ModuleRoutingEventPublicationRepository.
+ */
+class ModuleCollectionEventPublicationRepository implements EventPublicationRepository {
+
+    private final MongoOperations mongoOperations;
+    private final String collection;
+    private final CompletionMode completionMode;
+    private final EventPublicationDocumentMapper mapper;
+
+    /**
+     * Creates the registry of a collection.
+     *
+     * @param mongoOperations the MongoDB access
+     * @param collection the collection name
+     * @param completionMode what happens to completed publications
+     */
+    ModuleCollectionEventPublicationRepository(MongoOperations mongoOperations, String collection,
+            CompletionMode completionMode) {
+        this.mongoOperations = mongoOperations;
+        this.collection = collection;
+        this.completionMode = completionMode;
+        // Compactly encoded events are decoded by CompactEventPublicationRepository
+        this.mapper = new EventPublicationDocumentMapper(mongoOperations.getConverter(), null, null);
+    }
+
+    /**
+     * Returns the collection of this registry.
+     *
+     * @return the collection name
+     */
+    String collection() {
+        return collection;
+    }
+
+    /**
+     * Returns whether a publication is stored in this collection.
+     *
+     * @param identifier the publication identifier
+     * @return true if the publication exists
+     */
+    boolean contains(UUID identifier) {
+        return mongoOperations.exists(byId(identifier), collection);
+    }
+
+    @Override
+    public TargetEventPublication create(TargetEventPublication publication) {
+        mongoOperations.insert(mapper.toDocument(publication), collection);
+        return publication;
+    }
+
+    @Override
+    public void markProcessing(UUID identifier) {
+        mongoOperations.updateFirst(byId(identifier),
+            Update.update("status", EventPublication.Status.PROCESSING.name()), collection);
+    }
+
+    @Override
+    public void markCompleted(Object event, PublicationTargetIdentifier identifier, Instant completionDate) {
+        findIncompletePublicationsByEventAndTargetIdentifier(event, identifier)
+            .ifPresent(publication -> markCompleted(publication.getIdentifier(), completionDate));
+    }
+
+    @Override
+    public void markCompleted(UUID identifier, Instant completionDate) {
+        switch (completionMode) {
+            case DELETE -> mongoOperations.remove(byId(identifier), collection);
+            case ARCHIVE -> archive(identifier, completionDate);
+            default -> mongoOperations.updateFirst(incomplete(byId(identifier)), completed(completionDate), collection);
+        }
+    }
+
+    @Override
+    public void markFailed(UUID identifier) {
+        mongoOperations.updateFirst(incomplete(byId(identifier)),
+            Update.update("status", EventPublication.Status.FAILED.name()), collection);
+    }
+
+    @Override
+    public boolean markResubmitted(UUID identifier, Instant resubmissionDate) {
+        Query query = incomplete(byId(identifier))
+            .addCriteria(Criteria.where("status").ne(EventPublication.Status.RESUBMITTED.name()));
+        return mongoOperations.updateFirst(query,
+            Update.update("status", EventPublication.Status.RESUBMITTED.name())
+                .set("lastResubmissionDate", Date.from(resubmissionDate))
+                .inc("completionAttempts", 1), collection).getMatchedCount() > 0;
+    }
+
+    @Override
+    public List<TargetEventPublication> findIncompletePublications() {
+        return find(incomplete(new Query()));
+    }
+
+    @Override
+    public List<TargetEventPublication> findIncompletePublicationsPublishedBefore(Instant instant) {
+        return find(incomplete(new Query(Criteria.where("publicationDate").lt(Date.from(instant)))));
+    }
+
+    @Override
+    public Optional<TargetEventPublication> findIncompletePublicationsByEventAndTargetIdentifier(Object event,
+            PublicationTargetIdentifier targetIdentifier) {
+        Query query = incomplete(new Query(Criteria.where("listenerId").is(targetIdentifier.getValue())
+            .and("event").is(mapper.toStoredEvent(event))));
+        return find(query.limit(1)).stream().findFirst();
+    }
+
+    @Override
+    public List<TargetEventPublication> findCompletedPublications() {
+        return find(new Query(Criteria.where("completionDate").ne(null)));
+    }
+
+    @Override
+    public List<TargetEventPublication> findFailedPublications(FailedCriteria criteria) {
+        Query query = incomplete(new Query(Criteria.where("status").is(EventPublication.Status.FAILED.name())));
+        if (criteria.getPublicationDateReference() != null) {
+            query.addCriteria(Criteria.where("publicationDate").lt(Date.from(criteria.getPublicationDateReference())));
+        }
+        if (criteria.getMaxItemsToRead() > 0) {
+            query.limit((int) Math.min(criteria.getMaxItemsToRead(), Integer.MAX_VALUE));
+        }
+        return find(query);
+    }
+
+    @Override
+    public List<TargetEventPublication> findByStatus(EventPublication.Status status) {
+        return find(byStatus(status));
+    }
+
+    @Override
+    public int countByStatus(EventPublication.Status status) {
+        return (int) mongoOperations.count(byStatus(status), collection);
+    }
+
+    @Override
+    public void deletePublications(List<UUID> identifiers) {
+        mongoOperations.remove(new Query(Criteria.where("_id").in(identifiers)), collection);
+    }
+
+    @Override
+    public void deleteCompletedPublications() {
+        mongoOperations.remove(new Query(Criteria.where("completionDate").ne(null)), collection);
+    }
+
+    @Override
+    public void deleteCompletedPublicationsBefore(Instant instant) {
+        mongoOperations.remove(new Query(Criteria.where("completionDate").lt(Date.from(instant))), collection);
+    }
+
+    private void archive(UUID identifier, Instant completionDate) {
+        Document publication = mongoOperations.findOne(incomplete(byId(identifier)), Document.class, collection);
+        if (publication == null) {
+            return;
+        }
+        publication.put("completionDate", Date.from(completionDate));
+        publication.put("status", EventPublication.Status.COMPLETED.name());
+        try {
+            mongoOperations.insert(publication, EventPublicationArchiver.ARCHIVE_COLLECTION);
+        } catch (DuplicateKeyException e) {
+            // Archived by an earlier attempt that stopped before the delete
+        }
+        mongoOperations.remove(byId(identifier), collection);
+    }
+
+    private List<TargetEventPublication> find(Query query) {
+        return mongoOperations.find(query.with(Sort.by("publicationDate")), Document.class, collection).stream()
+            .map(document -> mapper.toPublication(document, collection))
+            .flatMap(Optional::stream)
+            .toList();
+    }
+
+    private static Query byId(UUID identifier) {
+        return new Query(Criteria.where("_id").is(identifier));
+    }
+
+    private static Query byStatus(EventPublication.Status status) {
+        return status == EventPublication.Status.COMPLETED
+            ? new Query(Criteria.where("completionDate").ne(null))
+            : incomplete(new Query(Criteria.where("status").is(status.name())));
+    }
+
+    private static Query incomplete(Query query) {
+        return query.addCriteria(Criteria.where("completionDate").is(null));
+    }
+
+    private static Update completed(Instant completionDate) {
+        return Update.update("completionDate", Date.from(completionDate))
+            .set("status", EventPublication.Status.COMPLETED.name());
+    }
+}
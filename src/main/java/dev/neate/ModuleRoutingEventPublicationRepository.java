@@ -0,0 +1,297 @@
+package dev.neate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.modulith.events.EventPublication;
+import org.springframework.modulith.events.core.EventPublicationRepository;
+import org.springframework.modulith.events.core.PublicationTargetIdentifier;
+import org.springframework.modulith.events.core.TargetEventPublication;
+import org.springframework.modulith.events.support.CompletionMode;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * EventPublicationRepository decorator that stores publications in the collection of their listener's module.
+ *
+ * Publications of listeners belonging to a module with a collection (see
+ * EventPublicationCollections) are stored by a
+ * ModuleCollectionEventPublicationRepository of that collection, all others
+ * by the decorated MongoDB repository in event_publication.
+ *
+ * Updates by ID go to the collection the publication was created in, which
+ * is remembered for the most recently used LOCATIONS_LIMIT publications.
+ * Other publications, e.g. created before a restart or by another
+ * instance, are looked up by ID: in the collection of their listener when
+ * the caller passes the publication, otherwise in every module collection,
+ * and updated in event_publication if not found. Lookups by event try the
+ * listener's collection first and event_publication second, so
+ * publications stored before module collections were enabled are still
+ * completed. Queries over all publications merge the results of all
+ * collections in publication order.
+ *
+ * Metrics: event.publication.registry.writes, tagged with the module
+ * (default for event_publication) and the operation (created, completed,
+ * failed, resubmitted).
+ *
+ * Registered around the registry's MongoDB repository by
+ * EventPublicationConfiguration, inside CompactEventPublicationRepository.
+ */
+class ModuleRoutingEventPublicationRepository implements EventPublicationRepositoryDecorator {
+
+    /** Maximum number of remembered publication collections; the least recently used are forgotten. */
+    static final int LOCATIONS_LIMIT = 100_000;
+
+    private final EventPublicationRepository delegate;
+    private final EventPublicationCollections collections;
+    private final Map<String, ModuleCollectionEventPublicationRepository> moduleRepositories = new LinkedHashMap<>();
+    private final Map<UUID, String> locations;
+    private final Map<String, Counter> writes = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Decorates a repository.
+     *
+     * @param delegate the MongoDB repository of event_publication
+     * @param collections the registry collections
+     * @param mongoOperations the MongoDB access of the module collections
+     * @param completionMode what happens to completed publications
+     * @param meterRegistry the registry of the per-module metrics
+     */
+    ModuleRoutingEventPublicationRepository(EventPublicationRepository delegate,
+            EventPublicationCollections collections, MongoOperations mongoOperations, CompletionMode completionMode,
+            MeterRegistry meterRegistry) {
+        this(delegate, collections, mongoOperations, completionMode, meterRegistry, LOCATIONS_LIMIT);
+    }
+
+    /**
+     * Decorates a repository, remembering the collections of at most the given number of publications.
+     *
+     * @param delegate the MongoDB repository of event_publication
+     * @param collections the registry collections
+     * @param mongoOperations the MongoDB access of the module collections
+     * @param completionMode what happens to completed publications
+     * @param meterRegistry the registry of the per-module metrics
+     * @param locationsLimit the maximum number of remembered publication collections
+     */
+    ModuleRoutingEventPublicationRepository(EventPublicationRepository delegate,
+            EventPublicationCollections collections, MongoOperations mongoOperations, CompletionMode completionMode,
+            MeterRegistry meterRegistry, int locationsLimit) {
+        this.delegate = delegate;
+        // Publications never completed, e.g. of rolled back transactions, are evicted eventually
+        this.locations = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, String> eldest) {
+                return size() > locationsLimit;
+            }
+        });
+        this.collections = collections;
+        this.meterRegistry = meterRegistry;
+        for (String collection : collections.moduleCollections()) {
+            moduleRepositories.put(collection,
+                new ModuleCollectionEventPublicationRepository(mongoOperations, collection, completionMode));
+        }
+    }
+
+    @Override
+    public TargetEventPublication create(TargetEventPublication publication) {
+        String collection = collections.collectionOf(publication.getTargetIdentifier().getValue());
+        locations.put(publication.getIdentifier(), collection);
+        repository(collection).create(publication);
+        count(collection, "created");
+        return publication;
+    }
+
+    @Override
+    public void markProcessing(UUID identifier) {
+        repository(collectionOf(identifier)).markProcessing(identifier);
+    }
+
+    @Override
+    public void markCompleted(TargetEventPublication publication, Instant completionDate) {
+        String collection = collectionOf(publication.getIdentifier(), publication.getTargetIdentifier().getValue());
+        repository(collection).markCompleted(publication, completionDate);
+        locations.remove(publication.getIdentifier());
+        count(collection, "completed");
+    }
+
+    @Override
+    public void markCompleted(Object event, PublicationTargetIdentifier identifier, Instant completionDate) {
+        String collection = collections.collectionOf(identifier.getValue());
+        Optional<TargetEventPublication> publication = moduleRepositories.containsKey(collection)
+            ? moduleRepositories.get(collection).findIncompletePublicationsByEventAndTargetIdentifier(event, identifier)
+            : Optional.empty();
+        if (publication.isPresent()) {
+            moduleRepositories.get(collection).markCompleted(publication.get().getIdentifier(), completionDate);
+            locations.remove(publication.get().getIdentifier());
+            count(collection, "completed");
+        } else {
+            delegate.markCompleted(event, identifier, completionDate);
+            count(EventPublicationArchiver.PUBLICATIONS_COLLECTION, "completed");
+        }
+    }
+
+    @Override
+    public void markCompleted(UUID identifier, Instant completionDate) {
+        String collection = collectionOf(identifier);
+        repository(collection).markCompleted(identifier, completionDate);
+        locations.remove(identifier);
+        count(collection, "completed");
+    }
+
+    @Override
+    public void markFailed(UUID identifier) {
+        String collection = collectionOf(identifier);
+        repository(collection).markFailed(identifier);
+        count(collection, "failed");
+    }
+
+    @Override
+    public boolean markResubmitted(UUID identifier, Instant resubmissionDate) {
+        String collection = collectionOf(identifier);
+        boolean resubmitted = repository(collection).markResubmitted(identifier, resubmissionDate);
+        if (resubmitted) {
+            count(collection, "resubmitted");
+        }
+        return resubmitted;
+    }
+
+    @Override
+    public List<TargetEventPublication> findIncompletePublications() {
+        return merge(repositories().map(EventPublicationRepository::findIncompletePublications));
+    }
+
+    @Override
+    public List<TargetEventPublication> findIncompletePublicationsPublishedBefore(Instant instant) {
+        return merge(repositories().map(repository -> repository.findIncompletePublicationsPublishedBefore(instant)));
+    }
+
+    @Override
+    public Optional<TargetEventPublication> findIncompletePublicationsByEventAndTargetIdentifier(Object event,
+            PublicationTargetIdentifier targetIdentifier) {
+        ModuleCollectionEventPublicationRepository repository =
+            moduleRepositories.get(collections.collectionOf(targetIdentifier.getValue()));
+        Optional<TargetEventPublication> publication = repository != null
+            ? repository.findIncompletePublicationsByEventAndTargetIdentifier(event, targetIdentifier)
+            : Optional.empty();
+        return publication.isPresent()
+            ? publication
+            : delegate.findIncompletePublicationsByEventAndTargetIdentifier(event, targetIdentifier);
+    }
+
+    @Override
+    public List<TargetEventPublication> findCompletedPublications() {
+        return merge(repositories().map(EventPublicationRepository::findCompletedPublications));
+    }
+
+    @Override
+    public List<TargetEventPublication> findFailedPublications(FailedCriteria criteria) {
+        List<TargetEventPublication> failed =
+            merge(repositories().map(repository -> repository.findFailedPublications(criteria)));
+        return criteria.getMaxItemsToRead() > 0 && failed.size() > criteria.getMaxItemsToRead()
+            ? failed.subList(0, (int) criteria.getMaxItemsToRead())
+            : failed;
+    }
+
+    @Override
+    public List<TargetEventPublication> findByStatus(EventPublication.Status status) {
+        return merge(repositories().map(repository -> repository.findByStatus(status)));
+    }
+
+    @Override
+    public int countByStatus(EventPublication.Status status) {
+        return repositories().mapToInt(repository -> repository.countByStatus(status)).sum();
+    }
+
+    @Override
+    public void deletePublications(List<UUID> identifiers) {
+        repositories().forEach(repository -> repository.deletePublications(identifiers));
+        identifiers.forEach(locations::remove);
+    }
+
+    @Override
+    public void deleteCompletedPublications() {
+        repositories().forEach(EventPublicationRepository::deleteCompletedPublications);
+    }
+
+    @Override
+    public void deleteCompletedPublicationsBefore(Instant instant) {
+        repositories().forEach(repository -> repository.deleteCompletedPublicationsBefore(instant));
+    }
+
+    /**
+     * Returns the collection a publication is stored in.
+     *
+     * @param identifier the publication identifier
+     * @return the collection name, event_publication if no module collection holds it
+     */
+    String collectionOf(UUID identifier) {
+        String collection = locations.get(identifier);
+        if (collection != null) {
+            return collection;
+        }
+        for (ModuleCollectionEventPublicationRepository repository : moduleRepositories.values()) {
+            if (repository.contains(identifier)) {
+                return repository.collection();
+            }
+        }
+        return EventPublicationArchiver.PUBLICATIONS_COLLECTION;
+    }
+
+    /**
+     * Returns the collection a publication of a known listener is stored in.
+     *
+     * Only the collection of the listener's module is looked up, not every module collection.
+     *
+     * @param identifier the publication identifier
+     * @param listenerId the listener of the publication
+     * @return the collection name, event_publication if the listener's module collection does not hold it
+     */
+    String collectionOf(UUID identifier, String listenerId) {
+        String collection = locations.get(identifier);
+        if (collection != null) {
+            return collection;
+        }
+        ModuleCollectionEventPublicationRepository repository =
+            moduleRepositories.get(collections.collectionOf(listenerId));
+        return repository != null && repository.contains(identifier)
+            ? repository.collection()
+            : EventPublicationArchiver.PUBLICATIONS_COLLECTION;
+    }
+
+    private EventPublicationRepository repository(String collection) {
+        EventPublicationRepository repository = moduleRepositories.get(collection);
+        return repository != null ? repository : delegate;
+    }
+
+    private Stream<EventPublicationRepository> repositories() {
+        return Stream.concat(Stream.of(delegate), moduleRepositories.values().stream());
+    }
+
+    private static List<TargetEventPublication> merge(Stream<List<TargetEventPublication>> results) {
+        List<TargetEventPublication> merged = new ArrayList<>();
+        results.forEach(merged::addAll);
+        merged.sort(Comparator.comparing(TargetEventPublication::getPublicationDate));
+        return merged;
+    }
+
+    private void count(String collection, String operation) {
+        writes.computeIfAbsent(collection + "/" + operation, key ->
+            Counter.builder("event.publication.registry.writes")
+                .description("Event publication registry writes per module")
+                .tag("module", collections.moduleOf(collection))
+                .tag("operation", operation)
+                .register(meterRegistry))
+            .increment();
+    }
+}
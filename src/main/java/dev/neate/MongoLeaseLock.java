@@ -0,0 +1,125 @@
+package dev.neate;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOptions;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Lease-based lock shared by all instances through MongoDB.
+ *
+ * Every lock is one document in the locks collection, keyed by the lock
+ * name, holding the owner and the time the lease ends. A lock is acquired
+ * with a single upsert that only matches if the lease has ended or is
+ * already held by this instance, so of several instances trying at the
+ * same time exactly one succeeds; the others fail with a duplicate key.
+ *
+ * Lease times are computed by the server ($$NOW), so clock differences
+ * between application instances do not matter. A lease is only extended by
+ * calling tryAcquire() again, so it has to be longer than the work done
+ * between two calls. If an instance dies, its lock becomes available when
+ * the lease ends.
+ */
+@Component
+@Profile("!in-memory")
+public class MongoLeaseLock {
+
+    static final String LOCKS_COLLECTION = "locks";
+
+    private final MongoOperations mongoOperations;
+    private final String owner;
+
+    /**
+     * Creates a lock owned by this instance, identified by host name and a random ID.
+     *
+     * @param mongoOperations the MongoDB operations
+     */
+    @Autowired
+    public MongoLeaseLock(MongoOperations mongoOperations) {
+        this(mongoOperations, hostName() + "-" + UUID.randomUUID());
+    }
+
+    /**
+     * Creates a lock with the given owner.
+     *
+     * @param mongoOperations the MongoDB operations
+     * @param owner the identifier of this instance
+     */
+    MongoLeaseLock(MongoOperations mongoOperations, String owner) {
+        this.mongoOperations = mongoOperations;
+        this.owner = owner;
+    }
+
+    /**
+     * Acquires the lock for the lease duration, or extends the lease if this instance holds it.
+     *
+     * @param name the lock name
+     * @param lease how long the lock is held unless released
+     * @return true if this instance holds the lock now, false if another instance does
+     */
+    public boolean tryAcquire(String name, Duration lease) {
+        if (lease.isNegative() || lease.isZero()) {
+            throw new IllegalArgumentException("Lease must be positive");
+        }
+        Bson available = Filters.and(
+            Filters.eq("_id", name),
+            Filters.or(
+                Filters.expr(new Document("$lte", List.of("$lockedUntil", "$$NOW"))),
+                Filters.eq("owner", owner)));
+        List<Bson> acquire = List.of(new Document("$set", new Document("owner", owner)
+            .append("lockedAt", "$$NOW")
+            .append("lockedUntil", new Document("$add", List.of("$$NOW", lease.toMillis())))));
+
+        try {
+            mongoOperations.getCollection(LOCKS_COLLECTION)
+                .updateOne(available, acquire, new UpdateOptions().upsert(true));
+            return true;
+        } catch (MongoWriteException e) {
+            if (ErrorCategory.fromErrorCode(e.getCode()) == ErrorCategory.DUPLICATE_KEY) {
+                // The lock document exists and its lease is held by another instance
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Releases the lock if this instance holds it.
+     *
+     * @param name the lock name
+     */
+    public void release(String name) {
+        mongoOperations.getCollection(LOCKS_COLLECTION).updateOne(
+            Filters.and(Filters.eq("_id", name), Filters.eq("owner", owner)),
+            List.of(new Document("$set", new Document("lockedUntil", "$$NOW"))));
+    }
+
+    /**
+     * Returns the identifier of this instance.
+     *
+     * @return the owner written to the locks it holds
+     */
+    public String owner() {
+        return owner;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package dev.neate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, memory-mapped journal file of opaque records.
+ *
+ * The journal is a single file, publications-{generation}.journal, mapped
+ * into memory as a whole. Every record is written as:
+ * - 4 bytes length of the payload
+ * - 4 bytes CRC32 of the payload
+ * - the payload
+ *
+ * The rest of the file is zero, so replay() stops at the first record with
+ * length 0. A record torn by a crash fails its checksum; replay() stops
+ * there too and the next append overwrites it.
+ *
+ * Appending copies the record into the mapping, which the operating system
+ * writes back even if the process crashes. fsync (MappedByteBuffer.force())
+ * is batched: a background thread forces the mapping every flush interval
+ * if anything was appended, so a power loss loses at most one interval of
+ * records. With a flush interval of zero every append is forced before it
+ * returns.
+ *
+ * Once the file is full, append() returns false and the owner rewrites the
+ * live records into the next generation with rewrite(). The new file is
+ * written and forced under a temporary name and then renamed, so a crash
+ * leaves either the old or the new generation complete; on open the highest
+ * complete generation is used and the others are deleted.
+ *
+ * Appends and rewrites are synchronized; the background fsync runs
+ * concurrently with them. Used by JournalEventPublicationRepository.
+ */
+class PublicationJournal implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PublicationJournal.class);
+
+    static final String FILE_PREFIX = "publications-";
+    static final String FILE_SUFFIX = ".journal";
+    static final int RECORD_HEADER = 8;
+
+    private final Path directory;
+    private final long segmentSize;
+    private final ScheduledExecutorService flusher;
+
+    private long generation;
+    private FileChannel channel;
+    private volatile MappedByteBuffer buffer;
+    private volatile boolean dirty;
+
+    /**
+     * Opens the latest generation in a directory, or creates the first one.
+     *
+     * @param directory the journal directory, created if missing
+     * @param segmentSize the minimum size of a journal file in bytes
+     * @param flushInterval the time between two fsyncs, or zero to fsync every append
+     */
+    PublicationJournal(Path directory, long segmentSize, Duration flushInterval) {
+        if (segmentSize < RECORD_HEADER || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Journal segment size must be between " + RECORD_HEADER + " and "
+                + Integer.MAX_VALUE + " bytes");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        try {
+            Files.createDirectories(directory);
+            generation = latestGeneration();
+            Path file = file(generation);
+            if (!Files.exists(file)) {
+                Files.write(file, new byte[0]);
+            }
+            map(file, Math.max(segmentSize, Files.size(file)));
+            deleteOtherGenerations();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open event publication journal in " + directory, e);
+        }
+
+        if (flushInterval.isZero()) {
+            flusher = null;
+        } else {
+            flusher = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("event-journal-flush-"));
+            flusher.scheduleWithFixedDelay(this::flush, flushInterval.toNanos(), flushInterval.toNanos(),
+                TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Reads all complete records from the start and positions the journal after the last one.
+     *
+     * @param reader receives the payload of every record, as a read-only buffer
+     * @return the number of records read
+     */
+    synchronized int replay(Consumer<ByteBuffer> reader) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(0);
+        int records = 0;
+        while (view.remaining() >= RECORD_HEADER) {
+            int start = view.position();
+            int length = view.getInt();
+            int checksum = view.getInt();
+            if (length == 0) {
+                view.position(start);
+                break;
+            }
+            if (length < 0 || length > view.remaining() || checksum != checksum(view, view.position(), length)) {
+                log.warn("Event publication journal {} ends with a torn record at offset {}, {} records read",
+                    file(generation), start, records);
+                view.position(start);
+                break;
+            }
+            ByteBuffer payload = view.slice(view.position(), length).asReadOnlyBuffer();
+            reader.accept(payload);
+            view.position(view.position() + length);
+            records++;
+        }
+        buffer.position(view.position());
+        return records;
+    }
+
+    /**
+     * Appends a record.
+     *
+     * @param payload the record
+     * @return true if appended, false if the journal is full and has to be rewritten
+     */
+    synchronized boolean append(byte[] payload) {
+        MappedByteBuffer target = buffer;
+        if (target.remaining() < RECORD_HEADER + payload.length) {
+            return false;
+        }
+        write(target, payload);
+        if (flusher == null) {
+            target.force();
+        } else {
+            dirty = true;
+        }
+        return true;
+    }
+
+    /**
+     * Replaces the journal with a new generation holding the given records.
+     *
+     * @param payloads the live records, in replay order
+     */
+    synchronized void rewrite(List<byte[]> payloads) {
+        long live = 0;
+        for (byte[] payload : payloads) {
+            live += RECORD_HEADER + payload.length;
+        }
+        // Room to append at least as much again before the next rewrite
+        long size = Math.max(segmentSize, live * 2);
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Event publication journal exceeds " + Integer.MAX_VALUE + " bytes with "
+                + payloads.size() + " live records");
+        }
+
+        long next = generation + 1;
+        Path temporary = directory.resolve(FILE_PREFIX + next + FILE_SUFFIX + ".tmp");
+        try {
+            try (FileChannel target = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer mapping = target.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                for (byte[] payload : payloads) {
+                    write(mapping, payload);
+                }
+                mapping.force();
+            }
+            Files.move(temporary, file(next), StandardCopyOption.ATOMIC_MOVE);
+
+            Path previous = file(generation);
+            channel.close();
+            generation = next;
+            map(file(next), size);
+            buffer.position((int) live);
+            dirty = false;
+            Files.deleteIfExists(previous);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not rewrite event publication journal in " + directory, e);
+        }
+        log.debug("Rewrote event publication journal to {} with {} records ({} of {} bytes)",
+            file(generation), payloads.size(), live, size);
+    }
+
+    /**
+     * Forces appended records to the storage device.
+     */
+    void flush() {
+        if (dirty) {
+            dirty = false;
+            buffer.force();
+        }
+    }
+
+    /**
+     * Returns the number of bytes used by records.
+     *
+     * @return the write position
+     */
+    synchronized int usedBytes() {
+        return buffer.position();
+    }
+
+    /**
+     * Returns the size of the current journal file.
+     *
+     * @return the size in bytes
+     */
+    int capacity() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Returns the path of the current journal file.
+     *
+     * @return the file
+     */
+    synchronized Path file() {
+        return file(generation);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        buffer.force();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not close event publication journal " + file(generation), e);
+        }
+    }
+
+    private void map(Path file, long size) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    private static void write(ByteBuffer target, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        target.putInt(payload.length);
+        target.putInt((int) crc.getValue());
+        target.put(payload);
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    private Path file(long generation) {
+        return directory.resolve(FILE_PREFIX + generation + FILE_SUFFIX);
+    }
+
+    private long latestGeneration() throws IOException {
+        long latest = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                latest = Math.max(latest, generationOf(file));
+            }
+        }
+        return latest;
+    }
+
+    private void deleteOtherGenerations() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + "*")) {
+            for (Path file : files) {
+                // Superseded generations and temporary files of an interrupted rewrite
+                if (!file.equals(file(generation))) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private static long generationOf(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package dev.neate;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Rate limiter whose rate ramps up linearly over time.
+ *
+ * The rate starts at initialRate permits per second when the limiter is
+ * created and grows to maxRate over rampUp; after that it stays at maxRate.
+ * Permits are handed out in order: acquire() reserves the next free slot at
+ * the current rate and waits until it is reached. Unused time is not saved
+ * up, so an idle limiter does not allow a burst afterwards.
+ *
+ * Used by WarmUpEventRepublisher to throttle republishing after a restart.
+ */
+class RampingRateLimiter {
+
+    private final double initialRate;
+    private final double maxRate;
+    private final long rampUpNanos;
+    private final LongSupplier ticker;
+    private final long startNanos;
+
+    private long nextFreeNanos;
+
+    /**
+     * Creates a limiter starting now.
+     *
+     * @param initialRate permits per second at the start
+     * @param maxRate permits per second once ramped up
+     * @param rampUp time from initialRate to maxRate
+     */
+    RampingRateLimiter(double initialRate, double maxRate, Duration rampUp) {
+        this(initialRate, maxRate, rampUp, System::nanoTime);
+    }
+
+    /**
+     * Creates a limiter with the given time source.
+     *
+     * @param initialRate permits per second at the start
+     * @param maxRate permits per second once ramped up
+     * @param rampUp time from initialRate to maxRate
+     * @param ticker the time source in nanoseconds
+     */
+    RampingRateLimiter(double initialRate, double maxRate, Duration rampUp, LongSupplier ticker) {
+        if (initialRate <= 0 || maxRate < initialRate) {
+            throw new IllegalArgumentException("Rates must be positive and the maximum rate at least the initial rate");
+        }
+        this.initialRate = initialRate;
+        this.maxRate = maxRate;
+        this.rampUpNanos = Math.max(0, rampUp.toNanos());
+        this.ticker = ticker;
+        this.startNanos = ticker.getAsLong();
+        this.nextFreeNanos = startNanos;
+    }
+
+    /**
+     * Returns the rate at the current time.
+     *
+     * @return permits per second
+     */
+    double currentRate() {
+        long elapsed = ticker.getAsLong() - startNanos;
+        if (rampUpNanos == 0 || elapsed >= rampUpNanos) {
+            return maxRate;
+        }
+        return initialRate + (maxRate - initialRate) * elapsed / rampUpNanos;
+    }
+
+    /**
+     * Reserves permits without waiting.
+     *
+     * @param permits the number of permits
+     * @return the time to wait before the permits may be used, in nanoseconds
+     */
+    synchronized long reserve(int permits) {
+        long now = ticker.getAsLong();
+        long start = Math.max(nextFreeNanos, now);
+        nextFreeNanos = start + (long) (permits * TimeUnit.SECONDS.toNanos(1) / currentRate());
+        return start - now;
+    }
+
+    /**
+     * Reserves permits and waits until they may be used.
+     *
+     * @param permits the number of permits
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void acquire(int permits) throws InterruptedException {
+        long wait = reserve(permits);
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+}
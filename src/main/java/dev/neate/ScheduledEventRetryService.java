@@ -1,13 +1,24 @@
 package dev.neate;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.modulith.events.IncompleteEventPublications;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.TriggerContext;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Scheduled service to retry failed Spring Modulith events.
@@ -15,40 +26,225 @@ import java.time.Duration;
  * This component periodically checks for incomplete event publications
  * in the EventPublicationRegistry and resubmits them for processing.
  * 
+ * Only one instance of the application retries per cycle. Before a run the
+ * service takes the retry lease (see MongoLeaseLock); instances that do not
+ * get it skip the cycle. The lease is kept until it ends rather than released
+ * after the run, so an instance whose schedule fires a little later cannot
+ * resubmit the same publications again in the same cycle. Keep the lease
+ * shorter than the retry interval and longer than a run.
+ * 
+ * Publications are resubmitted chunk by chunk by ChunkedEventResubmitter,
+ * which renews the lease before every chunk and stops when it is lost; the
+ * instance that takes over resumes at the last checkpoint. Without it
+ * (spring.modulith.events.resubmission.chunked=false) the whole backlog is
+ * resubmitted at once. Failed publications wait for their backoff and are
+ * dead-lettered after too many attempts (see EventPublicationBackoff).
+ * 
+ * With chunked resubmission the interval and chunk size adapt to every
+ * cycle's success rate and the backlog left (see AdaptiveRetryPolicy): a
+ * cleared outage is caught up on quickly, an ongoing one is probed less
+ * often and with smaller chunks. The next cycle starts one interval after
+ * the end of the previous one.
+ *
+ * The adapted interval and chunk size are stored next to the resubmission
+ * checkpoints after every cycle, with the earliest start of the next one.
+ * The instance taking the lease continues from them and skips its cycle if
+ * that start has not been reached, so the lease moving to another instance
+ * does not reset a backed-off interval.
+ * 
+ * Metrics:
+ * - event.publication.retry.interval: the current interval
+ * - event.publication.retry.chunk-size: the current chunk size
+ * - event.publication.retry.success-rate: success rate of the last cycle that resubmitted
+ * 
  * Configuration:
  * - Enabled via spring.modulith.events.retry-scheduled=true
- * - Runs every 5 minutes by default
+ * - spring.modulith.events.retry-interval in milliseconds (default 5 minutes),
+ *   the interval while there is nothing to catch up on
  * - Retries events older than 1 minute
+ * - Lease via spring.modulith.events.retry-lock.lease (default 4 minutes),
+ *   locking disabled with spring.modulith.events.retry-lock.enabled=false
+ * - Adaptation via spring.modulith.events.retry-adaptive.enabled (default true),
+ *   bounded by retry-adaptive.min-interval (default 30 seconds),
+ *   retry-adaptive.max-interval (default 30 minutes),
+ *   retry-adaptive.min-chunk-size (default 50) and
+ *   retry-adaptive.max-chunk-size (default 5000)
  */
 @Component
 @ConditionalOnProperty(name = "spring.modulith.events.retry-scheduled", havingValue = "true", matchIfMissing = false)
-public class ScheduledEventRetryService {
+public class ScheduledEventRetryService implements SchedulingConfigurer {
 
     private static final Logger log = LoggerFactory.getLogger(ScheduledEventRetryService.class);
 
+    static final String LOCK_NAME = "scheduled-event-retry";
+
     private final IncompleteEventPublications incompleteEventPublications;
+    private final ChunkedEventResubmitter chunkedResubmitter;
+    private final MongoLeaseLock lock;
+    private final Duration lease;
+    private final AdaptiveRetryPolicy policy;
+    private final boolean adaptive;
 
-    public ScheduledEventRetryService(IncompleteEventPublications incompleteEventPublications) {
+    @Autowired
+    public ScheduledEventRetryService(IncompleteEventPublications incompleteEventPublications,
+            ObjectProvider<ChunkedEventResubmitter> chunkedResubmitter,
+            ObjectProvider<MongoLeaseLock> lock,
+            MeterRegistry meterRegistry,
+            @Value("${spring.modulith.events.retry-lock.enabled:true}") boolean lockEnabled,
+            @Value("${spring.modulith.events.retry-lock.lease:4m}") Duration lease,
+            @Value("${spring.modulith.events.retry-interval:300000}") long retryIntervalMillis,
+            @Value("${spring.modulith.events.resubmission.chunk-size:500}") int chunkSize,
+            @Value("${spring.modulith.events.retry-adaptive.enabled:true}") boolean adaptive,
+            @Value("${spring.modulith.events.retry-adaptive.min-interval:30s}") Duration minInterval,
+            @Value("${spring.modulith.events.retry-adaptive.max-interval:30m}") Duration maxInterval,
+            @Value("${spring.modulith.events.retry-adaptive.min-chunk-size:50}") int minChunkSize,
+            @Value("${spring.modulith.events.retry-adaptive.max-chunk-size:5000}") int maxChunkSize) {
+        this(incompleteEventPublications, chunkedResubmitter, lock, lockEnabled, lease,
+            adaptive
+                ? new AdaptiveRetryPolicy(Duration.ofMillis(retryIntervalMillis), minInterval, maxInterval,
+                    chunkSize, minChunkSize, maxChunkSize)
+                : fixedPolicy(Duration.ofMillis(retryIntervalMillis), chunkSize),
+            adaptive, meterRegistry);
+    }
+
+    /**
+     * Creates a service with the given retry policy.
+     *
+     * @param policy the retry interval and chunk size, only updated if adaptive
+     * @param adaptive whether the policy is updated after every cycle
+     */
+    ScheduledEventRetryService(IncompleteEventPublications incompleteEventPublications,
+            ObjectProvider<ChunkedEventResubmitter> chunkedResubmitter,
+            ObjectProvider<MongoLeaseLock> lock,
+            boolean lockEnabled, Duration lease, AdaptiveRetryPolicy policy, boolean adaptive,
+            MeterRegistry meterRegistry) {
         this.incompleteEventPublications = incompleteEventPublications;
+        this.chunkedResubmitter = chunkedResubmitter.getIfAvailable();
+        // Without MongoDB (in-memory profile) there is only one instance to coordinate
+        this.lock = lockEnabled ? lock.getIfAvailable() : null;
+        this.lease = lease;
+        this.policy = policy;
+        // Success rates are only known from the chunked resubmission
+        this.adaptive = adaptive && this.chunkedResubmitter != null;
+
+        TimeGauge.builder("event.publication.retry.interval", this, TimeUnit.MILLISECONDS,
+                service -> service.policy.interval().toMillis())
+            .description("Current interval between scheduled retries of incomplete publications")
+            .register(meterRegistry);
+        Gauge.builder("event.publication.retry.chunk-size", this, service -> service.policy.chunkSize())
+            .description("Current chunk size of the scheduled retry")
+            .register(meterRegistry);
+        Gauge.builder("event.publication.retry.success-rate", this, service -> service.policy.successRate())
+            .description("Share of the publications resubmitted by the last scheduled retry that did not fail again")
+            .register(meterRegistry);
+    }
+
+    private static AdaptiveRetryPolicy fixedPolicy(Duration interval, int chunkSize) {
+        return new AdaptiveRetryPolicy(interval, interval, interval, chunkSize, chunkSize, chunkSize);
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.addTriggerTask(this::retryIncompleteEvents, this::nextExecution);
+    }
+
+    /**
+     * Returns the start of the next cycle: at once after startup, then one
+     * interval after the end of the previous cycle.
+     */
+    Instant nextExecution(TriggerContext context) {
+        Instant lastCompletion = context.lastCompletion();
+        return lastCompletion != null ? lastCompletion.plus(policy.interval()) : Instant.now();
+    }
+
+    /**
+     * Returns the current interval between cycles.
+     *
+     * @return the interval
+     */
+    public Duration currentInterval() {
+        return policy.interval();
     }
 
     /**
      * Scheduled task to retry incomplete event publications.
      * 
-     * Runs every 5 minutes and retries events that have been incomplete
-     * for more than 1 minute to avoid immediate retry loops.
+     * Retries events that have been incomplete for more than 1 minute to
+     * avoid immediate retry loops.
      */
-    @Scheduled(fixedRateString = "${spring.modulith.events.retry-interval:300000}") // 5 minutes default
     public void retryIncompleteEvents() {
-        log.debug("Starting scheduled retry of incomplete events");
-        
         try {
+            if (lock != null && !lock.tryAcquire(LOCK_NAME, lease)) {
+                log.debug("Skipping scheduled retry of incomplete events, another instance holds the retry lease");
+                return;
+            }
+
+            log.debug("Starting scheduled retry of incomplete events");
+
+            if (chunkedResubmitter != null) {
+                if (adaptive && !restoreSharedPolicy()) {
+                    return;
+                }
+                // Retry events that have been incomplete for more than 1 minute, keeping the lease per chunk
+                ChunkedEventResubmitter.ResubmissionResult result = chunkedResubmitter.resubmit(
+                    Duration.ofMinutes(1), policy.chunkSize(),
+                    () -> lock == null || lock.tryAcquire(LOCK_NAME, lease), size -> { });
+                log.debug("Completed scheduled retry of incomplete events");
+                // A partial cycle, e.g. after the lease was lost, is no sample and must not overwrite the shared policy
+                if (adaptive && result.completed()) {
+                    adapt(result);
+                }
+                return;
+            }
+
+            long start = System.nanoTime();
+
             // Retry events that have been incomplete for more than 1 minute
             incompleteEventPublications.resubmitIncompletePublicationsOlderThan(Duration.ofMinutes(1));
             log.debug("Completed scheduled retry of incomplete events");
+
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            if (lock != null && elapsed.compareTo(lease) > 0) {
+                log.warn("Scheduled retry took {} which is longer than the retry lease of {}; "
+                    + "another instance may have retried concurrently", elapsed, lease);
+            }
             
         } catch (Exception e) {
             log.error("Error during scheduled event retry", e);
         }
     }
+
+    /**
+     * Continues from the policy stored by the last cycle of any instance.
+     *
+     * @return false if the stored interval since the last cycle has not passed yet
+     */
+    private boolean restoreSharedPolicy() {
+        Optional<ChunkedEventResubmitter.RetryPolicyState> shared = chunkedResubmitter.loadRetryPolicy();
+        if (shared.isEmpty()) {
+            return true;
+        }
+        ChunkedEventResubmitter.RetryPolicyState state = shared.get();
+        policy.restore(state.interval(), state.chunkSize(), state.successRate());
+        if (state.nextCycle().isAfter(Instant.now())) {
+            log.debug("Skipping scheduled retry of incomplete events until {}, the shared retry interval of {} "
+                + "has not passed", state.nextCycle(), state.interval());
+            return false;
+        }
+        return true;
+    }
+
+    private void adapt(ChunkedEventResubmitter.ResubmissionResult result) {
+        Duration previousInterval = policy.interval();
+        // What the next cycle would resubmit: published before this cycle's cutoff and not waiting for backoff
+        long backlog = chunkedResubmitter.countIncomplete(result.cutoff());
+        policy.update(result.resubmitted(), result.failed(), backlog);
+        chunkedResubmitter.saveRetryPolicy(new ChunkedEventResubmitter.RetryPolicyState(policy.interval(),
+            policy.chunkSize(), policy.successRate(), Instant.now().plus(policy.interval())));
+        if (!policy.interval().equals(previousInterval)) {
+            log.info("Scheduled retry interval changed from {} to {} (resubmitted {}, failed {}, backlog {}), "
+                    + "chunk size {}", previousInterval, policy.interval(), result.resubmitted(), result.failed(),
+                backlog, policy.chunkSize());
+        }
+    }
 }
@@ -0,0 +1,193 @@
+package dev.neate;
+
+import org.springframework.modulith.events.EventPublication;
+import org.springframework.modulith.events.core.EventPublicationRepository;
+import org.springframework.modulith.events.core.PublicationTargetIdentifier;
+import org.springframework.modulith.events.core.TargetEventPublication;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * EventPublicationRepository decorator that keeps publications of recoverable listeners out of the registry.
+ *
+ * Durability tiers per listener:
+ * - Durable (default): every publication is inserted into the registry and
+ *   updated on completion, so it survives a crash and is retried
+ * - Recoverable: the listener is idempotent and its work can be recovered
+ *   from state it persists itself (e.g. the country's stage), so its
+ *   publications are not stored. The registry still tracks them in memory
+ *   and runs the listener asynchronously after commit, but a publication
+ *   lost in a crash or failed is not retried from the registry; the owning
+ *   module recovers it instead (see CreatedCountryRecovery)
+ *
+ * A listener is recoverable if its identifier equals an entry of the
+ * configured list, or starts with an entry followed by a dot, so an entry
+ * can name a listener class or a single listener method.
+ *
+ * Skipped publications are remembered by ID until the registry completes or
+ * fails them, and their processing, completion and failure updates are
+ * dropped. Updates of publications stored before the listener became
+ * recoverable go to the decorated repository as before. Completions by
+ * event, which the registry only issues for publications it is not
+ * tracking, are dropped for recoverable listeners.
+ *
+ * Registered around the registry's repository by EventPublicationConfiguration,
+ * inside ChunkScopedEventPublicationRepository.
+ */
+class TieredEventPublicationRepository implements EventPublicationRepositoryDecorator {
+
+    /** Skipped publications kept before entries older than SKIPPED_MAX_AGE are pruned. */
+    static final int SKIPPED_PRUNE_THRESHOLD = 10_000;
+    static final Duration SKIPPED_MAX_AGE = Duration.ofHours(1);
+
+    private final EventPublicationRepository delegate;
+    private final List<String> recoverableListeners;
+    private final Map<UUID, Long> skipped = new ConcurrentHashMap<>();
+
+    /**
+     * Decorates a repository.
+     *
+     * @param delegate the repository of the registry
+     * @param recoverableListeners listener identifiers or class names whose publications are not stored
+     */
+    TieredEventPublicationRepository(EventPublicationRepository delegate, List<String> recoverableListeners) {
+        this.delegate = delegate;
+        this.recoverableListeners = List.copyOf(recoverableListeners);
+    }
+
+    /**
+     * Returns whether a listener's publications are kept out of the registry.
+     *
+     * @param identifier the listener identifier
+     * @return true if the listener is recoverable
+     */
+    boolean isRecoverable(PublicationTargetIdentifier identifier) {
+        String id = identifier.getValue();
+        for (String listener : recoverableListeners) {
+            if (id.equals(listener) || id.startsWith(listener + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of skipped publications the registry has not completed or failed yet.
+     *
+     * @return the number of publications
+     */
+    int skippedCount() {
+        return skipped.size();
+    }
+
+    @Override
+    public TargetEventPublication create(TargetEventPublication publication) {
+        if (!isRecoverable(publication.getTargetIdentifier())) {
+            return delegate.create(publication);
+        }
+        if (skipped.size() >= SKIPPED_PRUNE_THRESHOLD) {
+            // Entries the registry never completed or failed, e.g. of listener invocations lost in a shutdown
+            long cutoff = System.nanoTime() - SKIPPED_MAX_AGE.toNanos();
+            skipped.values().removeIf(created -> created - cutoff < 0);
+        }
+        skipped.put(publication.getIdentifier(), System.nanoTime());
+        return publication;
+    }
+
+    @Override
+    public void markProcessing(UUID identifier) {
+        if (!skipped.containsKey(identifier)) {
+            delegate.markProcessing(identifier);
+        }
+    }
+
+    @Override
+    public void markCompleted(TargetEventPublication publication, Instant completionDate) {
+        if (skipped.remove(publication.getIdentifier()) == null) {
+            delegate.markCompleted(publication, completionDate);
+        }
+    }
+
+    @Override
+    public void markCompleted(Object event, PublicationTargetIdentifier identifier, Instant completionDate) {
+        if (!isRecoverable(identifier)) {
+            delegate.markCompleted(event, identifier, completionDate);
+        }
+    }
+
+    @Override
+    public void markCompleted(UUID identifier, Instant completionDate) {
+        if (skipped.remove(identifier) == null) {
+            delegate.markCompleted(identifier, completionDate);
+        }
+    }
+
+    @Override
+    public void markFailed(UUID identifier) {
+        if (skipped.remove(identifier) == null) {
+            delegate.markFailed(identifier);
+        }
+    }
+
+    @Override
+    public boolean markResubmitted(UUID identifier, Instant resubmissionDate) {
+        return delegate.markResubmitted(identifier, resubmissionDate);
+    }
+
+    @Override
+    public List<TargetEventPublication> findIncompletePublications() {
+        return delegate.findIncompletePublications();
+    }
+
+    @Override
+    public List<TargetEventPublication> findIncompletePublicationsPublishedBefore(Instant instant) {
+        return delegate.findIncompletePublicationsPublishedBefore(instant);
+    }
+
+    @Override
+    public Optional<TargetEventPublication> findIncompletePublicationsByEventAndTargetIdentifier(Object event,
+            PublicationTargetIdentifier targetIdentifier) {
+        return delegate.findIncompletePublicationsByEventAndTargetIdentifier(event, targetIdentifier);
+    }
+
+    @Override
+    public List<TargetEventPublication> findCompletedPublications() {
+        return delegate.findCompletedPublications();
+    }
+
+    @Override
+    public List<TargetEventPublication> findFailedPublications(FailedCriteria criteria) {
+        return delegate.findFailedPublications(criteria);
+    }
+
+    @Override
+    public List<TargetEventPublication> findByStatus(EventPublication.Status status) {
+        return delegate.findByStatus(status);
+    }
+
+    @Override
+    public int countByStatus(EventPublication.Status status) {
+        return delegate.countByStatus(status);
+    }
+
+    @Override
+    public void deletePublications(List<UUID> identifiers) {
+        delegate.deletePublications(identifiers);
+    }
+
+    @Override
+    public void deleteCompletedPublications() {
+        delegate.deleteCompletedPublications();
+    }
+
+    @Override
+    public void deleteCompletedPublicationsBefore(Instant instant) {
+        delegate.deleteCompletedPublicationsBefore(instant);
+    }
+}
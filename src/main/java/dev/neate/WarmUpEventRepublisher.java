@@ -0,0 +1,201 @@
+package dev.neate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Republishes the publications left incomplete by the previous run, throttled.
+ *
+ * Spring Modulith's republish-outstanding-events-on-restart resubmits every
+ * outstanding publication while the application starts, so after a long
+ * outage MongoDB, RestCountries and Kafka get the whole backlog at once
+ * while the JVM is still cold. This component replaces it:
+ * - Starts in the background once the application is ready
+ * - Resubmits the publications published before startup through
+ *   ChunkedEventResubmitter, in small chunks
+ * - Waits before every chunk for a RampingRateLimiter, whose rate grows from
+ *   initial-rate to max-rate publications per second over ramp-up
+ * - Holds the scheduled retry lease (see MongoLeaseLock) while it runs, so
+ *   after a restart of several instances only one of them republishes
+ *
+ * Progress is exposed as metrics:
+ * - event.publication.warmup.active: 1 while republishing, 0 otherwise
+ * - event.publication.warmup.backlog: outstanding publications found at startup
+ * - event.publication.warmup.remaining: publications still to republish
+ * - event.publication.warmup.republished: publications republished (counter)
+ * - event.publication.warmup.rate: current rate limit in publications per second
+ *
+ * Configuration:
+ * - Enabled via spring.modulith.events.warm-up.enabled (default true);
+ *   republish-outstanding-events-on-restart should be false then
+ * - spring.modulith.events.warm-up.initial-rate (default 5 per second)
+ * - spring.modulith.events.warm-up.max-rate (default 100 per second)
+ * - spring.modulith.events.warm-up.ramp-up (default 5 minutes)
+ * - spring.modulith.events.warm-up.chunk-size (default 20)
+ */
+@Component
+@Profile("!in-memory & !journal")
+@ConditionalOnProperty(name = "spring.modulith.events.warm-up.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmUpEventRepublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmUpEventRepublisher.class);
+
+    private final ChunkedEventResubmitter chunkedResubmitter;
+    private final MongoLeaseLock lock;
+    private final Duration lease;
+    private final double initialRate;
+    private final double maxRate;
+    private final Duration rampUp;
+    private final int chunkSize;
+    private final Instant startedAt = Instant.now();
+
+    private final AtomicBoolean active = new AtomicBoolean();
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong remaining = new AtomicLong();
+    private final Counter republished;
+    private volatile RampingRateLimiter rateLimiter;
+
+    public WarmUpEventRepublisher(ObjectProvider<ChunkedEventResubmitter> chunkedResubmitter,
+            ObjectProvider<MongoLeaseLock> lock,
+            MeterRegistry meterRegistry,
+            @Value("${spring.modulith.events.republish-outstanding-events-on-restart:false}") boolean republishOnRestart,
+            @Value("${spring.modulith.events.retry-lock.enabled:true}") boolean lockEnabled,
+            @Value("${spring.modulith.events.retry-lock.lease:4m}") Duration lease,
+            @Value("${spring.modulith.events.warm-up.initial-rate:5}") double initialRate,
+            @Value("${spring.modulith.events.warm-up.max-rate:100}") double maxRate,
+            @Value("${spring.modulith.events.warm-up.ramp-up:5m}") Duration rampUp,
+            @Value("${spring.modulith.events.warm-up.chunk-size:20}") int chunkSize) {
+        if (initialRate <= 0 || maxRate < initialRate) {
+            throw new IllegalArgumentException("Warm-up rates must be positive and max-rate at least initial-rate");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Warm-up chunk size must be at least 1");
+        }
+        if (republishOnRestart) {
+            log.warn("Both republish-outstanding-events-on-restart and warm-up republishing are enabled; "
+                + "outstanding publications are republished unthrottled during startup");
+        }
+        this.chunkedResubmitter = chunkedResubmitter.getIfAvailable();
+        this.lock = lockEnabled ? lock.getIfAvailable() : null;
+        this.lease = lease;
+        this.initialRate = initialRate;
+        this.maxRate = maxRate;
+        this.rampUp = rampUp;
+        this.chunkSize = chunkSize;
+
+        Gauge.builder("event.publication.warmup.active", active, value -> value.get() ? 1 : 0)
+            .description("Whether outstanding publications are being republished after startup")
+            .register(meterRegistry);
+        Gauge.builder("event.publication.warmup.backlog", backlog, AtomicLong::get)
+            .description("Outstanding publications found at startup")
+            .register(meterRegistry);
+        Gauge.builder("event.publication.warmup.remaining", remaining, AtomicLong::get)
+            .description("Outstanding publications still to republish")
+            .register(meterRegistry);
+        Gauge.builder("event.publication.warmup.rate", this, WarmUpEventRepublisher::currentRate)
+            .description("Current warm-up rate limit in publications per second")
+            .register(meterRegistry);
+        this.republished = Counter.builder("event.publication.warmup.republished")
+            .description("Publications republished after startup")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Starts republishing in the background once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void republishInBackground() {
+        if (chunkedResubmitter == null) {
+            log.info("Warm-up republishing needs chunked resubmission, which is disabled");
+            return;
+        }
+        new SimpleAsyncTaskExecutor("event-warm-up-").execute(() -> {
+            try {
+                republish();
+            } catch (RuntimeException e) {
+                // The checkpoint is kept, the scheduled retry or the next start resumes from it
+                log.error("Warm-up republishing of outstanding publications failed", e);
+            }
+        });
+    }
+
+    /**
+     * Republishes the publications published before startup, throttled.
+     *
+     * A cycle resumed from an earlier checkpoint only covers publications up
+     * to its own cutoff, so another cycle follows for the rest.
+     *
+     * @return the number of publications republished
+     */
+    long republish() {
+        long outstanding = chunkedResubmitter.countIncomplete(startedAt);
+        backlog.set(outstanding);
+        remaining.set(outstanding);
+        if (outstanding == 0) {
+            log.debug("No outstanding event publications to republish");
+            return 0;
+        }
+
+        log.info("Republishing {} outstanding event publications, ramping from {} to {} per second over {}",
+            outstanding, initialRate, maxRate, rampUp);
+        rateLimiter = new RampingRateLimiter(initialRate, maxRate, rampUp);
+        active.set(true);
+        long total = 0;
+        try {
+            ChunkedEventResubmitter.ResubmissionResult result;
+            do {
+                Duration minAge = Duration.between(startedAt, Instant.now());
+                result = chunkedResubmitter.resubmit(minAge, chunkSize, this::beforeChunk, this::afterChunk);
+                total += result.resubmitted();
+            } while (result.completed() && result.cutoff().isBefore(startedAt));
+
+            if (result.completed()) {
+                log.info("Republished {} outstanding event publications", total);
+            } else {
+                log.info("Warm-up republishing stopped after {} publications, another run holds the backlog", total);
+            }
+            return total;
+        } finally {
+            active.set(false);
+        }
+    }
+
+    private boolean beforeChunk() {
+        if (lock != null && !lock.tryAcquire(ScheduledEventRetryService.LOCK_NAME, lease)) {
+            return false;
+        }
+        try {
+            rateLimiter.acquire(chunkSize);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void afterChunk(int size) {
+        republished.increment(size);
+        remaining.updateAndGet(value -> Math.max(0, value - size));
+    }
+
+    private double currentRate() {
+        RampingRateLimiter limiter = rateLimiter;
+        return limiter != null && active.get() ? limiter.currentRate() : 0;
+    }
+}
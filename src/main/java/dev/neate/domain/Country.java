@@ -9,11 +9,16 @@ import java.util.UUID;
  * MongoDB entity representing a country.
  * 
  * This entity stores country information including basic details,
- * enrichment data, and validation status. It is part of the Domain module's
+ * enrichment data, validation status, and its pipeline stage. It is part of the Domain module's
  * public API and can be accessed by other modules.
  * 
  * The entity uses UUID for the primary key for consistent identification
- * across distributed systems.
+ * across distributed systems. New identifiers are time-ordered (UUIDv7) by
+ * default so inserts append to the end of the _id index.
+ * 
+ * Population is stored as a 64-bit integer so it can be range-queried and
+ * aggregated. Currency and language are short ISO codes, interned so the
+ * few distinct values are shared across all loaded countries.
  */
 @Document(collection = "countries")
 public class Country {
@@ -23,16 +28,18 @@ public class Country {
 
     private String name;
     private String code; // ISO 3166-1 alpha-2 code
-    private String currency;
-    private String language;
-    private String population;
+    private String currency; // ISO 4217 code, interned
+    private String language; // ISO 639-3 code, interned
+    private Long population; // stored as a 64-bit integer
     private Boolean validCountry;
+    private CountryStage stage;
 
     /**
      * No-args constructor required by MongoDB.
      */
     public Country() {
         this.validCountry = false; // Default value
+        this.stage = CountryStage.CREATED;
     }
 
     /**
@@ -45,6 +52,7 @@ public class Country {
         this.name = name;
         this.code = code;
         this.validCountry = false;
+        this.stage = CountryStage.CREATED;
     }
 
     // Getters and Setters
@@ -78,7 +86,7 @@ public class Country {
     }
 
     public void setCurrency(String currency) {
-        this.currency = currency;
+        this.currency = currency != null ? currency.intern() : null;
     }
 
     public String getLanguage() {
@@ -86,14 +94,14 @@ public class Country {
     }
 
     public void setLanguage(String language) {
-        this.language = language;
+        this.language = language != null ? language.intern() : null;
     }
 
-    public String getPopulation() {
+    public Long getPopulation() {
         return population;
     }
 
-    public void setPopulation(String population) {
+    public void setPopulation(Long population) {
         this.population = population;
     }
 
@@ -105,6 +113,14 @@ public class Country {
         this.validCountry = validCountry;
     }
 
+    public CountryStage getStage() {
+        return stage;
+    }
+
+    public void setStage(CountryStage stage) {
+        this.stage = stage;
+    }
+
     @Override
     public String toString() {
         return "Country{" +
@@ -113,8 +129,9 @@ public class Country {
                 ", code='" + code + '\'' +
                 ", currency='" + currency + '\'' +
                 ", language='" + language + '\'' +
-                ", population='" + population + '\'' +
+                ", population=" + population +
                 ", validCountry=" + validCountry +
+                ", stage=" + stage +
                 '}';
     }
 }
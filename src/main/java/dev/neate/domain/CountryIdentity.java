@@ -0,0 +1,42 @@
+package dev.neate.domain;
+
+import java.util.UUID;
+
+/**
+ * Read-only view of a country's identifying fields.
+ *
+ * Returned by CountryService.findIdentityById(), which only loads these
+ * fields from MongoDB (field projection) instead of the whole document.
+ * Used by stages that only need to know which country they are processing.
+ *
+ * Documents without a stage are reported as CREATED.
+ *
+ * @param id the country ID (UUID)
+ * @param name the country name
+ * @param code the ISO 3166-1 alpha-2 code
+ * @param stage the current pipeline stage
+ */
+public record CountryIdentity(
+    UUID id,
+    String name,
+    String code,
+    CountryStage stage
+) {
+
+    /**
+     * Creates a new CountryIdentity, defaulting a missing stage to CREATED.
+     */
+    public CountryIdentity {
+        stage = stage != null ? stage : CountryStage.CREATED;
+    }
+
+    /**
+     * Creates the identity view of a loaded country.
+     *
+     * @param country the country
+     * @return the identity view
+     */
+    public static CountryIdentity of(Country country) {
+        return new CountryIdentity(country.getId(), country.getName(), country.getCode(), country.getStage());
+    }
+}
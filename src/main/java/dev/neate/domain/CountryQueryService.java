@@ -0,0 +1,60 @@
+package dev.neate.domain;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Public service interface for read-only country queries.
+ * 
+ * Covers listing, statistics and status reads that do not take part in the
+ * event pipeline. These reads use the configurable query read preference
+ * (domain.mongodb.reads.query-preference, secondaryPreferred by default), so
+ * they can be served by the secondaries of the replica set and may lag the
+ * primary by the replication delay.
+ * 
+ * Pipeline stages must keep using CountryService: its reads run on the
+ * primary inside the listener's transaction, so they always see the writes
+ * of the previous stage.
+ */
+public interface CountryQueryService {
+
+    /**
+     * List the validated countries using a currency.
+     *
+     * @param currency the ISO 4217 currency code (e.g., "EUR")
+     * @return the matching countries, empty if none
+     */
+    List<Country> findValidByCurrency(String currency);
+
+    /**
+     * Count the countries in each pipeline stage.
+     * 
+     * Documents without a stage, written before stages existed and not yet
+     * migrated (see CountrySchemaMigration), are not counted.
+     *
+     * @return the number of countries per stage, containing every stage
+     */
+    Map<CountryStage, Long> countByStage();
+
+    /**
+     * Find the IDs of countries in a pipeline stage, in ID order.
+     * 
+     * Documents without a stage are not found in any stage, so countries
+     * created before stages existed are not taken for new ones.
+     *
+     * @param stage the stage
+     * @param limit the maximum number of IDs
+     * @return the IDs, empty if none
+     */
+    List<UUID> findIdsByStage(CountryStage stage, int limit);
+
+    /**
+     * Find the validation status of a country by its ID.
+     *
+     * @param id the country ID (UUID)
+     * @return an Optional containing the status view if found, empty otherwise
+     */
+    Optional<CountryStatus> findStatusById(UUID id);
+}
@@ -2,6 +2,7 @@ package dev.neate.domain;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Public service interface for Country domain operations.
@@ -29,4 +30,66 @@ public interface CountryService {
      * @return an Optional containing the country if found, empty otherwise
      */
     Optional<Country> findById(UUID id);
+
+    /**
+     * Find a country by its ISO 3166-1 alpha-2 code.
+     *
+     * @param code the country code (e.g., "GB")
+     * @return an Optional containing the country if found, empty otherwise
+     */
+    Optional<Country> findByCode(String code);
+
+    /**
+     * Find the identifying fields of a country by its ID.
+     * 
+     * Only id, name, code and stage are read from MongoDB.
+     *
+     * @param id the country ID (UUID)
+     * @return an Optional containing the identity view if found, empty otherwise
+     */
+    Optional<CountryIdentity> findIdentityById(UUID id);
+
+    /**
+     * Find the validation status of a country by its ID.
+     * 
+     * Only id, code, validCountry and stage are read from MongoDB.
+     *
+     * @param id the country ID (UUID)
+     * @return an Optional containing the status view if found, empty otherwise
+     */
+    Optional<CountryStatus> findStatusById(UUID id);
+
+    /**
+     * Atomically apply a stage transition to a country.
+     * 
+     * The country is updated in a single findAndModify operation, and only if
+     * it is currently in the transition's expected stage. Concurrent or
+     * redelivered events therefore cannot overwrite each other: exactly one
+     * caller applies the transition, all others get an empty result.
+     *
+     * @param transition the transition to apply
+     * @return the updated country if the transition was applied, empty if the
+     *         country does not exist or is not in the expected stage
+     */
+    Optional<Country> transition(CountryTransition transition);
+
+    /**
+     * Apply a stage transition asynchronously, batched with concurrent callers.
+     * 
+     * With domain.mongodb.coalescer.enabled=true, transitions submitted within
+     * a few milliseconds of each other are written as one unordered bulkWrite
+     * (group commit), which amortises the round trip across the batch. The
+     * conditional semantics are those of transition(). Otherwise the
+     * transition is applied immediately and the returned future is already
+     * complete.
+     * 
+     * A batched write does not take part in the caller's transaction. Callers
+     * that must commit the transition together with other writes, such as
+     * the event publications of a listener, must use transition().
+     *
+     * @param transition the transition to apply
+     * @return a future completing with true if the transition was applied,
+     *         false if the country does not exist or is not in the expected stage
+     */
+    CompletableFuture<Boolean> transitionAsync(CountryTransition transition);
 }
@@ -0,0 +1,36 @@
+package dev.neate.domain;
+
+/**
+ * Processing stage of a country in the event pipeline.
+ *
+ * Stages only move forward:
+ * CREATED (API module) -> VALIDATED (Validation module) -> ENRICHED (Enrichment module)
+ * A country failing validation moves from CREATED to REJECTED instead, so
+ * CREATED always means "not validated yet".
+ *
+ * The stage is persisted with the country and used as the precondition of
+ * atomic stage transitions (see CountryService.transition), which makes
+ * redelivered events no-ops.
+ */
+public enum CountryStage {
+
+    /**
+     * Country has been created but not yet validated.
+     */
+    CREATED,
+
+    /**
+     * Country passed validation and awaits enrichment.
+     */
+    VALIDATED,
+
+    /**
+     * Country failed validation; final.
+     */
+    REJECTED,
+
+    /**
+     * Country has been enriched with external API data.
+     */
+    ENRICHED
+}
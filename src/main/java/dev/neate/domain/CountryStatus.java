@@ -0,0 +1,51 @@
+package dev.neate.domain;
+
+import java.util.UUID;
+
+/**
+ * Read-only view of a country's validation status.
+ *
+ * Returned by CountryService.findStatusById(), which only loads these
+ * fields from MongoDB (field projection) instead of the whole document.
+ * Used by stages that act on the outcome of validation.
+ *
+ * Documents without a stage are reported as CREATED.
+ *
+ * @param id the country ID (UUID)
+ * @param code the ISO 3166-1 alpha-2 code
+ * @param validCountry whether the country passed validation
+ * @param stage the current pipeline stage
+ */
+public record CountryStatus(
+    UUID id,
+    String code,
+    Boolean validCountry,
+    CountryStage stage
+) {
+
+    /**
+     * Creates a new CountryStatus, defaulting a missing stage to CREATED.
+     */
+    public CountryStatus {
+        stage = stage != null ? stage : CountryStage.CREATED;
+    }
+
+    /**
+     * Whether the country passed validation.
+     *
+     * @return true only if validCountry is set and true
+     */
+    public boolean isValid() {
+        return Boolean.TRUE.equals(validCountry);
+    }
+
+    /**
+     * Creates the status view of a loaded country.
+     *
+     * @param country the country
+     * @return the status view
+     */
+    public static CountryStatus of(Country country) {
+        return new CountryStatus(country.getId(), country.getCode(), country.getValidCountry(), country.getStage());
+    }
+}
@@ -0,0 +1,85 @@
+package dev.neate.domain;
+
+import java.util.UUID;
+
+/**
+ * Conditional stage transition of a country.
+ *
+ * A transition is applied atomically by CountryService.transition(): the
+ * country moves to the target stage and the non-null field values are set
+ * only if the country is currently in the expected stage. Fields left null
+ * are not modified.
+ *
+ * Use the factory methods for the transitions of the pipeline:
+ * - validated(id): CREATED -> VALIDATED, sets validCountry=true
+ * - rejected(id): CREATED -> REJECTED, sets validCountry=false
+ * - enriched(id, ...): VALIDATED -> ENRICHED, sets population, currency and language
+ *
+ * @param countryId the ID of the country to transition (UUID)
+ * @param from the stage the country must currently be in
+ * @param to the stage the country moves to
+ * @param validCountry the validation flag to set, or null to leave unchanged
+ * @param population the population to set, or null to leave unchanged
+ * @param currency the ISO 4217 currency code to set, or null to leave unchanged
+ * @param language the ISO 639-3 language code to set, or null to leave unchanged
+ */
+public record CountryTransition(
+    UUID countryId,
+    CountryStage from,
+    CountryStage to,
+    Boolean validCountry,
+    Long population,
+    String currency,
+    String language
+) {
+
+    /**
+     * Creates a new CountryTransition.
+     *
+     * @throws IllegalArgumentException if countryId, from or to is null
+     */
+    public CountryTransition {
+        if (countryId == null) {
+            throw new IllegalArgumentException("Country ID must not be null");
+        }
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Transition stages must not be null");
+        }
+    }
+
+    /**
+     * Transition of a country that passed validation.
+     *
+     * @param countryId the ID of the validated country
+     * @return a CREATED -> VALIDATED transition setting validCountry=true
+     */
+    public static CountryTransition validated(UUID countryId) {
+        return new CountryTransition(countryId, CountryStage.CREATED, CountryStage.VALIDATED,
+            true, null, null, null);
+    }
+
+    /**
+     * Transition of a country that failed validation.
+     *
+     * @param countryId the ID of the rejected country
+     * @return a CREATED -> REJECTED transition setting validCountry=false
+     */
+    public static CountryTransition rejected(UUID countryId) {
+        return new CountryTransition(countryId, CountryStage.CREATED, CountryStage.REJECTED,
+            false, null, null, null);
+    }
+
+    /**
+     * Transition of a country that has been enriched.
+     *
+     * @param countryId the ID of the enriched country
+     * @param population the population fetched from the external API
+     * @param currency the ISO 4217 currency code fetched from the external API
+     * @param language the ISO 639-3 language code fetched from the external API
+     * @return a VALIDATED -> ENRICHED transition setting the enrichment fields
+     */
+    public static CountryTransition enriched(UUID countryId, Long population, String currency, String language) {
+        return new CountryTransition(countryId, CountryStage.VALIDATED, CountryStage.ENRICHED,
+            null, population, currency, language);
+    }
+}
@@ -0,0 +1,67 @@
+package dev.neate.domain;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Public reactive service interface for Country domain operations.
+ * 
+ * Non-blocking counterpart of CountryService, backed by the reactive MongoDB
+ * driver. It operates on the same countries collection and offers the same
+ * operations, returning Mono/Flux instead of blocking the caller, so
+ * high-concurrency callers can run on a small number of event-loop threads.
+ * 
+ * Nothing happens until the returned publisher is subscribed to. Reactive
+ * operations do not take part in Spring-managed (blocking) transactions, so
+ * event-publishing writes of the pipeline stay on CountryService.
+ */
+public interface ReactiveCountryService {
+
+    /**
+     * Save a new country or update an existing one.
+     *
+     * @param country the country to save
+     * @return a Mono emitting the saved country with generated ID (if new)
+     */
+    Mono<Country> save(Country country);
+
+    /**
+     * Find a country by its ID.
+     *
+     * @param id the country ID (UUID)
+     * @return a Mono emitting the country if found, empty otherwise
+     */
+    Mono<Country> findById(UUID id);
+
+    /**
+     * Find countries by their IDs.
+     *
+     * @param ids the country IDs (UUID)
+     * @return a Flux emitting every country found, in no particular order
+     */
+    Flux<Country> findAllById(Iterable<UUID> ids);
+
+    /**
+     * Find a country by its ISO 3166-1 alpha-2 code.
+     *
+     * @param code the country code (e.g., "GB")
+     * @return a Mono emitting the country if found, empty otherwise
+     */
+    Mono<Country> findByCode(String code);
+
+    /**
+     * Atomically apply a stage transition to a country.
+     * 
+     * Same semantics as CountryService.transition(): the update is applied in
+     * a single findAndModify, and only if the country is currently in the
+     * transition's expected stage.
+     *
+     * @param transition the transition to apply
+     * @return a Mono emitting the updated country if the transition was
+     *         applied, empty if the country does not exist or is not in the
+     *         expected stage
+     */
+    Mono<Country> transition(CountryTransition transition);
+}
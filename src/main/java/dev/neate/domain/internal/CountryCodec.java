@@ -0,0 +1,128 @@
+package dev.neate.domain.internal;
+
+import dev.neate.domain.Country;
+import dev.neate.domain.CountryStage;
+import org.bson.BsonBinary;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.UuidRepresentation;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+/**
+ * Hand-written BSON codec for Country.
+ *
+ * Encodes and decodes the country fields directly to and from the BSON
+ * stream, without the reflection, property accessors and intermediate
+ * org.bson.Document that MappingMongoConverter uses.
+ *
+ * The document layout is identical to the one written by Spring Data:
+ * - _id as a standard (subtype 4) binary UUID
+ * - _class type hint
+ * - null fields are omitted
+ * - population as int64, stage as the enum name
+ *
+ * Documents written by either side can therefore be read by the other.
+ * Unknown fields are skipped on decode; absent fields keep the Country
+ * defaults. Legacy string populations that CountrySchemaMigration has not
+ * converted yet are parsed on decode.
+ *
+ * Registered from MongoDBConfiguration when domain.mongodb.codec.enabled=true.
+ *
+ * This component is internal to the Domain module and not exposed to other modules.
+ */
+public final class CountryCodec implements Codec<Country> {
+
+    static final String TYPE_HINT = Country.class.getName();
+
+    @Override
+    public void encode(BsonWriter writer, Country country, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        if (country.getId() != null) {
+            writer.writeBinaryData("_id", new BsonBinary(country.getId(), UuidRepresentation.STANDARD));
+        }
+        writeString(writer, "name", country.getName());
+        writeString(writer, "code", country.getCode());
+        writeString(writer, "currency", country.getCurrency());
+        writeString(writer, "language", country.getLanguage());
+        if (country.getPopulation() != null) {
+            writer.writeInt64("population", country.getPopulation());
+        }
+        if (country.getValidCountry() != null) {
+            writer.writeBoolean("validCountry", country.getValidCountry());
+        }
+        if (country.getStage() != null) {
+            writer.writeString("stage", country.getStage().name());
+        }
+        writer.writeString("_class", TYPE_HINT);
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Country decode(BsonReader reader, DecoderContext decoderContext) {
+        Country country = new Country();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            String field = reader.readName();
+            if (reader.getCurrentBsonType() == BsonType.NULL) {
+                reader.readNull();
+                setNull(country, field);
+                continue;
+            }
+            switch (field) {
+                case "_id" -> country.setId(reader.readBinaryData().asUuid(UuidRepresentation.STANDARD));
+                case "name" -> country.setName(reader.readString());
+                case "code" -> country.setCode(reader.readString());
+                case "currency" -> country.setCurrency(reader.readString());
+                case "language" -> country.setLanguage(reader.readString());
+                case "population" -> country.setPopulation(readPopulation(reader));
+                case "validCountry" -> country.setValidCountry(reader.readBoolean());
+                case "stage" -> country.setStage(CountryStage.valueOf(reader.readString()));
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return country;
+    }
+
+    @Override
+    public Class<Country> getEncoderClass() {
+        return Country.class;
+    }
+
+    private static Long readPopulation(BsonReader reader) {
+        return switch (reader.getCurrentBsonType()) {
+            case INT64 -> reader.readInt64();
+            case INT32 -> (long) reader.readInt32();
+            case DOUBLE -> (long) reader.readDouble();
+            case STRING -> Long.valueOf(reader.readString());
+            default -> {
+                reader.skipValue();
+                yield null;
+            }
+        };
+    }
+
+    private static void writeString(BsonWriter writer, String name, String value) {
+        if (value != null) {
+            writer.writeString(name, value);
+        }
+    }
+
+    private static void setNull(Country country, String field) {
+        switch (field) {
+            case "name" -> country.setName(null);
+            case "code" -> country.setCode(null);
+            case "currency" -> country.setCurrency(null);
+            case "language" -> country.setLanguage(null);
+            case "population" -> country.setPopulation(null);
+            case "validCountry" -> country.setValidCountry(null);
+            case "stage" -> country.setStage(null);
+            default -> {
+                // _id is never null; unknown fields are ignored
+            }
+        }
+    }
+}
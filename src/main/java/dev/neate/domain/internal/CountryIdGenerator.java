@@ -0,0 +1,26 @@
+package dev.neate.domain.internal;
+
+import java.util.UUID;
+
+/**
+ * Strategy for generating identifiers of new Country entities.
+ *
+ * The strategy is selected with the domain.mongodb.id-strategy property:
+ * - time-ordered (default): UUIDv7, see TimeOrderedCountryIdGenerator
+ * - random: UUIDv4, see RandomCountryIdGenerator
+ *
+ * Both strategies produce standard UUIDs that are stored as binary subtype 4
+ * (spring.mongodb.representation.uuid: STANDARD), so existing documents and
+ * newly generated identifiers can live side by side in the same collection.
+ *
+ * This interface is internal to the Domain module and not exposed to other modules.
+ */
+interface CountryIdGenerator {
+
+    /**
+     * Generates a new country identifier.
+     *
+     * @return a new, unique UUID
+     */
+    UUID generate();
+}
@@ -0,0 +1,89 @@
+package dev.neate.domain.internal;
+
+import com.mongodb.ReadPreference;
+import dev.neate.domain.Country;
+import dev.neate.domain.CountryQueryService;
+import dev.neate.domain.CountryStage;
+import dev.neate.domain.CountryStatus;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Implementation of CountryQueryService.
+ * 
+ * Every query carries the configured query read preference
+ * (Query.withReadPreference), so only these reads are routed to secondaries;
+ * the client default used by transactions and by CountryService stays primary.
+ * 
+ * The queries are served by the indexes created in CountryIndexInitializer:
+ * - findValidByCurrency(): validCountry_1_currency_1
+ * - countByStage(): stage_1 (one count per stage)
+ * - findStatusById(): _id, with a field projection
+ *
+ * This component is internal to the Domain module and not exposed to other modules.
+ */
+@Service
+@Profile("!in-memory")
+class CountryQueryServiceImpl implements CountryQueryService {
+
+    private final MongoOperations mongoOperations;
+    private final ReadPreference readPreference;
+
+    /**
+     * Constructor injection of dependencies.
+     *
+     * @param mongoOperations the MongoDB operations
+     * @param readPreferences the read preferences of the domain read use cases
+     */
+    CountryQueryServiceImpl(MongoOperations mongoOperations, CountryReadPreferences readPreferences) {
+        this.mongoOperations = mongoOperations;
+        this.readPreference = readPreferences.queries();
+    }
+
+    @Override
+    public List<Country> findValidByCurrency(String currency) {
+        Query query = new Query(Criteria.where("validCountry").is(true).and("currency").is(currency));
+        return mongoOperations.find(query.withReadPreference(readPreference), Country.class);
+    }
+
+    @Override
+    public Map<CountryStage, Long> countByStage() {
+        Map<CountryStage, Long> counts = new EnumMap<>(CountryStage.class);
+        for (CountryStage stage : CountryStage.values()) {
+            counts.put(stage, mongoOperations.count(stageQuery(stage).withReadPreference(readPreference), Country.class));
+        }
+        return counts;
+    }
+
+    @Override
+    public List<UUID> findIdsByStage(CountryStage stage, int limit) {
+        Query query = stageQuery(stage).with(Sort.by("_id")).limit(limit);
+        query.fields().include("_id");
+        return mongoOperations.find(query.withReadPreference(readPreference), Country.class).stream()
+            .map(Country::getId)
+            .toList();
+    }
+
+    @Override
+    public Optional<CountryStatus> findStatusById(UUID id) {
+        Query query = new Query(Criteria.where("_id").is(id));
+        query.fields().include("code", "validCountry", "stage");
+        return Optional.ofNullable(mongoOperations.findOne(query.withReadPreference(readPreference), Country.class))
+            .map(CountryStatus::of);
+    }
+
+    private static Query stageQuery(CountryStage stage) {
+        // Documents written before stages existed have no stage until CountrySchemaMigration derives it
+        return new Query(Criteria.where("stage").is(stage));
+    }
+}
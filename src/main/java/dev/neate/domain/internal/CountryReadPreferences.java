@@ -0,0 +1,31 @@
+package dev.neate.domain.internal;
+
+import com.mongodb.ReadPreference;
+
+/**
+ * Read preferences of the Domain module's read use cases.
+ *
+ * Created from the domain.mongodb.reads properties in MongoDBConfiguration:
+ * - queries: listing, statistics and status reads (CountryQueryService)
+ *
+ * Pipeline reads (CountryService) are not configurable. They run inside the
+ * listener's MongoDB transaction, whose causally consistent session always
+ * reads from the primary.
+ *
+ * This component is internal to the Domain module and not exposed to other modules.
+ *
+ * @param queries the read preference of CountryQueryService reads
+ */
+public record CountryReadPreferences(ReadPreference queries) {
+
+    /**
+     * Creates new CountryReadPreferences.
+     *
+     * @throws IllegalArgumentException if queries is null
+     */
+    public CountryReadPreferences {
+        if (queries == null) {
+            throw new IllegalArgumentException("Query read preference must not be null");
+        }
+    }
+}
@@ -3,6 +3,7 @@ package dev.neate.domain.internal;
 import dev.neate.domain.Country;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -11,8 +12,29 @@ import java.util.UUID;
  * This repository is internal to the Domain module and not exposed to other modules.
  * Access to countries should be through the CountryService interface.
  * - count(): Count all countries
+ * - findByCode(): Lookup by ISO country code (backed by the code_1 index)
+ * - findProjectedById(): Lookup by ID returning a read-only view; only the
+ *   view's fields are read (field projection)
+ * - transition(): Atomic stage transition (see CountryRepositoryCustom)
+ * - save()/findById(): Overridden by CountryRepositoryCustom to use the
+ *   hand-written CountryCodec when it is enabled
+ *
+ * Filtering by currency is served by CountryQueryServiceImpl, which carries
+ * the query read preference.
+ *
+ * Every query declared here must be served by an index created in
+ * CountryIndexInitializer; CountryQueryPlanTest fails on collection scans.
  */
-interface CountryRepository extends MongoRepository<Country, UUID> {
-    // Standard CRUD operations are provided by MongoRepository
-    // Additional custom query methods can be added here if needed
+interface CountryRepository extends MongoRepository<Country, UUID>, CountryRepositoryCustom {
+
+    // Redeclared to resolve the overlap with CrudRepository; implemented by CountryRepositoryCustomImpl
+    @Override
+    <S extends Country> S save(S country);
+
+    @Override
+    Optional<Country> findById(UUID id);
+
+    Optional<Country> findByCode(String code);
+
+    <T> Optional<T> findProjectedById(UUID id, Class<T> type);
 }
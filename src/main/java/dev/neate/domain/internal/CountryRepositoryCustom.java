@@ -0,0 +1,43 @@
+package dev.neate.domain.internal;
+
+import dev.neate.domain.Country;
+import dev.neate.domain.CountryTransition;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Custom CountryRepository operations that cannot be expressed as derived queries.
+ *
+ * Implemented by CountryRepositoryCustomImpl and mixed into CountryRepository
+ * by Spring Data. save() and findById() override the MongoRepository defaults
+ * so they can use the hand-written CountryCodec when it is enabled.
+ *
+ * This interface is internal to the Domain module and not exposed to other modules.
+ */
+interface CountryRepositoryCustom {
+
+    /**
+     * Atomically applies a stage transition using findAndModify.
+     *
+     * @param transition the transition to apply
+     * @return the updated country, or empty if no country matched the ID and expected stage
+     */
+    Optional<Country> transition(CountryTransition transition);
+
+    /**
+     * Inserts or replaces a country.
+     *
+     * @param country the country to save
+     * @return the saved country
+     */
+    <S extends Country> S save(S country);
+
+    /**
+     * Finds a country by its ID.
+     *
+     * @param id the country ID
+     * @return the country, or empty if not found
+     */
+    Optional<Country> findById(UUID id);
+}
@@ -0,0 +1,127 @@
+package dev.neate.domain.internal;
+
+import com.mongodb.WriteConcern;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.ReturnDocument;
+import dev.neate.domain.Country;
+import dev.neate.domain.CountryTransition;
+import org.bson.BsonBinary;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.UuidRepresentation;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.convert.UpdateMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * MongoDB implementation of the custom CountryRepository operations.
+ *
+ * Stage transitions are executed as a single findAndModify whose filter
+ * contains both the ID and the expected stage. MongoDB applies the update
+ * atomically per document, so of several concurrent transitions from the
+ * same stage exactly one matches.
+ *
+ * save() and findById() are the hottest paths of the pipeline. When a
+ * CountryCodec bean is present they bypass MappingMongoConverter and
+ * read/write the countries collection with the codec; otherwise they behave
+ * like the MongoRepository defaults. The codec path still runs through
+ * MongoOperations.execute(), so it joins the current MongoDB transaction.
+ * It does not publish Spring Data mapping lifecycle events.
+ *
+ * save() and transition() write with the write concern of their operation
+ * (see CountryWriteConcerns), which takes effect outside a transaction; inside
+ * one the transaction's write concern applies. MongoTemplate does not apply
+ * a write concern to findAndModify, so both run on the collection directly,
+ * with the query and update mapped by the template's converter.
+ *
+ * This component is internal to the Domain module and not exposed to other modules.
+ */
+class CountryRepositoryCustomImpl implements CountryRepositoryCustom {
+
+    private final MongoOperations mongoOperations;
+    private final CountryCodec codec;
+    private final CountryWriteConcerns writeConcerns;
+    private final QueryMapper queryMapper;
+    private final UpdateMapper updateMapper;
+
+    /**
+     * Constructor injection of dependencies.
+     *
+     * @param mongoOperations the MongoDB operations
+     * @param codec the optional hand-written codec (see MongoDBConfiguration)
+     * @param writeConcerns the write concerns per operation, the server default if absent
+     */
+    CountryRepositoryCustomImpl(MongoOperations mongoOperations, ObjectProvider<CountryCodec> codec,
+            ObjectProvider<CountryWriteConcerns> writeConcerns) {
+        this.mongoOperations = mongoOperations;
+        this.codec = codec.getIfAvailable();
+        this.writeConcerns = writeConcerns.getIfAvailable(() -> CountryWriteConcerns.SERVER_DEFAULT);
+        this.queryMapper = new QueryMapper(mongoOperations.getConverter());
+        this.updateMapper = new UpdateMapper(mongoOperations.getConverter());
+    }
+
+    @Override
+    public Optional<Country> transition(CountryTransition transition) {
+        MongoConverter converter = mongoOperations.getConverter();
+        MongoPersistentEntity<?> entity = converter.getMappingContext().getRequiredPersistentEntity(Country.class);
+        Document filter = queryMapper.getMappedObject(
+            CountryTransitionQueries.query(transition).getQueryObject(), entity);
+        Document update = updateMapper.getMappedObject(
+            CountryTransitionQueries.update(transition).getUpdateObject(), entity);
+
+        Document updated = mongoOperations.execute(Country.class, collection -> collection
+            .withWriteConcern(writeConcerns.transition())
+            .findOneAndUpdate(filter, update, new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER)));
+        return Optional.ofNullable(updated).map(document -> converter.read(Country.class, document));
+    }
+
+    @Override
+    public <S extends Country> S save(S country) {
+        if (country.getId() == null) {
+            return mongoOperations.save(country);
+        }
+        if (codec == null) {
+            Document document = new Document();
+            mongoOperations.getConverter().write(country, document);
+            mongoOperations.execute(Country.class, collection -> collection
+                .withWriteConcern(writeConcerns.save())
+                .replaceOne(idFilter(country.getId()), document, new ReplaceOptions().upsert(true)));
+            return country;
+        }
+        withCodec(writeConcerns.save(), collection -> collection.replaceOne(
+            idFilter(country.getId()), country, new ReplaceOptions().upsert(true)));
+        return country;
+    }
+
+    @Override
+    public Optional<Country> findById(UUID id) {
+        if (codec == null) {
+            return Optional.ofNullable(mongoOperations.findById(id, Country.class));
+        }
+        return Optional.ofNullable(withCodec(null, collection -> collection.find(idFilter(id)).first()));
+    }
+
+    private <T> T withCodec(WriteConcern writeConcern, Function<MongoCollection<Country>, T> action) {
+        return mongoOperations.execute(Country.class, collection -> {
+            MongoCollection<Country> countries = collection
+                .withCodecRegistry(CodecRegistries.fromRegistries(
+                    CodecRegistries.fromCodecs(codec), collection.getCodecRegistry()))
+                .withDocumentClass(Country.class);
+            return action.apply(writeConcern != null ? countries.withWriteConcern(writeConcern) : countries);
+        });
+    }
+
+    private static BsonDocument idFilter(UUID id) {
+        return new BsonDocument("_id", new BsonBinary(id, UuidRepresentation.STANDARD));
+    }
+}
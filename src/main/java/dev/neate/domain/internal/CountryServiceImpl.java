@@ -1,11 +1,18 @@
 package dev.neate.domain.internal;
 
 import dev.neate.domain.Country;
+import dev.neate.domain.CountryIdentity;
 import dev.neate.domain.CountryService;
+import dev.neate.domain.CountryStatus;
+import dev.neate.domain.CountryTransition;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Implementation of CountryService.
@@ -15,27 +22,38 @@ import java.util.UUID;
  * the public CountryService interface.
  * 
  * All operations delegate to the repository with appropriate validation
- * and error handling.
+ * and error handling. save() and transition() label their transactions with
+ * their write concern profile (see CountryTransactionOptionsResolver); when
+ * they join a caller's transaction, they commit with the caller's.
  */
 @Service
+@Profile("!in-memory")
 class CountryServiceImpl implements CountryService {
 
     private final CountryRepository repository;
+    private final CountryIdGenerator idGenerator;
+    private final CountryTransitionCoalescer coalescer;
 
     /**
-     * Constructor injection of the repository.
+     * Constructor injection of dependencies.
      *
      * @param repository the country repository
+     * @param idGenerator the strategy generating identifiers for new countries
+     * @param coalescer the optional group-commit coalescer for transitionAsync()
      */
-    public CountryServiceImpl(CountryRepository repository) {
+    public CountryServiceImpl(CountryRepository repository, CountryIdGenerator idGenerator,
+            ObjectProvider<CountryTransitionCoalescer> coalescer) {
         this.repository = repository;
+        this.idGenerator = idGenerator;
+        this.coalescer = coalescer.getIfAvailable();
     }
 
     @Override
+    @Transactional(label = CountryTransactionOptionsResolver.SAVE_LABEL)
     public Country save(Country country) {
         // Generate UUID for new countries
         if (country.getId() == null) {
-            country.setId(UUID.randomUUID());
+            country.setId(idGenerator.generate());
         }
         return repository.save(country);
     }
@@ -44,4 +62,33 @@ class CountryServiceImpl implements CountryService {
     public Optional<Country> findById(UUID id) {
         return repository.findById(id);
     }
+
+    @Override
+    public Optional<Country> findByCode(String code) {
+        return repository.findByCode(code);
+    }
+
+    @Override
+    public Optional<CountryIdentity> findIdentityById(UUID id) {
+        return repository.findProjectedById(id, CountryIdentity.class);
+    }
+
+    @Override
+    public Optional<CountryStatus> findStatusById(UUID id) {
+        return repository.findProjectedById(id, CountryStatus.class);
+    }
+
+    @Override
+    @Transactional(label = CountryTransactionOptionsResolver.TRANSITION_LABEL)
+    public Optional<Country> transition(CountryTransition transition) {
+        return repository.transition(transition);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> transitionAsync(CountryTransition transition) {
+        if (coalescer == null) {
+            return CompletableFuture.completedFuture(repository.transition(transition).isPresent());
+        }
+        return coalescer.submit(transition);
+    }
 }
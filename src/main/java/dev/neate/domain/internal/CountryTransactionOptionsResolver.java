@@ -0,0 +1,90 @@
+package dev.neate.domain.internal;
+
+import com.mongodb.TransactionOptions;
+import com.mongodb.WriteConcern;
+import org.springframework.data.mongodb.MongoTransactionOptions;
+import org.springframework.data.mongodb.MongoTransactionOptionsResolver;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+
+import java.util.Map;
+
+/**
+ * Resolves the options of the MongoDB transactions from the write concern profiles.
+ *
+ * Inside MongoDB transactions the driver ignores per-operation write
+ * concerns. A CountryService operation that starts its own transaction
+ * therefore names its profile with a transaction label, and the transaction
+ * commits with that profile's write concern:
+ * - {@value #SAVE_LABEL}: the save write concern
+ * - {@value #TRANSITION_LABEL}: the transition write concern
+ *
+ * Transactions without such a label, such as the ones of CountryController
+ * and of the {@code @ApplicationModuleListener} listeners, keep the client's
+ * default write concern. They also store event publications, so a weaker
+ * profile must not apply to them; CountryService operations joining them
+ * commit with them.
+ *
+ * Options given as {@code mongo:} transaction labels, e.g.
+ * {@code @Transactional(label = "mongo:writeConcern=W1")}, take precedence
+ * over the profile.
+ *
+ * This component is internal to the Domain module and not exposed to other modules.
+ */
+public class CountryTransactionOptionsResolver implements MongoTransactionOptionsResolver {
+
+    /**
+     * Label of transactions committing with the save write concern.
+     */
+    public static final String SAVE_LABEL = "country:writeConcern=save";
+
+    /**
+     * Label of transactions committing with the transition write concern.
+     */
+    public static final String TRANSITION_LABEL = "country:writeConcern=transition";
+
+    private final MongoTransactionOptionsResolver labels = MongoTransactionOptionsResolver.defaultResolver();
+    private final MongoTransactionOptions save;
+    private final MongoTransactionOptions transition;
+
+    /**
+     * Creates a new CountryTransactionOptionsResolver.
+     *
+     * @param writeConcerns the write concerns of the CountryService write operations
+     */
+    public CountryTransactionOptionsResolver(CountryWriteConcerns writeConcerns) {
+        this.save = options(writeConcerns.save());
+        this.transition = options(writeConcerns.transition());
+    }
+
+    @Override
+    public MongoTransactionOptions resolve(TransactionDefinition definition) {
+        return labels.resolve(definition).mergeWith(profile(definition));
+    }
+
+    @Override
+    public String getLabelPrefix() {
+        return labels.getLabelPrefix();
+    }
+
+    @Override
+    public MongoTransactionOptions convert(Map<String, String> options) {
+        return labels.convert(options);
+    }
+
+    private MongoTransactionOptions profile(TransactionDefinition definition) {
+        if (definition instanceof TransactionAttribute attribute) {
+            if (attribute.getLabels().contains(TRANSITION_LABEL)) {
+                return transition;
+            }
+            if (attribute.getLabels().contains(SAVE_LABEL)) {
+                return save;
+            }
+        }
+        return MongoTransactionOptions.NONE;
+    }
+
+    private static MongoTransactionOptions options(WriteConcern writeConcern) {
+        return MongoTransactionOptions.of(TransactionOptions.builder().writeConcern(writeConcern).build());
+    }
+}
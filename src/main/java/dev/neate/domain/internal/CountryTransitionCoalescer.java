@@ -0,0 +1,294 @@
+package dev.neate.domain.internal;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOneModel;
+import dev.neate.domain.Country;
+import dev.neate.domain.CountryStage;
+import dev.neate.domain.CountryTransition;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.convert.UpdateMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group-commit coalescer for stage transitions.
+ *
+ * Concurrent callers submit transitions and get a future. A single flusher
+ * thread collects the pending transitions until max-batch-size transitions
+ * are waiting or max-delay has passed since the first one, and writes them
+ * as one unordered bulkWrite of conditional updateOne operations. One round
+ * trip is then shared by the whole batch instead of one per caller.
+ *
+ * Each caller's future completes with its own result: true if its
+ * transition was applied, false if the country does not exist or was not
+ * in the expected stage. Several transitions of the same country in one
+ * batch are split into rounds, each written as its own bulkWrite in
+ * submission order, so a country has at most one transition per bulkWrite
+ * and its transitions are applied in the order they were submitted.
+ *
+ * A bulk result only reports totals. When all updates of a round modified
+ * their country, every future completes with true. Otherwise one query on
+ * the round's IDs reads back the stage of each country: a transition was
+ * applied if its country is now in the transition's target stage and an
+ * earlier round of the batch did not already move it there. A country that
+ * was already in the target stage before the batch, e.g. through a
+ * redelivered event, is reported as applied as well; stages only move
+ * forward, so the country is in the stage the caller asked for either way.
+ * If the bulk fails, every future of the round completes exceptionally.
+ *
+ * The bulk runs on the flusher thread, outside the caller's transaction.
+ * Callers whose transition must commit atomically with other writes (such
+ * as the event publications of a listener) must use
+ * CountryService.transition() instead.
+ *
+ * Registered from MongoDBConfiguration when domain.mongodb.coalescer.enabled=true.
+ *
+ * This component is internal to the Domain module and not exposed to other modules.
+ */
+public class CountryTransitionCoalescer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CountryTransitionCoalescer.class);
+
+    private static final Duration IDLE_POLL = Duration.ofMillis(100);
+
+    private final MongoOperations mongoOperations;
+    private final CountryWriteConcerns writeConcerns;
+    private final int maxBatchSize;
+    private final Duration maxDelay;
+    private final QueryMapper queryMapper;
+    private final UpdateMapper updateMapper;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    /**
+     * Creates a coalescer.
+     *
+     * @param mongoOperations the MongoDB operations
+     * @param writeConcerns the write concerns per operation (transition is used)
+     * @param maxBatchSize the maximum number of transitions per bulkWrite
+     * @param maxDelay the maximum time the first transition of a batch waits for others
+     */
+    public CountryTransitionCoalescer(MongoOperations mongoOperations, CountryWriteConcerns writeConcerns,
+            int maxBatchSize, Duration maxDelay) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Max batch size must be at least 1");
+        }
+        this.mongoOperations = mongoOperations;
+        this.writeConcerns = writeConcerns;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelay = maxDelay;
+        this.queryMapper = new QueryMapper(mongoOperations.getConverter());
+        this.updateMapper = new UpdateMapper(mongoOperations.getConverter());
+    }
+
+    /**
+     * Queues a transition for the next batch.
+     *
+     * @param transition the transition to apply
+     * @return a future completing with true if the transition was applied, false otherwise
+     */
+    public CompletableFuture<Boolean> submit(CountryTransition transition) {
+        if (!isRunning()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Transition coalescer is not running"));
+        }
+        Pending pending = new Pending(transition, new CompletableFuture<>());
+        queue.add(pending);
+        if (!isRunning() && queue.remove(pending)) {
+            // Stopped concurrently and the final drain missed this transition
+            pending.result().completeExceptionally(new IllegalStateException("Transition coalescer is not running"));
+        }
+        return pending.result();
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::run, "country-transition-coalescer");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        // The flusher finishes its current batch and exits within one idle poll
+        running = false;
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flusher = null;
+        // Transitions queued while stopping are still written
+        List<Pending> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += maxBatchSize) {
+            flush(remaining.subList(from, Math.min(from + maxBatchSize, remaining.size())));
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                flush(nextBatch());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Waits for the first transition, then collects more until the batch is
+     * full or max-delay has passed.
+     *
+     * @return the batch, empty if no transition arrived within the idle poll
+     */
+    private List<Pending> nextBatch() throws InterruptedException {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        Pending first = queue.poll(IDLE_POLL.toNanos(), TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return batch;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + maxDelay.toNanos();
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                break;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    /**
+     * Writes a batch in rounds of at most one transition per country and completes its futures.
+     *
+     * @param batch the pending transitions
+     */
+    void flush(List<Pending> batch) {
+        Map<UUID, CountryStage> reached = new HashMap<>();
+        for (List<Pending> round : rounds(batch)) {
+            write(round, reached);
+        }
+    }
+
+    /**
+     * Splits a batch so that the n-th transition of every country lands in the n-th round.
+     *
+     * @param batch the pending transitions in submission order
+     * @return the rounds, each holding at most one transition per country
+     */
+    static List<List<Pending>> rounds(List<Pending> batch) {
+        List<List<Pending>> rounds = new ArrayList<>();
+        Map<UUID, Integer> transitionsPerCountry = new HashMap<>();
+        for (Pending pending : batch) {
+            int round = transitionsPerCountry.merge(pending.transition().countryId(), 1, Integer::sum) - 1;
+            if (round == rounds.size()) {
+                rounds.add(new ArrayList<>());
+            }
+            rounds.get(round).add(pending);
+        }
+        return rounds;
+    }
+
+    /**
+     * Writes a round as one unordered bulkWrite and completes its futures.
+     *
+     * @param round the pending transitions, at most one per country
+     * @param reached the stages the earlier rounds of the batch moved countries to, updated with this round's
+     */
+    private void write(List<Pending> round, Map<UUID, CountryStage> reached) {
+        try {
+            MongoPersistentEntity<?> entity = mongoOperations.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(Country.class);
+            List<UpdateOneModel<Document>> updates = new ArrayList<>(round.size());
+            for (Pending pending : round) {
+                Document filter = queryMapper.getMappedObject(
+                    CountryTransitionQueries.query(pending.transition()).getQueryObject(), entity);
+                Document update = updateMapper.getMappedObject(
+                    CountryTransitionQueries.update(pending.transition()).getUpdateObject(), entity);
+                updates.add(new UpdateOneModel<>(filter, update));
+            }
+
+            BulkWriteResult result = mongoOperations.execute(Country.class, collection -> collection
+                .withWriteConcern(writeConcerns.transition())
+                .bulkWrite(updates, new BulkWriteOptions().ordered(false)));
+
+            Map<Object, String> stages = result.wasAcknowledged() && result.getModifiedCount() == round.size()
+                ? null
+                : storedStages(round);
+            for (Pending pending : round) {
+                CountryTransition transition = pending.transition();
+                boolean applied = stages == null
+                    || (transition.to().name().equals(stages.get(transition.countryId()))
+                        && reached.get(transition.countryId()) != transition.to());
+                if (applied) {
+                    reached.put(transition.countryId(), transition.to());
+                }
+                pending.result().complete(applied);
+            }
+            log.debug("Flushed {} coalesced transitions", round.size());
+        } catch (RuntimeException e) {
+            log.warn("Coalesced flush of {} transitions failed", round.size(), e);
+            round.forEach(pending -> pending.result().completeExceptionally(e));
+        }
+    }
+
+    private Map<Object, String> storedStages(List<Pending> round) {
+        Map<Object, String> stages = new HashMap<>();
+        mongoOperations.execute(Country.class, collection -> {
+            collection.find(Filters.in("_id", countryIds(round)))
+                .projection(Projections.include("_id", "stage"))
+                .forEach(document -> stages.put(document.get("_id"), document.getString("stage")));
+            return null;
+        });
+        return stages;
+    }
+
+    private static List<Object> countryIds(List<Pending> round) {
+        return round.stream().map(pending -> (Object) pending.transition().countryId()).toList();
+    }
+
+    /**
+     * A queued transition with the caller's future.
+     */
+    record Pending(CountryTransition transition, CompletableFuture<Boolean> result) {
+    }
+}
@@ -0,0 +1,65 @@
+package dev.neate.domain.internal;
+
+import dev.neate.domain.CountryStage;
+import dev.neate.domain.CountryTransition;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Builds the findAndModify filter and update of a CountryTransition.
+ *
+ * Shared by the blocking and reactive repository implementations so both
+ * apply exactly the same conditional update.
+ *
+ * Documents written before the stage field existed have no stage and are
+ * treated as CREATED.
+ *
+ * This component is internal to the Domain module and not exposed to other modules.
+ */
+final class CountryTransitionQueries {
+
+    private CountryTransitionQueries() {
+    }
+
+    /**
+     * Filter matching the country only while it is in the transition's expected stage.
+     *
+     * @param transition the transition to apply
+     * @return the query on _id and stage
+     */
+    static Query query(CountryTransition transition) {
+        return new Query(Criteria.where("_id").is(transition.countryId())
+            .and("stage").in(expectedStages(transition.from())));
+    }
+
+    /**
+     * Update setting the target stage and every non-null field of the transition.
+     *
+     * @param transition the transition to apply
+     * @return the update
+     */
+    static Update update(CountryTransition transition) {
+        Update update = new Update().set("stage", transition.to());
+        if (transition.validCountry() != null) {
+            update.set("validCountry", transition.validCountry());
+        }
+        if (transition.population() != null) {
+            update.set("population", transition.population());
+        }
+        if (transition.currency() != null) {
+            update.set("currency", transition.currency());
+        }
+        if (transition.language() != null) {
+            update.set("language", transition.language());
+        }
+        return update;
+    }
+
+    private static Object[] expectedStages(CountryStage from) {
+        // A missing stage field matches null; such legacy documents are still CREATED
+        return from == CountryStage.CREATED
+            ? new Object[] { from, null }
+            : new Object[] { from };
+    }
+}
@@ -0,0 +1,43 @@
+package dev.neate.domain.internal;
+
+import com.mongodb.WriteConcern;
+
+/**
+ * Write concerns of the CountryService write operations.
+ *
+ * Created from the named profiles in domain.mongodb.writes by
+ * MongoDBConfiguration, so each operation can trade durability for latency:
+ * - save: user-facing inserts and replacements (CountryService.save)
+ * - transition: pipeline stage updates (CountryService.transition)
+ *
+ * Inside a MongoDB transaction the driver does not send per-operation write
+ * concerns, so CountryTransactionOptionsResolver applies them to the
+ * transactions CountryService labels with their profile. Transactions
+ * started elsewhere, which also store event publications, keep the client's
+ * default. CountryRepository also passes them to its writes, where they
+ * apply outside a transaction.
+ *
+ * This component is internal to the Domain module and not exposed to other modules.
+ *
+ * @param save the write concern of save()
+ * @param transition the write concern of transition()
+ */
+public record CountryWriteConcerns(WriteConcern save, WriteConcern transition) {
+
+    /**
+     * Write concerns used when no profiles are configured: the server default for every operation.
+     */
+    public static final CountryWriteConcerns SERVER_DEFAULT =
+        new CountryWriteConcerns(WriteConcern.ACKNOWLEDGED, WriteConcern.ACKNOWLEDGED);
+
+    /**
+     * Creates new CountryWriteConcerns.
+     *
+     * @throws IllegalArgumentException if a write concern is null
+     */
+    public CountryWriteConcerns {
+        if (save == null || transition == null) {
+            throw new IllegalArgumentException("Write concerns must not be null");
+        }
+    }
+}
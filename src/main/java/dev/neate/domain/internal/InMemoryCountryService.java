@@ -0,0 +1,165 @@
+package dev.neate.domain.internal;
+
+import dev.neate.domain.Country;
+import dev.neate.domain.CountryIdentity;
+import dev.neate.domain.CountryQueryService;
+import dev.neate.domain.CountryService;
+import dev.neate.domain.CountryStage;
+import dev.neate.domain.CountryStatus;
+import dev.neate.domain.CountryTransition;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory implementation of CountryService and CountryQueryService.
+ * 
+ * Active with the in-memory Spring profile, which replaces MongoDB so the
+ * event pipeline can be benchmarked and load tested in isolation. Countries
+ * are kept in a ConcurrentHashMap and are lost on restart.
+ * 
+ * The semantics match the MongoDB implementations:
+ * - Stored and returned countries are copies, as if read from a database
+ * - transition() is atomic per country (ConcurrentHashMap.computeIfPresent)
+ *   and only applies from the expected stage
+ * - Countries without a stage are treated as CREATED
+ * 
+ * findByCode() and findValidByCurrency() scan all countries; the store is
+ * meant for benchmarks, not for large data sets.
+ *
+ * This component is internal to the Domain module and not exposed to other modules.
+ */
+@Service
+@Profile("in-memory")
+class InMemoryCountryService implements CountryService, CountryQueryService {
+
+    private final Map<UUID, Country> countries = new ConcurrentHashMap<>();
+    private final CountryIdGenerator idGenerator;
+
+    /**
+     * Constructor injection of dependencies.
+     *
+     * @param idGenerator the strategy generating identifiers for new countries
+     */
+    InMemoryCountryService(CountryIdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
+
+    @Override
+    public Country save(Country country) {
+        if (country.getId() == null) {
+            country.setId(idGenerator.generate());
+        }
+        countries.put(country.getId(), copy(country));
+        return country;
+    }
+
+    @Override
+    public Optional<Country> findById(UUID id) {
+        return Optional.ofNullable(countries.get(id)).map(InMemoryCountryService::copy);
+    }
+
+    @Override
+    public Optional<Country> findByCode(String code) {
+        return countries.values().stream()
+            .filter(country -> Objects.equals(country.getCode(), code))
+            .findFirst()
+            .map(InMemoryCountryService::copy);
+    }
+
+    @Override
+    public Optional<CountryIdentity> findIdentityById(UUID id) {
+        return Optional.ofNullable(countries.get(id)).map(CountryIdentity::of);
+    }
+
+    @Override
+    public Optional<CountryStatus> findStatusById(UUID id) {
+        return Optional.ofNullable(countries.get(id)).map(CountryStatus::of);
+    }
+
+    @Override
+    public Optional<Country> transition(CountryTransition transition) {
+        Country[] updated = new Country[1];
+        countries.computeIfPresent(transition.countryId(), (id, country) -> {
+            if (stageOf(country) != transition.from()) {
+                return country;
+            }
+            Country next = copy(country);
+            next.setStage(transition.to());
+            if (transition.validCountry() != null) {
+                next.setValidCountry(transition.validCountry());
+            }
+            if (transition.population() != null) {
+                next.setPopulation(transition.population());
+            }
+            if (transition.currency() != null) {
+                next.setCurrency(transition.currency());
+            }
+            if (transition.language() != null) {
+                next.setLanguage(transition.language());
+            }
+            updated[0] = next;
+            return next;
+        });
+        return Optional.ofNullable(updated[0]).map(InMemoryCountryService::copy);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> transitionAsync(CountryTransition transition) {
+        return CompletableFuture.completedFuture(transition(transition).isPresent());
+    }
+
+    @Override
+    public List<Country> findValidByCurrency(String currency) {
+        return countries.values().stream()
+            .filter(country -> Boolean.TRUE.equals(country.getValidCountry()))
+            .filter(country -> Objects.equals(country.getCurrency(), currency))
+            .map(InMemoryCountryService::copy)
+            .toList();
+    }
+
+    @Override
+    public Map<CountryStage, Long> countByStage() {
+        Map<CountryStage, Long> counts = new EnumMap<>(CountryStage.class);
+        for (CountryStage stage : CountryStage.values()) {
+            counts.put(stage, 0L);
+        }
+        countries.values().stream()
+            .filter(country -> country.getStage() != null)
+            .forEach(country -> counts.merge(country.getStage(), 1L, Long::sum));
+        return counts;
+    }
+
+    @Override
+    public List<UUID> findIdsByStage(CountryStage stage, int limit) {
+        return countries.values().stream()
+            .filter(country -> country.getStage() == stage)
+            .map(Country::getId)
+            .sorted()
+            .limit(limit)
+            .toList();
+    }
+
+    private static CountryStage stageOf(Country country) {
+        return country.getStage() != null ? country.getStage() : CountryStage.CREATED;
+    }
+
+    private static Country copy(Country country) {
+        Country copy = new Country(country.getName(), country.getCode());
+        copy.setId(country.getId());
+        copy.setCurrency(country.getCurrency());
+        copy.setLanguage(country.getLanguage());
+        copy.setPopulation(country.getPopulation());
+        copy.setValidCountry(country.getValidCountry());
+        copy.setStage(country.getStage());
+        return copy;
+    }
+}
@@ -0,0 +1,27 @@
+package dev.neate.domain.internal;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Generates random (version 4) UUIDs for new countries.
+ *
+ * Random identifiers spread inserts across the whole _id index. Kept for
+ * comparison and for deployments that must not leak creation time through
+ * the identifier.
+ *
+ * Enabled via domain.mongodb.id-strategy=random
+ *
+ * This component is internal to the Domain module and not exposed to other modules.
+ */
+@Component
+@ConditionalOnProperty(name = "domain.mongodb.id-strategy", havingValue = "random")
+class RandomCountryIdGenerator implements CountryIdGenerator {
+
+    @Override
+    public UUID generate() {
+        return UUID.randomUUID();
+    }
+}
@@ -0,0 +1,25 @@
+package dev.neate.domain.internal;
+
+import dev.neate.domain.Country;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Reactive MongoDB repository for Country entities.
+ * 
+ * This repository is internal to the Domain module and not exposed to other modules.
+ * Access to countries should be through the ReactiveCountryService interface.
+ * It maps the same countries collection as CountryRepository, using the
+ * reactive driver:
+ * - findByCode(): Lookup by ISO country code (backed by the code_1 index)
+ * - transition(): Atomic stage transition (see ReactiveCountryRepositoryCustom)
+ *
+ * Every query declared here must be served by an index created in
+ * CountryIndexInitializer.
+ */
+interface ReactiveCountryRepository extends ReactiveMongoRepository<Country, UUID>, ReactiveCountryRepositoryCustom {
+
+    Mono<Country> findByCode(String code);
+}
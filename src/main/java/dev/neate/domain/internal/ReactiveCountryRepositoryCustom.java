@@ -0,0 +1,24 @@
+package dev.neate.domain.internal;
+
+import dev.neate.domain.Country;
+import dev.neate.domain.CountryTransition;
+import reactor.core.publisher.Mono;
+
+/**
+ * Custom ReactiveCountryRepository operations that cannot be expressed as derived queries.
+ *
+ * Implemented by ReactiveCountryRepositoryCustomImpl and mixed into
+ * ReactiveCountryRepository by Spring Data.
+ *
+ * This interface is internal to the Domain module and not exposed to other modules.
+ */
+interface ReactiveCountryRepositoryCustom {
+
+    /**
+     * Atomically applies a stage transition using findAndModify.
+     *
+     * @param transition the transition to apply
+     * @return the updated country, or empty if no country matched the ID and expected stage
+     */
+    Mono<Country> transition(CountryTransition transition);
+}
@@ -0,0 +1,38 @@
+package dev.neate.domain.internal;
+
+import dev.neate.domain.Country;
+import dev.neate.domain.CountryTransition;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive MongoDB implementation of the custom ReactiveCountryRepository operations.
+ *
+ * Applies the same conditional findAndModify as CountryRepositoryCustomImpl,
+ * using the reactive driver.
+ *
+ * This component is internal to the Domain module and not exposed to other modules.
+ */
+class ReactiveCountryRepositoryCustomImpl implements ReactiveCountryRepositoryCustom {
+
+    private final ReactiveMongoOperations mongoOperations;
+
+    /**
+     * Constructor injection of ReactiveMongoOperations.
+     *
+     * @param mongoOperations the reactive MongoDB operations
+     */
+    ReactiveCountryRepositoryCustomImpl(ReactiveMongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public Mono<Country> transition(CountryTransition transition) {
+        return mongoOperations.findAndModify(
+            CountryTransitionQueries.query(transition),
+            CountryTransitionQueries.update(transition),
+            FindAndModifyOptions.options().returnNew(true),
+            Country.class);
+    }
+}
@@ -0,0 +1,69 @@
+package dev.neate.domain.internal;
+
+import dev.neate.domain.Country;
+import dev.neate.domain.CountryTransition;
+import dev.neate.domain.ReactiveCountryService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Implementation of ReactiveCountryService.
+ * 
+ * This implementation is package-private (internal) and encapsulates
+ * the ReactiveCountryRepository. It mirrors CountryServiceImpl, including
+ * the identifier strategy for new countries, but never blocks the calling
+ * thread.
+ */
+@Service
+@Profile("!in-memory")
+class ReactiveCountryServiceImpl implements ReactiveCountryService {
+
+    private final ReactiveCountryRepository repository;
+    private final CountryIdGenerator idGenerator;
+
+    /**
+     * Constructor injection of dependencies.
+     *
+     * @param repository the reactive country repository
+     * @param idGenerator the strategy generating identifiers for new countries
+     */
+    public ReactiveCountryServiceImpl(ReactiveCountryRepository repository, CountryIdGenerator idGenerator) {
+        this.repository = repository;
+        this.idGenerator = idGenerator;
+    }
+
+    @Override
+    public Mono<Country> save(Country country) {
+        return Mono.defer(() -> {
+            // Generate UUID for new countries on subscription, not on assembly
+            if (country.getId() == null) {
+                country.setId(idGenerator.generate());
+            }
+            return repository.save(country);
+        });
+    }
+
+    @Override
+    public Mono<Country> findById(UUID id) {
+        return repository.findById(id);
+    }
+
+    @Override
+    public Flux<Country> findAllById(Iterable<UUID> ids) {
+        return repository.findAllById(ids);
+    }
+
+    @Override
+    public Mono<Country> findByCode(String code) {
+        return repository.findByCode(code);
+    }
+
+    @Override
+    public Mono<Country> transition(CountryTransition transition) {
+        return repository.transition(transition);
+    }
+}
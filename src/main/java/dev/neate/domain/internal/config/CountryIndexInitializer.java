@@ -0,0 +1,91 @@
+package dev.neate.domain.internal.config;
+
+import dev.neate.domain.Country;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Creates the indexes required by the countries collection at startup.
+ *
+ * The indexes mirror the read patterns of the Domain module:
+ * - code: lookups by ISO country code (optionally unique)
+ * - validCountry + currency: filtering validated countries by currency
+ * - stage: counting countries per pipeline stage
+ *
+ * The _id index is created by MongoDB automatically and is not declared here.
+ * Index creation is idempotent, so restarting the application against an
+ * existing collection is safe. If the unique code index cannot be built
+ * (for example because of duplicate codes) startup fails rather than
+ * silently running without the constraint.
+ *
+ * This component is internal to the Domain module and not exposed to other modules.
+ */
+@Component
+@Profile("!in-memory")
+class CountryIndexInitializer implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(CountryIndexInitializer.class);
+
+    static final String CODE_INDEX = "code_1";
+    static final String VALID_COUNTRY_CURRENCY_INDEX = "validCountry_1_currency_1";
+    static final String STAGE_INDEX = "stage_1";
+
+    private final MongoOperations mongoOperations;
+    private final DomainMongoProperties properties;
+
+    /**
+     * Constructor injection of dependencies.
+     *
+     * @param mongoOperations the MongoDB operations used to manage indexes
+     * @param properties the domain MongoDB configuration properties
+     */
+    CountryIndexInitializer(MongoOperations mongoOperations, DomainMongoProperties properties) {
+        this.mongoOperations = mongoOperations;
+        this.properties = properties;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!properties.indexes().createOnStartup()) {
+            log.info("Index creation on startup is disabled for the countries collection");
+            return;
+        }
+
+        IndexOperations indexOps = mongoOperations.indexOps(Country.class);
+
+        for (Index index : indexes()) {
+            String name = indexOps.createIndex(index);
+            log.debug("Ensured index {} on countries collection", name);
+        }
+    }
+
+    /**
+     * Returns the index definitions declared for the countries collection.
+     *
+     * @return the index definitions
+     */
+    List<Index> indexes() {
+        Index code = new Index("code", Sort.Direction.ASC).named(CODE_INDEX);
+        if (properties.indexes().uniqueCode()) {
+            code.unique();
+        }
+
+        Index validCountryCurrency = new Index()
+            .on("validCountry", Sort.Direction.ASC)
+            .on("currency", Sort.Direction.ASC)
+            .named(VALID_COUNTRY_CURRENCY_INDEX);
+
+        Index stage = new Index("stage", Sort.Direction.ASC).named(STAGE_INDEX);
+
+        return List.of(code, validCountryCurrency, stage);
+    }
+}
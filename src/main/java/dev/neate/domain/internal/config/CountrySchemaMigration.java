@@ -0,0 +1,288 @@
+package dev.neate.domain.internal.config;
+
+import dev.neate.domain.Country;
+import dev.neate.domain.CountryStage;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-place migration of the countries collection to the typed schema.
+ *
+ * Older documents store population as a decimal string and language as an
+ * English name ("English"). The typed schema stores population as int64 and
+ * language as an ISO 639-3 code ("eng"). This migration converts existing
+ * documents while the application keeps running:
+ * - Streaming: documents are read with a cursor in _id order, batchSize at a time
+ * - Batched: each batch is written as one unordered bulk of conditional updates
+ * - Resumable: the last processed _id is checkpointed in the migrations
+ *   collection after every batch, so a restart continues where it stopped
+ * - Safe under concurrent writes: every update is conditional on the old
+ *   values, so a document rewritten by the application in the meantime is
+ *   left alone (new writes already use the typed schema)
+ *
+ * Populations that are not valid numbers are removed, because they cannot be
+ * read as a number. Language names without a known ISO 639-3 code are kept.
+ *
+ * Language codes come from the JDK's ISO 639-2/T codes (Locale.getISO3Language),
+ * which equal the ISO 639-3 codes RestCountries uses for every language except
+ * those listed in ISO_639_2_TO_3: codes ISO 639-3 retired are replaced, and
+ * collective codes, which ISO 639-3 does not have, are left out.
+ *
+ * Documents written before stages existed get the stage their fields show,
+ * so the pipeline does not take them for new countries:
+ * - valid with population or language: ENRICHED
+ * - valid without them: VALIDATED
+ * - not valid: REJECTED (a country that was never validated cannot be told
+ *   apart from a rejected one, and is not validated again)
+ * Once the migration has completed, its checkpoint is marked completed and
+ * later startups skip it.
+ *
+ * Enabled via domain.mongodb.migration.enabled (default true).
+ *
+ * This component is internal to the Domain module and not exposed to other modules.
+ */
+@Component
+@Profile("!in-memory")
+class CountrySchemaMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(CountrySchemaMigration.class);
+
+    static final String MIGRATIONS_COLLECTION = "migrations";
+    static final String MIGRATION_ID = "countries-typed-schema-v1";
+
+    private static final Pattern LANGUAGE_CODE = Pattern.compile("[a-z]{3}");
+    /**
+     * ISO 639-2/T codes of the JDK that differ in ISO 639-3; an empty value marks
+     * a collective code without an ISO 639-3 equivalent.
+     */
+    private static final Map<String, Optional<String>> ISO_639_2_TO_3 = Map.of(
+        "mol", Optional.of("ron"), // Moldavian, merged into Romanian
+        "bih", Optional.empty()    // Bihari, a collective code
+    );
+    private static final Map<String, String> LANGUAGE_CODES = languageCodesByName();
+
+    private final MongoOperations mongoOperations;
+    private final DomainMongoProperties.Migration properties;
+
+    /**
+     * Constructor injection of dependencies.
+     *
+     * @param mongoOperations the MongoDB operations
+     * @param properties the domain MongoDB configuration properties
+     */
+    CountrySchemaMigration(MongoOperations mongoOperations, DomainMongoProperties properties) {
+        this.mongoOperations = mongoOperations;
+        this.properties = properties.migration();
+    }
+
+    /**
+     * Starts the migration in the background once the application is ready,
+     * so startup and request handling are not delayed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void migrateInBackground() {
+        if (!properties.enabled()) {
+            log.info("Countries schema migration is disabled");
+            return;
+        }
+        new SimpleAsyncTaskExecutor("country-migration-").execute(() -> {
+            try {
+                migrate();
+            } catch (RuntimeException e) {
+                // The checkpoint is kept, the next start resumes from it
+                log.error("Countries schema migration failed, it will resume on the next start", e);
+            }
+        });
+    }
+
+    /**
+     * Migrates all remaining documents, resuming from the last checkpoint.
+     *
+     * @return the outcome of this run
+     */
+    MigrationResult migrate() {
+        String collection = mongoOperations.getCollectionName(Country.class);
+        Document checkpoint = mongoOperations.findById(MIGRATION_ID, Document.class, MIGRATIONS_COLLECTION);
+        if (checkpoint != null && checkpoint.getBoolean("completed", false)) {
+            log.debug("Countries schema migration already completed");
+            return new MigrationResult(0, 0, true);
+        }
+
+        Object lastId = checkpoint != null ? checkpoint.get("lastId") : null;
+        Query query = new Query().with(Sort.by("_id")).cursorBatchSize(properties.batchSize());
+        query.fields().include("population", "language", "validCountry", "stage");
+        if (lastId != null) {
+            query.addCriteria(Criteria.where("_id").gt(lastId));
+            log.info("Resuming countries schema migration after _id {}", lastId);
+        }
+
+        long scanned = 0;
+        long updated = 0;
+        BulkOperations bulk = null;
+        int pending = 0;
+
+        try (Stream<Document> documents = mongoOperations.stream(query, Document.class, collection)) {
+            for (Document document : (Iterable<Document>) documents::iterator) {
+                scanned++;
+                lastId = document.get("_id");
+
+                Update update = typedSchemaUpdate(document);
+                if (update != null) {
+                    if (bulk == null) {
+                        bulk = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+                    }
+                    bulk.updateOne(unchangedSince(document), update);
+                    pending++;
+                }
+
+                if (scanned % properties.batchSize() == 0) {
+                    updated += flush(bulk, pending);
+                    bulk = null;
+                    pending = 0;
+                    saveCheckpoint(lastId, false);
+                    pause();
+                }
+            }
+        }
+
+        updated += flush(bulk, pending);
+        saveCheckpoint(lastId, true);
+        log.info("Countries schema migration completed: {} documents scanned, {} updated", scanned, updated);
+        return new MigrationResult(scanned, updated, true);
+    }
+
+    /**
+     * Builds the update converting a document to the typed schema.
+     *
+     * @param document the document with _id, population, language, validCountry and stage
+     * @return the update, or null if the document already uses the typed schema
+     */
+    static Update typedSchemaUpdate(Document document) {
+        Update update = new Update();
+        boolean changed = false;
+
+        if (document.get("population") instanceof String population) {
+            try {
+                update.set("population", Long.parseLong(population.trim()));
+            } catch (NumberFormatException e) {
+                log.warn("Removing non-numeric population '{}' of country {}", population, document.get("_id"));
+                update.unset("population");
+            }
+            changed = true;
+        }
+
+        if (document.get("language") instanceof String language && !LANGUAGE_CODE.matcher(language).matches()) {
+            String code = LANGUAGE_CODES.get(language.trim().toLowerCase(Locale.ROOT));
+            if (code != null) {
+                update.set("language", code);
+                changed = true;
+            } else {
+                log.warn("No ISO 639-3 code for language '{}' of country {}", language, document.get("_id"));
+            }
+        }
+
+        if (document.get("stage") == null) {
+            update.set("stage", legacyStage(document).name());
+            changed = true;
+        }
+
+        return changed ? update : null;
+    }
+
+    /**
+     * Derives the stage of a document written before stages existed.
+     *
+     * @param document the document with validCountry, population and language
+     * @return the stage the document's fields show
+     */
+    static CountryStage legacyStage(Document document) {
+        if (!Boolean.TRUE.equals(document.get("validCountry"))) {
+            return CountryStage.REJECTED;
+        }
+        return document.get("population") != null || document.get("language") != null
+            ? CountryStage.ENRICHED
+            : CountryStage.VALIDATED;
+    }
+
+    private static Query unchangedSince(Document document) {
+        return new Query(Criteria.where("_id").is(document.get("_id"))
+            .and("population").is(document.get("population"))
+            .and("language").is(document.get("language"))
+            .and("validCountry").is(document.get("validCountry"))
+            .and("stage").is(document.get("stage")));
+    }
+
+    private static long flush(BulkOperations bulk, int pending) {
+        if (bulk == null || pending == 0) {
+            return 0;
+        }
+        return bulk.execute().getModifiedCount();
+    }
+
+    private void saveCheckpoint(Object lastId, boolean completed) {
+        Update update = new Update()
+            .set("lastId", lastId)
+            .set("completed", completed)
+            .set("updatedAt", Instant.now());
+        mongoOperations.upsert(new Query(Criteria.where("_id").is(MIGRATION_ID)), update, MIGRATIONS_COLLECTION);
+    }
+
+    private void pause() {
+        Duration pause = properties.pause();
+        if (pause.isZero() || pause.isNegative()) {
+            return;
+        }
+        try {
+            Thread.sleep(pause.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Countries schema migration interrupted", e);
+        }
+    }
+
+    private static Map<String, String> languageCodesByName() {
+        Map<String, String> codes = new HashMap<>();
+        for (String language : Locale.getISOLanguages()) {
+            Locale locale = new Locale(language);
+            String name = locale.getDisplayLanguage(Locale.ENGLISH).toLowerCase(Locale.ROOT);
+            if (name.isEmpty() || name.equals(language)) {
+                continue;
+            }
+            String code = locale.getISO3Language();
+            ISO_639_2_TO_3.getOrDefault(code, Optional.of(code))
+                .ifPresent(iso6393 -> codes.putIfAbsent(name, iso6393));
+        }
+        return Map.copyOf(codes);
+    }
+
+    /**
+     * Outcome of a migration run.
+     *
+     * @param scanned number of documents read in this run
+     * @param updated number of documents converted in this run
+     * @param completed whether the whole collection has been migrated
+     */
+    record MigrationResult(long scanned, long updated, boolean completed) {
+    }
+}
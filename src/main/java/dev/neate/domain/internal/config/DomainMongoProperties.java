@@ -0,0 +1,175 @@
+package dev.neate.domain.internal.config;
+
+import com.mongodb.WriteConcern;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration properties for the Domain module's MongoDB persistence.
+ *
+ * Bound from the {@code domain.mongodb} prefix in application.yml. These
+ * settings control how the domain module manages its own collections and
+ * are not visible to other modules.
+ *
+ * @param indexes index management settings for the countries collection
+ * @param migration settings of the in-place schema migration of the countries collection
+ * @param reads read preference settings of the read use cases
+ * @param writes write concern profiles and their assignment to CountryService operations
+ * @param coalescer settings of the group-commit coalescer for asynchronous stage transitions
+ */
+@ConfigurationProperties(prefix = "domain.mongodb")
+public record DomainMongoProperties(
+    @DefaultValue Indexes indexes,
+    @DefaultValue Migration migration,
+    @DefaultValue Reads reads,
+    @DefaultValue Writes writes,
+    @DefaultValue Coalescer coalescer
+) {
+
+    /**
+     * Index management settings.
+     *
+     * @param createOnStartup whether the declared indexes are created when the application starts
+     * @param uniqueCode whether the index on the country code enforces uniqueness
+     */
+    public record Indexes(
+        @DefaultValue("true") boolean createOnStartup,
+        @DefaultValue("false") boolean uniqueCode
+    ) {
+    }
+
+    /**
+     * Schema migration settings (see CountrySchemaMigration).
+     *
+     * @param enabled whether the migration runs in the background after startup
+     * @param batchSize number of documents read per cursor batch and written per bulk update
+     * @param pause delay between batches, to limit the load on a live cluster
+     */
+    public record Migration(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("0ms") Duration pause
+    ) {
+    }
+
+    /**
+     * Read preference settings (see CountryReadPreferences).
+     *
+     * The connection URI must keep the default primary read preference,
+     * because event publication transactions can only read from the primary.
+     *
+     * @param queryPreference read preference mode of listing, stats and status reads
+     *                        (primary, primaryPreferred, secondary, secondaryPreferred or nearest)
+     * @param maxStaleness maximum replication lag of a secondary serving those reads;
+     *                     zero means no limit, otherwise at least 90 seconds
+     */
+    public record Reads(
+        @DefaultValue("secondaryPreferred") String queryPreference,
+        @DefaultValue("0s") Duration maxStaleness
+    ) {
+    }
+
+    /**
+     * Write concern settings (see CountryWriteConcerns).
+     *
+     * Each CountryService write operation uses a named profile. Besides the
+     * profiles declared here, the built-in profiles are:
+     * - default: the server's default write concern
+     * - acknowledged: w=1, acknowledged by the primary only
+     * - majority: w=majority
+     * - durable: w=majority, journaled
+     *
+     * A declared profile with a built-in name replaces the built-in one.
+     *
+     * @param profiles additional named write concern profiles
+     * @param save the profile of CountryService.save() (user-facing inserts)
+     * @param transition the profile of CountryService.transition() (stage updates)
+     */
+    public record Writes(
+        Map<String, WriteProfile> profiles,
+        @DefaultValue("durable") String save,
+        @DefaultValue("majority") String transition
+    ) {
+
+        private static final Map<String, WriteProfile> BUILT_IN = Map.of(
+            "default", new WriteProfile(null, null, null),
+            "acknowledged", new WriteProfile("1", null, null),
+            "majority", new WriteProfile("majority", null, null),
+            "durable", new WriteProfile("majority", true, null));
+
+        /**
+         * Creates new Writes settings, defaulting missing profiles to none.
+         */
+        public Writes {
+            profiles = profiles != null ? Map.copyOf(profiles) : Map.of();
+        }
+
+        /**
+         * Resolves a profile by name.
+         *
+         * @param name the profile name
+         * @return the declared or built-in profile
+         * @throws IllegalStateException if no profile has this name
+         */
+        public WriteProfile profile(String name) {
+            WriteProfile profile = profiles.getOrDefault(name, BUILT_IN.get(name));
+            if (profile == null) {
+                throw new IllegalStateException("Unknown write concern profile '" + name
+                    + "', declare it under domain.mongodb.writes.profiles");
+            }
+            return profile;
+        }
+    }
+
+    /**
+     * Named write concern.
+     *
+     * @param w the write acknowledgement: a number of members, "majority" or a
+     *          tag set name; null for the server default
+     * @param journal whether the write must be journaled before it is acknowledged,
+     *                null for the server default
+     * @param timeout how long to wait for the acknowledgement, null for no limit
+     */
+    public record WriteProfile(String w, Boolean journal, Duration timeout) {
+
+        /**
+         * Converts this profile to a driver write concern.
+         *
+         * @return the write concern
+         */
+        public WriteConcern toWriteConcern() {
+            WriteConcern writeConcern = WriteConcern.ACKNOWLEDGED;
+            if (w != null) {
+                writeConcern = w.chars().allMatch(Character::isDigit)
+                    ? new WriteConcern(Integer.parseInt(w))
+                    : new WriteConcern(w);
+            }
+            if (journal != null) {
+                writeConcern = writeConcern.withJournal(journal);
+            }
+            if (timeout != null) {
+                writeConcern = writeConcern.withWTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            }
+            return writeConcern;
+        }
+    }
+
+    /**
+     * Group-commit coalescer settings (see CountryTransitionCoalescer).
+     *
+     * @param enabled whether CountryService.transitionAsync() batches transitions;
+     *                when disabled each transition is written on its own
+     * @param maxBatchSize maximum number of transitions written in one bulkWrite
+     * @param maxDelay maximum time a transition waits for others before its batch is written
+     */
+    public record Coalescer(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("100") int maxBatchSize,
+        @DefaultValue("5ms") Duration maxDelay
+    ) {
+    }
+}
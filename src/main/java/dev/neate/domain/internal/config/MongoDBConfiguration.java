@@ -1,15 +1,48 @@
 package dev.neate.domain.internal.config;
 
+import com.mongodb.ReadPreference;
+import dev.neate.domain.internal.CountryCodec;
+import dev.neate.domain.internal.CountryReadPreferences;
+import dev.neate.domain.internal.CountryTransactionOptionsResolver;
+import dev.neate.domain.internal.CountryTransitionCoalescer;
+import dev.neate.domain.internal.CountryWriteConcerns;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.MongoTransactionOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
+import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * MongoDB configuration for the Domain module.
  * 
  * This configuration:
  * - Enables MongoDB repositories for the domain.internal package
+ * - Enables reactive MongoDB repositories for the same package (each
+ *   repository is assigned to the blocking or reactive store by the
+ *   interface it extends)
  * - Configures UUID representation for proper UUID storage
  * - Integrates with Spring Modulith's event publication registry
+ * - Binds domain.mongodb properties (index management)
+ * - Optionally registers the hand-written CountryCodec, which replaces
+ *   MappingMongoConverter for CountryRepository.save() and findById()
+ *   (domain.mongodb.codec.enabled=true)
+ * - Creates the read preferences of the read use cases from
+ *   domain.mongodb.reads (CountryQueryService reads may use secondaries)
+ * - Creates the write concerns of the CountryService write operations from
+ *   the profiles in domain.mongodb.writes, and the MongoTransactionManager
+ *   whose labelled transactions commit with them
+ * - Optionally registers the CountryTransitionCoalescer, which batches
+ *   asynchronous stage transitions into bulk writes
+ *   (domain.mongodb.coalescer.enabled=true)
  * 
  * The repository scanning is limited to the internal package to maintain
  * proper encapsulation - only the internal implementation has direct
@@ -19,7 +52,90 @@ import org.springframework.data.mongodb.repository.config.EnableMongoRepositorie
  * and can be overridden via environment variables.
  */
 @Configuration
+@Profile("!in-memory")
 @EnableMongoRepositories(basePackages = "dev.neate.domain.internal")
+@EnableReactiveMongoRepositories(basePackages = "dev.neate.domain.internal")
+@EnableConfigurationProperties(DomainMongoProperties.class)
 public class MongoDBConfiguration {
     // Spring Boot auto-configuration handles the rest based on application.yml
+
+    /**
+     * Reflection-free codec for Country documents.
+     *
+     * @return the codec used by CountryRepository for save() and findById()
+     */
+    @Bean
+    @ConditionalOnProperty(name = "domain.mongodb.codec.enabled", havingValue = "true")
+    public CountryCodec countryCodec() {
+        return new CountryCodec();
+    }
+
+    /**
+     * Read preferences of the domain read use cases.
+     *
+     * @param properties the domain MongoDB configuration properties
+     * @return the read preferences used by CountryQueryService
+     */
+    @Bean
+    public CountryReadPreferences countryReadPreferences(DomainMongoProperties properties) {
+        DomainMongoProperties.Reads reads = properties.reads();
+        ReadPreference queries = ReadPreference.valueOf(reads.queryPreference());
+        if (!reads.maxStaleness().isZero() && !queries.equals(ReadPreference.primary())) {
+            queries = ReadPreference.valueOf(reads.queryPreference(), List.of(),
+                reads.maxStaleness().toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return new CountryReadPreferences(queries);
+    }
+
+    /**
+     * Write concerns of the CountryService write operations.
+     *
+     * @param properties the domain MongoDB configuration properties
+     * @return the write concerns used by CountryRepository
+     * @throws IllegalStateException if an operation refers to an unknown profile
+     */
+    @Bean
+    public CountryWriteConcerns countryWriteConcerns(DomainMongoProperties properties) {
+        DomainMongoProperties.Writes writes = properties.writes();
+        return new CountryWriteConcerns(
+            writes.profile(writes.save()).toWriteConcern(),
+            writes.profile(writes.transition()).toWriteConcern());
+    }
+
+    /**
+     * Transaction manager whose labelled transactions commit with the write concern profiles.
+     *
+     * MongoDB transactions ignore per-operation write concerns, so the
+     * transactions CountryService labels with a profile commit with it (see
+     * CountryTransactionOptionsResolver). Unlabelled transactions, such as
+     * the ones of the controller and the listeners, behave as with the
+     * default MongoTransactionManager.
+     *
+     * @param databaseFactory the MongoDB database factory
+     * @param writeConcerns the write concerns of the CountryService write operations
+     * @return the transaction manager
+     */
+    @Bean
+    public MongoTransactionManager transactionManager(MongoDatabaseFactory databaseFactory,
+            CountryWriteConcerns writeConcerns) {
+        return new MongoTransactionManager(databaseFactory, new CountryTransactionOptionsResolver(writeConcerns),
+            MongoTransactionOptions.NONE);
+    }
+
+    /**
+     * Group-commit coalescer for CountryService.transitionAsync().
+     *
+     * @param mongoOperations the MongoDB operations
+     * @param writeConcerns the write concerns of the CountryService write operations
+     * @param properties the domain MongoDB configuration properties
+     * @return the coalescer
+     */
+    @Bean
+    @ConditionalOnProperty(name = "domain.mongodb.coalescer.enabled", havingValue = "true")
+    public CountryTransitionCoalescer countryTransitionCoalescer(MongoOperations mongoOperations,
+            CountryWriteConcerns writeConcerns, DomainMongoProperties properties) {
+        DomainMongoProperties.Coalescer coalescer = properties.coalescer();
+        return new CountryTransitionCoalescer(mongoOperations, writeConcerns,
+            coalescer.maxBatchSize(), coalescer.maxDelay());
+    }
 }
@@ -3,11 +3,15 @@
  * 
  * Public API:
  * - Country entity
- * - CountryService interface
+ * - CountryStage and CountryTransition (atomic stage transitions)
+ * - CountryIdentity and CountryStatus (projected read-only views)
+ * - CountryService interface (blocking)
+ * - ReactiveCountryService interface (non-blocking, Mono/Flux)
+ * - CountryQueryService interface (listing, stats and status reads, may use secondaries)
  * 
  * Internal (not exposed):
- * - CountryRepository
- * - CountryServiceImpl
+ * - CountryRepository and ReactiveCountryRepository
+ * - CountryServiceImpl, ReactiveCountryServiceImpl and CountryQueryServiceImpl
  * 
  * This module manages the core domain model and provides a service interface
  * for other modules to interact with country data.
@@ -1,18 +1,21 @@
 package dev.neate.enrichment.internal;
 
-import dev.neate.domain.Country;
 import dev.neate.domain.CountryService;
+import dev.neate.domain.CountryStatus;
+import dev.neate.domain.CountryTransition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.UUID;
+
 /**
  * Service for enriching country data with external API information.
  * 
  * This service orchestrates the enrichment process by:
  * 1. Fetching data from the RestCountries API
- * 2. Updating the country entity with enrichment data
- * 3. Saving the enriched country via the domain service
+ * 2. Applying the VALIDATED -> ENRICHED transition with the enrichment data
+ *    via the domain service
  * 
  * This component is internal to the Enrichment module and not exposed
  * to other modules.
@@ -43,27 +46,38 @@ class CountryEnrichmentService {
      * 
      * This method:
      * 1. Fetches enrichment data using the country code
-     * 2. Updates the country entity with population, currency, and language
-     * 3. Saves the enriched country
+     * 2. Atomically stores population, currency, and language and moves the
+     *    country to ENRICHED
+     * 
+     * Callers only need the projected status (ID and code) of the country,
+     * not the whole entity.
      * 
-     * @param country the country to enrich
+     * @param status the status view of the country to enrich
+     * @return true if the transition was applied, false if the country was no
+     *         longer VALIDATED (e.g. enriched by a concurrent delivery)
      * @throws EnrichmentException if the enrichment process fails
      */
-    public void enrichCountry(Country country) throws EnrichmentException {
-        log.debug("Enriching country: {} ({})", country.getName(), country.getCode());
+    public boolean enrichCountry(CountryStatus status) throws EnrichmentException {
+        log.debug("Enriching country: {} ({})", status.id(), status.code());
 
         // Fetch enrichment data from API
-        EnrichmentData data = restCountriesClient.fetchCountryData(country.getCode());
+        EnrichmentData data = restCountriesClient.fetchCountryData(status.code());
+
+        // Store enrichment data, only if the country is still VALIDATED
+        return applyEnrichment(status.id(), data);
+    }
 
-        // Update country entity
-        country.setPopulation(data.population());
-        country.setCurrency(data.currency());
-        country.setLanguage(data.language());
+    private boolean applyEnrichment(UUID countryId, EnrichmentData data) {
+        boolean applied = countryService.transition(CountryTransition.enriched(
+            countryId, data.population(), data.currency(), data.language())).isPresent();
 
-        // Save enriched country
-        countryService.save(country);
+        if (!applied) {
+            log.debug("Country {} was enriched by another delivery, skipping", countryId);
+            return false;
+        }
 
         log.info("Successfully enriched country: {} with population={}, currency={}, language={}",
-            country.getName(), data.population(), data.currency(), data.language());
+            countryId, data.population(), data.currency(), data.language());
+        return true;
     }
 }
@@ -1,7 +1,8 @@
 package dev.neate.enrichment.internal;
 
-import dev.neate.domain.Country;
 import dev.neate.domain.CountryService;
+import dev.neate.domain.CountryStage;
+import dev.neate.domain.CountryStatus;
 import dev.neate.enrichment.CountryEnrichedEvent;
 import dev.neate.validation.CountryValidatedEvent;
 import org.slf4j.Logger;
@@ -19,9 +20,10 @@ import java.util.Optional;
  * enriches valid countries with external API data, and publishes a CountryEnrichedEvent
  * if enrichment succeeds.
  * 
- * The listener includes retry support via Spring Modulith's @ApplicationModuleListener
- * annotation, which will automatically retry on failure up to 3 times with exponential
- * backoff.
+ * Failures are retried through the event publication registry: the publication stays
+ * incomplete and is resubmitted, with backoff enabled after a per-publication exponential
+ * backoff (see EventPublicationBackoff and DelayedEventRetryScheduler), and dead-lettered
+ * after spring.modulith.events.backoff.max-attempts failures if set.
  * 
  * This component is internal to the Enrichment module and not exposed to other modules.
  */
@@ -55,17 +57,18 @@ class CountryValidatedEventListener {
      * 
      * Process:
      * 1. Extract country ID from event
-     * 2. Fetch country from domain using CountryService.findById()
+     * 2. Fetch the status view (code, validCountry, stage) using CountryService.findStatusById()
      * 3. If country not found, log error and return
-     * 4. Check if country.validCountry == true
+     * 4. Check if validCountry == true
      * 5. If not valid, log warning and return (don't enrich invalid countries)
-     * 6. Call CountryEnrichmentService.enrichCountry(country)
-     * 7. If successful, publish CountryEnrichedEvent with country ID
-     * 8. If exception thrown, let Spring Modulith retry mechanism handle it
+     * 6. If already ENRICHED (redelivery), log and return without calling the API
+     * 7. Call CountryEnrichmentService.enrichCountry(status) with the status view
+     * 8. If the enrichment transition was applied, publish CountryEnrichedEvent with country ID
+     * 9. If exception thrown, let Spring Modulith retry mechanism handle it
      * 
      * Retry configuration:
-     * - Maximum attempts: 3
-     * - Backoff: Exponential (handled by Spring Modulith)
+     * - Maximum attempts: spring.modulith.events.backoff.max-attempts (default unlimited)
+     * - Backoff: Exponential with jitter, see spring.modulith.events.backoff.*
      *
      * @param event the country validated event
      * @throws EnrichmentException if enrichment fails (triggers retry)
@@ -74,32 +77,40 @@ class CountryValidatedEventListener {
     public void handleCountryValidated(CountryValidatedEvent event) throws EnrichmentException {
         log.debug("Received CountryValidatedEvent for country ID: {}", event.countryId());
 
-        // Fetch country from domain
-        Optional<Country> optionalCountry = countryService.findById(event.countryId());
+        // Fetch only the fields enrichment needs (code, validCountry, stage)
+        Optional<CountryStatus> optionalCountry = countryService.findStatusById(event.countryId());
 
         if (optionalCountry.isEmpty()) {
             log.error("Country not found with ID: {}", event.countryId());
             return;
         }
 
-        Country country = optionalCountry.get();
+        CountryStatus status = optionalCountry.get();
 
         // Check if country is valid
-        if (!country.getValidCountry()) {
+        if (!status.isValid()) {
             log.warn("Country {} ({}) is not valid, skipping enrichment", 
-                country.getName(), country.getCode());
+                status.id(), status.code());
+            return;
+        }
+
+        // Skip redelivered events for countries that are already enriched
+        if (status.stage() == CountryStage.ENRICHED) {
+            log.debug("Country {} is already enriched, skipping", status.id());
             return;
         }
 
         // Enrich the country
-        log.info("Enriching valid country: {} ({})", country.getName(), country.getCode());
-        enrichmentService.enrichCountry(country);
+        log.info("Enriching valid country: {} ({})", status.id(), status.code());
+        if (!enrichmentService.enrichCountry(status)) {
+            return;
+        }
 
         // Publish CountryEnrichedEvent
-        CountryEnrichedEvent enrichedEvent = new CountryEnrichedEvent(country.getId());
+        CountryEnrichedEvent enrichedEvent = new CountryEnrichedEvent(status.id());
         eventPublisher.publishEvent(enrichedEvent);
         
         log.info("Published CountryEnrichedEvent for country: {} ({})", 
-            country.getName(), country.getCode());
+            status.id(), status.code());
     }
 }
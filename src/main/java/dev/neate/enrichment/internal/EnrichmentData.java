@@ -3,15 +3,15 @@ package dev.neate.enrichment.internal;
 /**
  * Data transfer object for country enrichment data from RestCountries API.
  * 
- * This record encapsulates the enrichment data fetched from the external API.
- * All fields are stored as strings for simplicity.
+ * This record encapsulates the enrichment data fetched from the external API,
+ * already in the typed form stored on the Country entity.
  * 
- * @param population the country's population as a string
- * @param currency the currency code (e.g., "GBP")
- * @param language the language name (e.g., "English")
+ * @param population the country's population
+ * @param currency the ISO 4217 currency code (e.g., "GBP")
+ * @param language the ISO 639-3 language code (e.g., "eng")
  */
 record EnrichmentData(
-    String population,
+    long population,
     String currency,
     String language
 ) {
@@ -19,8 +19,8 @@ record EnrichmentData(
      * Creates a new EnrichmentData record.
      *
      * @param population the country's population
-     * @param currency the currency code
-     * @param language the language name
+     * @param currency the ISO 4217 currency code
+     * @param language the ISO 639-3 language code
      */
     EnrichmentData {
         // Compact constructor for validation if needed
@@ -2,6 +2,8 @@ package dev.neate.enrichment.internal;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -18,22 +20,27 @@ import java.util.List;
  * data including population, currency, and language information.
  * 
  * The client uses RestClient for HTTP calls with sensible timeout and
- * connection settings.
+ * connection settings. The base URL defaults to the public API and can be
+ * changed with enrichment.rest-countries.base-url (for example to a local
+ * stub in load tests).
  */
 @Component
 class RestCountriesClient {
 
     private static final Logger log = LoggerFactory.getLogger(RestCountriesClient.class);
-    private static final String BASE_URL = "https://restcountries.com/v3.1";
+    private static final String DEFAULT_BASE_URL = "https://restcountries.com/v3.1";
     
     private final RestClient restClient;
 
     /**
      * Constructor that creates a configured RestClient.
+     *
+     * @param baseUrl the base URL of the RestCountries API
      */
-    public RestCountriesClient() {
+    @Autowired
+    public RestCountriesClient(@Value("${enrichment.rest-countries.base-url:" + DEFAULT_BASE_URL + "}") String baseUrl) {
         this.restClient = RestClient.builder()
-            .baseUrl(BASE_URL)
+            .baseUrl(baseUrl)
             .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
             .build();
     }
@@ -51,9 +58,9 @@ class RestCountriesClient {
      * Fetches country data from the RestCountries API.
      * 
      * Makes a GET request to /alpha/{code} endpoint and extracts:
-     * - Population (number converted to string)
+     * - Population (64-bit number)
      * - First currency code from currencies object
-     * - First language name from languages object
+     * - First language code (ISO 639-3) from languages object
      *
      * @param countryCode the ISO 3166-1 alpha-2 country code (e.g., "GB")
      * @return enrichment data containing population, currency, and language
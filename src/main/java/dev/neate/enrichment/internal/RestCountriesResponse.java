@@ -40,6 +40,19 @@ record RestCountriesResponse(
             : null;
     }
     
+    /**
+     * Extracts the first language code from the languages map.
+     * 
+     * RestCountries keys the languages object by ISO 639-3 code.
+     * 
+     * @return the first language code (e.g., "eng") or null if no languages
+     */
+    String getFirstLanguageCode() {
+        return languages != null && !languages.isEmpty() 
+            ? languages.keySet().iterator().next() 
+            : null;
+    }
+    
     /**
      * Converts this response to EnrichmentData.
      * 
@@ -47,9 +60,8 @@ record RestCountriesResponse(
      * @throws IllegalArgumentException if required data is missing
      */
     EnrichmentData toEnrichmentData() {
-        String populationStr = String.valueOf(population);
         String currency = getFirstCurrencyCode();
-        String language = getFirstLanguageName();
+        String language = getFirstLanguageCode();
         
         if (population == 0) {
             throw new IllegalArgumentException("Population data is missing or zero");
@@ -61,7 +73,7 @@ record RestCountriesResponse(
             throw new IllegalArgumentException("No language data found");
         }
         
-        return new EnrichmentData(populationStr, currency, language);
+        return new EnrichmentData(population, currency, language);
     }
 }
 
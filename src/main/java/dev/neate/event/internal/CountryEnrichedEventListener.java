@@ -16,9 +16,10 @@ import java.util.Optional;
  * This listener responds to country enrichment events from the Enrichment module,
  * fetches the enriched country data, and publishes it to Kafka.
  * 
- * The listener includes retry support via Spring Modulith's @ApplicationModuleListener
- * annotation, which will automatically retry on failure up to 3 times with exponential
- * backoff.
+ * Failures are retried through the event publication registry: the publication stays
+ * incomplete and is resubmitted, with backoff enabled after a per-publication exponential
+ * backoff (see EventPublicationBackoff and DelayedEventRetryScheduler), and dead-lettered
+ * after spring.modulith.events.backoff.max-attempts failures if set.
  * 
  * This component is internal to the Event module and not exposed to other modules.
  */
@@ -55,8 +56,8 @@ class CountryEnrichedEventListener {
      * 6. If exception thrown, let Spring Modulith retry mechanism handle it
      * 
      * Retry configuration:
-     * - Maximum attempts: 3
-     * - Backoff: Exponential (handled by Spring Modulith)
+     * - Maximum attempts: spring.modulith.events.backoff.max-attempts (default unlimited)
+     * - Backoff: Exponential with jitter, see spring.modulith.events.backoff.*
      *
      * @param event the country enriched event
      * @throws org.springframework.kafka.KafkaException if Kafka send fails (triggers retry)
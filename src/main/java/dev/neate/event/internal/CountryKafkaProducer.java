@@ -49,9 +49,9 @@ class CountryKafkaProducer {
      *   "id": "country-id",
      *   "name": "country-name",
      *   "code": "country-code",
-     *   "currency": "country-currency",
-     *   "language": "country-language",
-     *   "population": "country-population",
+     *   "currency": "ISO 4217 currency code",
+     *   "language": "ISO 639-3 language code",
+     *   "population": 67000000,
      *   "validCountry": true/false
      * }
      *
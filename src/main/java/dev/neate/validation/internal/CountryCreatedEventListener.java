@@ -1,8 +1,10 @@
 package dev.neate.validation.internal;
 
 import dev.neate.api.CountryCreatedEvent;
-import dev.neate.domain.Country;
+import dev.neate.domain.CountryIdentity;
 import dev.neate.domain.CountryService;
+import dev.neate.domain.CountryStage;
+import dev.neate.domain.CountryTransition;
 import dev.neate.validation.CountryValidatedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,6 +21,23 @@ import java.util.UUID;
  * This listener responds to country creation events from the API module,
  * validates the country, and publishes a CountryValidatedEvent if validation passes.
  * 
+ * The country is moved to VALIDATED or REJECTED with an atomic stage
+ * transition, so concurrent or redelivered events are no-ops instead of
+ * overwriting each other.
+ *
+ * REJECTED is a final stage without a follow-up event, so that transition
+ * goes through CountryService.transitionAsync() and is batched with those of
+ * concurrent listeners. It may commit before the listener's transaction; a
+ * redelivery then finds the country REJECTED and skips it. The VALIDATED
+ * transition must commit together with the CountryValidatedEvent
+ * publication, so it stays on the transactional transition().
+ *
+ * Validation is deterministic and the outcome is persisted as the stage, so
+ * the listener can be made recoverable (opt-in, see
+ * spring.modulith.events.durability.recoverable-listeners): its publications
+ * are then not stored in the event publication registry, and countries whose
+ * event was lost are redelivered by CreatedCountryRecovery instead.
+ * 
  * This component is internal to the Validation module and not exposed to other modules.
  */
 @Component
@@ -51,15 +70,17 @@ class CountryCreatedEventListener {
      * 
      * Process:
      * 1. Extract country ID from event
-     * 2. Fetch country from domain using CountryService.findById()
+     * 2. Fetch the identity view (name, code, stage) using CountryService.findIdentityById()
      * 3. If country not found, log error and return
-     * 4. Call CountryValidationService.validate(country)
-     * 5. If validation passes:
-     *    - Set country.validCountry = true
-     *    - Save country via CountryService.save()
-     *    - Publish CountryValidatedEvent with country ID
-     * 6. If validation fails:
-     *    - Do NOT save (entity remains with validCountry=false)
+     * 4. If country is no longer CREATED (redelivery), log and return
+     * 5. Call CountryValidationService.validate(country)
+     * 6. If validation passes:
+     *    - Apply the CREATED -> VALIDATED transition (sets validCountry = true)
+     *    - If the transition was applied, publish CountryValidatedEvent with country ID
+     *    - If another delivery applied it first, do nothing
+     * 7. If validation fails:
+     *    - Apply the CREATED -> REJECTED transition (validCountry stays false),
+     *      batched through transitionAsync() and awaited
      *    - Log validation failure
      *    - Do NOT publish event
      *
@@ -72,34 +93,41 @@ class CountryCreatedEventListener {
         // Extract country ID from event
         UUID countryId = event.countryId();
 
-        // Fetch country from domain
-        Optional<Country> optionalCountry = countryService.findById(countryId);
+        // Fetch only the fields validation needs (name, code, stage)
+        Optional<CountryIdentity> optionalCountry = countryService.findIdentityById(countryId);
 
         if (optionalCountry.isEmpty()) {
             log.error("Country not found with ID: {}", countryId);
             return;
         }
 
-        Country country = optionalCountry.get();
+        CountryIdentity country = optionalCountry.get();
+
+        // Skip redelivered events for countries that already moved on
+        if (country.stage() != CountryStage.CREATED) {
+            log.debug("Country {} is already {}, skipping validation", countryId, country.stage());
+            return;
+        }
 
         // Validate the country
         boolean isValid = validationService.validate(country);
 
         if (isValid) {
-            // Set validCountry flag to true
-            country.setValidCountry(true);
-
-            // Save the updated country
-            countryService.save(country);
+            // Atomically set validCountry=true and move to VALIDATED
+            if (countryService.transition(CountryTransition.validated(countryId)).isEmpty()) {
+                log.debug("Country {} was validated by another delivery, skipping", countryId);
+                return;
+            }
 
-            log.info("Country validated successfully: {} ({})", country.getName(), country.getCode());
+            log.info("Country validated successfully: {} ({})", country.name(), country.code());
 
             // Publish CountryValidatedEvent
             eventPublisher.publishEvent(new CountryValidatedEvent(countryId));
         } else {
-            // Validation failed - do not save, do not publish event
+            // Validation failed - record the outcome so recovery does not validate it again, do not publish event
+            countryService.transitionAsync(CountryTransition.rejected(countryId)).join();
             log.warn("Country validation failed for ID: {} - name: {}, code: {}",
-                    countryId, country.getName(), country.getCode());
+                    countryId, country.name(), country.code());
         }
     }
 }
@@ -1,6 +1,7 @@
 package dev.neate.validation.internal;
 
 import dev.neate.domain.Country;
+import dev.neate.domain.CountryIdentity;
 import org.springframework.stereotype.Service;
 
 /**
@@ -28,14 +29,33 @@ class CountryValidationService {
         if (country == null) {
             return false;
         }
+        return validate(country.getName(), country.getCode());
+    }
+
+    /**
+     * Validates the identifying fields of a country.
+     * 
+     * Applies the same rules as validate(Country) to the projected view, so
+     * callers do not need to load the whole country.
+     *
+     * @param identity the identity view to validate
+     * @return true if all validation checks pass, false otherwise
+     */
+    public boolean validate(CountryIdentity identity) {
+        if (identity == null) {
+            return false;
+        }
+        return validate(identity.name(), identity.code());
+    }
 
+    private static boolean validate(String name, String code) {
         // Check name is not null and not empty (after trim)
-        if (country.getName() == null || country.getName().trim().isEmpty()) {
+        if (name == null || name.trim().isEmpty()) {
             return false;
         }
 
         // Check code is not null and not empty (after trim)
-        if (country.getCode() == null || country.getCode().trim().isEmpty()) {
+        if (code == null || code.trim().isEmpty()) {
             return false;
         }
 
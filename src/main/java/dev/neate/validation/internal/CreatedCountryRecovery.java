@@ -0,0 +1,100 @@
+package dev.neate.validation.internal;
+
+import dev.neate.api.CountryCreatedEvent;
+import dev.neate.domain.CountryQueryService;
+import dev.neate.domain.CountryStage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Recovery of countries whose CountryCreatedEvent was lost.
+ *
+ * CountryCreatedEventListener can be made a recoverable listener (see
+ * spring.modulith.events.durability.recoverable-listeners): its
+ * publications are then not stored in the event publication registry, so an
+ * event lost in a crash, or whose listener failed, is not retried from
+ * there. Every country it has not handled yet is still in the CREATED
+ * stage, though, so this component redelivers them:
+ * - Every sweep reads up to batch-size CREATED country IDs
+ * - Countries that were already CREATED in the previous sweep are handed to
+ *   the listener, asynchronously and in their own transaction like an event
+ * - Countries seen for the first time are left to their in-flight event
+ *
+ * Countries that failed validation are REJECTED and not read again, and
+ * countries written before stages existed are not read at all (their stage
+ * is derived by the domain's schema migration). The
+ * listener's transitions are conditional on the CREATED stage, so a country
+ * handled twice, e.g. by sweeps of several instances, is validated and
+ * published once.
+ *
+ * Configuration:
+ * - Enabled via validation.recovery.enabled (default true)
+ * - validation.recovery.interval (default 1 minute), also the minimum time a
+ *   country stays CREATED before it is redelivered
+ * - validation.recovery.batch-size (default 500)
+ */
+@Component
+@ConditionalOnProperty(name = "validation.recovery.enabled", havingValue = "true", matchIfMissing = true)
+class CreatedCountryRecovery {
+
+    private static final Logger log = LoggerFactory.getLogger(CreatedCountryRecovery.class);
+
+    private final CountryQueryService countryQueryService;
+    private final CountryCreatedEventListener listener;
+    private final int batchSize;
+
+    private Set<UUID> previouslyCreated = Set.of();
+
+    /**
+     * Constructor injection of dependencies.
+     *
+     * @param countryQueryService the country query service from the domain module
+     * @param listener the listener, called through its proxy so it runs asynchronously in its own transaction
+     * @param batchSize the maximum number of countries read per sweep
+     */
+    public CreatedCountryRecovery(
+            CountryQueryService countryQueryService,
+            CountryCreatedEventListener listener,
+            @Value("${validation.recovery.batch-size:500}") int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Recovery batch size must be at least 1");
+        }
+        this.countryQueryService = countryQueryService;
+        this.listener = listener;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Scheduled sweep redelivering countries that stayed CREATED since the previous sweep.
+     *
+     * @return the number of countries redelivered
+     */
+    @Scheduled(fixedDelayString = "${validation.recovery.interval:1m}",
+        initialDelayString = "${validation.recovery.interval:1m}")
+    int recover() {
+        List<UUID> created = countryQueryService.findIdsByStage(CountryStage.CREATED, batchSize);
+
+        int redelivered = 0;
+        for (UUID countryId : created) {
+            if (previouslyCreated.contains(countryId)) {
+                listener.handleCountryCreated(new CountryCreatedEvent(countryId));
+                redelivered++;
+            }
+        }
+        previouslyCreated = new HashSet<>(created);
+
+        if (redelivered > 0) {
+            log.info("Redelivered {} countries still in the CREATED stage for validation", redelivered);
+        }
+        return redelivered;
+    }
+}
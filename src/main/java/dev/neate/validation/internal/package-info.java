@@ -5,6 +5,7 @@
  * directly by other modules:
  * - CountryValidationService
  * - CountryCreatedEventListener
+ * - CreatedCountryRecovery
  * 
  * Spring Modulith enforces that these components remain encapsulated within
  * the validation module.
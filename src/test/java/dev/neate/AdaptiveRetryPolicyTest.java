@@ -0,0 +1,113 @@
+package dev.neate;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for AdaptiveRetryPolicy.
+ *
+ * Verifies that:
+ * - A healthy cycle with a backlog left shortens the interval and grows the chunk size
+ * - A failing cycle lengthens the interval and shrinks the chunk size
+ * - Interval and chunk size stay within their bounds
+ * - An empty backlog returns to the configured values
+ * - State taken over from another instance is kept within the bounds
+ * - Invalid bounds are rejected
+ */
+class AdaptiveRetryPolicyTest {
+
+    private final AdaptiveRetryPolicy policy = new AdaptiveRetryPolicy(Duration.ofMinutes(5), Duration.ofSeconds(30),
+        Duration.ofMinutes(30), 500, 50, 5000);
+
+    @Test
+    void catchesUpAfterOutageHasCleared() {
+        // When - 95 of 100 succeeded, 1000 publications left
+        policy.update(100, 5, 1000);
+
+        // Then
+        assertThat(policy.interval()).as("Interval halved").isEqualTo(Duration.ofSeconds(150));
+        assertThat(policy.chunkSize()).as("Chunk size doubled").isEqualTo(1000);
+        assertThat(policy.successRate()).as("Success rate of the cycle").isEqualTo(0.95);
+    }
+
+    @Test
+    void backsOffDuringOutage() {
+        // When - 80 of 100 failed again
+        policy.update(100, 80, 100);
+
+        // Then
+        assertThat(policy.interval()).as("Interval doubled").isEqualTo(Duration.ofMinutes(10));
+        assertThat(policy.chunkSize()).as("Chunk size halved").isEqualTo(250);
+    }
+
+    @Test
+    void restoresSharedStateWithinBounds() {
+        // When
+        policy.restore(Duration.ofHours(2), 10, 0.3);
+
+        // Then
+        assertThat(policy.interval()).as("Interval capped at the maximum").isEqualTo(Duration.ofMinutes(30));
+        assertThat(policy.chunkSize()).as("Chunk size limited to the minimum").isEqualTo(50);
+        assertThat(policy.successRate()).as("Success rate").isEqualTo(0.3);
+    }
+
+    @Test
+    void staysWithinBounds() {
+        // When
+        for (int i = 0; i < 10; i++) {
+            policy.update(100, 100, 100);
+        }
+        Duration longest = policy.interval();
+        int smallest = policy.chunkSize();
+        for (int i = 0; i < 20; i++) {
+            policy.update(100, 0, 100);
+        }
+
+        // Then
+        assertThat(longest).as("Interval capped at the maximum").isEqualTo(Duration.ofMinutes(30));
+        assertThat(smallest).as("Chunk size limited to the minimum").isEqualTo(50);
+        assertThat(policy.interval()).as("Interval limited to the minimum").isEqualTo(Duration.ofSeconds(30));
+        assertThat(policy.chunkSize()).as("Chunk size capped at the maximum").isEqualTo(5000);
+    }
+
+    @Test
+    void returnsToConfiguredValuesOnceBacklogIsDrained() {
+        // Given
+        policy.update(100, 90, 100);
+
+        // When
+        policy.update(10, 0, 0);
+
+        // Then
+        assertThat(policy.interval()).as("Configured interval").isEqualTo(Duration.ofMinutes(5));
+        assertThat(policy.chunkSize()).as("Configured chunk size").isEqualTo(500);
+    }
+
+    @Test
+    void keepsValuesWhileBacklogWaitsForBackoff() {
+        // Given
+        policy.update(100, 90, 100);
+
+        // When - nothing was due
+        policy.update(0, 0, 100);
+
+        // Then
+        assertThat(policy.interval()).as("Interval unchanged").isEqualTo(Duration.ofMinutes(10));
+    }
+
+    @Test
+    void rejectsInvalidBounds() {
+        assertThatThrownBy(() -> new AdaptiveRetryPolicy(Duration.ofMinutes(5), Duration.ofMinutes(10),
+            Duration.ofMinutes(1), 500, 50, 5000))
+            .as("Minimum interval above the maximum rejected")
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptiveRetryPolicy(Duration.ofMinutes(5), Duration.ofSeconds(30),
+            Duration.ofMinutes(30), 500, 0, 5000))
+            .as("Chunk size of zero rejected")
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
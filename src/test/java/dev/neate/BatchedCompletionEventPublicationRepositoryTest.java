@@ -0,0 +1,106 @@
+package dev.neate;
+
+import dev.neate.api.CountryCreatedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.modulith.events.core.EventPublicationRepository;
+import org.springframework.modulith.events.core.PublicationTargetIdentifier;
+import org.springframework.modulith.events.core.TargetEventPublication;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for BatchedCompletionEventPublicationRepository.
+ *
+ * Verifies that:
+ * - Completions by publication or ID are queued in the batcher instead of written
+ * - Completions are written directly when the batcher does not take them
+ * - Publications with a queued completion are left out of the incomplete publication lookups
+ */
+class BatchedCompletionEventPublicationRepositoryTest {
+
+    private static final PublicationTargetIdentifier LISTENER = PublicationTargetIdentifier.of("listener");
+
+    private EventPublicationRepository mockDelegate;
+    private EventPublicationCompletionBatcher mockBatcher;
+    private BatchedCompletionEventPublicationRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        mockDelegate = mock(EventPublicationRepository.class);
+        mockBatcher = mock(EventPublicationCompletionBatcher.class);
+        repository = new BatchedCompletionEventPublicationRepository(mockDelegate, mockBatcher);
+    }
+
+    @Test
+    void queuesCompletionsInTheBatcher() {
+        // Given
+        TargetEventPublication publication = publication();
+        UUID id = UUID.randomUUID();
+        Instant now = Instant.now();
+        when(mockBatcher.submit(any(), any())).thenReturn(true);
+        when(mockBatcher.submit(any(), any(), any())).thenReturn(true);
+
+        // When
+        repository.markCompleted(publication, now);
+        repository.markCompleted(id, now);
+
+        // Then
+        verify(mockBatcher).submit(publication.getIdentifier(), LISTENER.getValue(), now);
+        verify(mockBatcher).submit(id, now);
+        verifyNoInteractions(mockDelegate);
+        assertThat(publication.getCompletionDate()).as("Completion date of the queued publication").contains(now);
+    }
+
+    @Test
+    void writesCompletionsDirectlyWhenNotQueued() {
+        // Given
+        TargetEventPublication publication = publication();
+        Instant now = Instant.now();
+        when(mockBatcher.submit(any(), any())).thenReturn(false);
+        when(mockBatcher.submit(any(), any(), any())).thenReturn(false);
+
+        // When
+        repository.markCompleted(publication, now);
+        repository.markCompleted(publication.getIdentifier(), now);
+        repository.markCompleted(publication.getEvent(), LISTENER, now);
+
+        // Then
+        verify(mockDelegate).markCompleted(publication, now);
+        verify(mockDelegate).markCompleted(publication.getIdentifier(), now);
+        verify(mockDelegate).markCompleted(publication.getEvent(), LISTENER, now);
+    }
+
+    @Test
+    void hidesPublicationsWithQueuedCompletion() {
+        // Given
+        TargetEventPublication pending = publication();
+        TargetEventPublication incomplete = publication();
+        when(mockBatcher.isPending(pending.getIdentifier())).thenReturn(true);
+        when(mockDelegate.findIncompletePublications()).thenReturn(List.of(pending, incomplete));
+        when(mockDelegate.findIncompletePublicationsPublishedBefore(any())).thenReturn(List.of(pending, incomplete));
+        when(mockDelegate.findIncompletePublicationsByEventAndTargetIdentifier(pending.getEvent(), LISTENER))
+            .thenReturn(Optional.of(pending));
+
+        // Then
+        assertThat(repository.findIncompletePublications())
+            .as("Incomplete publications")
+            .containsExactly(incomplete);
+        assertThat(repository.findIncompletePublicationsPublishedBefore(Instant.now()))
+            .as("Incomplete publications published before now")
+            .containsExactly(incomplete);
+        assertThat(repository.findIncompletePublicationsByEventAndTargetIdentifier(pending.getEvent(), LISTENER))
+            .as("Publication with a queued completion looked up by event")
+            .isEmpty();
+    }
+
+    private static TargetEventPublication publication() {
+        return TargetEventPublication.of(new CountryCreatedEvent(UUID.randomUUID()), LISTENER);
+    }
+}
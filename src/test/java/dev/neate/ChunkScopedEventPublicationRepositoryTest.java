@@ -0,0 +1,108 @@
+package dev.neate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.modulith.events.core.EventPublicationRepository;
+import org.springframework.modulith.events.core.TargetEventPublication;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for ChunkScopedEventPublicationRepository.
+ *
+ * Verifies that:
+ * - Inside withChunk() the incomplete-publication lookups return the chunk
+ * - Outside the scope, and on other threads, lookups go to the decorated repository
+ * - Writes are always delegated
+ */
+class ChunkScopedEventPublicationRepositoryTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+
+    private EventPublicationRepository mockDelegate;
+    private ChunkScopedEventPublicationRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        mockDelegate = mock(EventPublicationRepository.class);
+        repository = new ChunkScopedEventPublicationRepository(mockDelegate);
+    }
+
+    @Test
+    void returnsChunkInsideScope() {
+        // Given
+        TargetEventPublication older = publication(NOW.minusSeconds(120));
+        TargetEventPublication newer = publication(NOW.minusSeconds(10));
+
+        // When
+        List<TargetEventPublication> incomplete = ChunkScopedEventPublicationRepository.withChunk(
+            List.of(older, newer), repository::findIncompletePublications);
+        List<TargetEventPublication> publishedBefore = ChunkScopedEventPublicationRepository.withChunk(
+            List.of(older, newer), () -> repository.findIncompletePublicationsPublishedBefore(NOW.minusSeconds(60)));
+
+        // Then
+        assertThat(incomplete).as("All publications of the chunk").containsExactly(older, newer);
+        assertThat(publishedBefore).as("Publications of the chunk published before the date").containsExactly(older);
+        verifyNoInteractions(mockDelegate);
+    }
+
+    @Test
+    void delegatesOutsideScope() {
+        // Given
+        TargetEventPublication stored = publication(NOW);
+        when(mockDelegate.findIncompletePublications()).thenReturn(List.of(stored));
+
+        // When
+        ChunkScopedEventPublicationRepository.withChunk(List.of(publication(NOW)), () -> null);
+        List<TargetEventPublication> incomplete = repository.findIncompletePublications();
+
+        // Then
+        assertThat(incomplete).as("Scope is removed after the action").containsExactly(stored);
+    }
+
+    @Test
+    void delegatesOnOtherThreads() {
+        // Given
+        TargetEventPublication stored = publication(NOW);
+        when(mockDelegate.findIncompletePublications()).thenReturn(List.of(stored));
+
+        // When
+        List<TargetEventPublication> incomplete = ChunkScopedEventPublicationRepository.withChunk(
+            List.of(publication(NOW)),
+            () -> CompletableFuture.supplyAsync(repository::findIncompletePublications).join());
+
+        // Then
+        assertThat(incomplete).as("Scope is bound to the calling thread").containsExactly(stored);
+    }
+
+    @Test
+    void delegatesWritesInsideScope() {
+        // Given
+        UUID id = UUID.randomUUID();
+        when(mockDelegate.markResubmitted(id, NOW)).thenReturn(true);
+
+        // When
+        boolean resubmitted = ChunkScopedEventPublicationRepository.withChunk(List.of(publication(NOW)), () -> {
+            repository.markCompleted(id, NOW);
+            repository.markFailed(id);
+            return repository.markResubmitted(id, NOW);
+        });
+
+        // Then
+        assertThat(resubmitted).as("Result of the decorated repository").isTrue();
+        verify(mockDelegate).markCompleted(id, NOW);
+        verify(mockDelegate).markFailed(id);
+    }
+
+    private static TargetEventPublication publication(Instant publicationDate) {
+        TargetEventPublication publication = mock(TargetEventPublication.class);
+        when(publication.getPublicationDate()).thenReturn(publicationDate);
+        return publication;
+    }
+}
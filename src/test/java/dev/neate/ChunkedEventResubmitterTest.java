@@ -0,0 +1,195 @@
+package dev.neate;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.data.mongodb.test.autoconfigure.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.modulith.events.IncompleteEventPublications;
+import org.springframework.modulith.events.core.EventPublicationRepository;
+import org.springframework.modulith.events.core.EventSerializer;
+import org.springframework.modulith.events.core.TargetEventPublication;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for ChunkedEventResubmitter.
+ *
+ * Verifies that:
+ * - The backlog is resubmitted in chunks of at most chunk-size publications, oldest first
+ * - Completed publications and publications younger than the minimum age are not resubmitted
+ * - A stopped cycle resumes after the last checkpointed chunk
+ * - Publications that cannot be read are skipped without waiting for their chunk to drain
+ * - The backlog count leaves out publications waiting for their backoff
+ * - The retry policy is stored and read back
+ *
+ * The registry is replaced by a mock that reads the chunk through
+ * ChunkScopedEventPublicationRepository and completes it, as the listeners would.
+ */
+@DataMongoTest
+@Import(MongoTestcontainersConfiguration.class)
+class ChunkedEventResubmitterTest {
+
+    private static final Duration MIN_AGE = Duration.ofMinutes(1);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private List<List<UUID>> resubmittedChunks;
+    private ChunkedEventResubmitter resubmitter;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.dropCollection(EventPublicationArchiver.PUBLICATIONS_COLLECTION);
+        mongoTemplate.dropCollection(ChunkedEventResubmitter.CHECKPOINTS_COLLECTION);
+
+        resubmittedChunks = new ArrayList<>();
+        ChunkScopedEventPublicationRepository registryRepository =
+            new ChunkScopedEventPublicationRepository(mock(EventPublicationRepository.class));
+        IncompleteEventPublications registry = mock(IncompleteEventPublications.class);
+        doAnswer(invocation -> {
+            List<UUID> ids = registryRepository.findIncompletePublications().stream()
+                .map(TargetEventPublication::getIdentifier)
+                .toList();
+            resubmittedChunks.add(ids);
+            mongoTemplate.getCollection(EventPublicationArchiver.PUBLICATIONS_COLLECTION)
+                .updateMany(Filters.in("_id", ids), Updates.set("completionDate", new Date()));
+            return null;
+        }).when(registry).resubmitIncompletePublications(any(Predicate.class));
+
+        resubmitter = new ChunkedEventResubmitter(mongoTemplate, EventPublicationCollections.registryOnly(),
+            registry,
+            new StaticListableBeanFactory().getBeanProvider(EventSerializer.class),
+            new StaticListableBeanFactory().getBeanProvider(CompactEventSerializer.class),
+            2, Duration.ofSeconds(5), Duration.ofMillis(10));
+    }
+
+    @Test
+    void resubmitsBacklogInChunks() {
+        // Given - five incomplete, one completed and one recent publication
+        Instant start = Instant.now().minus(Duration.ofHours(1));
+        List<UUID> backlog = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            backlog.add(insertPublication(start.plusSeconds(i), false));
+        }
+        insertPublication(start.plusSeconds(10), true);
+        insertPublication(Instant.now(), false);
+
+        // When
+        ChunkedEventResubmitter.ResubmissionResult result = resubmitter.resubmit(MIN_AGE, () -> true);
+
+        // Then
+        assertThat(result.completed()).as("Cycle reached the end of the backlog").isTrue();
+        assertThat(result.resubmitted()).as("Resubmitted publications").isEqualTo(5);
+        assertThat(result.failed()).as("All resubmitted publications completed").isZero();
+        assertThat(resubmittedChunks).as("Chunks of at most two publications, oldest first").containsExactly(
+            backlog.subList(0, 2), backlog.subList(2, 4), backlog.subList(4, 5));
+    }
+
+    @Test
+    void resumesStoppedCycleAtCheckpoint() {
+        // Given - a cycle stopped after its first chunk, e.g. because the lease was lost
+        Instant start = Instant.now().minus(Duration.ofHours(1));
+        List<UUID> backlog = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            backlog.add(insertPublication(start.plusSeconds(i), false));
+        }
+        AtomicInteger calls = new AtomicInteger();
+        ChunkedEventResubmitter.ResubmissionResult stopped =
+            resubmitter.resubmit(MIN_AGE, () -> calls.incrementAndGet() == 1);
+
+        // When
+        ChunkedEventResubmitter.ResubmissionResult resumed = resubmitter.resubmit(MIN_AGE, () -> true);
+
+        // Then
+        assertThat(stopped.completed()).as("Stopped cycle is not completed").isFalse();
+        assertThat(stopped.chunks()).as("Chunks before the stop").isEqualTo(1);
+        assertThat(resumed.completed()).as("Resumed cycle is completed").isTrue();
+        assertThat(resubmittedChunks).as("Every publication resubmitted exactly once").containsExactly(
+            backlog.subList(0, 2), backlog.subList(2, 4));
+        assertThat(mongoTemplate.getCollection(ChunkedEventResubmitter.CHECKPOINTS_COLLECTION)
+            .find(Filters.eq("_id", ChunkedEventResubmitter.CHECKPOINT_ID)).first().getBoolean("completed"))
+            .as("Checkpoint marks the cycle completed").isTrue();
+    }
+
+    @Test
+    void skipsUnreadablePublicationsWithoutWaiting() {
+        // Given - the first chunk holds a publication without a listener, which cannot be read
+        Instant start = Instant.now().minus(Duration.ofHours(1));
+        UUID unreadable = insertPublication(start, false);
+        mongoTemplate.getCollection(EventPublicationArchiver.PUBLICATIONS_COLLECTION)
+            .updateOne(Filters.eq("_id", unreadable), Updates.unset("listenerId"));
+        UUID readable = insertPublication(start.plusSeconds(1), false);
+        long startedAt = System.nanoTime();
+
+        // When
+        ChunkedEventResubmitter.ResubmissionResult result = resubmitter.resubmit(MIN_AGE, () -> true);
+
+        // Then
+        assertThat(Duration.ofNanos(System.nanoTime() - startedAt))
+            .as("Duration of the cycle")
+            .isLessThan(Duration.ofSeconds(5));
+        assertThat(resubmittedChunks).as("Resubmitted chunks").containsExactly(List.of(readable));
+        assertThat(result.resubmitted()).as("Resubmitted publications").isEqualTo(1);
+        assertThat(result.skipped()).as("Skipped publications").isEqualTo(1);
+        assertThat(result.failed()).as("Failed publications").isZero();
+    }
+
+    @Test
+    void countsOnlyDuePublications() {
+        // Given - two incomplete publications, one of them waiting for its backoff
+        Instant start = Instant.now().minus(Duration.ofHours(1));
+        insertPublication(start, false);
+        UUID waiting = insertPublication(start.plusSeconds(1), false);
+        mongoTemplate.getCollection(EventPublicationArchiver.PUBLICATIONS_COLLECTION).updateOne(
+            Filters.eq("_id", waiting),
+            Updates.set(EventPublicationBackoff.NEXT_ATTEMPT_DATE, Date.from(Instant.now().plusSeconds(600))));
+
+        // Then
+        assertThat(resubmitter.countIncomplete(Instant.now())).as("Due publications").isEqualTo(1);
+    }
+
+    @Test
+    void storesRetryPolicy() {
+        // Given
+        ChunkedEventResubmitter.RetryPolicyState state = new ChunkedEventResubmitter.RetryPolicyState(
+            Duration.ofMinutes(20), 25, 0.2, Instant.now().plusSeconds(600).truncatedTo(ChronoUnit.MILLIS));
+
+        // When
+        Optional<ChunkedEventResubmitter.RetryPolicyState> before = resubmitter.loadRetryPolicy();
+        resubmitter.saveRetryPolicy(state);
+
+        // Then
+        assertThat(before).as("Policy before the first cycle").isEmpty();
+        assertThat(resubmitter.loadRetryPolicy()).as("Stored policy").contains(state);
+    }
+
+    private UUID insertPublication(Instant publicationDate, boolean completed) {
+        UUID id = UUID.randomUUID();
+        mongoTemplate.getCollection(EventPublicationArchiver.PUBLICATIONS_COLLECTION).insertOne(new Document("_id", id)
+            .append("listenerId", "listener")
+            .append("event", "event-" + id)
+            .append("publicationDate", Date.from(publicationDate))
+            .append("completionDate", completed ? new Date() : null)
+            .append("status", completed ? "COMPLETED" : "PUBLISHED"));
+        return id;
+    }
+}
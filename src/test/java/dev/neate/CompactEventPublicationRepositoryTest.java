@@ -0,0 +1,133 @@
+package dev.neate;
+
+import dev.neate.api.CountryCreatedEvent;
+import org.bson.types.Binary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.modulith.events.core.EventPublicationRepository;
+import org.springframework.modulith.events.core.PublicationTargetIdentifier;
+import org.springframework.modulith.events.core.TargetEventPublication;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for CompactEventPublicationRepository.
+ *
+ * Verifies that:
+ * - New publications of registered events are stored in the compact encoding
+ * - Publications read back carry the decoded event, legacy ones are passed through
+ * - Lookups by event fall back to the legacy form only with legacy lookups enabled
+ * - With compact writes disabled, events are stored mapped again
+ */
+class CompactEventPublicationRepositoryTest {
+
+    private static final PublicationTargetIdentifier LISTENER = PublicationTargetIdentifier.of("listener");
+
+    private final CompactEventSerializer serializer = new CompactEventSerializer()
+        .register(1, CountryCreatedEvent.class, CountryCreatedEvent::countryId, CountryCreatedEvent::new);
+    private final CountryCreatedEvent event = new CountryCreatedEvent(UUID.randomUUID());
+
+    private EventPublicationRepository mockDelegate;
+
+    @BeforeEach
+    void setUp() {
+        mockDelegate = mock(EventPublicationRepository.class);
+    }
+
+    @Test
+    void storesRegisteredEventsCompactly() {
+        // Given
+        CompactEventPublicationRepository repository = repository(true, true);
+        TargetEventPublication publication = TargetEventPublication.of(event, LISTENER);
+
+        // When
+        TargetEventPublication created = repository.create(publication);
+
+        // Then
+        ArgumentCaptor<TargetEventPublication> stored = ArgumentCaptor.forClass(TargetEventPublication.class);
+        verify(mockDelegate).create(stored.capture());
+        assertThat(stored.getValue().getEvent()).as("Stored event").isEqualTo(serializer.serialize(event));
+        assertThat(stored.getValue().getIdentifier()).as("Stored identifier").isEqualTo(publication.getIdentifier());
+        assertThat(created).as("Caller keeps its publication").isSameAs(publication);
+    }
+
+    @Test
+    void decodesStoredPublications() {
+        // Given - one compact and one legacy entry
+        TargetEventPublication compact = TargetEventPublication.of(new Binary(serializer.serialize(event)), LISTENER);
+        TargetEventPublication legacy = TargetEventPublication.of(new CountryCreatedEvent(UUID.randomUUID()), LISTENER);
+        when(mockDelegate.findIncompletePublications()).thenReturn(List.of(compact, legacy));
+        CompactEventPublicationRepository repository = repository(true, true);
+
+        // When
+        List<TargetEventPublication> incomplete = repository.findIncompletePublications();
+
+        // Then
+        assertThat(incomplete.get(0).getEvent()).as("Compact entry decoded").isEqualTo(event);
+        assertThat(incomplete.get(0).getIdentifier()).as("Identifier kept").isEqualTo(compact.getIdentifier());
+        assertThat(incomplete.get(1)).as("Legacy entry passed through").isSameAs(legacy);
+    }
+
+    @Test
+    void fallsBackToLegacyFormOnLookup() {
+        // Given - the publication was stored before compact serialization
+        TargetEventPublication legacy = TargetEventPublication.of(event, LISTENER);
+        when(mockDelegate.findIncompletePublicationsByEventAndTargetIdentifier(any(byte[].class), eq(LISTENER)))
+            .thenReturn(Optional.empty());
+        when(mockDelegate.findIncompletePublicationsByEventAndTargetIdentifier(event, LISTENER))
+            .thenReturn(Optional.of(legacy));
+
+        // When
+        Optional<TargetEventPublication> withFallback = repository(true, true)
+            .findIncompletePublicationsByEventAndTargetIdentifier(event, LISTENER);
+        Optional<TargetEventPublication> withoutFallback = repository(true, false)
+            .findIncompletePublicationsByEventAndTargetIdentifier(event, LISTENER);
+
+        // Then
+        assertThat(withFallback).as("Legacy entry found").contains(legacy);
+        assertThat(withoutFallback).as("Only the compact form looked up").isEmpty();
+    }
+
+    @Test
+    void completesBothFormsDuringMigration() {
+        // Given
+        Instant now = Instant.now();
+        CompactEventPublicationRepository repository = repository(true, true);
+
+        // When
+        repository.markCompleted(event, LISTENER, now);
+
+        // Then
+        verify(mockDelegate).markCompleted(serializer.serialize(event), LISTENER, now);
+        verify(mockDelegate).markCompleted(event, LISTENER, now);
+    }
+
+    @Test
+    void storesMappedEventsWithCompactWritesDisabled() {
+        // Given
+        CompactEventPublicationRepository repository = repository(false, false);
+        TargetEventPublication publication = TargetEventPublication.of(event, LISTENER);
+
+        // When
+        repository.create(publication);
+        repository.markCompleted(event, LISTENER, Instant.now());
+
+        // Then
+        verify(mockDelegate).create(publication);
+        verify(mockDelegate).markCompleted(eq(event), eq(LISTENER), any());
+        verifyNoMoreInteractions(mockDelegate);
+    }
+
+    private CompactEventPublicationRepository repository(boolean compactWrites, boolean legacyLookups) {
+        return new CompactEventPublicationRepository(mockDelegate, serializer, compactWrites, legacyLookups);
+    }
+}
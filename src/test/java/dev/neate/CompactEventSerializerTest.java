@@ -0,0 +1,108 @@
+package dev.neate;
+
+import com.mongodb.MongoClientSettings;
+import dev.neate.api.CountryCreatedEvent;
+import dev.neate.enrichment.CountryEnrichedEvent;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.UuidRepresentation;
+import org.bson.codecs.Codec;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.types.Binary;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for CompactEventSerializer.
+ *
+ * Verifies that:
+ * - Registered events round-trip through their 17-byte encoding, as byte array and as BSON binary
+ * - Values that are no compact encoding, such as legacy mapped events, are returned unchanged
+ * - The encoding is much smaller than the mapped event stored by the registry
+ * - Unknown type ids and duplicate registrations are rejected
+ */
+class CompactEventSerializerTest {
+
+    private static final UUID COUNTRY_ID = UUID.fromString("0b5c8a4e-2f6d-4c1a-9e3b-7d8f1a2b3c4d");
+
+    private final CompactEventSerializer serializer = new CompactEventSerializer()
+        .register(1, CountryCreatedEvent.class, CountryCreatedEvent::countryId, CountryCreatedEvent::new)
+        .register(3, CountryEnrichedEvent.class, CountryEnrichedEvent::countryId, CountryEnrichedEvent::new);
+
+    @Test
+    void roundTripsRegisteredEvents() {
+        // Given
+        CountryEnrichedEvent event = new CountryEnrichedEvent(COUNTRY_ID);
+
+        // When
+        byte[] encoded = serializer.serialize(event);
+
+        // Then
+        assertThat(encoded).as("Type id and UUID").hasSize(CompactEventSerializer.ENCODED_LENGTH);
+        assertThat(encoded[0]).as("Type id first").isEqualTo((byte) 3);
+        assertThat(serializer.decode(encoded)).as("Decoded from a byte array").isEqualTo(event);
+        assertThat(serializer.decode(new Binary(encoded))).as("Decoded from BSON binary").isEqualTo(event);
+    }
+
+    @Test
+    void passesThroughLegacyValues() {
+        // Given - an event read from a mapped document, and an unrelated binary
+        CountryCreatedEvent mapped = new CountryCreatedEvent(COUNTRY_ID);
+        Binary other = new Binary(new byte[] { 1, 2, 3 });
+
+        // When / Then
+        assertThat(serializer.decode(mapped)).as("Mapped event unchanged").isSameAs(mapped);
+        assertThat(serializer.decode(other)).as("Binary of another length unchanged").isSameAs(other);
+        assertThat(serializer.supports("not an event")).as("Unregistered type not supported").isFalse();
+    }
+
+    @Test
+    void isMuchSmallerThanMappedEvent() {
+        // Given
+        CountryCreatedEvent event = new CountryCreatedEvent(COUNTRY_ID);
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        converter.afterPropertiesSet();
+        Document mapped = new Document();
+        converter.write(event, mapped);
+
+        // When
+        int mappedSize = bsonSize(new Document("event", mapped));
+        int compactSize = bsonSize(new Document("event", new Binary(serializer.serialize(event))));
+
+        // Then
+        assertThat(mapped).as("Mapped event carries its class name").containsKey("_class");
+        assertThat(compactSize).as("Compact event field at most half the mapped one").isLessThanOrEqualTo(mappedSize / 2);
+    }
+
+    @Test
+    void rejectsUnknownTypeId() {
+        // Given
+        byte[] encoded = serializer.serialize(new CountryCreatedEvent(COUNTRY_ID));
+        encoded[0] = 42;
+
+        // When / Then
+        assertThatThrownBy(() -> serializer.decode(encoded))
+            .as("Unknown type id rejected")
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void rejectsDuplicateRegistration() {
+        assertThatThrownBy(() -> serializer.register(1, String.class, UUID::fromString, UUID::toString))
+            .as("Type id 1 already in use")
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static int bsonSize(Document document) {
+        Codec<Document> codec = CodecRegistries.withUuidRepresentation(
+            MongoClientSettings.getDefaultCodecRegistry(), UuidRepresentation.STANDARD).get(Document.class);
+        return new RawBsonDocument(document, codec).getByteBuffer().remaining();
+    }
+}
@@ -0,0 +1,69 @@
+package dev.neate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for DelayedEventRetryScheduler.
+ *
+ * Verifies that:
+ * - A retry is resubmitted once its next attempt has passed, not before
+ * - The pending and dispatched metrics follow the wheel
+ * - Retries scheduled while stopped are left to the scheduled retry
+ */
+class DelayedEventRetrySchedulerTest {
+
+    private final ChunkedEventResubmitter mockChunkedResubmitter = mock(ChunkedEventResubmitter.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DelayedEventRetryScheduler scheduler = new DelayedEventRetryScheduler(
+        mockChunkedResubmitter, meterRegistry, Duration.ofMillis(20), 64, 1);
+
+    @AfterEach
+    void stopScheduler() {
+        scheduler.stop();
+    }
+
+    @Test
+    void resubmitsAfterNextAttempt() {
+        // Given
+        when(mockChunkedResubmitter.resubmitNow(any())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+        UUID id = UUID.randomUUID();
+        scheduler.start();
+        Instant nextAttempt = Instant.now().plusMillis(300);
+
+        // When
+        scheduler.schedule(id, nextAttempt);
+
+        // Then
+        assertThat(meterRegistry.get("event.publication.retry.pending").gauge().value())
+            .as("Retry waiting in the wheel").isEqualTo(1.0);
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+            verify(mockChunkedResubmitter).resubmitNow(List.of(id)));
+        assertThat(Instant.now()).as("Not resubmitted before the next attempt").isAfterOrEqualTo(nextAttempt);
+        assertThat(scheduler.pending()).as("No retry left").isZero();
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+            assertThat(meterRegistry.get("event.publication.retry.dispatched").counter().count())
+                .as("Dispatched retries").isEqualTo(1.0));
+    }
+
+    @Test
+    void ignoresRetriesWhileStopped() {
+        // When
+        scheduler.schedule(UUID.randomUUID(), Instant.now());
+
+        // Then
+        assertThat(scheduler.pending()).as("Retry left to the scheduled retry").isZero();
+        verifyNoInteractions(mockChunkedResubmitter);
+    }
+}
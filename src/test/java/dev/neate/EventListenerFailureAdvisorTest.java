@@ -0,0 +1,112 @@
+package dev.neate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.modulith.events.ApplicationModuleListener;
+import org.springframework.modulith.events.core.PublicationTargetIdentifier;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for EventListenerFailureAdvisor.
+ *
+ * Verifies that:
+ * - Exceptions of @ApplicationModuleListener methods are recorded with the listener identifier and rethrown
+ * - Successful invocations and other methods are not recorded
+ * - Without an EventPublicationBackoff bean exceptions are only rethrown
+ */
+class EventListenerFailureAdvisorTest {
+
+    private EventPublicationBackoff mockBackoff;
+
+    @BeforeEach
+    void setUp() {
+        mockBackoff = mock(EventPublicationBackoff.class);
+    }
+
+    @Test
+    void recordsAndRethrowsListenerException() {
+        // Given
+        TestListener listener = proxy(new EventListenerFailureAdvisor(
+            new StaticListableBeanFactory(Map.of("backoff", mockBackoff)).getBeanProvider(EventPublicationBackoff.class)));
+
+        // When / Then
+        assertThatThrownBy(() -> listener.on("invalid"))
+            .as("Exception reaches Spring Modulith unchanged")
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("invalid event");
+
+        ArgumentCaptor<PublicationTargetIdentifier> identifier = ArgumentCaptor.forClass(PublicationTargetIdentifier.class);
+        verify(mockBackoff).recordFailure(eq("invalid"), identifier.capture(), any(IllegalStateException.class));
+        assertThat(identifier.getValue().getValue()).as("Listener identifier")
+            .contains(TestListener.class.getName()).contains("on(java.lang.String)");
+    }
+
+    @Test
+    void ignoresSuccessfulInvocationsAndOtherMethods() {
+        // Given
+        TestListener listener = proxy(new EventListenerFailureAdvisor(
+            new StaticListableBeanFactory(Map.of("backoff", mockBackoff)).getBeanProvider(EventPublicationBackoff.class)));
+
+        // When
+        listener.on("valid");
+        assertThatThrownBy(() -> listener.notAListener("invalid")).isInstanceOf(IllegalStateException.class);
+
+        // Then
+        verifyNoInteractions(mockBackoff);
+    }
+
+    @Test
+    void rethrowsWithoutBackoff() {
+        // Given - no EventPublicationBackoff bean, as with the in-memory profile
+        TestListener listener = proxy(new EventListenerFailureAdvisor(
+            new StaticListableBeanFactory().getBeanProvider(EventPublicationBackoff.class)));
+
+        // When / Then
+        assertThatThrownBy(() -> listener.on("invalid")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void rethrowsListenerExceptionWhenRecordingFails() {
+        // Given - MongoDB is unreachable
+        doThrow(new IllegalArgumentException("MongoDB unavailable"))
+            .when(mockBackoff).recordFailure(any(Object.class), any(PublicationTargetIdentifier.class), any());
+        TestListener listener = proxy(new EventListenerFailureAdvisor(
+            new StaticListableBeanFactory(Map.of("backoff", mockBackoff)).getBeanProvider(EventPublicationBackoff.class)));
+
+        // When / Then
+        assertThatThrownBy(() -> listener.on("invalid"))
+            .as("Listener exception, not the recording exception")
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static TestListener proxy(EventListenerFailureAdvisor advisor) {
+        ProxyFactory factory = new ProxyFactory(new TestListener());
+        factory.setProxyTargetClass(true);
+        factory.addAdvisor(advisor);
+        return (TestListener) factory.getProxy();
+    }
+
+    static class TestListener {
+
+        @ApplicationModuleListener
+        public void on(String event) {
+            if (event.startsWith("invalid")) {
+                throw new IllegalStateException("invalid event");
+            }
+        }
+
+        public void notAListener(String event) {
+            throw new IllegalStateException("not a listener");
+        }
+    }
+}
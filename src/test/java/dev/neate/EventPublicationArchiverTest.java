@@ -0,0 +1,128 @@
+package dev.neate;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.mongodb.test.autoconfigure.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for EventPublicationArchiver.
+ *
+ * Verifies that:
+ * - Completed publications are moved to the archive, incomplete ones stay
+ * - Backlogs larger than one batch are moved in several batches
+ * - Entries left in the archive by an interrupted run do not fail the next one
+ */
+@DataMongoTest
+@Import(MongoTestcontainersConfiguration.class)
+class EventPublicationArchiverTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.dropCollection(EventPublicationArchiver.PUBLICATIONS_COLLECTION);
+        mongoTemplate.dropCollection(EventPublicationArchiver.ARCHIVE_COLLECTION);
+    }
+
+    @Test
+    void movesCompletedPublicationsToArchive() {
+        // Given - two completed and one incomplete publication
+        Document first = publication(Instant.parse("2025-01-01T10:00:00Z"));
+        Document second = publication(Instant.parse("2025-01-01T10:01:00Z"));
+        Document incomplete = publication(null);
+        insert(EventPublicationArchiver.PUBLICATIONS_COLLECTION, first, second, incomplete);
+
+        // When
+        long archived = archiver(1000).archive();
+
+        // Then
+        assertThat(archived).as("archived publications").isEqualTo(2);
+        assertThat(ids(EventPublicationArchiver.PUBLICATIONS_COLLECTION))
+            .as("registry keeps only the incomplete publication")
+            .containsExactly(incomplete.get("_id"));
+        assertThat(ids(EventPublicationArchiver.ARCHIVE_COLLECTION))
+            .as("archive holds the completed publications")
+            .containsExactlyInAnyOrder(first.get("_id"), second.get("_id"));
+    }
+
+    @Test
+    void archivesBacklogInSeveralBatches() {
+        // Given - five completed publications and a batch size of two
+        for (int i = 0; i < 5; i++) {
+            insert(EventPublicationArchiver.PUBLICATIONS_COLLECTION, publication(Instant.now()));
+        }
+
+        // When
+        long archived = archiver(2).archive();
+
+        // Then
+        assertThat(archived).as("archived publications").isEqualTo(5);
+        assertThat(ids(EventPublicationArchiver.PUBLICATIONS_COLLECTION)).as("registry").isEmpty();
+        assertThat(ids(EventPublicationArchiver.ARCHIVE_COLLECTION)).as("archive").hasSize(5);
+    }
+
+    @Test
+    void completesInterruptedRun() {
+        // Given - a completed publication already copied to the archive but not yet removed
+        Document publication = publication(Instant.now());
+        insert(EventPublicationArchiver.PUBLICATIONS_COLLECTION, publication);
+        insert(EventPublicationArchiver.ARCHIVE_COLLECTION, publication);
+
+        // When
+        long archived = archiver(1000).archive();
+
+        // Then
+        assertThat(archived).as("archived publications").isEqualTo(1);
+        assertThat(ids(EventPublicationArchiver.PUBLICATIONS_COLLECTION)).as("registry").isEmpty();
+        assertThat(ids(EventPublicationArchiver.ARCHIVE_COLLECTION))
+            .as("archive holds the publication once")
+            .containsExactly(publication.get("_id"));
+    }
+
+    @Test
+    void rejectsInvalidBatchSize() {
+        assertThatThrownBy(() -> archiver(0))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("batch size");
+    }
+
+    private EventPublicationArchiver archiver(int batchSize) {
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("spring.modulith.events.completion-mode", "UPDATE");
+        return new EventPublicationArchiver(mongoTemplate, EventPublicationCollections.registryOnly(), environment,
+            batchSize);
+    }
+
+    private void insert(String collection, Document... publications) {
+        mongoTemplate.getCollection(collection).insertMany(List.of(publications));
+    }
+
+    private List<Object> ids(String collection) {
+        return mongoTemplate.getCollection(collection).find()
+            .map(document -> document.get("_id"))
+            .into(new ArrayList<>());
+    }
+
+    private static Document publication(Instant completionDate) {
+        return new Document("_id", UUID.randomUUID())
+            .append("publicationDate", Instant.now())
+            .append("listenerId", "dev.neate.validation.internal.CountryCreatedEventListener.onCountryCreated")
+            .append("event", new Document("countryId", UUID.randomUUID()))
+            .append("completionDate", completionDate)
+            .append("status", completionDate != null ? "COMPLETED" : "PUBLISHED");
+    }
+}
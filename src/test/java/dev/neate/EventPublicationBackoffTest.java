@@ -0,0 +1,165 @@
+package dev.neate;
+
+import com.mongodb.client.model.Filters;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.data.mongodb.test.autoconfigure.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.modulith.events.core.EventPublicationRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for EventPublicationBackoff.
+ *
+ * Verifies that:
+ * - A failure increments the attempts and schedules the next attempt with exponential backoff
+ * - The next attempt is handed to the delayed retry scheduler
+ * - Publications waiting for their next attempt are not due
+ * - A publication is dead-lettered with its failure cause once it has used up its attempts
+ * - Without max-attempts a publication is retried indefinitely
+ * - Failures of completed publications are ignored
+ */
+@DataMongoTest
+@Import(MongoTestcontainersConfiguration.class)
+class EventPublicationBackoffTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private EventPublicationDeadLetters deadLetters;
+    private DelayedEventRetryScheduler mockDelayedRetries;
+    private EventPublicationBackoff backoff;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.dropCollection(EventPublicationArchiver.PUBLICATIONS_COLLECTION);
+        mongoTemplate.dropCollection(EventPublicationDeadLetters.DEAD_LETTER_COLLECTION);
+        deadLetters = new EventPublicationDeadLetters(mongoTemplate,
+            EventPublicationCollections.registryOnly(),
+            new StaticListableBeanFactory().getBeanProvider(ChunkedEventResubmitter.class));
+        mockDelayedRetries = mock(DelayedEventRetryScheduler.class);
+        backoff = backoff(MAX_ATTEMPTS);
+    }
+
+    @Test
+    void schedulesNextAttemptWithExponentialBackoff() {
+        // Given
+        UUID id = insertPublication(null);
+
+        // When
+        Instant before = Instant.now();
+        backoff.recordFailure(id, new IllegalStateException("RestCountries unavailable"));
+        Document afterFirst = publication(id);
+        backoff.recordFailure(id, new IllegalStateException("RestCountries unavailable"));
+        Document afterSecond = publication(id);
+
+        // Then
+        assertThat(afterFirst.getInteger(EventPublicationBackoff.RETRY_ATTEMPTS)).as("Attempts").isEqualTo(1);
+        assertThat(afterFirst.getDate(EventPublicationBackoff.NEXT_ATTEMPT_DATE).toInstant())
+            .as("Next attempt one minute later").isBetween(before.plusSeconds(59), Instant.now().plusSeconds(61));
+        assertThat(afterSecond.getInteger(EventPublicationBackoff.RETRY_ATTEMPTS)).as("Attempts").isEqualTo(2);
+        assertThat(afterSecond.getDate(EventPublicationBackoff.NEXT_ATTEMPT_DATE).toInstant())
+            .as("Next attempt two minutes later").isBetween(before.plusSeconds(119), Instant.now().plusSeconds(121));
+        assertThat(afterSecond.get(EventPublicationBackoff.LAST_FAILURE, Document.class).getString("message"))
+            .as("Failure cause").isEqualTo("RestCountries unavailable");
+        assertThat(mongoTemplate.getCollection(EventPublicationArchiver.PUBLICATIONS_COLLECTION)
+            .countDocuments(Filters.and(Filters.eq("_id", id), EventPublicationBackoff.due(Instant.now()))))
+            .as("Publication waiting for its next attempt is not due").isZero();
+        verify(mockDelayedRetries).schedule(id,
+            afterSecond.getDate(EventPublicationBackoff.NEXT_ATTEMPT_DATE).toInstant());
+    }
+
+    @Test
+    void deadLettersPublicationAfterMaxAttempts() {
+        // Given
+        UUID id = insertPublication(null);
+
+        // When
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            backoff.recordFailure(id, new IllegalArgumentException("Invalid country code XX"));
+        }
+
+        // Then
+        assertThat(publication(id)).as("Publication removed from the registry").isNull();
+        verify(mockDelayedRetries, times(MAX_ATTEMPTS - 1)).schedule(eq(id), any());
+        Document deadLetter = mongoTemplate.getCollection(EventPublicationDeadLetters.DEAD_LETTER_COLLECTION)
+            .find(Filters.eq("_id", id)).first();
+        assertThat(deadLetter).as("Dead letter").isNotNull();
+        assertThat(deadLetter.getInteger(EventPublicationBackoff.RETRY_ATTEMPTS)).as("Attempts").isEqualTo(MAX_ATTEMPTS);
+        assertThat(deadLetter.get("failure", Document.class).getString("type"))
+            .as("Failure type").isEqualTo(IllegalArgumentException.class.getName());
+        assertThat(deadLetter.getString("listenerId")).as("Listener").isEqualTo("listener");
+    }
+
+    @Test
+    void keepsRetryingWithoutMaxAttempts() {
+        // Given
+        EventPublicationBackoff unlimited = backoff(0);
+        UUID id = insertPublication(null);
+
+        // When
+        for (int attempt = 0; attempt < MAX_ATTEMPTS * 2; attempt++) {
+            unlimited.recordFailure(id, new IllegalArgumentException("Invalid country code XX"));
+        }
+
+        // Then
+        assertThat(publication(id)).as("Publication kept in the registry").isNotNull();
+        assertThat(publication(id).getInteger(EventPublicationBackoff.RETRY_ATTEMPTS))
+            .as("Attempts").isEqualTo(MAX_ATTEMPTS * 2);
+        assertThat(mongoTemplate.getCollection(EventPublicationDeadLetters.DEAD_LETTER_COLLECTION).countDocuments())
+            .as("Dead letters").isZero();
+    }
+
+    @Test
+    void ignoresFailureOfCompletedPublication() {
+        // Given
+        UUID id = insertPublication(new Date());
+
+        // When
+        backoff.recordFailure(id, new IllegalStateException("late failure"));
+
+        // Then
+        assertThat(publication(id).containsKey(EventPublicationBackoff.RETRY_ATTEMPTS))
+            .as("Completed publication unchanged").isFalse();
+    }
+
+    private EventPublicationBackoff backoff(int maxAttempts) {
+        return new EventPublicationBackoff(mongoTemplate, EventPublicationCollections.registryOnly(),
+            mock(EventPublicationRepository.class), deadLetters,
+            new StaticListableBeanFactory(Map.of("delayedEventRetryScheduler", mockDelayedRetries))
+                .getBeanProvider(DelayedEventRetryScheduler.class),
+            Duration.ofMinutes(1), 2, Duration.ofHours(1), 0, maxAttempts);
+    }
+
+    private UUID insertPublication(Date completionDate) {
+        UUID id = UUID.randomUUID();
+        mongoTemplate.getCollection(EventPublicationArchiver.PUBLICATIONS_COLLECTION).insertOne(new Document("_id", id)
+            .append("listenerId", "listener")
+            .append("event", "event-" + id)
+            .append("publicationDate", new Date())
+            .append("completionDate", completionDate)
+            .append("status", completionDate != null ? "COMPLETED" : "FAILED"));
+        return id;
+    }
+
+    private Document publication(UUID id) {
+        return mongoTemplate.getCollection(EventPublicationArchiver.PUBLICATIONS_COLLECTION)
+            .find(Filters.eq("_id", id)).first();
+    }
+}
@@ -0,0 +1,187 @@
+package dev.neate;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.mongodb.test.autoconfigure.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for EventPublicationCollectionInitializer.
+ *
+ * Verifies that:
+ * - The indexes of the registry queries are created
+ * - The TTL index on completionDate is created, and updated when max-age changes
+ * - The archive collection is created capped, and resized when the size changes
+ * - The archive is not capped with completion-mode ARCHIVE
+ * - Module collections get the same indexes and their own TTL
+ */
+@DataMongoTest
+@Import(MongoTestcontainersConfiguration.class)
+class EventPublicationCollectionInitializerTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.dropCollection(EventPublicationArchiver.PUBLICATIONS_COLLECTION);
+        mongoTemplate.dropCollection(EventPublicationArchiver.ARCHIVE_COLLECTION);
+        mongoTemplate.dropCollection(EventPublicationCollections.MODULE_COLLECTION_PREFIX + "validation");
+    }
+
+    @Test
+    void createsQueryIndexes() {
+        // When
+        initializer("UPDATE", Duration.ofDays(1), DataSize.ofMegabytes(1)).afterSingletonsInstantiated();
+
+        // Then
+        List<String> indexNames = mongoTemplate.getCollection(EventPublicationArchiver.PUBLICATIONS_COLLECTION)
+            .listIndexes().map(index -> index.getString("name")).into(new ArrayList<>());
+        assertThat(indexNames).as("indexes of event_publication").contains(
+            EventPublicationCollectionInitializer.INCOMPLETE_INDEX,
+            EventPublicationCollectionInitializer.LISTENER_INDEX,
+            EventPublicationCollectionInitializer.STATUS_INDEX);
+    }
+
+    @Test
+    void createsTtlIndexOnCompletionDate() {
+        // When
+        initializer("UPDATE", Duration.ofDays(1), DataSize.ofMegabytes(1)).afterSingletonsInstantiated();
+
+        // Then
+        Document index = ttlIndex();
+        assertThat(index).as("TTL index").isNotNull();
+        assertThat(index.get("expireAfterSeconds", Number.class).longValue())
+            .as("expiry in seconds")
+            .isEqualTo(86_400);
+    }
+
+    @Test
+    void updatesTtlIndexWhenMaxAgeChanges() {
+        // Given - the index was created with a max age of one day
+        initializer("UPDATE", Duration.ofDays(1), DataSize.ofMegabytes(1)).afterSingletonsInstantiated();
+
+        // When - the application restarts with a max age of two hours
+        initializer("UPDATE", Duration.ofHours(2), DataSize.ofMegabytes(1)).afterSingletonsInstantiated();
+
+        // Then
+        assertThat(ttlIndex().get("expireAfterSeconds", Number.class).longValue())
+            .as("expiry in seconds")
+            .isEqualTo(7_200);
+    }
+
+    @Test
+    void createsCappedArchive() {
+        // When
+        initializer("UPDATE", Duration.ofDays(1), DataSize.ofMegabytes(1)).afterSingletonsInstantiated();
+
+        // Then
+        Document options = archiveOptions();
+        assertThat(options.getBoolean("capped")).as("archive is capped").isTrue();
+        assertThat(options.get("size", Number.class).longValue()).as("capped size").isEqualTo(1_048_576);
+    }
+
+    @Test
+    void resizesCappedArchive() {
+        // Given
+        initializer("UPDATE", Duration.ofDays(1), DataSize.ofMegabytes(1)).afterSingletonsInstantiated();
+
+        // When
+        initializer("UPDATE", Duration.ofDays(1), DataSize.ofMegabytes(2)).afterSingletonsInstantiated();
+
+        // Then
+        assertThat(archiveOptions().get("size", Number.class).longValue())
+            .as("capped size")
+            .isEqualTo(2_097_152);
+    }
+
+    @Test
+    void doesNotCapArchiveWithArchiveCompletionMode() {
+        // When
+        initializer("ARCHIVE", Duration.ofDays(1), DataSize.ofMegabytes(1)).afterSingletonsInstantiated();
+
+        // Then
+        assertThat(mongoTemplate.collectionExists(EventPublicationArchiver.ARCHIVE_COLLECTION))
+            .as("archive collection created")
+            .isFalse();
+        assertThat(ttlIndex()).as("TTL index").isNotNull();
+    }
+
+    @Test
+    void preparesModuleCollections() {
+        // Given
+        EventPublicationCollections collections = new EventPublicationCollections(List.of("validation"),
+            type -> Optional.empty(), Map.of("validation", Duration.ofHours(1)));
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("spring.modulith.events.completion-mode", "UPDATE");
+
+        // When
+        new EventPublicationCollectionInitializer(mongoTemplate, collections, environment, true, true,
+            Duration.ofDays(1), DataSize.ofMegabytes(1)).afterSingletonsInstantiated();
+
+        // Then
+        String collection = EventPublicationCollections.MODULE_COLLECTION_PREFIX + "validation";
+        List<String> indexNames = mongoTemplate.getCollection(collection)
+            .listIndexes().map(index -> index.getString("name")).into(new ArrayList<>());
+        assertThat(indexNames).as("indexes of the module collection").contains(
+            EventPublicationCollectionInitializer.INCOMPLETE_INDEX,
+            EventPublicationCollectionInitializer.LISTENER_INDEX,
+            EventPublicationCollectionInitializer.STATUS_INDEX,
+            EventPublicationCollectionInitializer.TTL_INDEX);
+        assertThat(ttlIndex(collection).get("expireAfterSeconds", Number.class).longValue())
+            .as("expiry of the module collection in seconds")
+            .isEqualTo(3_600);
+        assertThat(ttlIndex().get("expireAfterSeconds", Number.class).longValue())
+            .as("expiry of event_publication in seconds")
+            .isEqualTo(86_400);
+    }
+
+    @Test
+    void rejectsNonPositiveMaxAge() {
+        assertThatThrownBy(() -> initializer("UPDATE", Duration.ZERO, DataSize.ofMegabytes(1)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("max age");
+    }
+
+    private EventPublicationCollectionInitializer initializer(String completionMode, Duration maxAge,
+            DataSize cappedSize) {
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("spring.modulith.events.completion-mode", completionMode);
+        return new EventPublicationCollectionInitializer(mongoTemplate, EventPublicationCollections.registryOnly(),
+            environment, true, true, maxAge, cappedSize);
+    }
+
+    private Document ttlIndex() {
+        return ttlIndex(EventPublicationArchiver.PUBLICATIONS_COLLECTION);
+    }
+
+    private Document ttlIndex(String collection) {
+        List<Document> indexes = mongoTemplate.getCollection(collection)
+            .listIndexes().into(new ArrayList<>());
+        return indexes.stream()
+            .filter(index -> EventPublicationCollectionInitializer.TTL_INDEX.equals(index.getString("name")))
+            .findFirst()
+            .orElse(null);
+    }
+
+    private Document archiveOptions() {
+        return mongoTemplate.getDb().listCollections()
+            .filter(new Document("name", EventPublicationArchiver.ARCHIVE_COLLECTION))
+            .first()
+            .get("options", Document.class);
+    }
+}
@@ -0,0 +1,95 @@
+package dev.neate;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for EventPublicationCollections.
+ *
+ * Verifies that:
+ * - Listeners of a module, nested ones included, are routed to the collection of their top-level module
+ * - Listeners outside of any module, and all listeners without module collections, use event_publication
+ * - Collections map back to their module, and get the module's TTL or the registry's
+ */
+class EventPublicationCollectionsTest {
+
+    private static final String VALIDATION_LISTENER =
+        "dev.neate.validation.internal.CountryCreatedEventListener.handleCountryCreated("
+            + "dev.neate.api.CountryCreatedEvent)";
+    private static final String ENRICHMENT_LISTENER =
+        "dev.neate.enrichment.internal.CountryValidatedEventListener.handleCountryValidated("
+            + "dev.neate.validation.CountryValidatedEvent)";
+    private static final String OTHER_LISTENER = "dev.neate.Application.on(java.lang.Object)";
+
+    private final EventPublicationCollections collections = new EventPublicationCollections(
+        List.of("enrichment", "validation"),
+        type -> type.startsWith("dev.neate.validation.internal.") ? Optional.of("validation.internal")
+            : type.startsWith("dev.neate.enrichment.") ? Optional.of("enrichment")
+            : Optional.empty(),
+        Map.of("validation", Duration.ofHours(1)));
+
+    @Test
+    void routesListenersToTheirModuleCollection() {
+        // Then
+        assertThat(collections.isPerModule()).as("Per module").isTrue();
+        assertThat(collections.collectionOf(VALIDATION_LISTENER))
+            .as("Collection of a listener in a nested module")
+            .isEqualTo("event_publication_validation");
+        assertThat(collections.collectionOf(ENRICHMENT_LISTENER))
+            .as("Collection of a listener in a top-level module")
+            .isEqualTo("event_publication_enrichment");
+        assertThat(collections.collectionOf(OTHER_LISTENER))
+            .as("Collection of a listener outside of any module")
+            .isEqualTo(EventPublicationArchiver.PUBLICATIONS_COLLECTION);
+        assertThat(collections.collectionOf(null))
+            .as("Collection of an unknown listener")
+            .isEqualTo(EventPublicationArchiver.PUBLICATIONS_COLLECTION);
+    }
+
+    @Test
+    void usesRegistryCollectionWithoutModuleCollections() {
+        // Given
+        EventPublicationCollections registryOnly = EventPublicationCollections.registryOnly();
+
+        // Then
+        assertThat(registryOnly.isPerModule()).as("Per module").isFalse();
+        assertThat(registryOnly.all())
+            .as("All collections")
+            .containsExactly(EventPublicationArchiver.PUBLICATIONS_COLLECTION);
+        assertThat(registryOnly.collectionOf(VALIDATION_LISTENER))
+            .as("Collection of a listener in a module")
+            .isEqualTo(EventPublicationArchiver.PUBLICATIONS_COLLECTION);
+    }
+
+    @Test
+    void mapsCollectionsToModulesAndMaxAges() {
+        // Given
+        Duration registryMaxAge = Duration.ofDays(1);
+
+        // Then
+        assertThat(collections.all())
+            .as("All collections, event_publication first")
+            .containsExactly(EventPublicationArchiver.PUBLICATIONS_COLLECTION, "event_publication_enrichment",
+                "event_publication_validation");
+        assertThat(collections.moduleCollections())
+            .as("Module collections")
+            .containsExactly("event_publication_enrichment", "event_publication_validation");
+        assertThat(collections.moduleOf("event_publication_validation")).as("Module of a module collection")
+            .isEqualTo("validation");
+        assertThat(collections.moduleOf(EventPublicationArchiver.PUBLICATIONS_COLLECTION))
+            .as("Module of event_publication")
+            .isEqualTo(EventPublicationCollections.DEFAULT_MODULE);
+        assertThat(collections.maxAge("event_publication_validation", registryMaxAge))
+            .as("TTL of a module with its own")
+            .isEqualTo(Duration.ofHours(1));
+        assertThat(collections.maxAge("event_publication_enrichment", registryMaxAge))
+            .as("TTL of a module without its own")
+            .isEqualTo(registryMaxAge);
+    }
+}
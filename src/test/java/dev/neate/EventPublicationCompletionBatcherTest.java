@@ -0,0 +1,198 @@
+package dev.neate;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.modulith.events.support.CompletionMode;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for EventPublicationCompletionBatcher.
+ *
+ * Verifies that:
+ * - Completions are written as one updateMany per batch, or one deleteMany with completion mode DELETE
+ * - Completions are pending until their batch is written or its write has failed
+ * - Completions are not taken while stopped or with completion mode ARCHIVE
+ * - Completions queued at shutdown are written
+ * - With module collections, completions are written to their listener's collection and
+ *   to the other registry collections for publications not found there
+ */
+class EventPublicationCompletionBatcherTest {
+
+    private MongoOperations mockMongoOperations;
+    private MongoCollection<Document> mockCollection;
+    private MeterRegistry meterRegistry;
+    private EventPublicationCompletionBatcher batcher;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        mockMongoOperations = mock(MongoOperations.class);
+        mockCollection = mock(MongoCollection.class);
+        when(mockMongoOperations.getCollection(EventPublicationArchiver.PUBLICATIONS_COLLECTION))
+            .thenReturn(mockCollection);
+        when(mockCollection.updateMany(any(Bson.class), any(Bson.class)))
+            .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+        when(mockCollection.deleteMany(any(Bson.class))).thenReturn(DeleteResult.acknowledged(0));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (batcher != null) {
+            batcher.stop();
+        }
+    }
+
+    @Test
+    void writesBatchAsOneUpdate() {
+        // Given
+        batcher = batcher(CompletionMode.UPDATE, Duration.ofSeconds(10));
+        batcher.start();
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+
+        // When - the third completion fills the batch
+        ids.forEach(id -> batcher.submit(id, Instant.now()));
+
+        // Then
+        ArgumentCaptor<Bson> filter = ArgumentCaptor.forClass(Bson.class);
+        verify(mockCollection, timeout(5_000)).updateMany(filter.capture(), any(Bson.class));
+        assertThat(filter.getValue())
+            .as("Filter of the update")
+            .hasToString(Filters.and(Filters.in("_id", ids), Filters.eq("completionDate", null)).toString());
+        assertThat(meterRegistry.get("event.publication.completion.batch.size").summary().max())
+            .as("Written batch size")
+            .isEqualTo(3);
+    }
+
+    @Test
+    void writesPartialBatchAfterMaxDelay() {
+        // Given
+        batcher = batcher(CompletionMode.DELETE, Duration.ofMillis(5));
+        batcher.start();
+        UUID id = UUID.randomUUID();
+
+        // When
+        boolean queued = batcher.submit(id, Instant.now());
+
+        // Then
+        assertThat(queued).as("Completion queued").isTrue();
+        verify(mockCollection, timeout(5_000)).deleteMany(any(Bson.class));
+        verify(mockCollection, never()).updateMany(any(Bson.class), any(Bson.class));
+        verify(mockCollection, after(100).atMost(1)).deleteMany(any(Bson.class));
+        assertThat(batcher.isPending(id)).as("Completion pending after its write").isFalse();
+    }
+
+    @Test
+    void releasesCompletionsOfFailedWrite() {
+        // Given
+        batcher = batcher(CompletionMode.UPDATE, Duration.ofSeconds(10));
+        UUID id = UUID.randomUUID();
+        when(mockCollection.updateMany(any(Bson.class), any(Bson.class))).thenThrow(new RuntimeException("down"));
+
+        // When
+        batcher.flush(List.of(new EventPublicationCompletionBatcher.Completion(id,
+            EventPublicationArchiver.PUBLICATIONS_COLLECTION, Instant.now())));
+
+        // Then
+        assertThat(batcher.isPending(id)).as("Completion pending after a failed write").isFalse();
+        assertThat(meterRegistry.get("event.publication.completion.batch.size").summary().count())
+            .as("Written batches")
+            .isZero();
+    }
+
+    @Test
+    void refusesCompletionsWhenStoppedOrArchiving() {
+        // Given
+        batcher = batcher(CompletionMode.UPDATE, Duration.ofMillis(5));
+        EventPublicationCompletionBatcher archiving = batcher(CompletionMode.ARCHIVE, Duration.ofMillis(5));
+        archiving.start();
+
+        try {
+            // Then
+            assertThat(batcher.submit(UUID.randomUUID(), Instant.now())).as("Completion while stopped").isFalse();
+            assertThat(archiving.submit(UUID.randomUUID(), Instant.now())).as("Completion while archiving").isFalse();
+        } finally {
+            archiving.stop();
+        }
+    }
+
+    @Test
+    void writesQueuedCompletionsOnStop() {
+        // Given
+        batcher = batcher(CompletionMode.UPDATE, Duration.ofSeconds(10));
+        batcher.start();
+        UUID id = UUID.randomUUID();
+        batcher.submit(id, Instant.now());
+        assertThat(batcher.isPending(id)).as("Completion pending before the stop").isTrue();
+
+        // When
+        batcher.stop();
+
+        // Then
+        verify(mockCollection).updateMany(any(Bson.class), any(Bson.class));
+        assertThat(batcher.isPending(id)).as("Completion pending after the stop").isFalse();
+        assertThat(meterRegistry.get("event.publication.completion.pending").gauge().value())
+            .as("Pending completions")
+            .isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void writesCompletionsToTheirModuleCollection() {
+        // Given - of two validation publications, one was stored in event_publication before
+        MongoCollection<Document> mockModuleCollection = mock(MongoCollection.class);
+        when(mockMongoOperations.getCollection("event_publication_validation")).thenReturn(mockModuleCollection);
+        when(mockModuleCollection.updateMany(any(Bson.class), any(Bson.class)))
+            .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        when(mockCollection.updateMany(any(Bson.class), any(Bson.class)))
+            .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        EventPublicationCollections collections = new EventPublicationCollections(List.of("validation"),
+            type -> type.startsWith("dev.neate.validation.") ? Optional.of("validation.internal") : Optional.empty(),
+            Map.of());
+        batcher = new EventPublicationCompletionBatcher(mockMongoOperations, collections, CompletionMode.UPDATE,
+            meterRegistry, 3, Duration.ofSeconds(10));
+        batcher.start();
+
+        // When
+        String listenerId = "dev.neate.validation.internal.Listener.on(dev.neate.api.Event)";
+        batcher.submit(UUID.randomUUID(), listenerId, Instant.now());
+        batcher.submit(UUID.randomUUID(), listenerId, Instant.now());
+        batcher.stop();
+
+        // Then
+        verify(mockModuleCollection).updateMany(any(Bson.class), any(Bson.class));
+        verify(mockCollection).updateMany(any(Bson.class), any(Bson.class));
+        assertThat(meterRegistry.get("event.publication.registry.writes").tag("module", "validation").counter().count())
+            .as("Completions written to the validation collection")
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("event.publication.registry.writes").tag("module", "default").counter().count())
+            .as("Completions written to event_publication")
+            .isEqualTo(1);
+    }
+
+    private EventPublicationCompletionBatcher batcher(CompletionMode completionMode, Duration maxDelay) {
+        return new EventPublicationCompletionBatcher(mockMongoOperations, EventPublicationCollections.registryOnly(),
+            completionMode, meterRegistry, 3, maxDelay);
+    }
+}
@@ -0,0 +1,77 @@
+package dev.neate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Test class for EventPublicationDeadLetterController.
+ *
+ * Web layer slice test using @WebMvcTest.
+ * Verifies that:
+ * - GET /event-publications/dead-letters lists dead letters
+ * - POST /event-publications/dead-letters/redrive redrives them, optionally per listener
+ * - Invalid limits are rejected with 400 Bad Request
+ */
+@WebMvcTest(EventPublicationDeadLetterController.class)
+class EventPublicationDeadLetterControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private EventPublicationDeadLetters deadLetters;
+
+    @Test
+    void listsDeadLetters() throws Exception {
+        // Given
+        UUID id = UUID.randomUUID();
+        when(deadLetters.find(null, 100)).thenReturn(List.of(new EventPublicationDeadLetters.DeadLetter(
+            id, "listener", Instant.now(), 10, IllegalArgumentException.class.getName(),
+            "Invalid country code XX", Instant.now())));
+
+        // When / Then
+        mockMvc.perform(get("/event-publications/dead-letters"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].id").value(id.toString()))
+            .andExpect(jsonPath("$[0].failureMessage").value("Invalid country code XX"));
+    }
+
+    @Test
+    void redrivesDeadLettersOfListener() throws Exception {
+        // Given
+        when(deadLetters.redrive("listener", 50)).thenReturn(new EventPublicationDeadLetters.RedriveResult(3, 3));
+
+        // When / Then
+        mockMvc.perform(post("/event-publications/dead-letters/redrive")
+                .param("listenerId", "listener")
+                .param("limit", "50"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.redriven").value(3))
+            .andExpect(jsonPath("$.resubmitted").value(3));
+    }
+
+    @Test
+    void rejectsInvalidLimit() throws Exception {
+        // When / Then
+        mockMvc.perform(post("/event-publications/dead-letters/redrive").param("limit", "0"))
+            .andExpect(status().isBadRequest());
+        verify(deadLetters, never()).redrive(isNull(), anyInt());
+    }
+}
@@ -0,0 +1,105 @@
+package dev.neate;
+
+import com.mongodb.client.model.Filters;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.data.mongodb.test.autoconfigure.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for EventPublicationDeadLetters.
+ *
+ * Verifies that:
+ * - Dead letters are listed with their failure cause, optionally per listener
+ * - A redrive moves dead letters back to the registry with their attempts reset and resubmits them
+ * - A redrive can be limited to one listener
+ */
+@DataMongoTest
+@Import(MongoTestcontainersConfiguration.class)
+class EventPublicationDeadLettersTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private ChunkedEventResubmitter mockResubmitter;
+    private EventPublicationDeadLetters deadLetters;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.dropCollection(EventPublicationArchiver.PUBLICATIONS_COLLECTION);
+        mongoTemplate.dropCollection(EventPublicationDeadLetters.DEAD_LETTER_COLLECTION);
+        mockResubmitter = mock(ChunkedEventResubmitter.class);
+        when(mockResubmitter.resubmitNow(anyList())).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+        deadLetters = new EventPublicationDeadLetters(mongoTemplate, EventPublicationCollections.registryOnly(),
+            new StaticListableBeanFactory(Map.of("chunkedEventResubmitter", mockResubmitter))
+                .getBeanProvider(ChunkedEventResubmitter.class));
+    }
+
+    @Test
+    void listsDeadLettersWithFailureCause() {
+        // Given
+        UUID validation = deadLetter("validation");
+        deadLetter("enrichment");
+
+        // When
+        List<EventPublicationDeadLetters.DeadLetter> all = deadLetters.find(null, 100);
+        List<EventPublicationDeadLetters.DeadLetter> ofValidation = deadLetters.find("validation", 100);
+
+        // Then
+        assertThat(all).as("All dead letters").hasSize(2);
+        assertThat(ofValidation).as("Dead letters of one listener")
+            .extracting(EventPublicationDeadLetters.DeadLetter::id).containsExactly(validation);
+        assertThat(ofValidation.get(0).failureMessage()).as("Failure cause").isEqualTo("Invalid country code XX");
+        assertThat(ofValidation.get(0).attempts()).as("Attempts").isEqualTo(10);
+    }
+
+    @Test
+    void redrivesDeadLettersOfListener() {
+        // Given
+        UUID validation = deadLetter("validation");
+        UUID enrichment = deadLetter("enrichment");
+
+        // When
+        EventPublicationDeadLetters.RedriveResult result = deadLetters.redrive("validation", 1000);
+
+        // Then
+        assertThat(result.redriven()).as("Redriven").isEqualTo(1);
+        assertThat(result.resubmitted()).as("Resubmitted").isEqualTo(1);
+        Document publication = mongoTemplate.getCollection(EventPublicationArchiver.PUBLICATIONS_COLLECTION)
+            .find(Filters.eq("_id", validation)).first();
+        assertThat(publication).as("Publication back in the registry").isNotNull();
+        assertThat(publication.containsKey(EventPublicationBackoff.RETRY_ATTEMPTS)).as("Attempts reset").isFalse();
+        assertThat(publication.containsKey("failure")).as("Dead-letter fields removed").isFalse();
+        assertThat(deadLetters.find(null, 100)).as("Remaining dead letters")
+            .extracting(EventPublicationDeadLetters.DeadLetter::id).containsExactly(enrichment);
+        verify(mockResubmitter).resubmitNow(List.of(validation));
+    }
+
+    private UUID deadLetter(String listenerId) {
+        UUID id = UUID.randomUUID();
+        mongoTemplate.getCollection(EventPublicationDeadLetters.DEAD_LETTER_COLLECTION).insertOne(new Document("_id", id)
+            .append("listenerId", listenerId)
+            .append("event", "event-" + id)
+            .append("publicationDate", new Date())
+            .append("completionDate", null)
+            .append("status", "FAILED")
+            .append(EventPublicationBackoff.RETRY_ATTEMPTS, 10)
+            .append("failure", new Document("type", IllegalArgumentException.class.getName())
+                .append("message", "Invalid country code XX"))
+            .append("deadLetteredAt", new Date()));
+        return id;
+    }
+}
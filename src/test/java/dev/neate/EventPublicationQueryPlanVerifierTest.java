@@ -0,0 +1,71 @@
+package dev.neate;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.mongodb.test.autoconfigure.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for EventPublicationQueryPlanVerifier.
+ *
+ * Verifies that:
+ * - Without the registry indexes every registry query is reported as scanning
+ * - With the indexes of EventPublicationCollectionInitializer no query scans the collection
+ */
+@DataMongoTest
+@Import(MongoTestcontainersConfiguration.class)
+class EventPublicationQueryPlanVerifierTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.dropCollection(EventPublicationArchiver.PUBLICATIONS_COLLECTION);
+        // An empty collection is answered with an EOF plan, so add a publication
+        mongoTemplate.getCollection(EventPublicationArchiver.PUBLICATIONS_COLLECTION).insertOne(
+            new Document("_id", UUID.randomUUID())
+                .append("publicationDate", Instant.now())
+                .append("listenerId", "listener")
+                .append("event", new Document("_id", UUID.randomUUID()))
+                .append("status", "PUBLISHED"));
+    }
+
+    @Test
+    void reportsQueriesWithoutIndex() {
+        // When
+        List<String> scanning = new EventPublicationQueryPlanVerifier(mongoTemplate, EventPublicationCollections.registryOnly()).verify();
+
+        // Then
+        assertThat(scanning)
+            .as("registry queries scanning the collection")
+            .hasSize(EventPublicationQueryPlanVerifier.queries().size());
+    }
+
+    @Test
+    void acceptsQueriesWithRegistryIndexes() {
+        // Given
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("spring.modulith.events.completion-mode", "UPDATE");
+        new EventPublicationCollectionInitializer(mongoTemplate, EventPublicationCollections.registryOnly(),
+            environment, true, true, Duration.ofDays(1), DataSize.ofMegabytes(1)).afterSingletonsInstantiated();
+
+        // When
+        List<String> scanning = new EventPublicationQueryPlanVerifier(mongoTemplate, EventPublicationCollections.registryOnly()).verify();
+
+        // Then
+        assertThat(scanning).as("registry queries scanning the collection").isEmpty();
+    }
+}
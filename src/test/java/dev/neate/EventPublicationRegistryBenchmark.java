@@ -0,0 +1,207 @@
+package dev.neate;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.Updates;
+import org.bson.Document;
+import org.bson.UuidRepresentation;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.mock.env.MockEnvironment;
+import org.testcontainers.mongodb.MongoDBContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark of the event publication registry cost per completion mode.
+ *
+ * Every mode starts from the same realistic state: a backlog of completed
+ * publications from earlier traffic and a few incomplete ones. Each mode then
+ * runs the same publication lifecycle on the event_publication layout:
+ * - UPDATE: insert, then set completionDate (completed entries stay)
+ * - DELETE: insert, then delete
+ * - ARCHIVE: insert, then copy to event_publication_archive and delete, per publication
+ * - UPDATE + archiver: like UPDATE, with EventPublicationArchiver moving the
+ *   completed entries in bulk afterwards (its run time is logged separately)
+ *
+ * Logged per mode: lifecycle latency (p50/p99), the latency of the
+ * incomplete-publication queries the registry runs on restart and on
+ * completion, and the number of entries left in event_publication.
+ * No indexes beyond _id are created, so the queries show the cost of the
+ * collection size.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=EventPublicationRegistryBenchmark
+ * Against the docker-compose replica set:
+ *   -Dbenchmark.mongodb.uri=mongodb://mongo1:27017,mongo2:27017,mongo3:27017/?replicaSet=rs0
+ * Backlog of completed publications: -Dbenchmark.backlog=1000000 (default 100000)
+ * Publications per mode: -Dbenchmark.publications=20000 (default 5000)
+ */
+@Tag("benchmark")
+class EventPublicationRegistryBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(EventPublicationRegistryBenchmark.class);
+
+    private static final int BACKLOG = Integer.getInteger("benchmark.backlog", 100_000);
+    private static final int PUBLICATIONS = Integer.getInteger("benchmark.publications", 5_000);
+    private static final int INCOMPLETE = 100;
+    private static final int QUERIES = 50;
+    private static final String LISTENER_ID = "dev.neate.validation.internal.CountryCreatedEventListener.onCountryCreated";
+
+    private enum Mode { UPDATE, DELETE, ARCHIVE, UPDATE_WITH_ARCHIVER }
+
+    @Test
+    void compareCompletionModes() throws Exception {
+        String uri = System.getProperty("benchmark.mongodb.uri");
+        MongoDBContainer container = null;
+        if (uri == null) {
+            container = new MongoDBContainer(DockerImageName.parse("mongo:7.0")).withReplicaSet();
+            container.start();
+            uri = container.getReplicaSetUrl("benchmark");
+        }
+
+        MongoClientSettings settings = MongoClientSettings.builder()
+            .applyConnectionString(new ConnectionString(uri))
+            .uuidRepresentation(UuidRepresentation.STANDARD)
+            .build();
+        try (MongoClient client = MongoClients.create(settings)) {
+            MongoTemplate mongoTemplate = new MongoTemplate(client, "benchmark");
+            MongoCollection<Document> publications =
+                mongoTemplate.getCollection(EventPublicationArchiver.PUBLICATIONS_COLLECTION);
+            MongoCollection<Document> archive =
+                mongoTemplate.getCollection(EventPublicationArchiver.ARCHIVE_COLLECTION);
+
+            for (Mode mode : Mode.values()) {
+                publications.drop();
+                archive.drop();
+                // Completed entries of earlier traffic stay in the registry only with UPDATE
+                seed(mode == Mode.UPDATE ? publications : mode == Mode.DELETE ? null : archive, BACKLOG, true);
+                seed(publications, INCOMPLETE, false);
+
+                long[] latencies = new long[PUBLICATIONS];
+                for (int i = 0; i < PUBLICATIONS; i++) {
+                    Document publication = publication(null);
+                    long start = System.nanoTime();
+                    publications.insertOne(publication);
+                    complete(mode, publications, archive, publication);
+                    latencies[i] = System.nanoTime() - start;
+                }
+                Arrays.sort(latencies);
+
+                String archiving = "";
+                if (mode == Mode.UPDATE_WITH_ARCHIVER) {
+                    MockEnvironment environment = new MockEnvironment()
+                        .withProperty("spring.modulith.events.completion-mode", "UPDATE");
+                    long start = System.nanoTime();
+                    long archived = new EventPublicationArchiver(mongoTemplate,
+                        EventPublicationCollections.registryOnly(), environment, 1_000).archive();
+                    archiving = String.format(", archiver moved %d in %d ms", archived,
+                        (System.nanoTime() - start) / 1_000_000);
+                }
+
+                long incompleteMicros = measureIncompleteQuery(publications);
+                long lookupMicros = measureLookupQuery(publications);
+                long remaining = publications.countDocuments();
+
+                log.info("{}: lifecycle p50 {} us, p99 {} us; findIncomplete {} us, findByEventAndListener {} us; "
+                        + "{} entries in {}{}",
+                    mode, percentile(latencies, 50) / 1_000, percentile(latencies, 99) / 1_000,
+                    incompleteMicros, lookupMicros, remaining, EventPublicationArchiver.PUBLICATIONS_COLLECTION,
+                    archiving);
+
+                assertThat(publications.countDocuments(Filters.eq("completionDate", null)))
+                    .as("incomplete publications after %s", mode)
+                    .isEqualTo(INCOMPLETE);
+            }
+            publications.drop();
+            archive.drop();
+        } finally {
+            if (container != null) {
+                container.stop();
+            }
+        }
+    }
+
+    private static void complete(Mode mode, MongoCollection<Document> publications,
+            MongoCollection<Document> archive, Document publication) {
+        Object id = publication.get("_id");
+        Instant now = Instant.now();
+        switch (mode) {
+            case UPDATE, UPDATE_WITH_ARCHIVER -> publications.updateOne(Filters.eq("_id", id),
+                Updates.combine(Updates.set("completionDate", now), Updates.set("status", "COMPLETED")));
+            case DELETE -> publications.deleteOne(Filters.eq("_id", id));
+            case ARCHIVE -> {
+                Document completed = publications.find(Filters.eq("_id", id)).first();
+                completed.append("completionDate", now).append("status", "COMPLETED");
+                archive.insertOne(completed);
+                publications.deleteOne(Filters.eq("_id", id));
+            }
+        }
+    }
+
+    private static long measureIncompleteQuery(MongoCollection<Document> publications) {
+        long start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            List<Document> incomplete = publications.find(Filters.eq("completionDate", null))
+                .sort(Sorts.ascending("publicationDate"))
+                .into(new ArrayList<>());
+            assertThat(incomplete).hasSize(INCOMPLETE);
+        }
+        return (System.nanoTime() - start) / QUERIES / 1_000;
+    }
+
+    private static long measureLookupQuery(MongoCollection<Document> publications) {
+        long start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            publications.find(Filters.and(
+                    Filters.eq("listenerId", LISTENER_ID),
+                    Filters.eq("event.countryId", UUID.randomUUID()),
+                    Filters.eq("completionDate", null)))
+                .sort(Sorts.ascending("publicationDate"))
+                .first();
+        }
+        return (System.nanoTime() - start) / QUERIES / 1_000;
+    }
+
+    private static void seed(MongoCollection<Document> collection, int count, boolean completed) {
+        if (collection == null) {
+            return;
+        }
+        List<Document> batch = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            batch.add(publication(completed ? Instant.now() : null));
+            if (batch.size() == 1_000 || i == count - 1) {
+                collection.insertMany(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private static Document publication(Instant completionDate) {
+        return new Document("_id", UUID.randomUUID())
+            .append("publicationDate", Instant.now())
+            .append("listenerId", LISTENER_ID)
+            .append("event", new Document("countryId", UUID.randomUUID()))
+            .append("completionDate", completionDate)
+            .append("status", completionDate != null ? "COMPLETED" : "PUBLISHED");
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,57 @@
+package dev.neate;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for ExponentialBackoff.
+ *
+ * Verifies that:
+ * - Delays grow by the multiplier per attempt up to the maximum delay
+ * - Jitter spreads delays, including delays at the maximum
+ * - Invalid settings are rejected
+ */
+class ExponentialBackoffTest {
+
+    private static final double NO_JITTER = 0.5;
+
+    @Test
+    void growsExponentiallyUpToMaxDelay() {
+        // Given
+        ExponentialBackoff backoff = new ExponentialBackoff(Duration.ofMinutes(1), 2, Duration.ofMinutes(10), 0);
+
+        // When / Then
+        assertThat(backoff.delay(1, NO_JITTER)).as("First attempt").isEqualTo(Duration.ofMinutes(1));
+        assertThat(backoff.delay(2, NO_JITTER)).as("Second attempt").isEqualTo(Duration.ofMinutes(2));
+        assertThat(backoff.delay(4, NO_JITTER)).as("Fourth attempt").isEqualTo(Duration.ofMinutes(8));
+        assertThat(backoff.delay(5, NO_JITTER)).as("Capped attempt").isEqualTo(Duration.ofMinutes(10));
+        assertThat(backoff.delay(100, NO_JITTER)).as("Far beyond the cap").isEqualTo(Duration.ofMinutes(10));
+    }
+
+    @Test
+    void spreadsDelaysByJitter() {
+        // Given
+        ExponentialBackoff backoff = new ExponentialBackoff(Duration.ofMinutes(1), 2, Duration.ofMinutes(10), 0.2);
+
+        // When / Then
+        assertThat(backoff.delay(1, 0)).as("Shortest first delay").isEqualTo(Duration.ofSeconds(48));
+        assertThat(backoff.delay(1, NO_JITTER)).as("Middle first delay").isEqualTo(Duration.ofMinutes(1));
+        assertThat(backoff.delay(1, 1)).as("Longest first delay").isEqualTo(Duration.ofSeconds(72));
+        assertThat(backoff.delay(10, 1)).as("Delays at the cap are spread too").isEqualTo(Duration.ofMinutes(12));
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        // When / Then
+        assertThatThrownBy(() -> new ExponentialBackoff(Duration.ofMinutes(1), 0.5, Duration.ofMinutes(10), 0))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ExponentialBackoff(Duration.ofMinutes(10), 2, Duration.ofMinutes(1), 0))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ExponentialBackoff(Duration.ofMinutes(1), 2, Duration.ofMinutes(10), 1.5))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
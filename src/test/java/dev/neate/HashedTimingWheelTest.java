@@ -0,0 +1,94 @@
+package dev.neate;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for HashedTimingWheel.
+ *
+ * Verifies that:
+ * - Tasks never expire before their deadline and at most one tick after it
+ * - Tasks due after more than one turn of the wheel wait for their round
+ * - Overdue tasks expire on the next tick
+ * - The size counts waiting tasks only
+ * - Invalid wheel sizes are rejected
+ */
+class HashedTimingWheelTest {
+
+    private static final long TICK = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final HashedTimingWheel<String> wheel = new HashedTimingWheel<>(Duration.ofMillis(100), 8, 0);
+    private final List<String> expired = new ArrayList<>();
+
+    @Test
+    void expiresTasksWithinOneTickOfTheirDeadline() {
+        // Given
+        wheel.schedule("a", 250 * 1_000_000L);
+
+        // When / Then
+        wheel.advance(2 * TICK, expired::add);
+        assertThat(expired).as("Task not expired before its deadline").isEmpty();
+        wheel.advance(3 * TICK, expired::add);
+        assertThat(expired).as("Task expired once the tick of its deadline has elapsed").containsExactly("a");
+    }
+
+    @Test
+    void waitsForRoundsBeyondOneTurn() {
+        // Given - due in tick 19 of a wheel with 8 buckets, sharing bucket 3 with a task due in tick 3
+        wheel.schedule("later", 19 * TICK + 1);
+        wheel.schedule("sooner", 3 * TICK + 1);
+
+        // When
+        int firstTurn = wheel.advance(8 * TICK, expired::add);
+        int secondTurn = wheel.advance(19 * TICK, expired::add);
+        int thirdTurn = wheel.advance(20 * TICK, expired::add);
+
+        // Then
+        assertThat(firstTurn).as("Only the task of the first turn expired").isEqualTo(1);
+        assertThat(secondTurn).as("Task of the third turn not expired in the second").isZero();
+        assertThat(thirdTurn).as("Task of the third turn expired").isEqualTo(1);
+        assertThat(expired).as("Tasks expired in deadline order").containsExactly("sooner", "later");
+    }
+
+    @Test
+    void expiresOverdueTasksOnNextTick() {
+        // Given
+        wheel.advance(10 * TICK, expired::add);
+        wheel.schedule("overdue", 2 * TICK);
+
+        // When / Then
+        wheel.advance(10 * TICK + 1, expired::add);
+        assertThat(expired).as("Nothing expired within the current tick").isEmpty();
+        wheel.advance(11 * TICK, expired::add);
+        assertThat(expired).as("Overdue task expired on the next tick").containsExactly("overdue");
+    }
+
+    @Test
+    void countsWaitingTasks() {
+        // Given
+        wheel.schedule("a", TICK / 2);
+        wheel.schedule("b", 5 * TICK);
+
+        // When
+        int before = wheel.size();
+        wheel.advance(TICK, expired::add);
+
+        // Then
+        assertThat(before).as("Scheduled tasks").isEqualTo(2);
+        assertThat(wheel.size()).as("Tasks still waiting").isEqualTo(1);
+    }
+
+    @Test
+    void rejectsWheelSizeThatIsNoPowerOfTwo() {
+        assertThatThrownBy(() -> new HashedTimingWheel<String>(Duration.ofMillis(100), 12, 0))
+            .as("Wheel size of 12 rejected")
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,132 @@
+package dev.neate;
+
+import dev.neate.api.CountryController;
+import dev.neate.api.CreateCountryRequest;
+import dev.neate.domain.CountryQueryService;
+import dev.neate.domain.CountryStage;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.modulith.events.core.EventPublicationRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Benchmark of the event pipeline without MongoDB.
+ *
+ * Runs with the in-memory profile, so countries and event publications are
+ * kept in memory, RestCountries is replaced by RestCountriesStub and Kafka by
+ * a mock. What remains is the cost of the Modulith pipeline itself: the
+ * transactional controller, publication registration, the asynchronous
+ * listeners and their completion. Countries are created from several
+ * threads and the time until every country reached Kafka is logged, which
+ * is the upper throughput limit of the pipeline.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=InMemoryPipelineBenchmark
+ * Country count: -Dbenchmark.countries=50000 (default 10000)
+ * Creating threads: -Dbenchmark.threads=16 (default 8)
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "logging.level.dev.neate=WARN",
+    "logging.level.org.springframework.modulith=WARN"
+})
+@ActiveProfiles("in-memory")
+class InMemoryPipelineBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryPipelineBenchmark.class);
+
+    private static final int COUNTRIES = Integer.getInteger("benchmark.countries", 10_000);
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 8);
+    private static final RestCountriesStub REST_COUNTRIES = RestCountriesStub.start();
+
+    @DynamicPropertySource
+    static void restCountriesProperties(DynamicPropertyRegistry registry) {
+        registry.add("enrichment.rest-countries.base-url", REST_COUNTRIES::baseUrl);
+    }
+
+    @MockitoBean
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Autowired
+    private CountryController countryController;
+
+    @Autowired
+    private CountryQueryService countryQueryService;
+
+    @Autowired
+    private EventPublicationRepository eventPublicationRepository;
+
+    @Test
+    void measurePipelineThroughput() throws Exception {
+        AtomicLong sent = new AtomicLong();
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenAnswer(invocation -> {
+            sent.incrementAndGet();
+            ProducerRecord<String, Object> record = new ProducerRecord<>(
+                invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2));
+            RecordMetadata metadata = new RecordMetadata(new TopicPartition(record.topic(), 0), 0, 0, 0, 0, 0);
+            return CompletableFuture.completedFuture(new SendResult<>(record, metadata));
+        });
+
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int first = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = first; i < COUNTRIES; i += THREADS) {
+                        countryController.createCountry(new CreateCountryRequest("Country " + i, "C" + i));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        long createdNanos = System.nanoTime() - start;
+
+        await().atMost(Duration.ofMinutes(10)).pollInterval(Duration.ofMillis(50))
+            .until(() -> sent.get() >= COUNTRIES);
+        long elapsedNanos = System.nanoTime() - start;
+
+        log.warn("{} countries created in {} ms ({} requests/s), all sent to Kafka after {} ms ({} countries/s)",
+            COUNTRIES, createdNanos / 1_000_000, rate(COUNTRIES, createdNanos),
+            elapsedNanos / 1_000_000, rate(COUNTRIES, elapsedNanos));
+
+        assertThat(countryQueryService.countByStage()).containsEntry(CountryStage.ENRICHED, (long) COUNTRIES);
+        await().atMost(Duration.ofSeconds(30))
+            .untilAsserted(() -> assertThat(eventPublicationRepository.findIncompletePublications()).isEmpty());
+    }
+
+    private static String rate(int count, long nanos) {
+        return String.format("%.0f", count / (nanos / 1_000_000_000.0));
+    }
+}
@@ -0,0 +1,93 @@
+package dev.neate;
+
+import dev.neate.api.CountryController;
+import dev.neate.api.CreateCountryRequest;
+import dev.neate.domain.CountryQueryService;
+import dev.neate.domain.CountryStage;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.modulith.events.core.EventPublicationRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test of the in-memory profile.
+ *
+ * Verifies that:
+ * - The application starts without MongoDB
+ * - A created country passes through validation and enrichment to Kafka
+ * - Every event publication is completed in the in-memory registry
+ *
+ * RestCountries is replaced by RestCountriesStub and the KafkaTemplate by a mock.
+ */
+@SpringBootTest
+@ActiveProfiles("in-memory")
+class InMemoryPipelineTest {
+
+    private static final RestCountriesStub REST_COUNTRIES = RestCountriesStub.start();
+
+    @DynamicPropertySource
+    static void restCountriesProperties(DynamicPropertyRegistry registry) {
+        registry.add("enrichment.rest-countries.base-url", REST_COUNTRIES::baseUrl);
+    }
+
+    @MockitoBean
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Autowired
+    private CountryController countryController;
+
+    @Autowired
+    private CountryQueryService countryQueryService;
+
+    @Autowired
+    private EventPublicationRepository eventPublicationRepository;
+
+    @BeforeEach
+    void setUp() {
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenAnswer(invocation -> {
+            ProducerRecord<String, Object> record = new ProducerRecord<>(
+                invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2));
+            RecordMetadata metadata = new RecordMetadata(new TopicPartition(record.topic(), 0), 0, 0, 0, 0, 0);
+            return CompletableFuture.completedFuture(new SendResult<>(record, metadata));
+        });
+    }
+
+    @Test
+    void pipelineRunsWithoutMongoDb() {
+        // When
+        countryController.createCountry(new CreateCountryRequest("United Kingdom", "GB"));
+
+        // Then
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            assertThat(countryQueryService.countByStage())
+                .as("The country should reach the ENRICHED stage")
+                .containsEntry(CountryStage.ENRICHED, 1L);
+            verify(kafkaTemplate, times(1)).send(eq("country-events"), anyString(), any());
+            assertThat(eventPublicationRepository.findIncompletePublications())
+                .as("All event publications should be completed")
+                .isEmpty();
+        });
+    }
+}
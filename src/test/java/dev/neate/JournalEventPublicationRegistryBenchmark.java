@@ -0,0 +1,179 @@
+package dev.neate;
+
+import dev.neate.api.CountryCreatedEvent;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.modulith.events.core.EventPublicationRepository;
+import org.springframework.modulith.events.core.EventSerializer;
+import org.springframework.modulith.events.core.PublicationTargetIdentifier;
+import org.springframework.modulith.events.core.TargetEventPublication;
+import org.springframework.modulith.events.support.CompletionMode;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.mongodb.MongoDBContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark of event publication throughput of the journal registry against the MongoDB registry.
+ *
+ * Every backend runs the same publication lifecycle from several threads,
+ * EventPublicationRepository.create() and markCompleted():
+ * - MongoDB: the application's registry repository, i.e. Spring Modulith's
+ *   MongoDB repository with the decorators of EventPublicationConfiguration.
+ *   Completion batching is off, so markCompleted() returns after its write,
+ *   as it does with the journal
+ * - Journal: JournalEventPublicationRepository with the default flush
+ *   interval (fsync batched every 10 ms)
+ * - Journal, fsync per write: the same with a flush interval of zero
+ *
+ * Logged per backend: publications per second and lifecycle latency (p50/p99).
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=JournalEventPublicationRegistryBenchmark
+ * Against the docker-compose replica set:
+ *   -Dbenchmark.mongodb.uri=mongodb://mongo1:27017,mongo2:27017,mongo3:27017/?replicaSet=rs0
+ * Publications per backend: -Dbenchmark.publications=50000 (default 20000)
+ * Publishing threads: -Dbenchmark.threads=16 (default 8)
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.mongodb.database=benchmark",
+    "spring.modulith.events.completion-batching.enabled=false",
+    "logging.level.dev.neate=WARN",
+    "logging.level.org.springframework.modulith=WARN"
+})
+class JournalEventPublicationRegistryBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(JournalEventPublicationRegistryBenchmark.class);
+
+    private static final int PUBLICATIONS = Integer.getInteger("benchmark.publications", 20_000);
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 8);
+    private static final PublicationTargetIdentifier LISTENER = PublicationTargetIdentifier.of(
+        "dev.neate.validation.internal.CountryCreatedEventListener.handleCountryCreated("
+            + "dev.neate.api.CountryCreatedEvent)");
+
+    private static final EventSerializer UNUSED_SERIALIZER = new EventSerializer() {
+
+        @Override
+        public Object serialize(Object event) {
+            throw new UnsupportedOperationException("Only compactly encoded events are published");
+        }
+
+        @Override
+        public <T> T deserialize(Object serialized, Class<T> type) {
+            throw new UnsupportedOperationException("Only compactly encoded events are published");
+        }
+    };
+
+    private static MongoDBContainer container;
+
+    @TempDir
+    Path directory;
+
+    @Autowired
+    private EventPublicationRepository registryRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        String uri = System.getProperty("benchmark.mongodb.uri");
+        if (uri == null) {
+            container = new MongoDBContainer(DockerImageName.parse("mongo:7.0")).withReplicaSet();
+            container.start();
+        }
+        registry.add("spring.mongodb.uri", () -> uri != null ? uri : container.getReplicaSetUrl("benchmark"));
+    }
+
+    @AfterAll
+    static void stopContainer() {
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    @Test
+    void compareRegistryBackends() throws Exception {
+        mongoTemplate.remove(new Query(), EventPublicationArchiver.PUBLICATIONS_COLLECTION);
+        run("MongoDB", event -> complete(registryRepository,
+            registryRepository.create(TargetEventPublication.of(event, LISTENER))));
+        assertThat(registryRepository.findIncompletePublications()).as("incomplete MongoDB publications").isEmpty();
+        mongoTemplate.remove(new Query(), EventPublicationArchiver.PUBLICATIONS_COLLECTION);
+
+        runJournal("Journal", directory.resolve("batched"), Duration.ofMillis(10));
+        runJournal("Journal, fsync per write", directory.resolve("sync"), Duration.ZERO);
+    }
+
+    private void runJournal(String backend, Path journalDirectory, Duration flushInterval) throws Exception {
+        CompactEventSerializer compactSerializer = new CompactEventSerializer()
+            .register(1, CountryCreatedEvent.class, CountryCreatedEvent::countryId, CountryCreatedEvent::new);
+        PublicationJournal journal = new PublicationJournal(journalDirectory, 64 * 1024 * 1024, flushInterval);
+        try (JournalEventPublicationRepository repository = new JournalEventPublicationRepository(journal,
+                CompletionMode.UPDATE, UNUSED_SERIALIZER, compactSerializer, Duration.ofDays(1))) {
+            run(backend, event -> complete(repository, repository.create(TargetEventPublication.of(event, LISTENER))));
+            assertThat(repository.findIncompletePublications()).as("incomplete %s publications", backend).isEmpty();
+        }
+    }
+
+    private static void complete(EventPublicationRepository repository, TargetEventPublication publication) {
+        repository.markCompleted(publication, Instant.now());
+    }
+
+    private static void run(String backend, Consumer<CountryCreatedEvent> lifecycle) throws Exception {
+        long[] latencies = new long[PUBLICATIONS];
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        try {
+            Future<?>[] workers = new Future<?>[THREADS];
+            for (int t = 0; t < THREADS; t++) {
+                workers[t] = executor.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < PUBLICATIONS; i = next.getAndIncrement()) {
+                        long begin = System.nanoTime();
+                        lifecycle.accept(new CountryCreatedEvent(UUID.randomUUID()));
+                        latencies[i] = System.nanoTime() - begin;
+                    }
+                });
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        long elapsed = System.nanoTime() - start;
+        Arrays.sort(latencies);
+
+        log.info("{}: {} publications/s with {} threads; lifecycle p50 {} us, p99 {} us",
+            backend, PUBLICATIONS * 1_000_000_000L / elapsed, THREADS,
+            percentile(latencies, 50) / 1_000, percentile(latencies, 99) / 1_000);
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,238 @@
+package dev.neate;
+
+import dev.neate.api.CountryCreatedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.modulith.events.EventPublication;
+import org.springframework.modulith.events.core.EventSerializer;
+import org.springframework.modulith.events.core.PublicationTargetIdentifier;
+import org.springframework.modulith.events.core.TargetEventPublication;
+import org.springframework.modulith.events.support.CompletionMode;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for JournalEventPublicationRepository.
+ *
+ * Verifies that:
+ * - Incomplete publications survive a restart with their events, completed ones are kept as completed
+ * - Registered events are stored compactly, others with the event serializer
+ * - Replayed publications can be completed, by identifier and by listener and event
+ * - Resubmission state survives a restart
+ * - A full journal is compacted without losing publications
+ * - Completed publications are dropped after the retention, or on completion with completion mode DELETE
+ * - Publications of rolled back transactions are deleted
+ */
+class JournalEventPublicationRepositoryTest {
+
+    private static final PublicationTargetIdentifier LISTENER = PublicationTargetIdentifier.of("listener");
+
+    private final CompactEventSerializer compactSerializer = new CompactEventSerializer()
+        .register(1, CountryCreatedEvent.class, CountryCreatedEvent::countryId, CountryCreatedEvent::new);
+
+    @TempDir
+    Path directory;
+
+    private JournalEventPublicationRepository repository;
+
+    @AfterEach
+    void tearDown() {
+        if (repository != null) {
+            repository.close();
+        }
+    }
+
+    @Test
+    void keepsIncompletePublicationsAcrossRestarts() {
+        // Given
+        repository = open(CompletionMode.UPDATE, Duration.ofDays(1), 64 * 1024);
+        TargetEventPublication completed = repository.create(TargetEventPublication.of(created(), LISTENER));
+        TargetEventPublication incomplete = repository.create(TargetEventPublication.of(created(), LISTENER));
+        repository.markCompleted(completed.getIdentifier(), Instant.now());
+
+        // When
+        restart(CompletionMode.UPDATE, Duration.ofDays(1), 64 * 1024);
+
+        // Then
+        assertThat(repository.findIncompletePublications())
+            .as("Incomplete publications after the restart")
+            .singleElement()
+            .satisfies(publication -> {
+                assertThat(publication.getIdentifier()).isEqualTo(incomplete.getIdentifier());
+                assertThat(publication.getEvent()).isEqualTo(incomplete.getEvent());
+                assertThat(publication.getTargetIdentifier()).isEqualTo(LISTENER);
+                assertThat(publication.getPublicationDate()).isEqualTo(incomplete.getPublicationDate());
+            });
+        assertThat(repository.findCompletedPublications())
+            .as("Completed publications after the restart")
+            .extracting(TargetEventPublication::getIdentifier)
+            .containsExactly(completed.getIdentifier());
+    }
+
+    @Test
+    void restoresEventsOfEveryEncoding() {
+        // Given
+        repository = open(CompletionMode.UPDATE, Duration.ofDays(1), 64 * 1024);
+        CountryCreatedEvent compact = created();
+        NamedEvent serialized = new NamedEvent("France");
+        repository.create(TargetEventPublication.of(compact, LISTENER));
+        repository.create(TargetEventPublication.of(serialized, LISTENER));
+
+        // When
+        restart(CompletionMode.UPDATE, Duration.ofDays(1), 64 * 1024);
+
+        // Then
+        assertThat(repository.findIncompletePublicationsByEventAndTargetIdentifier(compact, LISTENER))
+            .as("Compactly stored event found by event").isPresent();
+        assertThat(repository.findIncompletePublicationsByEventAndTargetIdentifier(serialized, LISTENER))
+            .as("Serialized event found by event").isPresent();
+    }
+
+    @Test
+    void completesReplayedPublications() {
+        // Given
+        repository = open(CompletionMode.UPDATE, Duration.ofDays(1), 64 * 1024);
+        CountryCreatedEvent byEvent = created();
+        repository.create(TargetEventPublication.of(byEvent, LISTENER));
+        TargetEventPublication byPublication = repository.create(TargetEventPublication.of(created(), LISTENER));
+        restart(CompletionMode.UPDATE, Duration.ofDays(1), 64 * 1024);
+        TargetEventPublication replayed = repository.findIncompletePublications().stream()
+            .filter(publication -> publication.getIdentifier().equals(byPublication.getIdentifier()))
+            .findFirst()
+            .orElseThrow();
+
+        // When - as the registry completes them: the publication first, then the repository
+        Instant now = Instant.now();
+        replayed.markCompleted(now);
+        repository.markCompleted(replayed, now);
+        repository.markCompleted(byEvent, LISTENER, now);
+
+        // Then
+        assertThat(repository.findIncompletePublications()).as("Incomplete publications").isEmpty();
+        assertThat(repository.findIncompletePublicationsByEventAndTargetIdentifier(byEvent, LISTENER))
+            .as("Completed publication found by event")
+            .isEmpty();
+        assertThat(repository.findCompletedPublications()).as("Completed publications").hasSize(2);
+    }
+
+    @Test
+    void keepsResubmissionStateAcrossRestarts() {
+        // Given
+        repository = open(CompletionMode.UPDATE, Duration.ofDays(1), 64 * 1024);
+        TargetEventPublication publication = repository.create(TargetEventPublication.of(created(), LISTENER));
+        repository.markFailed(publication.getIdentifier());
+        repository.markResubmitted(publication.getIdentifier(), Instant.now());
+        int attempts = repository.findByStatus(EventPublication.Status.RESUBMITTED).get(0).getCompletionAttempts();
+
+        // When
+        restart(CompletionMode.UPDATE, Duration.ofDays(1), 64 * 1024);
+
+        // Then
+        assertThat(repository.findByStatus(EventPublication.Status.RESUBMITTED))
+            .as("Resubmitted publication after the restart")
+            .singleElement()
+            .satisfies(restored -> assertThat(restored.getCompletionAttempts()).isEqualTo(attempts));
+        assertThat(repository.markResubmitted(publication.getIdentifier(), Instant.now()))
+            .as("Resubmitted publication is not resubmitted again")
+            .isFalse();
+    }
+
+    @Test
+    void compactsFullJournal() {
+        // Given - a journal with room for a few dozen records
+        repository = open(CompletionMode.DELETE, Duration.ofDays(1), 4 * 1024);
+        TargetEventPublication incomplete = repository.create(TargetEventPublication.of(created(), LISTENER));
+
+        // When
+        for (int i = 0; i < 500; i++) {
+            TargetEventPublication publication = repository.create(TargetEventPublication.of(created(), LISTENER));
+            repository.markCompleted(publication.getIdentifier(), Instant.now());
+        }
+        restart(CompletionMode.DELETE, Duration.ofDays(1), 4 * 1024);
+
+        // Then
+        assertThat(repository.findIncompletePublications())
+            .as("Incomplete publications after compactions")
+            .extracting(TargetEventPublication::getIdentifier)
+            .containsExactly(incomplete.getIdentifier());
+        assertThat(repository.findCompletedPublications()).as("Completed publications deleted").isEmpty();
+    }
+
+    @Test
+    void dropsCompletedPublicationsAfterRetention() {
+        // Given
+        repository = open(CompletionMode.UPDATE, Duration.ZERO, 64 * 1024);
+        TargetEventPublication publication = repository.create(TargetEventPublication.of(created(), LISTENER));
+        repository.markCompleted(publication.getIdentifier(), Instant.now().minusSeconds(1));
+
+        // When
+        restart(CompletionMode.UPDATE, Duration.ZERO, 64 * 1024);
+
+        // Then
+        assertThat(repository.findCompletedPublications()).as("Expired completed publications").isEmpty();
+    }
+
+    @Test
+    void deletesPublicationsOfRolledBackTransactions() {
+        // Given
+        repository = open(CompletionMode.UPDATE, Duration.ofDays(1), 64 * 1024);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            repository.create(TargetEventPublication.of(created(), LISTENER));
+
+            // When
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        restart(CompletionMode.UPDATE, Duration.ofDays(1), 64 * 1024);
+
+        // Then
+        assertThat(repository.findIncompletePublications()).as("Publications of the rolled back transaction").isEmpty();
+    }
+
+    private JournalEventPublicationRepository open(CompletionMode completionMode, Duration retention, int segmentSize) {
+        return new JournalEventPublicationRepository(new PublicationJournal(directory, segmentSize, Duration.ZERO),
+            completionMode, new NamedEventSerializer(), compactSerializer, retention);
+    }
+
+    private void restart(CompletionMode completionMode, Duration retention, int segmentSize) {
+        repository.close();
+        repository = open(completionMode, retention, segmentSize);
+    }
+
+    private static CountryCreatedEvent created() {
+        return new CountryCreatedEvent(UUID.randomUUID());
+    }
+
+    /**
+     * Event without compact encoding.
+     */
+    record NamedEvent(String name) {
+    }
+
+    /**
+     * Serializes NamedEvent as its name.
+     */
+    static class NamedEventSerializer implements EventSerializer {
+
+        @Override
+        public Object serialize(Object event) {
+            return ((NamedEvent) event).name();
+        }
+
+        @Override
+        public <T> T deserialize(Object serialized, Class<T> type) {
+            return type.cast(new NamedEvent(serialized.toString()));
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package dev.neate;
+
+import com.mongodb.client.model.Filters;
+import dev.neate.api.CountryCreatedEvent;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.modulith.events.EventPublication;
+import org.springframework.modulith.events.core.EventPublicationRegistry;
+import org.springframework.modulith.events.core.EventPublicationRepository;
+import org.springframework.modulith.events.core.PublicationTargetIdentifier;
+import org.springframework.modulith.events.core.TargetEventPublication;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration test of the event publication registry with module collections.
+ *
+ * Verifies that, in event_publication as well as in a module collection:
+ * - Stored publications have the document layout of Spring Modulith's MongoDB registry
+ * - Failed, resubmitted and completed publications are updated in the collection they are stored in
+ * - Completed publications are moved to event_publication_archive
+ *
+ * The publications go through the application's registry and its decorated
+ * repository, completed one by one. Durability tiers are disabled so every
+ * listener's publications are stored.
+ */
+@SpringBootTest(properties = {
+    "spring.modulith.events.module-collections.enabled=true",
+    "spring.modulith.events.completion-batching.enabled=false",
+    "spring.modulith.events.durability.recoverable-listeners=",
+    "spring.modulith.events.archive-scheduled=true",
+    "spring.modulith.events.archive-interval=3600000"
+})
+@Import(MongoTestcontainersConfiguration.class)
+class ModuleCollectionRegistryLifecycleTest {
+
+    private static final Set<String> UPSTREAM_LAYOUT = Set.of("_id", "publicationDate", "listenerId", "event",
+        "completionDate", "status", "completionAttempts", "lastResubmissionDate");
+
+    @Autowired
+    private EventPublicationRegistry registry;
+
+    @Autowired
+    private EventPublicationRepository repository;
+
+    @Autowired
+    private EventPublicationArchiver archiver;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Test
+    void runsLifecycleInModuleCollection() {
+        runLifecycle("dev.neate.validation.internal.CountryCreatedEventListener.handleCountryCreated("
+            + "dev.neate.api.CountryCreatedEvent)", "event_publication_validation");
+    }
+
+    @Test
+    void runsLifecycleInRegistryCollection() {
+        runLifecycle("dev.neate.Application.on(dev.neate.api.CountryCreatedEvent)",
+            EventPublicationArchiver.PUBLICATIONS_COLLECTION);
+    }
+
+    private void runLifecycle(String listenerId, String collection) {
+        // Given
+        CountryCreatedEvent event = new CountryCreatedEvent(UUID.randomUUID());
+        PublicationTargetIdentifier listener = PublicationTargetIdentifier.of(listenerId);
+
+        // When - stored
+        UUID id = registry.store(event, Stream.of(listener)).stream()
+            .map(TargetEventPublication::getIdentifier)
+            .findFirst().orElseThrow();
+
+        // Then
+        Document stored = document(collection, id);
+        assertThat(stored).as("Stored publication").isNotNull();
+        assertThat(stored.keySet()).as("Document fields")
+            .containsAll(UPSTREAM_LAYOUT)
+            .allMatch(key -> UPSTREAM_LAYOUT.contains(key) || key.equals("_class"));
+        assertThat(stored.getString("listenerId")).as("Listener").isEqualTo(listenerId);
+        assertThat(stored.getString("status")).as("Status").isEqualTo(EventPublication.Status.PUBLISHED.name());
+        assertThat(stored.get("completionDate")).as("Completion date").isNull();
+
+        // When - failed
+        registry.markFailed(event, listener);
+
+        // Then
+        assertThat(document(collection, id).getString("status")).as("Status after failure")
+            .isEqualTo(EventPublication.Status.FAILED.name());
+
+        // When - resubmitted
+        boolean resubmitted = repository.markResubmitted(id, Instant.now());
+
+        // Then
+        Document resubmittedDocument = document(collection, id);
+        assertThat(resubmitted).as("Publication resubmitted").isTrue();
+        assertThat(resubmittedDocument.getString("status")).as("Status after resubmission")
+            .isEqualTo(EventPublication.Status.RESUBMITTED.name());
+        assertThat(resubmittedDocument.get("completionAttempts", Number.class).intValue())
+            .as("Completion attempts").isEqualTo(1);
+        assertThat(resubmittedDocument.getDate("lastResubmissionDate")).as("Last resubmission").isNotNull();
+
+        // When - completed
+        registry.markCompleted(event, listener);
+
+        // Then
+        Document completed = document(collection, id);
+        assertThat(completed.getDate("completionDate")).as("Completion date").isNotNull();
+        assertThat(completed.getString("status")).as("Status after completion")
+            .isEqualTo(EventPublication.Status.COMPLETED.name());
+
+        // When - archived
+        archiver.archive();
+
+        // Then
+        Document archived = document(EventPublicationArchiver.ARCHIVE_COLLECTION, id);
+        assertThat(document(collection, id)).as("Publication left in its collection").isNull();
+        assertThat(archived).as("Archived publication").isNotNull();
+        assertThat(archived.keySet()).as("Archived document fields").containsAll(UPSTREAM_LAYOUT);
+        assertThat(archived.getString("listenerId")).as("Archived listener").isEqualTo(listenerId);
+    }
+
+    private Document document(String collection, UUID id) {
+        return mongoTemplate.getCollection(collection).find(Filters.eq("_id", id)).first();
+    }
+}
@@ -0,0 +1,193 @@
+package dev.neate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.modulith.events.EventPublication;
+import org.springframework.modulith.events.core.EventPublicationRepository;
+import org.springframework.modulith.events.core.PublicationTargetIdentifier;
+import org.springframework.modulith.events.core.TargetEventPublication;
+import org.springframework.modulith.events.support.CompletionMode;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for ModuleRoutingEventPublicationRepository.
+ *
+ * Verifies that:
+ * - Publications of a module's listeners are stored and completed in the module's collection
+ * - Publications of other listeners, and ones not found in a module collection, go to the decorated repository
+ * - Publications whose collection is not remembered are looked up in their listener's collection
+ * - Only the most recently used publication collections are remembered
+ * - Queries over all publications merge the collections in publication order
+ * - Writes are counted per module and operation
+ */
+class ModuleRoutingEventPublicationRepositoryTest {
+
+    private static final String MODULE_COLLECTION = "event_publication_validation";
+    private static final PublicationTargetIdentifier VALIDATION_LISTENER = PublicationTargetIdentifier.of(
+        "dev.neate.validation.internal.CountryCreatedEventListener.handleCountryCreated("
+            + "dev.neate.api.CountryCreatedEvent)");
+    private static final PublicationTargetIdentifier OTHER_LISTENER =
+        PublicationTargetIdentifier.of("dev.neate.Application.on(java.lang.Object)");
+
+    // Compactly encoded events are stored as they are, without the MongoConverter
+    private final byte[] event = {1, 2, 3};
+
+    private EventPublicationRepository mockDelegate;
+    private MongoOperations mockMongoOperations;
+    private MeterRegistry meterRegistry;
+    private ModuleRoutingEventPublicationRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        mockDelegate = mock(EventPublicationRepository.class);
+        mockMongoOperations = mock(MongoOperations.class);
+        meterRegistry = new SimpleMeterRegistry();
+        repository = new ModuleRoutingEventPublicationRepository(mockDelegate, collections(), mockMongoOperations,
+            CompletionMode.UPDATE, meterRegistry);
+    }
+
+    @Test
+    void storesPublicationsInTheirModuleCollection() {
+        // Given
+        TargetEventPublication publication = TargetEventPublication.of(event, VALIDATION_LISTENER);
+
+        // When
+        repository.create(publication);
+        repository.markCompleted(publication.getIdentifier(), Instant.now());
+
+        // Then
+        verify(mockMongoOperations).insert(any(Document.class), eq(MODULE_COLLECTION));
+        verify(mockMongoOperations).updateFirst(any(Query.class), any(Update.class), eq(MODULE_COLLECTION));
+        verifyNoInteractions(mockDelegate);
+        assertThat(repository.collectionOf(publication.getIdentifier()))
+            .as("Collection of the completed publication, looked up again")
+            .isEqualTo(EventPublicationArchiver.PUBLICATIONS_COLLECTION);
+        assertThat(writes("validation", "created")).as("Publications created in the validation collection")
+            .isEqualTo(1);
+        assertThat(writes("validation", "completed")).as("Publications completed in the validation collection")
+            .isEqualTo(1);
+    }
+
+    @Test
+    void passesOtherPublicationsToTheDelegate() {
+        // Given
+        TargetEventPublication publication = TargetEventPublication.of(event, OTHER_LISTENER);
+        UUID storedBefore = UUID.randomUUID();
+        Instant now = Instant.now();
+
+        // When
+        repository.create(publication);
+        repository.markCompleted(publication, now);
+        repository.markCompleted(storedBefore, now);
+        repository.markCompleted(event, VALIDATION_LISTENER, now);
+
+        // Then
+        verify(mockDelegate).create(publication);
+        verify(mockDelegate).markCompleted(publication, now);
+        verify(mockDelegate).markCompleted(storedBefore, now);
+        verify(mockDelegate).markCompleted(event, VALIDATION_LISTENER, now);
+        verify(mockMongoOperations, never()).insert(any(Document.class), any(String.class));
+        assertThat(writes(EventPublicationCollections.DEFAULT_MODULE, "completed"))
+            .as("Publications completed in event_publication")
+            .isEqualTo(3);
+    }
+
+    @Test
+    void looksUpForgottenPublicationsInTheirListenersCollection() {
+        // Given - a publication created before a restart
+        TargetEventPublication publication = TargetEventPublication.of(event, VALIDATION_LISTENER);
+        when(mockMongoOperations.exists(any(Query.class), eq(MODULE_COLLECTION))).thenReturn(true);
+
+        // When
+        repository.markCompleted(publication, Instant.now());
+
+        // Then
+        verify(mockMongoOperations).exists(any(Query.class), eq(MODULE_COLLECTION));
+        verify(mockMongoOperations).updateFirst(any(Query.class), any(Update.class), eq(MODULE_COLLECTION));
+        verifyNoInteractions(mockDelegate);
+    }
+
+    @Test
+    void remembersMostRecentlyUsedCollections() {
+        // Given - room for two publications
+        repository = new ModuleRoutingEventPublicationRepository(mockDelegate, collections(), mockMongoOperations,
+            CompletionMode.UPDATE, meterRegistry, 2);
+        TargetEventPublication oldest = repository.create(TargetEventPublication.of(event, VALIDATION_LISTENER));
+        TargetEventPublication used = repository.create(TargetEventPublication.of(event, VALIDATION_LISTENER));
+        repository.markProcessing(used.getIdentifier());
+
+        // When
+        TargetEventPublication newest = repository.create(TargetEventPublication.of(event, VALIDATION_LISTENER));
+
+        // Then
+        assertThat(repository.collectionOf(used.getIdentifier()))
+            .as("Collection of a recently used publication")
+            .isEqualTo(MODULE_COLLECTION);
+        assertThat(repository.collectionOf(newest.getIdentifier()))
+            .as("Collection of the newest publication")
+            .isEqualTo(MODULE_COLLECTION);
+        assertThat(repository.collectionOf(oldest.getIdentifier()))
+            .as("Collection of the evicted publication, looked up again")
+            .isEqualTo(EventPublicationArchiver.PUBLICATIONS_COLLECTION);
+    }
+
+    @Test
+    void mergesIncompletePublicationsInPublicationOrder() {
+        // Given
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        TargetEventPublication newer = TargetEventPublication.of(event, OTHER_LISTENER, now);
+        UUID older = UUID.randomUUID();
+        when(mockDelegate.findIncompletePublications()).thenReturn(List.of(newer));
+        when(mockMongoOperations.find(any(Query.class), eq(Document.class), eq(MODULE_COLLECTION)))
+            .thenReturn(List.of(new Document("_id", older)
+                .append("publicationDate", Date.from(now.minusSeconds(60)))
+                .append("listenerId", VALIDATION_LISTENER.getValue())
+                .append("event", event)
+                .append("completionDate", null)
+                .append("status", EventPublication.Status.PUBLISHED.name())
+                .append("completionAttempts", 0)));
+
+        // When
+        List<TargetEventPublication> incomplete = repository.findIncompletePublications();
+
+        // Then
+        assertThat(incomplete)
+            .as("Incomplete publications of both collections, oldest first")
+            .extracting(TargetEventPublication::getIdentifier)
+            .containsExactly(older, newer.getIdentifier());
+        assertThat(incomplete.get(0).getTargetIdentifier()).as("Listener of the module collection's publication")
+            .isEqualTo(VALIDATION_LISTENER);
+    }
+
+    private static EventPublicationCollections collections() {
+        return new EventPublicationCollections(List.of("validation"),
+            type -> type.startsWith("dev.neate.validation.") ? Optional.of("validation.internal") : Optional.empty(),
+            Map.of());
+    }
+
+    private double writes(String module, String operation) {
+        return meterRegistry.get("event.publication.registry.writes")
+            .tag("module", module)
+            .tag("operation", operation)
+            .counter()
+            .count();
+    }
+}
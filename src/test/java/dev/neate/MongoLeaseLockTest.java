@@ -0,0 +1,99 @@
+package dev.neate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.mongodb.test.autoconfigure.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for MongoLeaseLock.
+ *
+ * Verifies that:
+ * - Only one of several instances acquires a free lock
+ * - The holder can acquire its lock again, other instances only after the lease ended
+ * - A released lock can be acquired by another instance
+ */
+@DataMongoTest
+@Import(MongoTestcontainersConfiguration.class)
+class MongoLeaseLockTest {
+
+    private static final String LOCK = "test-lock";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.dropCollection(MongoLeaseLock.LOCKS_COLLECTION);
+    }
+
+    @Test
+    void grantsLockToOneOfConcurrentInstances() throws Exception {
+        // Given - eight instances competing for the same lock
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            MongoLeaseLock lock = new MongoLeaseLock(mongoTemplate, "instance-" + i);
+            attempts.add(() -> lock.tryAcquire(LOCK, Duration.ofMinutes(1)));
+        }
+
+        // When
+        ExecutorService executor = Executors.newFixedThreadPool(attempts.size());
+        List<Boolean> results = new ArrayList<>();
+        try {
+            for (Future<Boolean> result : executor.invokeAll(attempts)) {
+                results.add(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        assertThat(results).as("acquired locks").containsOnlyOnce(true);
+    }
+
+    @Test
+    void holderReacquiresAndOthersWaitForLeaseEnd() throws Exception {
+        // Given
+        MongoLeaseLock first = new MongoLeaseLock(mongoTemplate, "first");
+        MongoLeaseLock second = new MongoLeaseLock(mongoTemplate, "second");
+        assertThat(first.tryAcquire(LOCK, Duration.ofMillis(500))).as("first acquires").isTrue();
+
+        // When / Then - while the lease runs
+        assertThat(first.tryAcquire(LOCK, Duration.ofMillis(500))).as("holder reacquires").isTrue();
+        assertThat(second.tryAcquire(LOCK, Duration.ofMillis(500))).as("other instance acquires").isFalse();
+
+        // When / Then - after the lease ended
+        Thread.sleep(700);
+        assertThat(second.tryAcquire(LOCK, Duration.ofMinutes(1))).as("other instance acquires").isTrue();
+        assertThat(first.tryAcquire(LOCK, Duration.ofMinutes(1))).as("former holder acquires").isFalse();
+    }
+
+    @Test
+    void releasedLockIsAvailable() {
+        // Given
+        MongoLeaseLock first = new MongoLeaseLock(mongoTemplate, "first");
+        MongoLeaseLock second = new MongoLeaseLock(mongoTemplate, "second");
+        first.tryAcquire(LOCK, Duration.ofMinutes(1));
+
+        // When
+        second.release(LOCK);
+        boolean acquiredBeforeRelease = second.tryAcquire(LOCK, Duration.ofMinutes(1));
+        first.release(LOCK);
+
+        // Then
+        assertThat(acquiredBeforeRelease).as("release by non-holder has no effect").isFalse();
+        assertThat(second.tryAcquire(LOCK, Duration.ofMinutes(1))).as("acquired after release").isTrue();
+    }
+}
@@ -0,0 +1,144 @@
+package dev.neate;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for PublicationJournal.
+ *
+ * Verifies that:
+ * - Appended records are replayed in order after reopening
+ * - Replay stops at a torn record, which the next append overwrites
+ * - A full journal refuses appends
+ * - A rewrite replaces the journal with a new generation and deletes the old one
+ */
+class PublicationJournalTest {
+
+    private static final int SEGMENT_SIZE = 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysAppendedRecordsAfterReopening() {
+        // Given
+        try (PublicationJournal journal = open()) {
+            journal.append(bytes("first"));
+            journal.append(bytes("second"));
+        }
+
+        // When
+        List<String> records = new ArrayList<>();
+        try (PublicationJournal journal = open()) {
+            int count = journal.replay(record -> records.add(string(record)));
+
+            // Then
+            assertThat(count).as("Records replayed").isEqualTo(2);
+            assertThat(journal.usedBytes()).as("Write position after the last record")
+                .isEqualTo(2 * PublicationJournal.RECORD_HEADER + "first".length() + "second".length());
+        }
+        assertThat(records).as("Replayed records").containsExactly("first", "second");
+    }
+
+    @Test
+    void stopsAtTornRecord() throws IOException {
+        // Given - a record whose payload was not completely written
+        Path file;
+        int end;
+        try (PublicationJournal journal = open()) {
+            journal.append(bytes("complete"));
+            file = journal.file();
+            end = journal.usedBytes();
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(end);
+            raf.writeInt(20);
+            raf.writeInt(12345);
+            raf.write(bytes("torn"));
+        }
+
+        // When
+        List<String> records = new ArrayList<>();
+        try (PublicationJournal journal = open()) {
+            journal.replay(record -> records.add(string(record)));
+            journal.append(bytes("after"));
+        }
+        List<String> reopened = new ArrayList<>();
+        try (PublicationJournal journal = open()) {
+            journal.replay(record -> reopened.add(string(record)));
+        }
+
+        // Then
+        assertThat(records).as("Records before the torn one").containsExactly("complete");
+        assertThat(reopened).as("Torn record overwritten by the next append").containsExactly("complete", "after");
+    }
+
+    @Test
+    void refusesAppendsWhenFull() {
+        try (PublicationJournal journal = open()) {
+            journal.replay(record -> { });
+
+            // When
+            boolean appended = journal.append(new byte[SEGMENT_SIZE - PublicationJournal.RECORD_HEADER]);
+            boolean overflow = journal.append(bytes("x"));
+
+            // Then
+            assertThat(appended).as("Record filling the journal appended").isTrue();
+            assertThat(overflow).as("Record beyond the end refused").isFalse();
+        }
+    }
+
+    @Test
+    void rewritesIntoNewGeneration() throws IOException {
+        // Given
+        Path previous;
+        try (PublicationJournal journal = open()) {
+            journal.replay(record -> { });
+            journal.append(bytes("obsolete"));
+            previous = journal.file();
+
+            // When
+            journal.rewrite(List.of(bytes("live")));
+            journal.append(bytes("appended"));
+
+            // Then
+            assertThat(journal.file()).as("New generation").isNotEqualTo(previous);
+        }
+        List<String> records = new ArrayList<>();
+        try (PublicationJournal journal = open()) {
+            journal.replay(record -> records.add(string(record)));
+        }
+        assertThat(records).as("Records after the rewrite").containsExactly("live", "appended");
+        assertThat(previous).as("Previous generation deleted").doesNotExist();
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files).as("Journal files").hasSize(1);
+        }
+    }
+
+    private PublicationJournal open() {
+        return new PublicationJournal(directory, SEGMENT_SIZE, Duration.ZERO);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(ByteBuffer record) {
+        byte[] bytes = new byte[record.remaining()];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,81 @@
+package dev.neate;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Test class for RampingRateLimiter.
+ *
+ * Verifies that:
+ * - The rate grows linearly from the initial to the maximum rate over the ramp-up
+ * - Permits are spaced according to the current rate
+ * - Idle time does not allow a burst
+ * - Invalid rates are rejected
+ */
+class RampingRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong ticker = new AtomicLong();
+
+    @Test
+    void rampsUpLinearly() {
+        // Given
+        RampingRateLimiter limiter = new RampingRateLimiter(10, 110, Duration.ofSeconds(100), ticker::get);
+
+        // When / Then
+        assertThat(limiter.currentRate()).as("Rate at the start").isEqualTo(10.0);
+        ticker.set(50 * SECOND);
+        assertThat(limiter.currentRate()).as("Rate halfway through the ramp-up").isCloseTo(60.0, within(0.001));
+        ticker.set(200 * SECOND);
+        assertThat(limiter.currentRate()).as("Rate after the ramp-up").isEqualTo(110.0);
+    }
+
+    @Test
+    void spacesPermitsByCurrentRate() {
+        // Given
+        RampingRateLimiter limiter = new RampingRateLimiter(10, 10, Duration.ZERO, ticker::get);
+
+        // When
+        long first = limiter.reserve(20);
+        long second = limiter.reserve(5);
+        long third = limiter.reserve(5);
+
+        // Then
+        assertThat(first).as("First permits are available at once").isZero();
+        assertThat(second).as("Wait for 20 permits at 10 per second").isEqualTo(2 * SECOND);
+        assertThat(third).as("Wait for 25 permits at 10 per second").isEqualTo(2 * SECOND + SECOND / 2);
+    }
+
+    @Test
+    void doesNotSaveUpIdleTime() {
+        // Given
+        RampingRateLimiter limiter = new RampingRateLimiter(10, 10, Duration.ZERO, ticker::get);
+        limiter.reserve(10);
+
+        // When - idle for a minute
+        ticker.set(60 * SECOND);
+        long first = limiter.reserve(10);
+        long second = limiter.reserve(10);
+
+        // Then
+        assertThat(first).as("Permits after idle time are available at once").isZero();
+        assertThat(second).as("Next permits still wait for the rate").isEqualTo(SECOND);
+    }
+
+    @Test
+    void rejectsInvalidRates() {
+        // When / Then
+        assertThatThrownBy(() -> new RampingRateLimiter(0, 10, Duration.ZERO))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RampingRateLimiter(10, 5, Duration.ZERO))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,64 @@
+package dev.neate;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+/**
+ * Local stand-in for the RestCountries API.
+ *
+ * Answers every GET /alpha/{code} with the same country, so pipeline tests
+ * and benchmarks do not depend on the public API. Point the application at
+ * it with enrichment.rest-countries.base-url.
+ */
+public final class RestCountriesStub {
+
+    private static final byte[] COUNTRY = """
+        [{"population": 67000000,
+          "currencies": {"GBP": {"name": "British pound", "symbol": "£"}},
+          "languages": {"eng": "English"}}]
+        """.getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+
+    private RestCountriesStub(HttpServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Starts a stub on a free local port.
+     *
+     * @return the running stub
+     */
+    public static RestCountriesStub start() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/alpha/", exchange -> {
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, COUNTRY.length);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(COUNTRY);
+                }
+            });
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.start();
+            return new RestCountriesStub(server);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start RestCountries stub", e);
+        }
+    }
+
+    /**
+     * Base URL to configure as enrichment.rest-countries.base-url.
+     *
+     * @return the base URL
+     */
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+}
@@ -0,0 +1,266 @@
+package dev.neate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.modulith.events.IncompleteEventPublications;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for ScheduledEventRetryService.
+ *
+ * Verifies that:
+ * - Incomplete publications are resubmitted by the instance holding the retry lease
+ * - Instances without the lease skip the cycle
+ * - Without a lock (or with locking disabled) every run resubmits
+ * - The chunked resubmitter renews the lease before every chunk
+ * - Interval and chunk size adapt to the outcome of a cycle and are exposed as metrics
+ * - A partial cycle, e.g. after the lease was lost, neither adapts nor shares the policy
+ * - The backlog is counted up to the cycle's cutoff
+ * - Interval and chunk size are shared through the resubmission checkpoints, so a new lease holder backs off too
+ * - The next cycle starts one interval after the previous one
+ */
+class ScheduledEventRetryServiceTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(4);
+    private static final Duration INTERVAL = Duration.ofMinutes(5);
+    private static final int CHUNK_SIZE = 100;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private IncompleteEventPublications mockIncompleteEventPublications;
+    private MongoLeaseLock mockLock;
+
+    @BeforeEach
+    void setUp() {
+        mockIncompleteEventPublications = mock(IncompleteEventPublications.class);
+        mockLock = mock(MongoLeaseLock.class);
+    }
+
+    @Test
+    void resubmitsWhenLeaseIsAcquired() {
+        // Given
+        when(mockLock.tryAcquire(ScheduledEventRetryService.LOCK_NAME, LEASE)).thenReturn(true);
+        ScheduledEventRetryService service = service(noChunkedResubmitter(), provider(mockLock), true);
+
+        // When
+        service.retryIncompleteEvents();
+
+        // Then
+        verify(mockIncompleteEventPublications).resubmitIncompletePublicationsOlderThan(Duration.ofMinutes(1));
+        verify(mockLock, never()).release(any());
+    }
+
+    @Test
+    void skipsCycleWhenAnotherInstanceHoldsLease() {
+        // Given
+        when(mockLock.tryAcquire(ScheduledEventRetryService.LOCK_NAME, LEASE)).thenReturn(false);
+        ScheduledEventRetryService service = service(noChunkedResubmitter(), provider(mockLock), true);
+
+        // When
+        service.retryIncompleteEvents();
+
+        // Then
+        verifyNoInteractions(mockIncompleteEventPublications);
+    }
+
+    @Test
+    void resubmitsWithoutLockWhenLockingIsDisabled() {
+        // Given
+        ScheduledEventRetryService service = service(noChunkedResubmitter(), provider(mockLock), false);
+
+        // When
+        service.retryIncompleteEvents();
+
+        // Then
+        verify(mockIncompleteEventPublications).resubmitIncompletePublicationsOlderThan(Duration.ofMinutes(1));
+        verifyNoInteractions(mockLock);
+    }
+
+    @Test
+    void resubmitsWithoutLockBean() {
+        // Given - no MongoLeaseLock bean, as with the in-memory profile
+        ScheduledEventRetryService service = service(noChunkedResubmitter(),
+            new StaticListableBeanFactory().getBeanProvider(MongoLeaseLock.class), true);
+
+        // When
+        service.retryIncompleteEvents();
+
+        // Then
+        verify(mockIncompleteEventPublications).resubmitIncompletePublicationsOlderThan(Duration.ofMinutes(1));
+    }
+
+    @Test
+    void handlesLockFailure() {
+        // Given - MongoDB is unreachable
+        when(mockLock.tryAcquire(ScheduledEventRetryService.LOCK_NAME, LEASE))
+            .thenThrow(new IllegalStateException("MongoDB unavailable"));
+        ScheduledEventRetryService service = service(noChunkedResubmitter(), provider(mockLock), true);
+
+        // When
+        service.retryIncompleteEvents();
+
+        // Then - the cycle is skipped without resubmitting
+        verifyNoInteractions(mockIncompleteEventPublications);
+    }
+
+    @Test
+    void resubmitsInChunksRenewingLease() {
+        // Given
+        ChunkedEventResubmitter chunkedResubmitter = mock(ChunkedEventResubmitter.class);
+        when(mockLock.tryAcquire(ScheduledEventRetryService.LOCK_NAME, LEASE)).thenReturn(true, true, false);
+        when(chunkedResubmitter.resubmit(eq(Duration.ofMinutes(1)), eq(CHUNK_SIZE), any(), any())).thenAnswer(invocation -> {
+            BooleanSupplier beforeChunk = invocation.getArgument(2);
+            int chunks = 0;
+            while (beforeChunk.getAsBoolean()) {
+                chunks++;
+            }
+            return new ChunkedEventResubmitter.ResubmissionResult(chunks * 10, 0, 0, chunks, false, Instant.now());
+        });
+        ScheduledEventRetryService service = service(chunkedResubmitter(chunkedResubmitter), provider(mockLock), true);
+
+        // When
+        service.retryIncompleteEvents();
+
+        // Then - one acquisition for the cycle, then one renewal per chunk until the lease is lost
+        verify(mockLock, times(3)).tryAcquire(ScheduledEventRetryService.LOCK_NAME, LEASE);
+        verifyNoInteractions(mockIncompleteEventPublications);
+        assertThat(service.currentInterval()).as("Interval after a partial cycle").isEqualTo(INTERVAL);
+        verify(chunkedResubmitter, never()).countIncomplete(any());
+        verify(chunkedResubmitter, never()).saveRetryPolicy(any());
+    }
+
+    @Test
+    void backsOffWhileResubmittedPublicationsFail() {
+        // Given - 8 of 10 resubmitted publications failed again
+        ChunkedEventResubmitter chunkedResubmitter = mock(ChunkedEventResubmitter.class);
+        when(chunkedResubmitter.resubmit(any(), anyInt(), any(), any()))
+            .thenReturn(new ChunkedEventResubmitter.ResubmissionResult(10, 8, 0, 1, true, Instant.now()));
+        when(chunkedResubmitter.countIncomplete(any())).thenReturn(8L);
+        ScheduledEventRetryService service = service(chunkedResubmitter(chunkedResubmitter), provider(mockLock), false);
+
+        // When
+        service.retryIncompleteEvents();
+        service.retryIncompleteEvents();
+
+        // Then
+        assertThat(service.currentInterval()).as("Interval doubled per failing cycle").isEqualTo(INTERVAL.multipliedBy(4));
+        verify(chunkedResubmitter).resubmit(any(), eq(CHUNK_SIZE), any(), any());
+        verify(chunkedResubmitter).resubmit(any(), eq(CHUNK_SIZE / 2), any(), any());
+        assertThat(meterRegistry.get("event.publication.retry.interval").timeGauge().value(TimeUnit.MINUTES))
+            .as("Effective interval metric").isEqualTo(20.0);
+        assertThat(meterRegistry.get("event.publication.retry.success-rate").gauge().value())
+            .as("Success rate metric").isCloseTo(0.2, within(0.001));
+    }
+
+    @Test
+    void countsBacklogUpToCutoffAndSharesPolicy() {
+        // Given
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(1));
+        ChunkedEventResubmitter chunkedResubmitter = mock(ChunkedEventResubmitter.class);
+        when(chunkedResubmitter.resubmit(any(), anyInt(), any(), any()))
+            .thenReturn(new ChunkedEventResubmitter.ResubmissionResult(10, 8, 0, 1, true, cutoff));
+        when(chunkedResubmitter.countIncomplete(cutoff)).thenReturn(8L);
+        ScheduledEventRetryService service = service(chunkedResubmitter(chunkedResubmitter), provider(mockLock), false);
+
+        // When
+        Instant before = Instant.now();
+        service.retryIncompleteEvents();
+
+        // Then
+        verify(chunkedResubmitter).countIncomplete(cutoff);
+        ArgumentCaptor<ChunkedEventResubmitter.RetryPolicyState> state =
+            ArgumentCaptor.forClass(ChunkedEventResubmitter.RetryPolicyState.class);
+        verify(chunkedResubmitter).saveRetryPolicy(state.capture());
+        assertThat(state.getValue().interval()).as("Shared interval").isEqualTo(INTERVAL.multipliedBy(2));
+        assertThat(state.getValue().chunkSize()).as("Shared chunk size").isEqualTo(CHUNK_SIZE / 2);
+        assertThat(state.getValue().nextCycle()).as("Earliest start of the next cycle")
+            .isAfterOrEqualTo(before.plus(INTERVAL.multipliedBy(2)));
+    }
+
+    @Test
+    void continuesFromPolicySharedByPreviousLeaseHolder() {
+        // Given - the previous holder backed off to 20 minutes, its next cycle is 10 minutes away
+        ChunkedEventResubmitter chunkedResubmitter = mock(ChunkedEventResubmitter.class);
+        when(mockLock.tryAcquire(ScheduledEventRetryService.LOCK_NAME, LEASE)).thenReturn(true);
+        when(chunkedResubmitter.loadRetryPolicy()).thenReturn(Optional.of(new ChunkedEventResubmitter.RetryPolicyState(
+            Duration.ofMinutes(20), 25, 0.2, Instant.now().plus(Duration.ofMinutes(10)))));
+        ScheduledEventRetryService service = service(chunkedResubmitter(chunkedResubmitter), provider(mockLock), true);
+
+        // When
+        service.retryIncompleteEvents();
+
+        // Then
+        verify(chunkedResubmitter, never()).resubmit(any(), anyInt(), any(), any());
+        assertThat(service.currentInterval()).as("Interval taken over").isEqualTo(Duration.ofMinutes(20));
+        assertThat(meterRegistry.get("event.publication.retry.chunk-size").gauge().value())
+            .as("Chunk size taken over").isEqualTo(25.0);
+    }
+
+    @Test
+    void keepsIntervalWhenLeaseIsHeldElsewhere() {
+        // Given - the cycle is skipped, nothing was learned
+        ChunkedEventResubmitter chunkedResubmitter = mock(ChunkedEventResubmitter.class);
+        when(mockLock.tryAcquire(ScheduledEventRetryService.LOCK_NAME, LEASE)).thenReturn(false);
+        ScheduledEventRetryService service = service(chunkedResubmitter(chunkedResubmitter), provider(mockLock), true);
+
+        // When
+        service.retryIncompleteEvents();
+
+        // Then
+        assertThat(service.currentInterval()).as("Interval unchanged").isEqualTo(INTERVAL);
+        verifyNoInteractions(chunkedResubmitter);
+    }
+
+    @Test
+    void schedulesNextCycleOneIntervalAfterLastCompletion() {
+        // Given
+        ScheduledEventRetryService service = service(noChunkedResubmitter(), provider(mockLock), false);
+        Instant completion = Instant.parse("2025-01-01T10:00:00Z");
+        SimpleTriggerContext afterCycle = new SimpleTriggerContext(completion, completion, completion);
+
+        // When / Then
+        assertThat(service.nextExecution(new SimpleTriggerContext()))
+            .as("First cycle starts at once").isBeforeOrEqualTo(Instant.now());
+        assertThat(service.nextExecution(afterCycle))
+            .as("Next cycle one interval after the last").isEqualTo(completion.plus(INTERVAL));
+    }
+
+    private ScheduledEventRetryService service(ObjectProvider<ChunkedEventResubmitter> chunkedResubmitter,
+            ObjectProvider<MongoLeaseLock> lock, boolean lockEnabled) {
+        AdaptiveRetryPolicy policy = new AdaptiveRetryPolicy(INTERVAL, Duration.ofSeconds(30), Duration.ofMinutes(30),
+            CHUNK_SIZE, 10, 1000);
+        return new ScheduledEventRetryService(mockIncompleteEventPublications, chunkedResubmitter, lock,
+            lockEnabled, LEASE, policy, true, meterRegistry);
+    }
+
+    private static ObjectProvider<ChunkedEventResubmitter> chunkedResubmitter(ChunkedEventResubmitter resubmitter) {
+        return new StaticListableBeanFactory(Map.of("chunkedEventResubmitter", resubmitter))
+            .getBeanProvider(ChunkedEventResubmitter.class);
+    }
+
+    private static ObjectProvider<ChunkedEventResubmitter> noChunkedResubmitter() {
+        return new StaticListableBeanFactory().getBeanProvider(ChunkedEventResubmitter.class);
+    }
+
+    private static ObjectProvider<MongoLeaseLock> provider(MongoLeaseLock lock) {
+        return new StaticListableBeanFactory(Map.of("mongoLeaseLock", lock)).getBeanProvider(MongoLeaseLock.class);
+    }
+}
@@ -0,0 +1,127 @@
+package dev.neate;
+
+import dev.neate.api.CountryCreatedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.modulith.events.core.EventPublicationRepository;
+import org.springframework.modulith.events.core.PublicationTargetIdentifier;
+import org.springframework.modulith.events.core.TargetEventPublication;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for TieredEventPublicationRepository.
+ *
+ * Verifies that:
+ * - Listeners match by identifier or by class name
+ * - Publications of recoverable listeners are not stored, nor updated on processing, completion or failure
+ * - Publications of other listeners, and stored ones of recoverable listeners, go to the registry
+ */
+class TieredEventPublicationRepositoryTest {
+
+    private static final String RECOVERABLE_CLASS = "dev.neate.validation.internal.CountryCreatedEventListener";
+    private static final PublicationTargetIdentifier RECOVERABLE = PublicationTargetIdentifier.of(
+        RECOVERABLE_CLASS + ".handleCountryCreated(dev.neate.api.CountryCreatedEvent)");
+    private static final PublicationTargetIdentifier DURABLE = PublicationTargetIdentifier.of(
+        "dev.neate.enrichment.internal.CountryValidatedEventListener.handleCountryValidated("
+            + "dev.neate.validation.CountryValidatedEvent)");
+
+    private final CountryCreatedEvent event = new CountryCreatedEvent(UUID.randomUUID());
+
+    private EventPublicationRepository mockDelegate;
+    private TieredEventPublicationRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        mockDelegate = mock(EventPublicationRepository.class);
+        repository = new TieredEventPublicationRepository(mockDelegate, List.of(RECOVERABLE_CLASS));
+    }
+
+    @Test
+    void matchesListenersByIdentifierOrClassName() {
+        // Given
+        TieredEventPublicationRepository byIdentifier =
+            new TieredEventPublicationRepository(mockDelegate, List.of(RECOVERABLE.getValue()));
+
+        // Then
+        assertThat(repository.isRecoverable(RECOVERABLE)).as("Listener of a listed class").isTrue();
+        assertThat(byIdentifier.isRecoverable(RECOVERABLE)).as("Listed listener").isTrue();
+        assertThat(repository.isRecoverable(DURABLE)).as("Listener of another class").isFalse();
+        assertThat(repository.isRecoverable(PublicationTargetIdentifier.of(RECOVERABLE_CLASS + "Test.handle()")))
+            .as("Listener of a class with the listed name as prefix")
+            .isFalse();
+    }
+
+    @Test
+    void keepsRecoverablePublicationsOutOfTheRegistry() {
+        // Given
+        TargetEventPublication publication = TargetEventPublication.of(event, RECOVERABLE);
+
+        // When
+        TargetEventPublication created = repository.create(publication);
+        repository.markProcessing(publication.getIdentifier());
+        repository.markCompleted(publication, Instant.now());
+
+        // Then
+        assertThat(created).as("Registry keeps tracking the publication").isSameAs(publication);
+        assertThat(repository.skippedCount()).as("Skipped publications left").isZero();
+        verifyNoInteractions(mockDelegate);
+    }
+
+    @Test
+    void dropsFailuresOfRecoverablePublications() {
+        // Given
+        TargetEventPublication publication = TargetEventPublication.of(event, RECOVERABLE);
+        repository.create(publication);
+
+        // When
+        repository.markFailed(publication.getIdentifier());
+        repository.markCompleted(event, RECOVERABLE, Instant.now());
+
+        // Then
+        assertThat(repository.skippedCount()).as("Skipped publications left").isZero();
+        verifyNoInteractions(mockDelegate);
+    }
+
+    @Test
+    void storesPublicationsOfDurableListeners() {
+        // Given
+        TargetEventPublication publication = TargetEventPublication.of(event, DURABLE);
+        when(mockDelegate.create(publication)).thenReturn(publication);
+
+        // When
+        repository.create(publication);
+        repository.markProcessing(publication.getIdentifier());
+        repository.markCompleted(publication, Instant.now());
+        repository.markCompleted(event, DURABLE, Instant.now());
+
+        // Then
+        verify(mockDelegate).create(publication);
+        verify(mockDelegate).markProcessing(publication.getIdentifier());
+        verify(mockDelegate).markCompleted(eq(publication), any(Instant.class));
+        verify(mockDelegate).markCompleted(eq(event), eq(DURABLE), any(Instant.class));
+    }
+
+    @Test
+    void updatesStoredPublicationsOfRecoverableListeners() {
+        // Given - stored before the listener became recoverable, resubmitted by the registry
+        UUID stored = UUID.randomUUID();
+
+        // When
+        repository.markProcessing(stored);
+        repository.markCompleted(stored, Instant.now());
+        repository.markFailed(stored);
+
+        // Then
+        verify(mockDelegate).markProcessing(stored);
+        verify(mockDelegate).markCompleted(eq(stored), any(Instant.class));
+        verify(mockDelegate).markFailed(stored);
+    }
+}
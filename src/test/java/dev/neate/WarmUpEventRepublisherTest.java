@@ -0,0 +1,140 @@
+package dev.neate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for WarmUpEventRepublisher.
+ *
+ * Verifies that:
+ * - Outstanding publications are republished in chunks of the warm-up chunk size
+ * - Progress is exposed as metrics
+ * - A resumed cycle is followed by one covering all publications before startup
+ * - Republishing stops when another instance holds the retry lease
+ */
+class WarmUpEventRepublisherTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(4);
+    private static final int CHUNK_SIZE = 20;
+
+    private ChunkedEventResubmitter mockResubmitter;
+    private MongoLeaseLock mockLock;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        mockResubmitter = mock(ChunkedEventResubmitter.class);
+        mockLock = mock(MongoLeaseLock.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(mockLock.tryAcquire(ScheduledEventRetryService.LOCK_NAME, LEASE)).thenReturn(true);
+    }
+
+    @Test
+    void republishesBacklogInChunks() {
+        // Given - 30 outstanding publications
+        WarmUpEventRepublisher republisher = republisher();
+        when(mockResubmitter.countIncomplete(any())).thenReturn(30L);
+        when(mockResubmitter.resubmit(any(), eq(CHUNK_SIZE), any(), any())).thenAnswer(invocation -> {
+            BooleanSupplier beforeChunk = invocation.getArgument(2);
+            IntConsumer afterChunk = invocation.getArgument(3);
+            beforeChunk.getAsBoolean();
+            afterChunk.accept(20);
+            beforeChunk.getAsBoolean();
+            afterChunk.accept(10);
+            return new ChunkedEventResubmitter.ResubmissionResult(30, 0, 0, 2, true, Instant.now());
+        });
+
+        // When
+        long republished = republisher.republish();
+
+        // Then
+        assertThat(republished).as("Republished publications").isEqualTo(30);
+        assertThat(meterRegistry.get("event.publication.warmup.republished").counter().count())
+            .as("Republished counter").isEqualTo(30.0);
+        assertThat(meterRegistry.get("event.publication.warmup.backlog").gauge().value())
+            .as("Backlog gauge").isEqualTo(30.0);
+        assertThat(meterRegistry.get("event.publication.warmup.remaining").gauge().value())
+            .as("Remaining gauge").isZero();
+        assertThat(meterRegistry.get("event.publication.warmup.active").gauge().value())
+            .as("Active gauge after the warm-up").isZero();
+        verify(mockLock, times(2)).tryAcquire(ScheduledEventRetryService.LOCK_NAME, LEASE);
+    }
+
+    @Test
+    void continuesAfterResumedCycle() {
+        // Given - the first run completes a cycle started before this instance
+        WarmUpEventRepublisher republisher = republisher();
+        when(mockResubmitter.countIncomplete(any())).thenReturn(10L);
+        when(mockResubmitter.resubmit(any(), eq(CHUNK_SIZE), any(), any()))
+            .thenReturn(new ChunkedEventResubmitter.ResubmissionResult(4, 0, 0, 1, true,
+                Instant.now().minusSeconds(3600)))
+            .thenReturn(new ChunkedEventResubmitter.ResubmissionResult(6, 0, 0, 1, true, Instant.now()));
+
+        // When
+        long republished = republisher.republish();
+
+        // Then
+        assertThat(republished).as("Publications of both cycles").isEqualTo(10);
+        verify(mockResubmitter, times(2)).resubmit(any(), anyInt(), any(), any());
+    }
+
+    @Test
+    void stopsWhenLeaseIsHeldElsewhere() {
+        // Given
+        WarmUpEventRepublisher republisher = republisher();
+        when(mockLock.tryAcquire(ScheduledEventRetryService.LOCK_NAME, LEASE)).thenReturn(false);
+        when(mockResubmitter.countIncomplete(any())).thenReturn(10L);
+        when(mockResubmitter.resubmit(any(), eq(CHUNK_SIZE), any(), any())).thenAnswer(invocation -> {
+            BooleanSupplier beforeChunk = invocation.getArgument(2);
+            return new ChunkedEventResubmitter.ResubmissionResult(0, 0, 0, 0, beforeChunk.getAsBoolean(), Instant.now());
+        });
+
+        // When
+        long republished = republisher.republish();
+
+        // Then
+        assertThat(republished).as("Nothing republished without the lease").isZero();
+        assertThat(meterRegistry.get("event.publication.warmup.remaining").gauge().value())
+            .as("Remaining gauge").isEqualTo(10.0);
+    }
+
+    @Test
+    void skipsWithoutOutstandingPublications() {
+        // Given
+        WarmUpEventRepublisher republisher = republisher();
+        when(mockResubmitter.countIncomplete(any())).thenReturn(0L);
+
+        // When
+        republisher.republish();
+
+        // Then
+        verify(mockResubmitter, never()).resubmit(any(), anyInt(), any(), any());
+        verifyNoInteractions(mockLock);
+    }
+
+    private WarmUpEventRepublisher republisher() {
+        ObjectProvider<ChunkedEventResubmitter> resubmitter =
+            new StaticListableBeanFactory(Map.of("chunkedEventResubmitter", mockResubmitter))
+                .getBeanProvider(ChunkedEventResubmitter.class);
+        ObjectProvider<MongoLeaseLock> lock = new StaticListableBeanFactory(Map.of("mongoLeaseLock", mockLock))
+            .getBeanProvider(MongoLeaseLock.class);
+        return new WarmUpEventRepublisher(resubmitter, lock, meterRegistry, false, true, LEASE,
+            1000, 1000, Duration.ZERO, CHUNK_SIZE);
+    }
+}
@@ -0,0 +1,159 @@
+package dev.neate.domain;
+
+import dev.neate.MongoTestcontainersConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for CountryQueryService.
+ * 
+ * Verifies that:
+ * - Listing, stats and status reads return the stored data
+ * - Countries without a stage are neither counted nor found in any stage
+ * - MongoDB command metrics are tagged with the server that served the read
+ * 
+ * The test replica set has a single member, so secondaryPreferred reads are
+ * served by the primary.
+ */
+@SpringBootTest
+@Import(MongoTestcontainersConfiguration.class)
+class CountryQueryServiceTest {
+
+    @Autowired
+    private CountryQueryService queryService;
+
+    @Autowired
+    private CountryService countryService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.remove(new Query(), Country.class);
+    }
+
+    @Test
+    void findsValidCountriesByCurrency() {
+        // Given
+        Country france = save("France", "FR", "EUR", true);
+        save("Germany", "DE", "EUR", false);
+        save("United Kingdom", "GB", "GBP", true);
+
+        // When
+        List<Country> countries = queryService.findValidByCurrency("EUR");
+
+        // Then
+        assertThat(countries)
+            .as("Only validated countries using EUR should be listed")
+            .extracting(Country::getId)
+            .containsExactly(france.getId());
+    }
+
+    @Test
+    void countsCountriesByStage() {
+        // Given
+        save("France", "FR", "EUR", false);
+        Country validated = save("Germany", "DE", "EUR", false);
+        countryService.transition(CountryTransition.validated(validated.getId()));
+        Country legacy = save("Spain", "ES", "EUR", false);
+        mongoTemplate.updateFirst(
+            Query.query(Criteria.where("_id").is(legacy.getId())),
+            new Update().unset("stage"),
+            Country.class);
+
+        // When
+        Map<CountryStage, Long> counts = queryService.countByStage();
+
+        // Then
+        assertThat(counts)
+            .as("Every stage should be reported, countries without a stage in none")
+            .containsEntry(CountryStage.CREATED, 1L)
+            .containsEntry(CountryStage.VALIDATED, 1L)
+            .containsEntry(CountryStage.ENRICHED, 0L);
+    }
+
+    @Test
+    void findsIdsByStage() {
+        // Given
+        Country france = save("France", "FR", "EUR", false);
+        Country rejected = save("Germany", "DE", "EUR", false);
+        countryService.transition(CountryTransition.rejected(rejected.getId()));
+        Country legacy = save("Spain", "ES", "EUR", false);
+        mongoTemplate.updateFirst(
+            Query.query(Criteria.where("_id").is(legacy.getId())),
+            new Update().unset("stage"),
+            Country.class);
+
+        // When
+        List<UUID> created = queryService.findIdsByStage(CountryStage.CREATED, 10);
+        List<UUID> first = queryService.findIdsByStage(CountryStage.CREATED, 1);
+
+        // Then
+        assertThat(created)
+            .as("Only CREATED countries should be found, not countries without a stage")
+            .containsExactly(france.getId());
+        assertThat(first).as("The limit should apply, lowest ID first").containsExactly(created.get(0));
+        assertThat(queryService.findIdsByStage(CountryStage.REJECTED, 10))
+            .as("Rejected countries should be found by their stage")
+            .containsExactly(rejected.getId());
+    }
+
+    @Test
+    void findsStatusById() {
+        // Given
+        Country country = save("France", "FR", "EUR", true);
+
+        // When
+        Optional<CountryStatus> status = queryService.findStatusById(country.getId());
+        Optional<CountryStatus> missing = queryService.findStatusById(UUID.randomUUID());
+
+        // Then
+        assertThat(status).contains(new CountryStatus(country.getId(), "FR", true, CountryStage.CREATED));
+        assertThat(missing).isEmpty();
+    }
+
+    @Test
+    void recordsReadsPerServer() {
+        // Given
+        save("France", "FR", "EUR", true);
+
+        // When
+        queryService.findValidByCurrency("EUR");
+
+        // Then
+        List<Timer> finds = meterRegistry.find("mongodb.driver.commands")
+            .tag("command", "find")
+            .timers().stream().toList();
+        assertThat(finds)
+            .as("find commands should be timed per replica set member")
+            .isNotEmpty()
+            .allSatisfy(timer -> assertThat(timer.getId().getTag("server.address")).isNotBlank());
+    }
+
+    private Country save(String name, String code, String currency, boolean valid) {
+        Country country = new Country(name, code);
+        country.setCurrency(currency);
+        country.setValidCountry(valid);
+        return countryService.save(country);
+    }
+}
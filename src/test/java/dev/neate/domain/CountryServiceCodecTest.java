@@ -0,0 +1,83 @@
+package dev.neate.domain;
+
+import dev.neate.MongoTestcontainersConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for CountryService with the hand-written CountryCodec enabled.
+ * 
+ * Verifies that:
+ * - save() and findById() work through the codec
+ * - Documents written by the codec are readable by MappingMongoConverter
+ * - Documents written by MappingMongoConverter are readable by the codec
+ */
+@SpringBootTest(properties = "domain.mongodb.codec.enabled=true")
+@Import(MongoTestcontainersConfiguration.class)
+class CountryServiceCodecTest {
+
+    @Autowired
+    private CountryService countryService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Clean up before each test
+        mongoTemplate.getDb().drop();
+    }
+
+    @Test
+    void canSaveAndFindCountry() {
+        // Save a country through the codec
+        Country country = new Country("United Kingdom", "GB");
+        country.setCurrency("GBP");
+        Country saved = countryService.save(country);
+        
+        // Find it through the codec
+        assertThat(countryService.findById(saved.getId()))
+            .as("Country saved with the codec should be found")
+            .get()
+            .usingRecursiveComparison()
+            .isEqualTo(saved);
+    }
+
+    @Test
+    void codecDocumentsAreReadableByConverter() {
+        // Save a country through the codec
+        Country saved = countryService.save(new Country("France", "FR"));
+        
+        // Read it with MappingMongoConverter
+        Country found = mongoTemplate.findById(saved.getId(), Country.class);
+        
+        assertThat(found)
+            .as("Converter should read documents written by the codec")
+            .usingRecursiveComparison()
+            .isEqualTo(saved);
+    }
+
+    @Test
+    void converterDocumentsAreReadableByCodec() {
+        // Write a country with MappingMongoConverter
+        Country country = new Country("Germany", "DE");
+        country.setId(UUID.randomUUID());
+        country.setStage(CountryStage.VALIDATED);
+        mongoTemplate.save(country);
+        
+        // Read it through the codec
+        assertThat(countryService.findById(country.getId()))
+            .as("Codec should read documents written by the converter")
+            .get()
+            .usingRecursiveComparison()
+            .isEqualTo(country);
+    }
+}
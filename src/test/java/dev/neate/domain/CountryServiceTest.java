@@ -84,6 +84,124 @@ class CountryServiceTest {
             .isEmpty();
     }
 
+    @Test
+    void canFindCountryByCode() {
+        // Save a country
+        Country saved = countryService.save(new Country("Italy", "IT"));
+        
+        // Find by code
+        Optional<Country> found = countryService.findByCode("IT");
+        
+        // Verify the country was found
+        assertThat(found)
+            .as("Country should be found by code")
+            .isPresent();
+        assertThat(found.get().getId()).isEqualTo(saved.getId());
+        
+        assertThat(countryService.findByCode("XX"))
+            .as("Should return empty for unknown code")
+            .isEmpty();
+    }
+
+    @Test
+    void transitionIsAppliedOnlyFromExpectedStage() {
+        // Save a country in the CREATED stage
+        Country saved = countryService.save(new Country("Spain", "ES"));
+        CountryTransition validated = CountryTransition.validated(saved.getId());
+        
+        // First transition is applied
+        Optional<Country> first = countryService.transition(validated);
+        assertThat(first)
+            .as("Transition from CREATED should be applied")
+            .isPresent();
+        assertThat(first.get().getStage()).isEqualTo(CountryStage.VALIDATED);
+        assertThat(first.get().getValidCountry()).isTrue();
+        
+        // Repeating the same transition is a no-op
+        assertThat(countryService.transition(validated))
+            .as("Repeated transition should not be applied")
+            .isEmpty();
+    }
+
+    @Test
+    void transitionAsyncWithoutCoalescerCompletesImmediately() {
+        // Save a country in the CREATED stage
+        Country saved = countryService.save(new Country("Italy", "IT"));
+        CountryTransition validated = CountryTransition.validated(saved.getId());
+
+        // Without the coalescer the transition is applied before the future is returned
+        assertThat(countryService.transitionAsync(validated))
+            .as("First asynchronous transition should be applied")
+            .isCompletedWithValue(true);
+        assertThat(countryService.transitionAsync(validated))
+            .as("Repeated asynchronous transition should not be applied")
+            .isCompletedWithValue(false);
+        assertThat(countryService.findById(saved.getId()).orElseThrow().getStage())
+            .isEqualTo(CountryStage.VALIDATED);
+    }
+
+    @Test
+    void enrichedTransitionStoresEnrichmentData() {
+        // Save a country and validate it
+        Country saved = countryService.save(new Country("Norway", "NO"));
+        countryService.transition(CountryTransition.validated(saved.getId()));
+        
+        // Enrich it
+        Optional<Country> enriched = countryService.transition(
+            CountryTransition.enriched(saved.getId(), 5400000L, "NOK", "nor"));
+        
+        // Verify enrichment fields and stage were stored
+        assertThat(enriched).isPresent();
+        Country found = countryService.findById(saved.getId()).orElseThrow();
+        assertThat(found.getStage()).isEqualTo(CountryStage.ENRICHED);
+        assertThat(found.getPopulation()).isEqualTo(5400000L);
+        assertThat(found.getCurrency()).isEqualTo("NOK");
+        assertThat(found.getLanguage()).isEqualTo("nor");
+        assertThat(found.getValidCountry()).isTrue();
+    }
+
+    @Test
+    void enrichedTransitionIsNotAppliedBeforeValidation() {
+        // Save a country that has not been validated
+        Country saved = countryService.save(new Country("Chile", "CL"));
+        
+        // Enrichment requires the VALIDATED stage
+        assertThat(countryService.transition(
+                CountryTransition.enriched(saved.getId(), 19000000L, "CLP", "spa")))
+            .as("Enrichment should not skip validation")
+            .isEmpty();
+    }
+
+    @Test
+    void canFindIdentityById() {
+        // Save an enriched country
+        Country country = new Country("Portugal", "PT");
+        country.setCurrency("EUR");
+        Country saved = countryService.save(country);
+        
+        // Find only its identity
+        Optional<CountryIdentity> identity = countryService.findIdentityById(saved.getId());
+        
+        assertThat(identity)
+            .as("Identity view should be found")
+            .contains(new CountryIdentity(saved.getId(), "Portugal", "PT", CountryStage.CREATED));
+        assertThat(countryService.findIdentityById(UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    void canFindStatusById() {
+        // Save and validate a country
+        Country saved = countryService.save(new Country("Greece", "GR"));
+        countryService.transition(CountryTransition.validated(saved.getId()));
+        
+        // Find only its status
+        Optional<CountryStatus> status = countryService.findStatusById(saved.getId());
+        
+        assertThat(status)
+            .as("Status view should reflect the validation")
+            .contains(new CountryStatus(saved.getId(), "GR", true, CountryStage.VALIDATED));
+    }
+
     @Test
     void canSaveMultipleCountries() {
         // Save multiple countries
@@ -47,6 +47,10 @@ class CountryTest {
         assertThat(country.getValidCountry())
             .as("validCountry should default to false")
             .isFalse();
+        
+        assertThat(country.getStage())
+            .as("stage should default to CREATED")
+            .isEqualTo(CountryStage.CREATED);
     }
 
     @Test
@@ -58,8 +62,8 @@ class CountryTest {
         country.setName("France");
         country.setCode("FR");
         country.setCurrency("EUR");
-        country.setLanguage("French");
-        country.setPopulation("67000000");
+        country.setLanguage("fra");
+        country.setPopulation(67000000L);
         country.setValidCountry(true);
         
         // Verify all fields
@@ -67,8 +71,8 @@ class CountryTest {
         assertThat(country.getName()).isEqualTo("France");
         assertThat(country.getCode()).isEqualTo("FR");
         assertThat(country.getCurrency()).isEqualTo("EUR");
-        assertThat(country.getLanguage()).isEqualTo("French");
-        assertThat(country.getPopulation()).isEqualTo("67000000");
+        assertThat(country.getLanguage()).isEqualTo("fra");
+        assertThat(country.getPopulation()).isEqualTo(67000000L);
         assertThat(country.getValidCountry()).isTrue();
     }
 
@@ -79,14 +83,14 @@ class CountryTest {
         
         // Modify fields
         country.setCurrency("EUR");
-        country.setLanguage("German");
-        country.setPopulation("83000000");
+        country.setLanguage("deu");
+        country.setPopulation(83000000L);
         country.setValidCountry(true);
         
         // Verify modifications
         assertThat(country.getCurrency()).isEqualTo("EUR");
-        assertThat(country.getLanguage()).isEqualTo("German");
-        assertThat(country.getPopulation()).isEqualTo("83000000");
+        assertThat(country.getLanguage()).isEqualTo("deu");
+        assertThat(country.getPopulation()).isEqualTo(83000000L);
         assertThat(country.getValidCountry()).isTrue();
     }
 
@@ -97,8 +101,8 @@ class CountryTest {
         UUID testId = UUID.randomUUID();
         country.setId(testId);
         country.setCurrency("EUR");
-        country.setLanguage("Spanish");
-        country.setPopulation("47000000");
+        country.setLanguage("spa");
+        country.setPopulation(47000000L);
         country.setValidCountry(true);
         
         String toString = country.toString();
@@ -109,8 +113,23 @@ class CountryTest {
             .contains("Spain")
             .contains("ES")
             .contains("EUR")
-            .contains("Spanish")
+            .contains("spa")
             .contains("47000000")
             .contains("true");
     }
+
+    @Test
+    void internsCurrencyAndLanguageCodes() {
+        // Codes built at runtime are replaced by the shared interned instance
+        Country country = new Country("France", "FR");
+        country.setCurrency(new String("EUR"));
+        country.setLanguage(new String("fra"));
+        
+        assertThat(country.getCurrency())
+            .as("Currency code should be interned")
+            .isSameAs("EUR");
+        assertThat(country.getLanguage())
+            .as("Language code should be interned")
+            .isSameAs("fra");
+    }
 }
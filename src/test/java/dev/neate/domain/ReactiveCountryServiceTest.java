@@ -0,0 +1,116 @@
+package dev.neate.domain;
+
+import dev.neate.MongoTestcontainersConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for ReactiveCountryService.
+ * 
+ * Verifies that:
+ * - Reactive operations read and write the same countries as CountryService
+ * - Identifiers are generated for new countries
+ * - Stage transitions are applied only from the expected stage
+ * - Missing countries complete empty
+ */
+@SpringBootTest
+@Import(MongoTestcontainersConfiguration.class)
+class ReactiveCountryServiceTest {
+
+    @Autowired
+    private ReactiveCountryService reactiveCountryService;
+
+    @Autowired
+    private CountryService countryService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Clean up before each test
+        mongoTemplate.getDb().drop();
+    }
+
+    @Test
+    void canSaveCountry() {
+        // Save a country reactively
+        StepVerifier.create(reactiveCountryService.save(new Country("United Kingdom", "GB")))
+            .assertNext(saved -> {
+                assertThat(saved.getId())
+                    .as("ID should be generated")
+                    .isNotNull();
+                assertThat(saved.getStage()).isEqualTo(CountryStage.CREATED);
+            })
+            .verifyComplete();
+        
+        // Verify the blocking service sees the same document
+        assertThat(countryService.findByCode("GB"))
+            .as("Country saved reactively should be visible to CountryService")
+            .isPresent();
+    }
+
+    @Test
+    void canFindCountrySavedByBlockingService() {
+        // Save a country with the blocking service
+        Country saved = countryService.save(new Country("France", "FR"));
+        
+        // Find it reactively by ID and by code
+        StepVerifier.create(reactiveCountryService.findById(saved.getId()))
+            .assertNext(found -> assertThat(found.getName()).isEqualTo("France"))
+            .verifyComplete();
+        
+        StepVerifier.create(reactiveCountryService.findByCode("FR"))
+            .assertNext(found -> assertThat(found.getId()).isEqualTo(saved.getId()))
+            .verifyComplete();
+    }
+
+    @Test
+    void findByIdCompletesEmptyForNonExistentId() {
+        StepVerifier.create(reactiveCountryService.findById(UUID.randomUUID()))
+            .verifyComplete();
+    }
+
+    @Test
+    void canFindAllById() {
+        // Save two countries
+        Country first = countryService.save(new Country("Germany", "DE"));
+        Country second = countryService.save(new Country("Italy", "IT"));
+        
+        // Stream both back
+        StepVerifier.create(reactiveCountryService.findAllById(List.of(first.getId(), second.getId()))
+                .map(Country::getCode)
+                .collectList())
+            .assertNext(codes -> assertThat(codes).containsExactlyInAnyOrder("DE", "IT"))
+            .verifyComplete();
+    }
+
+    @Test
+    void transitionIsAppliedOnlyFromExpectedStage() {
+        // Save a country in the CREATED stage
+        Country saved = countryService.save(new Country("Spain", "ES"));
+        CountryTransition validated = CountryTransition.validated(saved.getId());
+        
+        // First transition is applied
+        StepVerifier.create(reactiveCountryService.transition(validated))
+            .assertNext(country -> {
+                assertThat(country.getStage()).isEqualTo(CountryStage.VALIDATED);
+                assertThat(country.getValidCountry()).isTrue();
+            })
+            .verifyComplete();
+        
+        // Repeating the same transition is a no-op
+        StepVerifier.create(reactiveCountryService.transition(validated))
+            .verifyComplete();
+    }
+}
@@ -0,0 +1,167 @@
+package dev.neate.domain.internal;
+
+import com.mongodb.MongoClientSettings;
+import com.sun.management.ThreadMXBean;
+import dev.neate.domain.Country;
+import dev.neate.domain.CountryStage;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.UuidRepresentation;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.io.BasicOutputBuffer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark comparing CountryCodec with the default MappingMongoConverter.
+ *
+ * Both paths are measured from entity to BSON bytes and back, the way the
+ * driver sees them:
+ * - converter: Country -> Document (MappingMongoConverter) -> BSON (DocumentCodec), and reverse
+ * - codec: Country -> BSON (CountryCodec), and reverse
+ *
+ * No MongoDB instance is needed, so the numbers isolate the mapping cost.
+ * Operations per second and allocated bytes per operation (current thread)
+ * are logged for encode and decode.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=CountryCodecBenchmark
+ * Iterations: -Dbenchmark.iterations=2000000 (default 500000)
+ */
+@Tag("benchmark")
+class CountryCodecBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(CountryCodecBenchmark.class);
+
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 500_000);
+    private static final int WARMUP_ITERATIONS = 100_000;
+    private static final int SAMPLE_SIZE = 1_000;
+
+    private static final CodecRegistry REGISTRY = CodecRegistries.withUuidRepresentation(
+        MongoClientSettings.getDefaultCodecRegistry(), UuidRepresentation.STANDARD);
+
+    private final CountryCodec codec = new CountryCodec();
+    private final Codec<Document> documentCodec =
+        new DocumentCodec(REGISTRY).withUuidRepresentation(UuidRepresentation.STANDARD);
+    private final MappingMongoConverter converter = createConverter();
+
+    @Test
+    void compareCodecWithMappingMongoConverter() {
+        List<Country> countries = sampleCountries();
+        List<byte[]> encoded = countries.stream().map(this::encodeWithCodec).toList();
+
+        // Warm up both paths
+        encodeRun(countries, this::encodeWithConverter, WARMUP_ITERATIONS);
+        encodeRun(countries, this::encodeWithCodec, WARMUP_ITERATIONS);
+        decodeRun(encoded, this::decodeWithConverter, WARMUP_ITERATIONS);
+        decodeRun(encoded, this::decodeWithCodec, WARMUP_ITERATIONS);
+
+        report("encode", "converter", () -> encodeRun(countries, this::encodeWithConverter, ITERATIONS));
+        report("encode", "codec", () -> encodeRun(countries, this::encodeWithCodec, ITERATIONS));
+        report("decode", "converter", () -> decodeRun(encoded, this::decodeWithConverter, ITERATIONS));
+        report("decode", "codec", () -> decodeRun(encoded, this::decodeWithCodec, ITERATIONS));
+
+        // Both paths must agree on the data
+        assertThat(decodeWithConverter(encodeWithCodec(countries.get(0))))
+            .usingRecursiveComparison()
+            .isEqualTo(decodeWithCodec(encodeWithConverter(countries.get(0))));
+    }
+
+    private void report(String operation, String path, Runnable run) {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+
+        run.run();
+
+        long elapsedNanos = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        log.info("{} {}: {} ops in {} ms ({} ops/s, {} bytes allocated/op)",
+            operation, path, ITERATIONS, elapsedNanos / 1_000_000,
+            String.format("%.0f", ITERATIONS / (elapsedNanos / 1_000_000_000.0)),
+            allocated / ITERATIONS);
+    }
+
+    private static long encodeRun(List<Country> countries, Function<Country, byte[]> encoder,
+                                  int iterations) {
+        long bytes = 0;
+        for (int i = 0; i < iterations; i++) {
+            bytes += encoder.apply(countries.get(i % countries.size())).length;
+        }
+        return bytes;
+    }
+
+    private static long decodeRun(List<byte[]> documents, Function<byte[], Country> decoder,
+                                  int iterations) {
+        long hash = 0;
+        for (int i = 0; i < iterations; i++) {
+            hash += decoder.apply(documents.get(i % documents.size())).getCode().hashCode();
+        }
+        return hash;
+    }
+
+    private byte[] encodeWithCodec(Country country) {
+        BasicOutputBuffer buffer = new BasicOutputBuffer(256);
+        codec.encode(new BsonBinaryWriter(buffer), country, EncoderContext.builder().build());
+        return buffer.toByteArray();
+    }
+
+    private byte[] encodeWithConverter(Country country) {
+        Document document = new Document();
+        converter.write(country, document);
+        BasicOutputBuffer buffer = new BasicOutputBuffer(256);
+        documentCodec.encode(new BsonBinaryWriter(buffer), document, EncoderContext.builder().build());
+        return buffer.toByteArray();
+    }
+
+    private Country decodeWithCodec(byte[] bytes) {
+        return codec.decode(new BsonBinaryReader(ByteBuffer.wrap(bytes)), DecoderContext.builder().build());
+    }
+
+    private Country decodeWithConverter(byte[] bytes) {
+        Document document = documentCodec.decode(new BsonBinaryReader(ByteBuffer.wrap(bytes)),
+            DecoderContext.builder().build());
+        return converter.read(Country.class, document);
+    }
+
+    private static List<Country> sampleCountries() {
+        List<Country> countries = new ArrayList<>(SAMPLE_SIZE);
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            Country country = new Country("Country " + i, "C" + i);
+            country.setId(UUID.randomUUID());
+            country.setValidCountry(true);
+            country.setPopulation(1_000_000L + i);
+            country.setCurrency("EUR");
+            country.setLanguage("eng");
+            country.setStage(CountryStage.ENRICHED);
+            countries.add(country);
+        }
+        return countries;
+    }
+
+    private static MappingMongoConverter createConverter() {
+        MappingMongoConverter converter =
+            new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        converter.afterPropertiesSet();
+        return converter;
+    }
+}
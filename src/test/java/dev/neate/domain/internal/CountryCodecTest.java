@@ -0,0 +1,173 @@
+package dev.neate.domain.internal;
+
+import com.mongodb.MongoClientSettings;
+import dev.neate.domain.Country;
+import dev.neate.domain.CountryStage;
+import org.bson.BsonBinary;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWriter;
+import org.bson.BsonNull;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.UuidRepresentation;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for CountryCodec.
+ * 
+ * Verifies that:
+ * - Countries round-trip through the codec
+ * - The codec writes the same document as MappingMongoConverter
+ * - Documents written by MappingMongoConverter are decoded correctly
+ * - Null fields are omitted, unknown fields are skipped
+ * - Legacy string populations are still decoded
+ */
+class CountryCodecTest {
+
+    private static final CodecRegistry REGISTRY = CodecRegistries.withUuidRepresentation(
+        MongoClientSettings.getDefaultCodecRegistry(), UuidRepresentation.STANDARD);
+
+    private CountryCodec codec;
+    private MappingMongoConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        codec = new CountryCodec();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        converter.afterPropertiesSet();
+    }
+
+    @Test
+    void roundTripsAllFields() {
+        // Given
+        Country country = enrichedCountry();
+
+        // When
+        Country decoded = decode(encode(country));
+
+        // Then
+        assertThat(decoded)
+            .as("Decoded country should match the encoded one")
+            .usingRecursiveComparison()
+            .isEqualTo(country);
+    }
+
+    @Test
+    void writesSameDocumentAsMappingMongoConverter() {
+        // Given
+        Country country = enrichedCountry();
+
+        // When
+        BsonDocument fromCodec = encode(country);
+        BsonDocument fromConverter = convert(country);
+
+        // Then
+        assertThat(fromCodec)
+            .as("Codec and converter should produce the same document")
+            .isEqualTo(fromConverter);
+    }
+
+    @Test
+    void decodesDocumentWrittenByMappingMongoConverter() {
+        // Given
+        Country country = enrichedCountry();
+        BsonDocument document = convert(country);
+
+        // When
+        Country decoded = decode(document);
+
+        // Then
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(country);
+    }
+
+    @Test
+    void omitsNullFields() {
+        // Given
+        Country country = new Country("France", "FR");
+        country.setId(UUID.randomUUID());
+
+        // When
+        BsonDocument document = encode(country);
+
+        // Then
+        assertThat(document.keySet())
+            .as("Only non-null fields should be written")
+            .containsExactlyInAnyOrder("_id", "name", "code", "validCountry", "stage", "_class");
+        assertThat(document).isEqualTo(convert(country));
+    }
+
+    @Test
+    void keepsDefaultsForMissingFieldsAndSkipsUnknownFields() {
+        // Given - a legacy document without stage and with an unknown field
+        UUID id = UUID.randomUUID();
+        BsonDocument document = encode(new Country("Spain", "ES"));
+        document.remove("stage");
+        document.put("_id", new BsonBinary(id, UuidRepresentation.STANDARD));
+        document.put("legacyField", new BsonString("ignored"));
+        document.put("currency", BsonNull.VALUE);
+
+        // When
+        Country decoded = decode(document);
+
+        // Then
+        assertThat(decoded.getId()).isEqualTo(id);
+        assertThat(decoded.getName()).isEqualTo("Spain");
+        assertThat(decoded.getCurrency()).isNull();
+        assertThat(decoded.getStage())
+            .as("Missing stage should default to CREATED")
+            .isEqualTo(CountryStage.CREATED);
+    }
+
+    @Test
+    void decodesLegacyStringPopulation() {
+        // Given - a document written before population became numeric
+        BsonDocument document = encode(enrichedCountry());
+        document.put("population", new BsonString("67000000"));
+
+        // When
+        Country decoded = decode(document);
+
+        // Then
+        assertThat(decoded.getPopulation()).isEqualTo(67_000_000L);
+    }
+
+    private static Country enrichedCountry() {
+        Country country = new Country("United Kingdom", "GB");
+        country.setId(UUID.randomUUID());
+        country.setValidCountry(true);
+        country.setPopulation(67000000L);
+        country.setCurrency("GBP");
+        country.setLanguage("eng");
+        country.setStage(CountryStage.ENRICHED);
+        return country;
+    }
+
+    private BsonDocument encode(Country country) {
+        BsonDocument document = new BsonDocument();
+        codec.encode(new BsonDocumentWriter(document), country, EncoderContext.builder().build());
+        return document;
+    }
+
+    private Country decode(BsonDocument document) {
+        return codec.decode(new BsonDocumentReader(document), DecoderContext.builder().build());
+    }
+
+    private BsonDocument convert(Country country) {
+        Document document = new Document();
+        converter.write(country, document);
+        return document.toBsonDocument(Document.class, REGISTRY);
+    }
+}
@@ -0,0 +1,81 @@
+package dev.neate.domain.internal;
+
+import dev.neate.MongoTestcontainersConfiguration;
+import dev.neate.domain.Country;
+import org.bson.Document;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.mongodb.test.autoconfigure.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark comparing insert throughput of random (v4) and time-ordered (v7) identifiers.
+ *
+ * Each strategy inserts the same number of countries one document at a time
+ * (the way CountryService.save() does) into its own collection. The insert
+ * rate and the resulting _id index size are logged for both strategies.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=CountryIdInsertBenchmark
+ * Document count: -Dbenchmark.documents=100000 (default 50000)
+ */
+@Tag("benchmark")
+@DataMongoTest
+@Import(MongoTestcontainersConfiguration.class)
+class CountryIdInsertBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(CountryIdInsertBenchmark.class);
+
+    private static final int DOCUMENTS = Integer.getInteger("benchmark.documents", 50_000);
+    private static final int WARMUP_DOCUMENTS = 5_000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Test
+    void compareInsertRates() {
+        Map<String, CountryIdGenerator> strategies = new LinkedHashMap<>();
+        strategies.put("random-v4", new RandomCountryIdGenerator());
+        strategies.put("time-ordered-v7", new TimeOrderedCountryIdGenerator());
+
+        // Warm up the JVM and the connection pool
+        insert("benchmark_warmup", new RandomCountryIdGenerator(), WARMUP_DOCUMENTS);
+        mongoTemplate.dropCollection("benchmark_warmup");
+
+        for (Map.Entry<String, CountryIdGenerator> strategy : strategies.entrySet()) {
+            String collection = "benchmark_" + strategy.getKey().replace('-', '_');
+            mongoTemplate.dropCollection(collection);
+
+            long elapsedNanos = insert(collection, strategy.getValue(), DOCUMENTS);
+            double insertsPerSecond = DOCUMENTS / (elapsedNanos / 1_000_000_000.0);
+
+            Document stats = mongoTemplate.getDb().runCommand(new Document("collStats", collection));
+            Number idIndexSize = stats.get("indexSizes", Document.class).get("_id_", Number.class);
+
+            log.info("{}: {} inserts in {} ms ({} inserts/s), _id index size {} bytes",
+                strategy.getKey(), DOCUMENTS, elapsedNanos / 1_000_000,
+                String.format("%.0f", insertsPerSecond), idIndexSize);
+
+            assertThat(mongoTemplate.getCollection(collection).countDocuments()).isEqualTo(DOCUMENTS);
+            mongoTemplate.dropCollection(collection);
+        }
+    }
+
+    private long insert(String collection, CountryIdGenerator generator, int documents) {
+        long start = System.nanoTime();
+        for (int i = 0; i < documents; i++) {
+            Country country = new Country("Country " + i, "C" + i);
+            country.setId(generator.generate());
+            mongoTemplate.insert(country, collection);
+        }
+        return System.nanoTime() - start;
+    }
+}
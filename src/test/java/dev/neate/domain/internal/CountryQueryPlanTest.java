@@ -0,0 +1,191 @@
+package dev.neate.domain.internal;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import dev.neate.MongoTestcontainersConfiguration;
+import dev.neate.domain.Country;
+import dev.neate.domain.CountryStatus;
+import dev.neate.domain.CountryTransition;
+import dev.neate.domain.internal.config.MongoDBConfiguration;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.mongodb.test.autoconfigure.DataMongoTest;
+import org.springframework.boot.mongodb.autoconfigure.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query plan verification for CountryRepository.
+ *
+ * Verifies that:
+ * - Every repository query is served by an index
+ * - No query falls back to a COLLSCAN
+ *
+ * The harness records the filter of every find and findAndModify command, and
+ * of the $match stage of every aggregate (count) command, that the repository
+ * and CountryQueryServiceImpl send to the countries collection (via a driver
+ * CommandListener), then runs explain() for each recorded filter and inspects
+ * the winning plan. New query methods must be exercised in
+ * exerciseRepositoryQueries().
+ */
+@DataMongoTest
+@Import({
+    MongoTestcontainersConfiguration.class,
+    CountryQueryPlanTest.QueryRecorderConfiguration.class
+})
+class CountryQueryPlanTest {
+
+    private static final String COLLECTION = "countries";
+
+    @Autowired
+    private CountryRepository repository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private QueryRecorder queryRecorder;
+
+    @BeforeEach
+    void setUp() {
+        // Remove documents only - the indexes created on startup must survive
+        mongoTemplate.remove(new Query(), Country.class);
+
+        for (String code : List.of("GB", "FR", "DE", "ES", "IT")) {
+            Country country = new Country("Country " + code, code);
+            country.setId(UUID.randomUUID());
+            country.setCurrency("EUR");
+            country.setValidCountry(true);
+            repository.save(country);
+        }
+        queryRecorder.clear();
+    }
+
+    @Test
+    void repositoryQueriesDoNotScanCollection() {
+        exerciseRepositoryQueries();
+
+        List<BsonDocument> filters = queryRecorder.filters();
+        assertThat(filters)
+            .as("Repository queries should have been recorded")
+            .isNotEmpty();
+
+        for (BsonDocument filter : filters) {
+            Document plan = mongoTemplate.getCollection(COLLECTION).find(filter).explain();
+            Document winningPlan = plan.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+
+            assertThat(stagesOf(winningPlan))
+                .as("Query %s should not scan the collection (plan: %s)", filter.toJson(), winningPlan.toJson())
+                .doesNotContain("COLLSCAN");
+        }
+    }
+
+    @Test
+    void declaredIndexesExist() {
+        List<String> indexNames = mongoTemplate.indexOps(Country.class).getIndexInfo().stream()
+            .map(info -> info.getName())
+            .toList();
+
+        assertThat(indexNames).contains("code_1", "validCountry_1_currency_1", "stage_1");
+    }
+
+    /**
+     * Invokes every query method declared on CountryRepository and CountryQueryServiceImpl.
+     */
+    private void exerciseRepositoryQueries() {
+        Country existing = repository.findByCode("GB").orElseThrow();
+        repository.findById(existing.getId());
+        repository.findProjectedById(existing.getId(), CountryStatus.class);
+        repository.findByCode("XX");
+        repository.transition(CountryTransition.validated(existing.getId()));
+
+        CountryQueryServiceImpl queryService = new CountryQueryServiceImpl(
+            mongoTemplate, new CountryReadPreferences(ReadPreference.primary()));
+        queryService.findValidByCurrency("EUR");
+        queryService.countByStage();
+        queryService.findStatusById(existing.getId());
+    }
+
+    private static List<String> stagesOf(Document plan) {
+        List<String> stages = new ArrayList<>();
+        collectStages(plan, stages);
+        return stages;
+    }
+
+    private static void collectStages(Object node, List<String> stages) {
+        if (node instanceof Document document) {
+            Object stage = document.get("stage");
+            if (stage instanceof String name) {
+                stages.add(name);
+            }
+            document.values().forEach(value -> collectStages(value, stages));
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectStages(value, stages));
+        }
+    }
+
+    /**
+     * Records the filters of find, findAndModify and aggregate commands sent to the countries collection.
+     */
+    static class QueryRecorder implements CommandListener {
+
+        private final List<BsonDocument> filters = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void commandStarted(CommandStartedEvent event) {
+            BsonDocument command = event.getCommand();
+            String name = event.getCommandName();
+            if (name.equals("find") && COLLECTION.equals(command.getString("find").getValue())) {
+                filters.add(command.getDocument("filter", new BsonDocument()).clone());
+            } else if (name.equals("findAndModify")
+                    && COLLECTION.equals(command.getString("findAndModify").getValue())) {
+                filters.add(command.getDocument("query", new BsonDocument()).clone());
+            } else if (name.equals("aggregate")
+                    && COLLECTION.equals(command.getString("aggregate").getValue())) {
+                // count() is sent as an aggregate starting with $match
+                BsonDocument first = command.getArray("pipeline").get(0).asDocument();
+                if (first.containsKey("$match")) {
+                    filters.add(first.getDocument("$match").clone());
+                }
+            }
+        }
+
+        List<BsonDocument> filters() {
+            return List.copyOf(filters);
+        }
+
+        void clear() {
+            filters.clear();
+        }
+    }
+
+    @TestConfiguration
+    @ComponentScan(basePackageClasses = MongoDBConfiguration.class)
+    static class QueryRecorderConfiguration {
+
+        @Bean
+        QueryRecorder queryRecorder() {
+            return new QueryRecorder();
+        }
+
+        @Bean
+        MongoClientSettingsBuilderCustomizer queryRecorderCustomizer(QueryRecorder queryRecorder) {
+            return builder -> builder.addCommandListener(queryRecorder);
+        }
+    }
+}
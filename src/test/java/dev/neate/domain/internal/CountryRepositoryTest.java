@@ -50,8 +50,8 @@ class CountryRepositoryTest {
         Country country = new Country("United Kingdom", "GB");
         country.setId(UUID.randomUUID());
         country.setCurrency("GBP");
-        country.setLanguage("English");
-        country.setPopulation("67000000");
+        country.setLanguage("eng");
+        country.setPopulation(67000000L);
         
         Country saved = repository.save(country);
         
@@ -92,14 +92,14 @@ class CountryRepositoryTest {
         
         // Update the country
         saved.setCurrency("EUR");
-        saved.setLanguage("German");
+        saved.setLanguage("deu");
         saved.setValidCountry(true);
         Country updated = repository.save(saved);
         
         // Verify the update
         assertThat(updated.getId()).isEqualTo(saved.getId());
         assertThat(updated.getCurrency()).isEqualTo("EUR");
-        assertThat(updated.getLanguage()).isEqualTo("German");
+        assertThat(updated.getLanguage()).isEqualTo("deu");
         assertThat(updated.getValidCountry()).isTrue();
     }
 
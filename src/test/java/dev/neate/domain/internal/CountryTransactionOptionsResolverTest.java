@@ -0,0 +1,72 @@
+package dev.neate.domain.internal;
+
+import com.mongodb.WriteConcern;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.interceptor.DefaultTransactionAttribute;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for CountryTransactionOptionsResolver.
+ *
+ * Verifies that:
+ * - Transactions labelled with a profile commit with its write concern
+ * - Unlabelled transactions, including listener transactions (REQUIRES_NEW), keep the default write concern
+ * - A mongo: transaction label overrides the profile
+ */
+class CountryTransactionOptionsResolverTest {
+
+    private final CountryTransactionOptionsResolver resolver = new CountryTransactionOptionsResolver(
+        new CountryWriteConcerns(WriteConcern.MAJORITY.withJournal(true), WriteConcern.W1));
+
+    @Test
+    void labelledTransactionsUseTheirProfile() {
+        // Given
+        DefaultTransactionAttribute save = labelled(CountryTransactionOptionsResolver.SAVE_LABEL);
+        DefaultTransactionAttribute transition = labelled(CountryTransactionOptionsResolver.TRANSITION_LABEL);
+
+        // Then
+        assertThat(resolver.resolve(save).getWriteConcern())
+            .as("Write concern of a save transaction")
+            .isEqualTo(WriteConcern.MAJORITY.withJournal(true));
+        assertThat(resolver.resolve(transition).getWriteConcern())
+            .as("Write concern of a transition transaction")
+            .isEqualTo(WriteConcern.W1);
+    }
+
+    @Test
+    void unlabelledTransactionsKeepTheDefaultWriteConcern() {
+        // Given
+        DefaultTransactionAttribute listener = new DefaultTransactionAttribute();
+        listener.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        // Then
+        assertThat(resolver.resolve(listener).getWriteConcern())
+            .as("Write concern of a listener transaction")
+            .isNull();
+        assertThat(resolver.resolve(new DefaultTransactionAttribute()).getWriteConcern())
+            .as("Write concern of a controller transaction")
+            .isNull();
+    }
+
+    @Test
+    void labelsOverrideTheProfile() {
+        // Given
+        DefaultTransactionAttribute definition = new DefaultTransactionAttribute();
+        definition.setLabels(List.of(CountryTransactionOptionsResolver.TRANSITION_LABEL, "mongo:writeConcern=W2"));
+
+        // Then
+        assertThat(resolver.resolve(definition).getWriteConcern())
+            .as("Write concern given as transaction label")
+            .isEqualTo(WriteConcern.W2);
+    }
+
+    private static DefaultTransactionAttribute labelled(String label) {
+        DefaultTransactionAttribute definition = new DefaultTransactionAttribute();
+        definition.setLabels(List.of(label));
+        return definition;
+    }
+}
@@ -0,0 +1,210 @@
+package dev.neate.domain.internal;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import dev.neate.MongoTestcontainersConfiguration;
+import dev.neate.domain.Country;
+import dev.neate.domain.CountryStage;
+import dev.neate.domain.CountryTransition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.mongodb.test.autoconfigure.DataMongoTest;
+import org.springframework.boot.mongodb.autoconfigure.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for CountryTransitionCoalescer.
+ *
+ * Verifies that:
+ * - Transitions from concurrent callers are written in shared bulk writes
+ * - Every caller gets its own result, including no-ops in a partially applied batch
+ * - Transitions of the same country in one batch are applied in submission order
+ * - A partially applied batch sends one bulk write per round and no other updates
+ * - Submitting to a stopped coalescer fails
+ */
+@DataMongoTest
+@Import({
+    MongoTestcontainersConfiguration.class,
+    CountryTransitionCoalescerTest.UpdateCounterConfiguration.class
+})
+class CountryTransitionCoalescerTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UpdateCounter updateCounter;
+
+    private CountryTransitionCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.remove(new Query(), Country.class);
+        coalescer = new CountryTransitionCoalescer(
+            mongoTemplate, CountryWriteConcerns.SERVER_DEFAULT, 50, Duration.ofMillis(50));
+        coalescer.start();
+        updateCounter.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        coalescer.stop();
+    }
+
+    @Test
+    void coalescesConcurrentTransitions() throws Exception {
+        // Given - 20 countries in the CREATED stage
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            ids.add(saveCountry("C" + i).getId());
+        }
+
+        // When - all transitions are submitted within the max delay
+        List<CompletableFuture<Boolean>> results = ids.stream()
+            .map(id -> coalescer.submit(CountryTransition.validated(id)))
+            .toList();
+
+        // Then
+        for (CompletableFuture<Boolean> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).as("Every transition should be applied").isTrue();
+        }
+        assertThat(updateCounter.count())
+            .as("The transitions should share a small number of bulk writes")
+            .isLessThan(ids.size());
+        for (UUID id : ids) {
+            assertThat(mongoTemplate.findById(id, Country.class).getStage()).isEqualTo(CountryStage.VALIDATED);
+        }
+    }
+
+    @Test
+    void completesEachCallerWithItsOwnResult() throws Exception {
+        // Given - one country submitted twice, one unknown country
+        Country country = saveCountry("GB");
+
+        // When
+        CompletableFuture<Boolean> first = coalescer.submit(CountryTransition.validated(country.getId()));
+        CompletableFuture<Boolean> duplicate = coalescer.submit(CountryTransition.validated(country.getId()));
+        CompletableFuture<Boolean> unknown = coalescer.submit(CountryTransition.validated(UUID.randomUUID()));
+
+        // Then
+        List<Boolean> duplicates = List.of(first.get(5, TimeUnit.SECONDS), duplicate.get(5, TimeUnit.SECONDS));
+        assertThat(duplicates)
+            .as("Exactly one of the duplicate transitions should be applied")
+            .containsExactlyInAnyOrder(true, false);
+        assertThat(unknown.get(5, TimeUnit.SECONDS))
+            .as("Transition of an unknown country should not be applied")
+            .isFalse();
+    }
+
+    @Test
+    void appliesTransitionsOfOneCountryInOrder() throws Exception {
+        // Given
+        Country country = saveCountry("FR");
+
+        // When - both stages of the country are submitted within the max delay
+        CompletableFuture<Boolean> validated = coalescer.submit(CountryTransition.validated(country.getId()));
+        CompletableFuture<Boolean> enriched = coalescer.submit(
+            CountryTransition.enriched(country.getId(), 68_000_000L, "EUR", "fra"));
+
+        // Then
+        assertThat(validated.get(5, TimeUnit.SECONDS)).as("First transition of the country applied").isTrue();
+        assertThat(enriched.get(5, TimeUnit.SECONDS)).as("Second transition of the country applied").isTrue();
+        assertThat(mongoTemplate.findById(country.getId(), Country.class).getStage())
+            .as("Stage after both transitions")
+            .isEqualTo(CountryStage.ENRICHED);
+    }
+
+    @Test
+    void writesPartiallyAppliedBatchOnce() throws Exception {
+        // Given - a batch with an applied and a skipped transition of the same country
+        Country country = saveCountry("DE");
+
+        // When
+        CompletableFuture<Boolean> first = coalescer.submit(CountryTransition.validated(country.getId()));
+        CompletableFuture<Boolean> duplicate = coalescer.submit(CountryTransition.validated(country.getId()));
+        CompletableFuture.allOf(first, duplicate).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(updateCounter.count())
+            .as("One bulk write per round, no further updates")
+            .isEqualTo(2);
+        assertThat(List.of(first.get(), duplicate.get()))
+            .as("Exactly one of the duplicate transitions should be applied")
+            .containsExactly(true, false);
+    }
+
+    @Test
+    void rejectsTransitionsWhenStopped() {
+        // Given
+        coalescer.stop();
+
+        // When
+        CompletableFuture<Boolean> result = coalescer.submit(CountryTransition.validated(UUID.randomUUID()));
+
+        // Then
+        assertThatThrownBy(result::get)
+            .as("A stopped coalescer should reject transitions")
+            .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    private Country saveCountry(String code) {
+        Country country = new Country("Country " + code, code);
+        country.setId(UUID.randomUUID());
+        return mongoTemplate.insert(country);
+    }
+
+    /**
+     * Counts the update commands sent to the countries collection.
+     */
+    static class UpdateCounter implements CommandListener {
+
+        private final AtomicInteger updates = new AtomicInteger();
+
+        @Override
+        public void commandStarted(CommandStartedEvent event) {
+            if (event.getCommandName().equals("update")
+                    && "countries".equals(event.getCommand().getString("update").getValue())) {
+                updates.incrementAndGet();
+            }
+        }
+
+        int count() {
+            return updates.get();
+        }
+
+        void reset() {
+            updates.set(0);
+        }
+    }
+
+    @TestConfiguration
+    static class UpdateCounterConfiguration {
+
+        @Bean
+        UpdateCounter updateCounter() {
+            return new UpdateCounter();
+        }
+
+        @Bean
+        MongoClientSettingsBuilderCustomizer updateCounterCustomizer(UpdateCounter updateCounter) {
+            return builder -> builder.addCommandListener(updateCounter);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package dev.neate.domain.internal;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.WriteConcern;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import dev.neate.domain.Country;
+import dev.neate.domain.internal.config.DomainMongoProperties;
+import org.bson.UuidRepresentation;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.MongoTransactionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.interceptor.DefaultTransactionAttribute;
+import org.testcontainers.mongodb.MongoDBContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark of the write concern profiles (see DomainMongoProperties.Writes).
+ *
+ * For every built-in profile the same countries are saved through
+ * CountryRepository, each in its own MongoDB transaction, the way
+ * CountryService saves them when it starts the transaction. The
+ * transactions come from a MongoTransactionManager with
+ * CountryTransactionOptionsResolver and carry the save label, so they
+ * commit with the profile's write concern. Each profile runs once
+ * sequentially (per-save latency, p50/p99) and once from several threads
+ * (throughput). Results are logged per profile.
+ *
+ * Write concern costs depend on replication, so run it against the
+ * three-node replica set from docker-compose:
+ *   mvn test -Pbenchmark -Dtest=CountryWriteConcernBenchmark
+ *     -Dbenchmark.mongodb.uri=mongodb://mongo1:27017,mongo2:27017,mongo3:27017/?replicaSet=rs0
+ * Without benchmark.mongodb.uri a single-node Testcontainers replica set is
+ * used, where majority and w=1 are acknowledged by the same node.
+ *
+ * Save count: -Dbenchmark.writes=20000 (default 5000)
+ * Threads for the throughput run: -Dbenchmark.threads=16 (default 8)
+ */
+@Tag("benchmark")
+class CountryWriteConcernBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(CountryWriteConcernBenchmark.class);
+
+    private static final int WRITES = Integer.getInteger("benchmark.writes", 5_000);
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 8);
+    private static final int WARMUP_WRITES = 1_000;
+    private static final List<String> PROFILES = List.of("default", "acknowledged", "majority", "durable");
+
+    @Test
+    void compareWriteConcernProfiles() throws Exception {
+        String uri = System.getProperty("benchmark.mongodb.uri");
+        MongoDBContainer container = null;
+        if (uri == null) {
+            container = new MongoDBContainer(DockerImageName.parse("mongo:7.0")).withReplicaSet();
+            container.start();
+            uri = container.getReplicaSetUrl("benchmark");
+        }
+
+        DomainMongoProperties.Writes writes = new DomainMongoProperties.Writes(null, "durable", "majority");
+        MongoClientSettings settings = MongoClientSettings.builder()
+            .applyConnectionString(new ConnectionString(uri))
+            .uuidRepresentation(UuidRepresentation.STANDARD)
+            .build();
+        try (MongoClient client = MongoClients.create(settings)) {
+            MongoDatabaseFactory databaseFactory = new SimpleMongoClientDatabaseFactory(client, "benchmark");
+            MongoTemplate mongoTemplate = new MongoTemplate(databaseFactory);
+            mongoTemplate.dropCollection(Country.class);
+            // Transactions cannot create collections implicitly on older servers
+            mongoTemplate.createCollection(Country.class);
+
+            // Warm up the JVM and the connection pool
+            Saves warmUp = new Saves(mongoTemplate, databaseFactory, CountryWriteConcerns.SERVER_DEFAULT);
+            warmUp.sequentially(WARMUP_WRITES);
+
+            for (String profile : PROFILES) {
+                WriteConcern writeConcern = writes.profile(profile).toWriteConcern();
+                Saves saves = new Saves(mongoTemplate, databaseFactory,
+                    new CountryWriteConcerns(writeConcern, writeConcern));
+
+                mongoTemplate.remove(new Query(), Country.class);
+                long[] latencies = saves.sequentially(WRITES);
+                Arrays.sort(latencies);
+
+                mongoTemplate.remove(new Query(), Country.class);
+                long elapsedNanos = saves.concurrently(WRITES, THREADS);
+                double writesPerSecond = WRITES / (elapsedNanos / 1_000_000_000.0);
+
+                log.info("{} ({}): sequential p50 {} us, p99 {} us; {} threads {} saves/s",
+                    profile, writeConcern, percentile(latencies, 50) / 1_000, percentile(latencies, 99) / 1_000,
+                    THREADS, String.format("%.0f", writesPerSecond));
+
+                assertThat(mongoTemplate.count(new Query(), Country.class)).isEqualTo(WRITES);
+            }
+            mongoTemplate.dropCollection(Country.class);
+        } finally {
+            if (container != null) {
+                container.stop();
+            }
+        }
+    }
+
+    /**
+     * Transactional saves through a CountryRepository whose transactions commit with the given write concerns.
+     */
+    private static final class Saves {
+
+        private final CountryRepository repository;
+        private final PlatformTransactionManager transactionManager;
+        private final DefaultTransactionAttribute transaction = new DefaultTransactionAttribute();
+
+        Saves(MongoTemplate mongoTemplate, MongoDatabaseFactory databaseFactory, CountryWriteConcerns writeConcerns) {
+            StaticListableBeanFactory beans = new StaticListableBeanFactory();
+            beans.addBean("countryWriteConcerns", writeConcerns);
+            CountryRepositoryCustomImpl custom = new CountryRepositoryCustomImpl(mongoTemplate,
+                beans.getBeanProvider(CountryCodec.class), beans.getBeanProvider(CountryWriteConcerns.class));
+            this.repository = new MongoRepositoryFactory(mongoTemplate).getRepository(CountryRepository.class,
+                RepositoryComposition.RepositoryFragments.just(custom));
+            this.transactionManager = new MongoTransactionManager(databaseFactory,
+                new CountryTransactionOptionsResolver(writeConcerns), MongoTransactionOptions.NONE);
+            // TransactionTemplate drops labels, so the transaction is demarcated by hand
+            transaction.setLabels(List.of(CountryTransactionOptionsResolver.SAVE_LABEL));
+        }
+
+        long[] sequentially(int writes) {
+            long[] latencies = new long[writes];
+            for (int i = 0; i < writes; i++) {
+                Country country = country(i);
+                long start = System.nanoTime();
+                save(country);
+                latencies[i] = System.nanoTime() - start;
+            }
+            return latencies;
+        }
+
+        long concurrently(int writes, int threads) throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                long start = System.nanoTime();
+                for (int t = 0; t < threads; t++) {
+                    int first = t;
+                    futures.add(executor.submit(() -> {
+                        for (int i = first; i < writes; i += threads) {
+                            save(country(i));
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+                return System.nanoTime() - start;
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        private void save(Country country) {
+            TransactionStatus status = transactionManager.getTransaction(transaction);
+            try {
+                repository.save(country);
+            } catch (RuntimeException e) {
+                transactionManager.rollback(status);
+                throw e;
+            }
+            transactionManager.commit(status);
+        }
+    }
+
+    private static Country country(int i) {
+        Country country = new Country("Country " + i, "C" + i);
+        country.setId(UUID.randomUUID());
+        return country;
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,150 @@
+package dev.neate.domain.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for TimeOrderedCountryIdGenerator.
+ *
+ * Verifies that:
+ * - Generated identifiers are version 7 with the RFC variant
+ * - The timestamp is encoded in the most significant 48 bits
+ * - Identifiers are strictly increasing in binary (index) order
+ * - Identifiers are unique, even within the same millisecond
+ */
+class TimeOrderedCountryIdGeneratorTest {
+
+    private static final Instant NOW = Instant.parse("2025-12-05T10:15:30.123Z");
+
+    @Test
+    void generatesVersion7Uuids() {
+        // Given
+        TimeOrderedCountryIdGenerator generator = new TimeOrderedCountryIdGenerator();
+
+        // When
+        UUID id = generator.generate();
+
+        // Then
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+    }
+
+    @Test
+    void encodesTimestampInMostSignificantBits() {
+        // Given
+        Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+        TimeOrderedCountryIdGenerator generator = new TimeOrderedCountryIdGenerator(clock);
+
+        // When
+        UUID id = generator.generate();
+
+        // Then
+        long timestamp = id.getMostSignificantBits() >>> 16;
+        assertThat(timestamp).isEqualTo(NOW.toEpochMilli());
+    }
+
+    @Test
+    void generatesIncreasingIdsWithinSameMillisecond() {
+        // Given
+        Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+        TimeOrderedCountryIdGenerator generator = new TimeOrderedCountryIdGenerator(clock);
+
+        // When - more identifiers than the 12 bit counter can hold
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(generator.generate());
+        }
+
+        // Then
+        for (int i = 1; i < ids.size(); i++) {
+            assertThat(compareUnsigned(ids.get(i - 1), ids.get(i)))
+                .as("Identifier %d should sort after identifier %d", i, i - 1)
+                .isNegative();
+        }
+    }
+
+    @Test
+    void generatesUniqueIdsAcrossThreads() throws InterruptedException {
+        // Given
+        TimeOrderedCountryIdGenerator generator = new TimeOrderedCountryIdGenerator();
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    ids.add(generator.generate());
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Then
+        assertThat(ids).hasSize(20_000);
+    }
+
+    @Test
+    void doesNotGoBackwardsWhenClockDoes() {
+        // Given
+        MutableClock clock = new MutableClock(NOW);
+        TimeOrderedCountryIdGenerator generator = new TimeOrderedCountryIdGenerator(clock);
+        UUID first = generator.generate();
+
+        // When
+        clock.instant = NOW.minusSeconds(5);
+        UUID second = generator.generate();
+
+        // Then
+        assertThat(compareUnsigned(first, second)).isNegative();
+    }
+
+    /**
+     * Compares two UUIDs in the byte order used by the STANDARD binary representation.
+     */
+    private static int compareUnsigned(UUID a, UUID b) {
+        int result = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return result != 0
+            ? result
+            : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
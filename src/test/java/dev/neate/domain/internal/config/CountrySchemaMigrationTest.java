@@ -0,0 +1,206 @@
+package dev.neate.domain.internal.config;
+
+import dev.neate.MongoTestcontainersConfiguration;
+import dev.neate.domain.Country;
+import dev.neate.domain.CountryStage;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.mongodb.test.autoconfigure.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for CountrySchemaMigration.
+ * 
+ * Verifies that:
+ * - Legacy string populations are converted to int64
+ * - Language names are converted to ISO 639-3 codes, also where they differ from ISO 639-2/T
+ * - Documents already in the typed schema are left unchanged
+ * - Documents without a stage get the stage derived from their validation and enrichment fields
+ * - The migration resumes after the checkpointed _id
+ * - A completed migration is not run again
+ */
+@DataMongoTest
+@Import(MongoTestcontainersConfiguration.class)
+class CountrySchemaMigrationTest {
+
+    private static final String COLLECTION = "countries";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private CountrySchemaMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.dropCollection(COLLECTION);
+        mongoTemplate.dropCollection(CountrySchemaMigration.MIGRATIONS_COLLECTION);
+
+        DomainMongoProperties properties = new DomainMongoProperties(
+            new DomainMongoProperties.Indexes(true, false),
+            new DomainMongoProperties.Migration(true, 2, Duration.ZERO),
+            new DomainMongoProperties.Reads("primary", Duration.ZERO),
+            new DomainMongoProperties.Writes(null, "durable", "majority"),
+            new DomainMongoProperties.Coalescer(false, 100, Duration.ofMillis(5)));
+        migration = new CountrySchemaMigration(mongoTemplate, properties);
+    }
+
+    @Test
+    void convertsLegacyDocuments() {
+        // Given - five legacy documents, more than two batches
+        for (int i = 1; i <= 5; i++) {
+            insertLegacy(id(i), String.valueOf(1_000_000L * i), "English");
+        }
+
+        // When
+        CountrySchemaMigration.MigrationResult result = migration.migrate();
+
+        // Then
+        assertThat(result.scanned()).isEqualTo(5);
+        assertThat(result.updated()).isEqualTo(5);
+        assertThat(countWhere(Criteria.where("population").type(18))) // int64
+            .as("All populations should be stored as int64")
+            .isEqualTo(5);
+
+        Country country = mongoTemplate.findById(id(3), Country.class);
+        assertThat(country.getPopulation()).isEqualTo(3_000_000L);
+        assertThat(country.getLanguage()).isEqualTo("eng");
+    }
+
+    @Test
+    void leavesTypedDocumentsUnchanged() {
+        // Given - one typed and one legacy document
+        Country typed = new Country("France", "FR");
+        typed.setId(id(1));
+        typed.setPopulation(68_000_000L);
+        typed.setLanguage("fra");
+        mongoTemplate.save(typed);
+        insertLegacy(id(2), "83000000", "German");
+
+        // When
+        CountrySchemaMigration.MigrationResult result = migration.migrate();
+
+        // Then
+        assertThat(result.scanned()).isEqualTo(2);
+        assertThat(result.updated()).isEqualTo(1);
+        assertThat(mongoTemplate.findById(id(2), Country.class).getLanguage()).isEqualTo("deu");
+    }
+
+    @Test
+    void removesNonNumericPopulationAndKeepsUnknownLanguage() {
+        // Given
+        insertLegacy(id(1), "unknown", "Klingon");
+
+        // When
+        migration.migrate();
+
+        // Then
+        Document document = mongoTemplate.findById(id(1), Document.class, COLLECTION);
+        assertThat(document).doesNotContainKey("population");
+        assertThat(document.getString("language")).isEqualTo("Klingon");
+    }
+
+    @Test
+    void convertsLanguagesWhoseIso6392CodeDiffersFromIso6393() {
+        // Given
+        insertLegacy(id(1), "1000", "Moldavian");
+        insertLegacy(id(2), "1000", "Bihari");
+
+        // When
+        migration.migrate();
+
+        // Then
+        assertThat(mongoTemplate.findById(id(1), Country.class).getLanguage())
+            .as("Retired ISO 639-3 code replaced")
+            .isEqualTo("ron");
+        assertThat(mongoTemplate.findById(id(2), Document.class, COLLECTION).getString("language"))
+            .as("Collective language without an ISO 639-3 code")
+            .isEqualTo("Bihari");
+    }
+
+    @Test
+    void derivesStageOfLegacyDocuments() {
+        // Given - legacy documents without a stage
+        insertLegacy(id(1), "1000", "English");
+        mongoTemplate.insert(new Document("_id", id(2)).append("validCountry", true), COLLECTION);
+        mongoTemplate.insert(new Document("_id", id(3)).append("validCountry", false), COLLECTION);
+
+        // When
+        CountrySchemaMigration.MigrationResult result = migration.migrate();
+
+        // Then
+        assertThat(result.updated()).isEqualTo(3);
+        assertThat(mongoTemplate.findById(id(1), Country.class).getStage())
+            .as("Valid and enriched country")
+            .isEqualTo(CountryStage.ENRICHED);
+        assertThat(mongoTemplate.findById(id(2), Country.class).getStage())
+            .as("Valid country without enrichment data")
+            .isEqualTo(CountryStage.VALIDATED);
+        assertThat(mongoTemplate.findById(id(3), Country.class).getStage())
+            .as("Country that is not valid")
+            .isEqualTo(CountryStage.REJECTED);
+    }
+
+    @Test
+    void resumesAfterCheckpoint() {
+        // Given - a checkpoint after the second document
+        for (int i = 1; i <= 4; i++) {
+            insertLegacy(id(i), "1000", "English");
+        }
+        mongoTemplate.insert(new Document("_id", CountrySchemaMigration.MIGRATION_ID)
+            .append("lastId", id(2))
+            .append("completed", false), CountrySchemaMigration.MIGRATIONS_COLLECTION);
+
+        // When
+        CountrySchemaMigration.MigrationResult result = migration.migrate();
+
+        // Then - only the documents after the checkpoint are processed
+        assertThat(result.scanned()).isEqualTo(2);
+        assertThat(mongoTemplate.findById(id(1), Document.class, COLLECTION).get("population"))
+            .isEqualTo("1000");
+        assertThat(mongoTemplate.findById(id(3), Document.class, COLLECTION).get("population"))
+            .isEqualTo(1000L);
+    }
+
+    @Test
+    void completedMigrationIsNotRunAgain() {
+        // Given - a completed migration
+        insertLegacy(id(1), "1000", "English");
+        migration.migrate();
+        insertLegacy(id(2), "2000", "English");
+
+        // When
+        CountrySchemaMigration.MigrationResult result = migration.migrate();
+
+        // Then
+        assertThat(result.scanned()).isZero();
+        assertThat(result.completed()).isTrue();
+    }
+
+    private void insertLegacy(UUID id, String population, String language) {
+        mongoTemplate.insert(new Document("_id", id)
+            .append("name", "Country " + id)
+            .append("code", "C" + id.getLeastSignificantBits())
+            .append("population", population)
+            .append("language", language)
+            .append("validCountry", true), COLLECTION);
+    }
+
+    private long countWhere(Criteria criteria) {
+        return mongoTemplate.count(new Query(criteria), COLLECTION);
+    }
+
+    private static UUID id(long sequence) {
+        // Sequential identifiers so _id order matches insertion order
+        return new UUID(0, sequence);
+    }
+}
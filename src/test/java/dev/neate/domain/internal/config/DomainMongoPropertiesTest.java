@@ -0,0 +1,86 @@
+package dev.neate.domain.internal.config;
+
+import com.mongodb.WriteConcern;
+import dev.neate.domain.internal.CountryWriteConcerns;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the write concern profiles of DomainMongoProperties.
+ *
+ * Verifies that:
+ * - Built-in profiles map to the expected write concerns
+ * - Declared profiles are converted and can replace built-in ones
+ * - Unknown profile names fail at startup
+ */
+class DomainMongoPropertiesTest {
+
+    @Test
+    void resolvesBuiltInProfiles() {
+        // Given
+        DomainMongoProperties.Writes writes = new DomainMongoProperties.Writes(null, "durable", "majority");
+
+        // When / Then
+        assertThat(writes.profile("default").toWriteConcern()).isEqualTo(WriteConcern.ACKNOWLEDGED);
+        assertThat(writes.profile("acknowledged").toWriteConcern()).isEqualTo(WriteConcern.W1);
+        assertThat(writes.profile("majority").toWriteConcern()).isEqualTo(WriteConcern.MAJORITY);
+        assertThat(writes.profile("durable").toWriteConcern())
+            .isEqualTo(WriteConcern.MAJORITY.withJournal(true));
+    }
+
+    @Test
+    void declaredProfilesReplaceBuiltInOnes() {
+        // Given
+        DomainMongoProperties.Writes writes = new DomainMongoProperties.Writes(Map.of(
+            "two-nodes", new DomainMongoProperties.WriteProfile("2", false, Duration.ofSeconds(2)),
+            "durable", new DomainMongoProperties.WriteProfile("3", true, null)),
+            "two-nodes", "durable");
+
+        // When
+        WriteConcern twoNodes = writes.profile("two-nodes").toWriteConcern();
+        WriteConcern durable = writes.profile("durable").toWriteConcern();
+
+        // Then
+        assertThat(twoNodes)
+            .as("Numeric w, journal and timeout should be applied")
+            .isEqualTo(new WriteConcern(2).withJournal(false).withWTimeout(2000, TimeUnit.MILLISECONDS));
+        assertThat(durable)
+            .as("A declared profile should replace the built-in profile of the same name")
+            .isEqualTo(new WriteConcern(3).withJournal(true));
+    }
+
+    @Test
+    void configurationResolvesOperationProfiles() {
+        // Given
+        DomainMongoProperties properties = new DomainMongoProperties(
+            new DomainMongoProperties.Indexes(true, false),
+            new DomainMongoProperties.Migration(true, 500, Duration.ZERO),
+            new DomainMongoProperties.Reads("secondaryPreferred", Duration.ZERO),
+            new DomainMongoProperties.Writes(null, "durable", "acknowledged"),
+            new DomainMongoProperties.Coalescer(false, 100, Duration.ofMillis(5)));
+
+        // When
+        CountryWriteConcerns writeConcerns = new MongoDBConfiguration().countryWriteConcerns(properties);
+
+        // Then
+        assertThat(writeConcerns.save()).isEqualTo(WriteConcern.MAJORITY.withJournal(true));
+        assertThat(writeConcerns.transition()).isEqualTo(WriteConcern.W1);
+    }
+
+    @Test
+    void unknownProfileFails() {
+        // Given
+        DomainMongoProperties.Writes writes = new DomainMongoProperties.Writes(null, "durable", "fast");
+
+        // When / Then
+        assertThatThrownBy(() -> writes.profile(writes.transition()))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("fast");
+    }
+}
@@ -2,9 +2,13 @@ package dev.neate.enrichment.internal;
 
 import dev.neate.domain.Country;
 import dev.neate.domain.CountryService;
+import dev.neate.domain.CountryStage;
+import dev.neate.domain.CountryStatus;
+import dev.neate.domain.CountryTransition;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -17,8 +21,8 @@ import static org.mockito.Mockito.*;
  * 
  * Verifies that:
  * - Service enriches countries with API data
- * - Country fields are updated correctly
- * - Enriched country is saved
+ * - Enrichment data is stored with the ENRICHED transition
+ * - A transition that is no longer applicable is reported
  * - Exceptions are propagated
  */
 class CountryEnrichmentServiceTest {
@@ -40,34 +44,53 @@ class CountryEnrichmentServiceTest {
         Country country = new Country("United Kingdom", "GB");
         country.setId(UUID.randomUUID());
         
-        EnrichmentData data = new EnrichmentData("67000000", "GBP", "English");
+        EnrichmentData data = new EnrichmentData(67000000L, "GBP", "eng");
         when(mockClient.fetchCountryData("GB")).thenReturn(data);
-        when(mockCountryService.save(any(Country.class))).thenReturn(country);
+        when(mockCountryService.transition(any(CountryTransition.class))).thenReturn(Optional.of(country));
 
         // When
-        service.enrichCountry(country);
+        service.enrichCountry(CountryStatus.of(country));
 
         // Then
-        assertThat(country.getPopulation()).isEqualTo("67000000");
-        assertThat(country.getCurrency()).isEqualTo("GBP");
-        assertThat(country.getLanguage()).isEqualTo("English");
+        verify(mockCountryService).transition(
+            CountryTransition.enriched(country.getId(), 67000000L, "GBP", "eng"));
     }
 
     @Test
-    void savesEnrichedCountry() throws Exception {
+    void transitionsEnrichedCountry() throws Exception {
         // Given
+        UUID countryId = UUID.randomUUID();
         Country country = new Country("France", "FR");
-        country.setId(UUID.randomUUID());
+        country.setId(countryId);
         
-        EnrichmentData data = new EnrichmentData("67000000", "EUR", "French");
+        EnrichmentData data = new EnrichmentData(67000000L, "EUR", "fra");
         when(mockClient.fetchCountryData("FR")).thenReturn(data);
-        when(mockCountryService.save(any(Country.class))).thenReturn(country);
+        when(mockCountryService.transition(any(CountryTransition.class))).thenReturn(Optional.of(country));
+
+        // When
+        boolean enriched = service.enrichCountry(CountryStatus.of(country));
+
+        // Then
+        assertThat(enriched).isTrue();
+        verify(mockCountryService).transition(
+            CountryTransition.enriched(countryId, 67000000L, "EUR", "fra"));
+    }
+
+    @Test
+    void returnsFalseWhenCountryAlreadyEnriched() throws Exception {
+        // Given
+        Country country = new Country("Austria", "AT");
+        country.setId(UUID.randomUUID());
+
+        EnrichmentData data = new EnrichmentData(9000000L, "EUR", "deu");
+        when(mockClient.fetchCountryData("AT")).thenReturn(data);
+        when(mockCountryService.transition(any(CountryTransition.class))).thenReturn(Optional.empty());
 
         // When
-        service.enrichCountry(country);
+        boolean enriched = service.enrichCountry(CountryStatus.of(country));
 
         // Then
-        verify(mockCountryService).save(country);
+        assertThat(enriched).isFalse();
     }
 
     @Test
@@ -76,12 +99,12 @@ class CountryEnrichmentServiceTest {
         Country country = new Country("Germany", "DE");
         country.setId(UUID.randomUUID());
         
-        EnrichmentData data = new EnrichmentData("83000000", "EUR", "German");
+        EnrichmentData data = new EnrichmentData(83000000L, "EUR", "deu");
         when(mockClient.fetchCountryData("DE")).thenReturn(data);
-        when(mockCountryService.save(any(Country.class))).thenReturn(country);
+        when(mockCountryService.transition(any(CountryTransition.class))).thenReturn(Optional.of(country));
 
         // When
-        service.enrichCountry(country);
+        service.enrichCountry(CountryStatus.of(country));
 
         // Then
         verify(mockClient).fetchCountryData("DE");
@@ -93,18 +116,16 @@ class CountryEnrichmentServiceTest {
         Country country = new Country("Spain", "ES");
         country.setId(UUID.randomUUID());
         
-        EnrichmentData data = new EnrichmentData("47000000", "EUR", "Spanish");
+        EnrichmentData data = new EnrichmentData(47000000L, "EUR", "spa");
         when(mockClient.fetchCountryData("ES")).thenReturn(data);
-        when(mockCountryService.save(any(Country.class))).thenReturn(country);
+        when(mockCountryService.transition(any(CountryTransition.class))).thenReturn(Optional.of(country));
 
         // When
-        service.enrichCountry(country);
+        service.enrichCountry(CountryStatus.of(country));
 
         // Then
-        assertThat(country.getPopulation()).isEqualTo("47000000");
-        assertThat(country.getCurrency()).isEqualTo("EUR");
-        assertThat(country.getLanguage()).isEqualTo("Spanish");
-        verify(mockCountryService).save(country);
+        verify(mockCountryService).transition(
+            CountryTransition.enriched(country.getId(), 47000000L, "EUR", "spa"));
     }
 
     @Test
@@ -117,12 +138,12 @@ class CountryEnrichmentServiceTest {
             .thenThrow(new EnrichmentException("API call failed"));
 
         // When/Then
-        assertThatThrownBy(() -> service.enrichCountry(country))
+        assertThatThrownBy(() -> service.enrichCountry(CountryStatus.of(country)))
             .isInstanceOf(EnrichmentException.class)
             .hasMessageContaining("API call failed");
         
         // Verify country was not saved
-        verify(mockCountryService, never()).save(any(Country.class));
+        verify(mockCountryService, never()).transition(any(CountryTransition.class));
     }
 
     @Test
@@ -135,7 +156,7 @@ class CountryEnrichmentServiceTest {
         when(mockClient.fetchCountryData("PT")).thenThrow(expectedException);
 
         // When/Then
-        assertThatThrownBy(() -> service.enrichCountry(country))
+        assertThatThrownBy(() -> service.enrichCountry(CountryStatus.of(country)))
             .isSameAs(expectedException);
     }
 
@@ -145,17 +166,16 @@ class CountryEnrichmentServiceTest {
         Country country = new Country("Belgium", "BE");
         country.setId(UUID.randomUUID());
         
-        EnrichmentData data = new EnrichmentData("11500000", "EUR", "Dutch");
+        EnrichmentData data = new EnrichmentData(11500000L, "EUR", "nld");
         when(mockClient.fetchCountryData("BE")).thenReturn(data);
-        when(mockCountryService.save(any(Country.class))).thenReturn(country);
+        when(mockCountryService.transition(any(CountryTransition.class))).thenReturn(Optional.of(country));
 
         // When
-        service.enrichCountry(country);
+        service.enrichCountry(CountryStatus.of(country));
 
         // Then
-        assertThat(country.getPopulation()).isEqualTo("11500000");
-        assertThat(country.getCurrency()).isEqualTo("EUR");
-        assertThat(country.getLanguage()).isEqualTo("Dutch");
+        verify(mockCountryService).transition(
+            CountryTransition.enriched(country.getId(), 11500000L, "EUR", "nld"));
     }
 
     @Test
@@ -164,14 +184,33 @@ class CountryEnrichmentServiceTest {
         Country country = new Country("China", "CN");
         country.setId(UUID.randomUUID());
         
-        EnrichmentData data = new EnrichmentData("1400000000", "CNY", "Chinese");
+        EnrichmentData data = new EnrichmentData(1400000000L, "CNY", "zho");
         when(mockClient.fetchCountryData("CN")).thenReturn(data);
-        when(mockCountryService.save(any(Country.class))).thenReturn(country);
+        when(mockCountryService.transition(any(CountryTransition.class))).thenReturn(Optional.of(country));
+
+        // When
+        service.enrichCountry(CountryStatus.of(country));
+
+        // Then
+        verify(mockCountryService).transition(
+            CountryTransition.enriched(country.getId(), 1400000000L, "CNY", "zho"));
+    }
+
+    @Test
+    void enrichesCountryFromStatusView() throws Exception {
+        // Given
+        UUID countryId = UUID.randomUUID();
+        CountryStatus status = new CountryStatus(countryId, "SE", true, CountryStage.VALIDATED);
+
+        EnrichmentData data = new EnrichmentData(10500000L, "SEK", "swe");
+        when(mockClient.fetchCountryData("SE")).thenReturn(data);
+        when(mockCountryService.transition(any(CountryTransition.class))).thenReturn(Optional.of(new Country()));
 
         // When
-        service.enrichCountry(country);
+        boolean enriched = service.enrichCountry(status);
 
         // Then
-        assertThat(country.getPopulation()).isEqualTo("1400000000");
+        assertThat(enriched).isTrue();
+        verify(mockCountryService).transition(CountryTransition.enriched(countryId, 10500000L, "SEK", "swe"));
     }
 }
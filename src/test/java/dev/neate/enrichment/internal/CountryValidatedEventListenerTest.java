@@ -2,6 +2,8 @@ package dev.neate.enrichment.internal;
 
 import dev.neate.domain.Country;
 import dev.neate.domain.CountryService;
+import dev.neate.domain.CountryStage;
+import dev.neate.domain.CountryStatus;
 import dev.neate.enrichment.CountryEnrichedEvent;
 import dev.neate.validation.CountryValidatedEvent;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,10 +22,13 @@ import static org.mockito.Mockito.*;
  * 
  * Verifies that:
  * - Listener responds to CountryValidatedEvent
+ * - Only the status view (code, validCountry, stage) is fetched from the domain service
  * - Only valid countries are enriched
  * - Enrichment service is called for valid countries
  * - CountryEnrichedEvent is published after successful enrichment
  * - Invalid countries are skipped
+ * - Already enriched countries are skipped without calling the API
+ * - No event is published when another delivery enriched the country first
  * - Missing countries are handled gracefully
  * - Exceptions are propagated for retry
  */
@@ -35,11 +40,14 @@ class CountryValidatedEventListenerTest {
     private CountryValidatedEventListener listener;
 
     @BeforeEach
-    void setUp() {
+    void setUp() throws Exception {
         mockCountryService = mock(CountryService.class);
         mockEnrichmentService = mock(CountryEnrichmentService.class);
         mockEventPublisher = mock(ApplicationEventPublisher.class);
         
+        // Enrichment transitions are applied unless a test says otherwise
+        when(mockEnrichmentService.enrichCountry(any(CountryStatus.class))).thenReturn(true);
+        
         listener = new CountryValidatedEventListener(
             mockCountryService,
             mockEnrichmentService,
@@ -56,13 +64,13 @@ class CountryValidatedEventListenerTest {
         country.setValidCountry(true);
         
         CountryValidatedEvent event = new CountryValidatedEvent(countryId);
-        when(mockCountryService.findById(countryId)).thenReturn(Optional.of(country));
+        when(mockCountryService.findStatusById(countryId)).thenReturn(Optional.of(CountryStatus.of(country)));
 
         // When
         listener.handleCountryValidated(event);
 
         // Then
-        verify(mockEnrichmentService).enrichCountry(country);
+        verify(mockEnrichmentService).enrichCountry(CountryStatus.of(country));
     }
 
     @Test
@@ -74,7 +82,7 @@ class CountryValidatedEventListenerTest {
         country.setValidCountry(true);
         
         CountryValidatedEvent event = new CountryValidatedEvent(countryId);
-        when(mockCountryService.findById(countryId)).thenReturn(Optional.of(country));
+        when(mockCountryService.findStatusById(countryId)).thenReturn(Optional.of(CountryStatus.of(country)));
 
         // When
         listener.handleCountryValidated(event);
@@ -92,7 +100,7 @@ class CountryValidatedEventListenerTest {
         country.setValidCountry(true);
         
         CountryValidatedEvent event = new CountryValidatedEvent(countryId);
-        when(mockCountryService.findById(countryId)).thenReturn(Optional.of(country));
+        when(mockCountryService.findStatusById(countryId)).thenReturn(Optional.of(CountryStatus.of(country)));
 
         // When
         listener.handleCountryValidated(event);
@@ -113,13 +121,13 @@ class CountryValidatedEventListenerTest {
         country.setValidCountry(false);
         
         CountryValidatedEvent event = new CountryValidatedEvent(countryId);
-        when(mockCountryService.findById(countryId)).thenReturn(Optional.of(country));
+        when(mockCountryService.findStatusById(countryId)).thenReturn(Optional.of(CountryStatus.of(country)));
 
         // When
         listener.handleCountryValidated(event);
 
         // Then
-        verify(mockEnrichmentService, never()).enrichCountry(any(Country.class));
+        verify(mockEnrichmentService, never()).enrichCountry(any(CountryStatus.class));
         verify(mockEventPublisher, never()).publishEvent(any());
     }
 
@@ -128,13 +136,13 @@ class CountryValidatedEventListenerTest {
         // Given
         UUID countryId = UUID.randomUUID();
         CountryValidatedEvent event = new CountryValidatedEvent(countryId);
-        when(mockCountryService.findById(countryId)).thenReturn(Optional.empty());
+        when(mockCountryService.findStatusById(countryId)).thenReturn(Optional.empty());
 
         // When
         listener.handleCountryValidated(event);
 
         // Then
-        verify(mockEnrichmentService, never()).enrichCountry(any(Country.class));
+        verify(mockEnrichmentService, never()).enrichCountry(any(CountryStatus.class));
         verify(mockEventPublisher, never()).publishEvent(any());
     }
 
@@ -147,10 +155,10 @@ class CountryValidatedEventListenerTest {
         country.setValidCountry(true);
         
         CountryValidatedEvent event = new CountryValidatedEvent(countryId);
-        when(mockCountryService.findById(countryId)).thenReturn(Optional.of(country));
+        when(mockCountryService.findStatusById(countryId)).thenReturn(Optional.of(CountryStatus.of(country)));
         
         EnrichmentException expectedException = new EnrichmentException("API failure");
-        doThrow(expectedException).when(mockEnrichmentService).enrichCountry(country);
+        doThrow(expectedException).when(mockEnrichmentService).enrichCountry(CountryStatus.of(country));
 
         // When/Then
         assertThatThrownBy(() -> listener.handleCountryValidated(event))
@@ -169,9 +177,9 @@ class CountryValidatedEventListenerTest {
         country.setValidCountry(true);
         
         CountryValidatedEvent event = new CountryValidatedEvent(countryId);
-        when(mockCountryService.findById(countryId)).thenReturn(Optional.of(country));
+        when(mockCountryService.findStatusById(countryId)).thenReturn(Optional.of(CountryStatus.of(country)));
         doThrow(new EnrichmentException("Network error"))
-            .when(mockEnrichmentService).enrichCountry(country);
+            .when(mockEnrichmentService).enrichCountry(CountryStatus.of(country));
 
         // When/Then
         assertThatThrownBy(() -> listener.handleCountryValidated(event))
@@ -196,16 +204,57 @@ class CountryValidatedEventListenerTest {
         CountryValidatedEvent event1 = new CountryValidatedEvent(countryId1);
         CountryValidatedEvent event2 = new CountryValidatedEvent(countryId2);
         
-        when(mockCountryService.findById(countryId1)).thenReturn(Optional.of(country1));
-        when(mockCountryService.findById(countryId2)).thenReturn(Optional.of(country2));
+        when(mockCountryService.findStatusById(countryId1)).thenReturn(Optional.of(CountryStatus.of(country1)));
+        when(mockCountryService.findStatusById(countryId2)).thenReturn(Optional.of(CountryStatus.of(country2)));
 
         // When
         listener.handleCountryValidated(event1);
         listener.handleCountryValidated(event2);
 
         // Then
-        verify(mockEnrichmentService).enrichCountry(country1);
-        verify(mockEnrichmentService).enrichCountry(country2);
+        verify(mockEnrichmentService).enrichCountry(CountryStatus.of(country1));
+        verify(mockEnrichmentService).enrichCountry(CountryStatus.of(country2));
         verify(mockEventPublisher, times(2)).publishEvent(any(CountryEnrichedEvent.class));
     }
+
+    @Test
+    void skipsCountryThatIsAlreadyEnriched() throws Exception {
+        // Given
+        UUID countryId = UUID.randomUUID();
+        Country country = new Country("Austria", "AT");
+        country.setId(countryId);
+        country.setValidCountry(true);
+        country.setStage(CountryStage.ENRICHED);
+
+        CountryValidatedEvent event = new CountryValidatedEvent(countryId);
+        when(mockCountryService.findStatusById(countryId)).thenReturn(Optional.of(CountryStatus.of(country)));
+
+        // When
+        listener.handleCountryValidated(event);
+
+        // Then
+        verify(mockEnrichmentService, never()).enrichCountry(any(CountryStatus.class));
+        verify(mockEventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void doesNotPublishEventWhenTransitionNotApplied() throws Exception {
+        // Given
+        UUID countryId = UUID.randomUUID();
+        Country country = new Country("Denmark", "DK");
+        country.setId(countryId);
+        country.setValidCountry(true);
+        country.setStage(CountryStage.VALIDATED);
+
+        CountryValidatedEvent event = new CountryValidatedEvent(countryId);
+        when(mockCountryService.findStatusById(countryId)).thenReturn(Optional.of(CountryStatus.of(country)));
+        when(mockEnrichmentService.enrichCountry(CountryStatus.of(country))).thenReturn(false);
+
+        // When
+        listener.handleCountryValidated(event);
+
+        // Then - a concurrent delivery already enriched and published
+        verify(mockEnrichmentService).enrichCountry(CountryStatus.of(country));
+        verify(mockEventPublisher, never()).publishEvent(any());
+    }
 }
@@ -22,7 +22,7 @@ import static org.mockito.Mockito.when;
  * - Client can fetch and parse country data
  * - Population is correctly extracted
  * - First currency code is extracted
- * - First language name is extracted
+ * - First language code (ISO 639-3) is extracted
  * - Errors are properly handled
  */
 class RestCountriesClientTest {
@@ -65,13 +65,13 @@ class RestCountriesClientTest {
 
         // Then
         assertThat(data).isNotNull();
-        assertThat(data.population()).isEqualTo("67000000");
+        assertThat(data.population()).isEqualTo(67000000L);
         assertThat(data.currency()).isEqualTo("GBP");
-        assertThat(data.language()).isEqualTo("English");
+        assertThat(data.language()).isEqualTo("eng");
     }
 
     @Test
-    void convertsPopulationNumberToString() throws Exception {
+    void keepsPopulationAsNumber() throws Exception {
         // Given
         RestCountriesResponse countryResponse = new RestCountriesResponse(
             83000000,
@@ -86,8 +86,8 @@ class RestCountriesClientTest {
         EnrichmentData data = client.fetchCountryData("DE");
 
         // Then
-        assertThat(data.population()).isEqualTo("83000000");
-        assertThat(data.population()).isInstanceOf(String.class);
+        assertThat(data.population()).isEqualTo(83000000L);
+        assertThat(data.language()).isEqualTo("deu");
     }
 
     @Test
@@ -47,9 +47,9 @@ class CountryEnrichedEventListenerTest {
         UUID countryId = UUID.randomUUID();
         Country country = new Country("United Kingdom", "GB");
         country.setId(countryId);
-        country.setPopulation("67000000");
+        country.setPopulation(67000000L);
         country.setCurrency("GBP");
-        country.setLanguage("English");
+        country.setLanguage("eng");
         country.setValidCountry(true);
         
         CountryEnrichedEvent event = new CountryEnrichedEvent(countryId);
@@ -117,9 +117,9 @@ class CountryEnrichedEventListenerTest {
         UUID countryId = UUID.randomUUID();
         Country country = new Country("Spain", "ES");
         country.setId(countryId);
-        country.setPopulation("47000000");
+        country.setPopulation(47000000L);
         country.setCurrency("EUR");
-        country.setLanguage("Spanish");
+        country.setLanguage("spa");
         country.setValidCountry(true);
         
         CountryEnrichedEvent event = new CountryEnrichedEvent(countryId);
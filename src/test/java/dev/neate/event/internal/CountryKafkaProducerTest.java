@@ -44,9 +44,9 @@ class CountryKafkaProducerTest {
         UUID countryId = UUID.randomUUID();
         Country country = new Country("United Kingdom", "GB");
         country.setId(countryId);
-        country.setPopulation("67000000");
+        country.setPopulation(67000000L);
         country.setCurrency("GBP");
-        country.setLanguage("English");
+        country.setLanguage("eng");
         country.setValidCountry(true);
 
         ProducerRecord<String, Object> producerRecord = 
@@ -140,9 +140,9 @@ class CountryKafkaProducerTest {
         UUID countryId = UUID.randomUUID();
         Country country = new Country("Italy", "IT");
         country.setId(countryId);
-        country.setPopulation("60000000");
+        country.setPopulation(60000000L);
         country.setCurrency("EUR");
-        country.setLanguage("Italian");
+        country.setLanguage("ita");
         country.setValidCountry(true);
 
         ProducerRecord<String, Object> producerRecord = 
@@ -2,7 +2,10 @@ package dev.neate.validation.internal;
 
 import dev.neate.api.CountryCreatedEvent;
 import dev.neate.domain.Country;
+import dev.neate.domain.CountryIdentity;
 import dev.neate.domain.CountryService;
+import dev.neate.domain.CountryStage;
+import dev.neate.domain.CountryTransition;
 import dev.neate.validation.CountryValidatedEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,6 +13,7 @@ import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -21,10 +25,11 @@ import static org.mockito.Mockito.*;
  * 
  * Verifies that:
  * - Listener responds to CountryCreatedEvent
- * - Country is fetched from domain service
+ * - Only the identity view (name, code, stage) is fetched from the domain service
  * - Country is validated using validation service
- * - Valid countries are saved and published as validated events
- * - Invalid countries are not saved and no events are published
+ * - Valid countries are transitioned to VALIDATED and published as validated events
+ * - Invalid countries are transitioned to REJECTED and no events are published
+ * - Redelivered events for already validated countries are no-ops
  * - Missing countries are handled gracefully
  * - Exceptions are propagated for retry
  */
@@ -57,20 +62,19 @@ class CountryCreatedEventListenerTest {
         country.setValidCountry(false); // Initially false
         
         CountryCreatedEvent event = new CountryCreatedEvent(countryId);
-        when(mockCountryService.findById(countryId)).thenReturn(Optional.of(country));
-        when(mockValidationService.validate(country)).thenReturn(true);
-        when(mockCountryService.save(any(Country.class))).thenReturn(country);
+        when(mockCountryService.findIdentityById(countryId)).thenReturn(Optional.of(CountryIdentity.of(country)));
+        when(mockValidationService.validate(CountryIdentity.of(country))).thenReturn(true);
+        when(mockCountryService.transition(any(CountryTransition.class))).thenReturn(Optional.of(country));
 
         // When
         listener.handleCountryCreated(event);
 
         // Then
-        verify(mockCountryService).findById(countryId);
-        verify(mockValidationService).validate(country);
+        verify(mockCountryService).findIdentityById(countryId);
+        verify(mockValidationService).validate(CountryIdentity.of(country));
         
-        // Verify country was marked as valid before saving
-        assertThat(country.getValidCountry()).isTrue();
-        verify(mockCountryService).save(country);
+        // Verify country was transitioned to VALIDATED
+        verify(mockCountryService).transition(CountryTransition.validated(countryId));
         
         // Verify event was published
         verify(mockEventPublisher).publishEvent(any(CountryValidatedEvent.class));
@@ -84,9 +88,9 @@ class CountryCreatedEventListenerTest {
         country.setId(countryId);
         
         CountryCreatedEvent event = new CountryCreatedEvent(countryId);
-        when(mockCountryService.findById(countryId)).thenReturn(Optional.of(country));
-        when(mockValidationService.validate(country)).thenReturn(true);
-        when(mockCountryService.save(any(Country.class))).thenReturn(country);
+        when(mockCountryService.findIdentityById(countryId)).thenReturn(Optional.of(CountryIdentity.of(country)));
+        when(mockValidationService.validate(CountryIdentity.of(country))).thenReturn(true);
+        when(mockCountryService.transition(any(CountryTransition.class))).thenReturn(Optional.of(country));
 
         // When
         listener.handleCountryCreated(event);
@@ -99,7 +103,7 @@ class CountryCreatedEventListenerTest {
     }
 
     @Test
-    void doesNotSaveInvalidCountry() {
+    void rejectsInvalidCountry() {
         // Given
         UUID countryId = UUID.randomUUID();
         Country country = new Country("Invalid Country", "XX");
@@ -107,18 +111,21 @@ class CountryCreatedEventListenerTest {
         country.setValidCountry(false);
         
         CountryCreatedEvent event = new CountryCreatedEvent(countryId);
-        when(mockCountryService.findById(countryId)).thenReturn(Optional.of(country));
-        when(mockValidationService.validate(country)).thenReturn(false);
+        when(mockCountryService.findIdentityById(countryId)).thenReturn(Optional.of(CountryIdentity.of(country)));
+        when(mockValidationService.validate(CountryIdentity.of(country))).thenReturn(false);
+        when(mockCountryService.transitionAsync(CountryTransition.rejected(countryId)))
+            .thenReturn(CompletableFuture.completedFuture(true));
 
         // When
         listener.handleCountryCreated(event);
 
         // Then
-        verify(mockCountryService).findById(countryId);
-        verify(mockValidationService).validate(country);
+        verify(mockCountryService).findIdentityById(countryId);
+        verify(mockValidationService).validate(CountryIdentity.of(country));
         
-        // Verify country was NOT saved
-        verify(mockCountryService, never()).save(any(Country.class));
+        // Verify country was only transitioned to REJECTED, batched with concurrent listeners
+        verify(mockCountryService).transitionAsync(CountryTransition.rejected(countryId));
+        verify(mockCountryService, never()).transition(CountryTransition.validated(countryId));
         
         // Verify event was NOT published
         verify(mockEventPublisher, never()).publishEvent(any());
@@ -132,19 +139,19 @@ class CountryCreatedEventListenerTest {
         // Given
         UUID countryId = UUID.randomUUID();
         CountryCreatedEvent event = new CountryCreatedEvent(countryId);
-        when(mockCountryService.findById(countryId)).thenReturn(Optional.empty());
+        when(mockCountryService.findIdentityById(countryId)).thenReturn(Optional.empty());
 
         // When
         listener.handleCountryCreated(event);
 
         // Then
-        verify(mockCountryService).findById(countryId);
+        verify(mockCountryService).findIdentityById(countryId);
         
         // Verify validation was not called
-        verify(mockValidationService, never()).validate(any());
+        verify(mockValidationService, never()).validate(any(CountryIdentity.class));
         
         // Verify country was not saved
-        verify(mockCountryService, never()).save(any(Country.class));
+        verify(mockCountryService, never()).transition(any(CountryTransition.class));
         
         // Verify event was not published
         verify(mockEventPublisher, never()).publishEvent(any());
@@ -158,17 +165,17 @@ class CountryCreatedEventListenerTest {
         country.setId(countryId);
         
         CountryCreatedEvent event = new CountryCreatedEvent(countryId);
-        when(mockCountryService.findById(countryId)).thenReturn(Optional.of(country));
+        when(mockCountryService.findIdentityById(countryId)).thenReturn(Optional.of(CountryIdentity.of(country)));
         
         RuntimeException expectedException = new RuntimeException("Validation service error");
-        doThrow(expectedException).when(mockValidationService).validate(country);
+        doThrow(expectedException).when(mockValidationService).validate(CountryIdentity.of(country));
 
         // When/Then
         assertThatThrownBy(() -> listener.handleCountryCreated(event))
             .isSameAs(expectedException);
         
         // Verify save was not called due to exception
-        verify(mockCountryService, never()).save(any(Country.class));
+        verify(mockCountryService, never()).transition(any(CountryTransition.class));
         
         // Verify event was not published due to exception
         verify(mockEventPublisher, never()).publishEvent(any());
@@ -181,17 +188,17 @@ class CountryCreatedEventListenerTest {
         CountryCreatedEvent event = new CountryCreatedEvent(countryId);
         
         RuntimeException expectedException = new RuntimeException("Country service error");
-        doThrow(expectedException).when(mockCountryService).findById(countryId);
+        doThrow(expectedException).when(mockCountryService).findIdentityById(countryId);
 
         // When/Then
         assertThatThrownBy(() -> listener.handleCountryCreated(event))
             .isSameAs(expectedException);
         
         // Verify validation was not called due to exception
-        verify(mockValidationService, never()).validate(any());
+        verify(mockValidationService, never()).validate(any(CountryIdentity.class));
         
         // Verify save was not called due to exception
-        verify(mockCountryService, never()).save(any(Country.class));
+        verify(mockCountryService, never()).transition(any(CountryTransition.class));
         
         // Verify event was not published due to exception
         verify(mockEventPublisher, never()).publishEvent(any());
@@ -205,11 +212,11 @@ class CountryCreatedEventListenerTest {
         country.setId(countryId);
         
         CountryCreatedEvent event = new CountryCreatedEvent(countryId);
-        when(mockCountryService.findById(countryId)).thenReturn(Optional.of(country));
-        when(mockValidationService.validate(country)).thenReturn(true);
+        when(mockCountryService.findIdentityById(countryId)).thenReturn(Optional.of(CountryIdentity.of(country)));
+        when(mockValidationService.validate(CountryIdentity.of(country))).thenReturn(true);
         
         RuntimeException expectedException = new RuntimeException("Save operation failed");
-        doThrow(expectedException).when(mockCountryService).save(country);
+        doThrow(expectedException).when(mockCountryService).transition(CountryTransition.validated(countryId));
 
         // When/Then
         assertThatThrownBy(() -> listener.handleCountryCreated(event))
@@ -233,27 +240,68 @@ class CountryCreatedEventListenerTest {
         CountryCreatedEvent event1 = new CountryCreatedEvent(countryId1);
         CountryCreatedEvent event2 = new CountryCreatedEvent(countryId2);
         
-        when(mockCountryService.findById(countryId1)).thenReturn(Optional.of(country1));
-        when(mockCountryService.findById(countryId2)).thenReturn(Optional.of(country2));
-        when(mockValidationService.validate(country1)).thenReturn(true);
-        when(mockValidationService.validate(country2)).thenReturn(true);
-        when(mockCountryService.save(any(Country.class))).thenReturn(country1, country2);
+        when(mockCountryService.findIdentityById(countryId1)).thenReturn(Optional.of(CountryIdentity.of(country1)));
+        when(mockCountryService.findIdentityById(countryId2)).thenReturn(Optional.of(CountryIdentity.of(country2)));
+        when(mockValidationService.validate(CountryIdentity.of(country1))).thenReturn(true);
+        when(mockValidationService.validate(CountryIdentity.of(country2))).thenReturn(true);
+        when(mockCountryService.transition(any(CountryTransition.class))).thenReturn(Optional.of(country1), Optional.of(country2));
 
         // When
         listener.handleCountryCreated(event1);
         listener.handleCountryCreated(event2);
 
         // Then
-        verify(mockCountryService).findById(countryId1);
-        verify(mockCountryService).findById(countryId2);
-        verify(mockValidationService).validate(country1);
-        verify(mockValidationService).validate(country2);
-        verify(mockCountryService, times(2)).save(any(Country.class));
+        verify(mockCountryService).findIdentityById(countryId1);
+        verify(mockCountryService).findIdentityById(countryId2);
+        verify(mockValidationService).validate(CountryIdentity.of(country1));
+        verify(mockValidationService).validate(CountryIdentity.of(country2));
+        verify(mockCountryService, times(2)).transition(any(CountryTransition.class));
         verify(mockEventPublisher, times(2)).publishEvent(any(CountryValidatedEvent.class));
         
-        // Verify both countries were marked as valid
-        assertThat(country1.getValidCountry()).isTrue();
-        assertThat(country2.getValidCountry()).isTrue();
+        // Verify both countries were transitioned to VALIDATED
+        verify(mockCountryService).transition(CountryTransition.validated(countryId1));
+        verify(mockCountryService).transition(CountryTransition.validated(countryId2));
+    }
+
+    @Test
+    void skipsCountryThatIsAlreadyValidated() {
+        // Given
+        UUID countryId = UUID.randomUUID();
+        Country country = new Country("Spain", "ES");
+        country.setId(countryId);
+        country.setValidCountry(true);
+        country.setStage(CountryStage.VALIDATED);
+
+        CountryCreatedEvent event = new CountryCreatedEvent(countryId);
+        when(mockCountryService.findIdentityById(countryId)).thenReturn(Optional.of(CountryIdentity.of(country)));
+
+        // When
+        listener.handleCountryCreated(event);
+
+        // Then
+        verify(mockValidationService, never()).validate(any(CountryIdentity.class));
+        verify(mockCountryService, never()).transition(any(CountryTransition.class));
+        verify(mockEventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void doesNotPublishEventWhenTransitionNotApplied() {
+        // Given
+        UUID countryId = UUID.randomUUID();
+        Country country = new Country("Austria", "AT");
+        country.setId(countryId);
+
+        CountryCreatedEvent event = new CountryCreatedEvent(countryId);
+        when(mockCountryService.findIdentityById(countryId)).thenReturn(Optional.of(CountryIdentity.of(country)));
+        when(mockValidationService.validate(CountryIdentity.of(country))).thenReturn(true);
+        when(mockCountryService.transition(any(CountryTransition.class))).thenReturn(Optional.empty());
+
+        // When
+        listener.handleCountryCreated(event);
+
+        // Then - a concurrent delivery already validated and published
+        verify(mockCountryService).transition(CountryTransition.validated(countryId));
+        verify(mockEventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -264,14 +312,14 @@ class CountryCreatedEventListenerTest {
         country.setId(countryId);
         
         CountryCreatedEvent event = new CountryCreatedEvent(countryId);
-        when(mockCountryService.findById(countryId)).thenReturn(Optional.of(country));
-        when(mockValidationService.validate(country)).thenReturn(true);
-        when(mockCountryService.save(any(Country.class))).thenReturn(country);
+        when(mockCountryService.findIdentityById(countryId)).thenReturn(Optional.of(CountryIdentity.of(country)));
+        when(mockValidationService.validate(CountryIdentity.of(country))).thenReturn(true);
+        when(mockCountryService.transition(any(CountryTransition.class))).thenReturn(Optional.of(country));
 
         // When
         listener.handleCountryCreated(event);
 
         // Then
-        verify(mockValidationService).validate(country);
+        verify(mockValidationService).validate(CountryIdentity.of(country));
     }
 }
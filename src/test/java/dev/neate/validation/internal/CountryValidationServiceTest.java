@@ -1,9 +1,13 @@
 package dev.neate.validation.internal;
 
 import dev.neate.domain.Country;
+import dev.neate.domain.CountryIdentity;
+import dev.neate.domain.CountryStage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.UUID;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -16,6 +20,7 @@ import static org.assertj.core.api.Assertions.assertThat;
  * - Countries with whitespace-only fields fail validation
  * - Null country fails validation
  * - Currency, language, and population are not validated
+ * - Identity views are validated with the same rules
  */
 class CountryValidationServiceTest {
 
@@ -113,7 +118,7 @@ class CountryValidationServiceTest {
     @Test
     void nullCountryFailsValidation() {
         // When
-        boolean result = validationService.validate(null);
+        boolean result = validationService.validate((Country) null);
 
         // Then
         assertThat(result).isFalse();
@@ -205,4 +210,37 @@ class CountryValidationServiceTest {
         // Then
         assertThat(result).isTrue();
     }
+
+    @Test
+    void validIdentityPassesValidation() {
+        // Given
+        CountryIdentity identity = new CountryIdentity(UUID.randomUUID(), "Italy", "IT", CountryStage.CREATED);
+
+        // When
+        boolean result = validationService.validate(identity);
+
+        // Then
+        assertThat(result).isTrue();
+    }
+
+    @Test
+    void identityWithBlankCodeFailsValidation() {
+        // Given
+        CountryIdentity identity = new CountryIdentity(UUID.randomUUID(), "Italy", "  ", CountryStage.CREATED);
+
+        // When
+        boolean result = validationService.validate(identity);
+
+        // Then
+        assertThat(result).isFalse();
+    }
+
+    @Test
+    void nullIdentityFailsValidation() {
+        // When
+        boolean result = validationService.validate((CountryIdentity) null);
+
+        // Then
+        assertThat(result).isFalse();
+    }
 }
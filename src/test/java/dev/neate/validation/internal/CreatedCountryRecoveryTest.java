@@ -0,0 +1,80 @@
+package dev.neate.validation.internal;
+
+import dev.neate.api.CountryCreatedEvent;
+import dev.neate.domain.CountryQueryService;
+import dev.neate.domain.CountryStage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for CreatedCountryRecovery.
+ *
+ * Verifies that:
+ * - Countries seen CREATED for the first time are left to their in-flight event
+ * - Countries still CREATED in the next sweep are redelivered to the listener
+ * - Countries that moved on are not redelivered
+ * - Invalid batch sizes are rejected
+ */
+class CreatedCountryRecoveryTest {
+
+    private static final int BATCH_SIZE = 500;
+
+    private CountryQueryService mockQueryService;
+    private CountryCreatedEventListener mockListener;
+    private CreatedCountryRecovery recovery;
+
+    @BeforeEach
+    void setUp() {
+        mockQueryService = mock(CountryQueryService.class);
+        mockListener = mock(CountryCreatedEventListener.class);
+        recovery = new CreatedCountryRecovery(mockQueryService, mockListener, BATCH_SIZE);
+    }
+
+    @Test
+    void leavesNewlyCreatedCountriesToTheirEvent() {
+        // Given
+        when(mockQueryService.findIdsByStage(CountryStage.CREATED, BATCH_SIZE))
+            .thenReturn(List.of(UUID.randomUUID(), UUID.randomUUID()));
+
+        // When
+        int redelivered = recovery.recover();
+
+        // Then
+        assertThat(redelivered).as("Countries redelivered in the first sweep").isZero();
+        verifyNoInteractions(mockListener);
+    }
+
+    @Test
+    void redeliversCountriesStillCreatedInTheNextSweep() {
+        // Given - stuck stays CREATED, moved is validated, fresh is created in between
+        UUID stuck = UUID.randomUUID();
+        UUID moved = UUID.randomUUID();
+        UUID fresh = UUID.randomUUID();
+        when(mockQueryService.findIdsByStage(CountryStage.CREATED, BATCH_SIZE))
+            .thenReturn(List.of(stuck, moved), List.of(stuck, fresh));
+        recovery.recover();
+
+        // When
+        int redelivered = recovery.recover();
+
+        // Then
+        assertThat(redelivered).as("Countries redelivered in the second sweep").isEqualTo(1);
+        verify(mockListener).handleCountryCreated(new CountryCreatedEvent(stuck));
+        verify(mockListener, times(1)).handleCountryCreated(any());
+    }
+
+    @Test
+    void rejectsInvalidBatchSize() {
+        assertThatThrownBy(() -> new CreatedCountryRecovery(mockQueryService, mockListener, 0))
+            .as("Batch size of zero rejected")
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}